@@ -0,0 +1,147 @@
+package thedrake.benchmarks.models;
+
+import thedrake.engines.perft.Perft;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.ui.ValidMoves;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The `BenchmarkPositions` class builds the positions the model benchmarks run on.
+ * Every position is reached from the `StandardDrakeSetup` start state on a 4x4 board with one mountain
+ * by a seeded random game that never plays a winning move, so the positions are the same on every run.
+ * A game that gets stuck before reaching its phase is replayed with the next seed.
+ * The opening has just left the placement of the leaders and guards, the midgame has troops of both sides
+ * on the board and in the stacks, and the endgame has both stacks empty and only a few troops left.
+ */
+public final class BenchmarkPositions {
+    /**
+     * The seed of the random games.
+     */
+    private static final long SEED = 20240501L;
+
+    /**
+     * The number of plies played to reach the opening.
+     */
+    private static final int OPENING_PLIES = 8;
+
+    /**
+     * The number of plies played to reach the midgame.
+     */
+    private static final int MIDGAME_PLIES = 16;
+
+    /**
+     * The largest number of troops on the board in the endgame.
+     */
+    private static final int ENDGAME_TROOPS = 5;
+
+    /**
+     * The largest number of plies played when looking for the endgame.
+     */
+    private static final int MAX_PLIES = 10_000;
+
+    /**
+     * The number of seeds tried before giving up.
+     */
+    private static final int MAX_GAMES = 1000;
+
+    /**
+     * The class only holds static methods.
+     */
+    private BenchmarkPositions() {
+    }
+
+    /**
+     * Builds the position of the given phase of the game.
+     *
+     * @param phase                     "opening", "midgame" or "endgame"
+     * @return                          the position
+     * @throws IllegalArgumentException if the phase is unknown
+     */
+    public static GameState of(String phase) {
+        if (phase.equals("opening"))
+            return find(OPENING_PLIES, Integer.MAX_VALUE);
+
+        if (phase.equals("midgame"))
+            return find(MIDGAME_PLIES, Integer.MAX_VALUE);
+
+        if (phase.equals("endgame"))
+            return find(MAX_PLIES, ENDGAME_TROOPS);
+
+        throw new IllegalArgumentException("Unknown phase " + phase + ".");
+    }
+
+    /**
+     * Plays seeded random games until one of them reaches the position described by the parameters of `play`.
+     *
+     * @param plies                  the number of plies to play
+     * @param troops                 the number of troops on the board ending the game early
+     * @return                       the reached position
+     * @throws IllegalStateException if no game reaches the position
+     */
+    private static GameState find(int plies, int troops) {
+        for (int game = 0; game < MAX_GAMES; game++) {
+            GameState state = play(new Random(SEED + game), plies, troops);
+            if (state != null)
+                return state;
+        }
+
+        throw new IllegalStateException("No benchmark game reached the position.");
+    }
+
+    /**
+     * Plays a random game from the start state until the given number of plies is played or,
+     * once both stacks are empty, at most the given number of troops is left on the board.
+     *
+     * @param random the source of the moves
+     * @param plies  the number of plies to play
+     * @param troops the number of troops on the board ending the game early
+     * @return       the reached position, or null if the game got stuck before reaching it
+     */
+    private static GameState play(Random random, int plies, int troops) {
+        GameState state = Perft.startState(4, List.of("b2"));
+
+        for (int ply = 0; ply < plies; ply++) {
+            if (troopsOnBoard(state) <= troops && stacksEmpty(state))
+                return state;
+
+            List<Move> moves = new ArrayList<>();
+            for (Move move : new ValidMoves(state).allMoves())
+                if (move.execute(state).result() == GameResult.IN_PLAY)
+                    moves.add(move);
+
+            if (moves.isEmpty())
+                return null;
+
+            state = moves.get(random.nextInt(moves.size())).execute(state);
+        }
+
+        return troops == Integer.MAX_VALUE ? state : null;
+    }
+
+    /**
+     * Counts the troops of both sides on the board.
+     *
+     * @param state the game state
+     * @return      the number of troops on the board
+     */
+    private static int troopsOnBoard(GameState state) {
+        return state.army(PlayingSide.BLUE).boardTroops().troopPositions().size() +
+                state.army(PlayingSide.ORANGE).boardTroops().troopPositions().size();
+    }
+
+    /**
+     * Checks whether both stacks are empty.
+     *
+     * @param state the game state
+     * @return      true if no troop can be placed anymore, false otherwise
+     */
+    private static boolean stacksEmpty(GameState state) {
+        return state.army(PlayingSide.BLUE).stack().isEmpty() && state.army(PlayingSide.ORANGE).stack().isEmpty();
+    }
+}
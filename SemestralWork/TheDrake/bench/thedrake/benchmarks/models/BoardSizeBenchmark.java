@@ -0,0 +1,140 @@
+package thedrake.benchmarks.models;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import thedrake.engines.perft.Perft;
+import thedrake.models.bitboards.interfaces.SearchBoard;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.ui.ValidMoves;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The `BoardSizeBenchmark` class measures how move generation scales with the dimension of the board,
+ * comparing `ValidMoves` on the object model with `SearchBoard.generateMoves` on the bitboard, which keeps
+ * its masks in one `long` up to 8x8 and in several words above.
+ * The measured position is reached by a seeded random game from the standard setup, so every run of one
+ * dimension measures the same position.
+ *
+ * Usage: {@code java thedrake.benchmarks.models.BoardSizeBenchmark [JMH options]}
+ * The results are written as JSON to `bench-results/board-size-<timestamp>.json` unless `-rff` names another file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BoardSizeBenchmark {
+    /**
+     * The number of random plies played from the start before the position is measured.
+     */
+    private static final int PLIES = 24;
+
+    /**
+     * The dimension of the board.
+     */
+    @Param({ "4", "6", "8", "10", "12", "16" })
+    public int dimension;
+
+    /**
+     * The move generator: `objects` for `ValidMoves`, `bitboard` for `SearchBoard`.
+     */
+    @Param({ "objects", "bitboard" })
+    public String generator;
+
+    /**
+     * The measured position.
+     */
+    private GameState state;
+
+    /**
+     * The measured position as a search board.
+     */
+    private SearchBoard board;
+
+    /**
+     * The buffer of the generated move codes.
+     */
+    private int[] moves;
+
+    /**
+     * Plays the random game leading to the measured position.
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(this.dimension);
+        this.state = Perft.startState(this.dimension, List.of("b2"));
+
+        for (int ply = 0; ply < PLIES && this.state.result() == GameResult.IN_PLAY; ply++) {
+            List<Move> valid = new ValidMoves(this.state).allMoves();
+            if (valid.isEmpty())
+                break;
+
+            this.state = valid.get(random.nextInt(valid.size())).execute(this.state);
+        }
+
+        this.board = SearchBoard.of(this.state);
+        this.moves = new int[this.board.maxMoves()];
+    }
+
+    /**
+     * Generates all moves of the position with the selected generator.
+     *
+     * @return the number of moves
+     */
+    @Benchmark
+    public int generateMoves() {
+        if (this.generator.equals("objects"))
+            return new ValidMoves(this.state).allMoves().size();
+
+        return this.board.generateMoves(this.moves);
+    }
+
+    /**
+     * Runs the benchmark and saves the results as JSON.
+     *
+     * @param args                       the JMH command line options
+     * @throws CommandLineOptionException if the options are invalid
+     * @throws RunnerException            if a benchmark fails
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .parent(options)
+                .include(BoardSizeBenchmark.class.getName());
+
+        if (!options.getResult().hasValue()) {
+            String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+            File results = new File("bench-results", "board-size-" + timestamp + ".json");
+
+            results.getParentFile().mkdirs();
+            builder.resultFormat(ResultFormatType.JSON).result(results.getPath());
+        }
+
+        new Runner(builder.build()).run();
+    }
+}
@@ -0,0 +1,79 @@
+package thedrake.benchmarks.models;
+
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.json.JSONReader;
+import thedrake.models.setups.StandardDrakeSetup;
+import thedrake.models.states.GameState;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The `JSONParseReport` class measures the throughput of `GameState.fromJSON`. It serializes
+ * the `BenchmarkPositions`, parses their JSON over and over for the given number of seconds after a warm-up
+ * of the same length, and prints the states parsed per second and the megabytes of JSON parsed per second.
+ *
+ * Usage: {@code java thedrake.benchmarks.models.JSONParseReport [seconds]}
+ */
+public class JSONParseReport {
+    /**
+     * The number of seconds measured when no argument is given.
+     */
+    private static final int DEFAULT_SECONDS = 5;
+
+    /**
+     * Runs the report and prints one line per position.
+     *
+     * @param args optionally the number of seconds measured per position
+     */
+    public static void main(String[] args) {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SECONDS;
+        StandardDrakeSetup setup = new StandardDrakeSetup();
+
+        for (String phase : new String[] { "opening", "midgame", "endgame" }) {
+            GameState state = BenchmarkPositions.of(phase);
+            StringWriter out = new StringWriter();
+            state.toJSON(new PrintWriter(out));
+            String json = out.toString();
+            int bytes = json.getBytes(StandardCharsets.UTF_8).length;
+
+            parse(json, setup, state.sideOnTurn(), seconds);
+            long[] measured = parse(json, setup, state.sideOnTurn(), seconds);
+            double perSecond = measured[0] * 1e9 / measured[1];
+
+            System.out.printf("%-8s %5d bytes  %,12.0f states/s  %8.1f MB/s%n",
+                    phase, bytes, perSecond, perSecond * bytes / 1e6);
+        }
+    }
+
+    /**
+     * Parses the JSON repeatedly for the given time.
+     *
+     * @param json       the JSON of the state
+     * @param setup      the setup resolving the names of the troops
+     * @param sideOnTurn the side on turn of the state
+     * @param seconds    the number of seconds to parse for
+     * @return           the number of parsed states and the elapsed nanoseconds
+     */
+    private static long[] parse(String json, StandardDrakeSetup setup, PlayingSide sideOnTurn, int seconds) {
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        long count = 0;
+        long now;
+        int sink = 0;
+
+        do {
+            for (int i = 0; i < 1000; i++)
+                sink += GameState.fromJSON(new JSONReader(json), setup, sideOnTurn).board().dimension();
+
+            count += 1000;
+            now = System.nanoTime();
+        } while (now < end);
+
+        if (sink == 0)
+            System.out.print("");
+
+        return new long[] { count, now - start };
+    }
+}
@@ -0,0 +1,248 @@
+package thedrake.benchmarks.models;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import thedrake.models.json.JSONReader;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.setups.StandardDrakeSetup;
+import thedrake.models.states.GameState;
+import thedrake.models.tiles.troops.TroopTile;
+import thedrake.ui.ValidMoves;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The `ModelBenchmarks` class measures the hot paths of the model layer with JMH: reading tiles,
+ * checking placements, generating the moves of a troop and of a whole position, executing moves,
+ * serializing the state to JSON and parsing it back. Every benchmark runs on the opening, midgame and endgame
+ * positions of `BenchmarkPositions` and covers all squares, troops or moves of the position in one invocation.
+ *
+ * Usage: {@code java thedrake.benchmarks.models.ModelBenchmarks [JMH options]}
+ * The results are written as JSON to `bench-results/models-<timestamp>.json` unless `-rff` names another file,
+ * so runs of different releases can be compared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ModelBenchmarks {
+    /**
+     * The phase of the game the benchmarks run on.
+     */
+    @Param({ "opening", "midgame", "endgame" })
+    public String phase;
+
+    /**
+     * The measured position.
+     */
+    private GameState state;
+
+    /**
+     * All positions of the board.
+     */
+    private List<BoardPos> positions;
+
+    /**
+     * The positions of the troops of the side on turn.
+     */
+    private List<BoardPos> troopPositions;
+
+    /**
+     * The tiles of the troops of the side on turn, in the order of `troopPositions`.
+     */
+    private List<TroopTile> troopTiles;
+
+    /**
+     * All valid moves of the position.
+     */
+    private List<Move> moves;
+
+    /**
+     * The writer reused by the JSON benchmark.
+     */
+    private StringWriter json;
+
+    /**
+     * The builder reused by the JSON builder benchmark.
+     */
+    private StringBuilder builder;
+
+    /**
+     * The JSON of the position parsed by the `fromJSON` benchmark.
+     */
+    private String serialized;
+
+    /**
+     * The setup resolving the troop names of the parsed JSON.
+     */
+    private StandardDrakeSetup setup;
+
+    /**
+     * Builds the position of the phase and collects its squares, troops and moves.
+     */
+    @Setup
+    public void setup() {
+        this.state = BenchmarkPositions.of(this.phase);
+        this.positions = new ArrayList<>();
+        this.troopPositions = new ArrayList<>();
+        this.troopTiles = new ArrayList<>();
+
+        PositionFactory pf = this.state.board().positionFactory();
+        for (int j = 0; j < this.state.board().dimension(); j++)
+            for (int i = 0; i < this.state.board().dimension(); i++)
+                this.positions.add(pf.pos(i, j));
+
+        for (BoardPos pos : this.state.armyOnTurn().boardTroops().troopPositions()) {
+            this.troopPositions.add(pos);
+            this.troopTiles.add(this.state.armyOnTurn().boardTroops().at(pos).get());
+        }
+
+        this.moves = new ValidMoves(this.state).allMoves();
+        this.json = new StringWriter();
+        this.state.toJSON(new PrintWriter(this.json));
+        this.serialized = this.json.toString();
+        this.builder = new StringBuilder();
+        this.setup = new StandardDrakeSetup();
+    }
+
+    /**
+     * Reads the tile of every square.
+     *
+     * @param blackhole the consumer of the tiles
+     */
+    @Benchmark
+    public void tileAt(Blackhole blackhole) {
+        for (BoardPos pos : this.positions)
+            blackhole.consume(this.state.tileAt(pos));
+    }
+
+    /**
+     * Checks the placement from the stack on every square.
+     *
+     * @param blackhole the consumer of the checks
+     */
+    @Benchmark
+    public void canPlaceFromStack(Blackhole blackhole) {
+        for (BoardPos pos : this.positions)
+            blackhole.consume(this.state.canPlaceFromStack(pos));
+    }
+
+    /**
+     * Generates the moves of every troop of the side on turn.
+     *
+     * @param blackhole the consumer of the moves
+     */
+    @Benchmark
+    public void movesFrom(Blackhole blackhole) {
+        for (int t = 0; t < this.troopTiles.size(); t++)
+            blackhole.consume(this.troopTiles.get(t).movesFrom(this.troopPositions.get(t), this.state));
+    }
+
+    /**
+     * Generates all valid moves of the position.
+     *
+     * @return the moves
+     */
+    @Benchmark
+    public List<Move> allMoves() {
+        return new ValidMoves(this.state).allMoves();
+    }
+
+    /**
+     * Executes every valid move of the position.
+     *
+     * @param blackhole the consumer of the new states
+     */
+    @Benchmark
+    public void execute(Blackhole blackhole) {
+        for (Move move : this.moves)
+            blackhole.consume(move.execute(this.state));
+    }
+
+    /**
+     * Serializes the position to JSON.
+     *
+     * @return the length of the JSON
+     */
+    @Benchmark
+    public int toJSON() {
+        this.json.getBuffer().setLength(0);
+        this.state.toJSON(new PrintWriter(this.json));
+        return this.json.getBuffer().length();
+    }
+
+    /**
+     * Serializes the position to JSON into a reused builder, the path without format strings
+     * and temporary writers.
+     *
+     * @return the length of the JSON
+     */
+    @Benchmark
+    public int toJSONBuilder() {
+        this.builder.setLength(0);
+        this.state.toJSON(this.builder);
+        return this.builder.length();
+    }
+
+    /**
+     * Parses the JSON of the position back to a state.
+     *
+     * @return the parsed state
+     */
+    @Benchmark
+    public GameState fromJSON() {
+        return GameState.fromJSON(new JSONReader(this.serialized), this.setup, this.state.sideOnTurn());
+    }
+
+    /**
+     * Runs the benchmarks and saves the results as JSON.
+     *
+     * @param args                       the JMH command line options
+     * @throws CommandLineOptionException if the options are invalid
+     * @throws RunnerException            if a benchmark fails
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .parent(options)
+                .include(ModelBenchmarks.class.getName());
+
+        if (!options.getResult().hasValue()) {
+            String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+            File results = new File("bench-results", "models-" + timestamp + ".json");
+
+            results.getParentFile().mkdirs();
+            builder.resultFormat(ResultFormatType.JSON).result(results.getPath());
+        }
+
+        new Runner(builder.build()).run();
+    }
+}
@@ -0,0 +1,98 @@
+package thedrake.benchmarks.search;
+
+import thedrake.engines.search.LazySmpSearch;
+import thedrake.engines.search.SearchResult;
+import thedrake.engines.tables.TranspositionTable;
+import thedrake.models.boards.Board;
+import thedrake.models.setups.StandardDrakeSetup;
+import thedrake.models.states.GameState;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The `LazySmpScalingBenchmark` class measures how the parallel search scales with the number of threads.
+ * For every thread count it searches the `StandardDrakeSetup` start state on an empty 4x4 board to a fixed depth
+ * with a fresh table and prints the time to reach the depth, the nodes per second of all threads
+ * and both relative to the first count. The JIT compiles the code during warm-up searches with one thread,
+ * and every count is searched once more before it is measured.
+ *
+ * Usage: {@code java thedrake.benchmarks.search.LazySmpScalingBenchmark [depth] [threads...]}
+ */
+public class LazySmpScalingBenchmark {
+    /**
+     * The depth searched when no argument is given.
+     */
+    private static final int DEFAULT_DEPTH = 14;
+
+    /**
+     * The thread counts measured when none are given.
+     */
+    private static final int[] DEFAULT_THREADS = { 1, 2, 4, 8 };
+
+    /**
+     * The number of single-threaded searches run before the measurement.
+     */
+    private static final int WARMUP_SEARCHES = 3;
+
+    /**
+     * The size of the table in megabytes.
+     */
+    private static final int TABLE_MEGABYTES = 256;
+
+    /**
+     * Runs the benchmark and prints one line per thread count.
+     *
+     * @param args optionally the depth followed by the thread counts
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        int[] threads = DEFAULT_THREADS;
+
+        if (args.length > 1) {
+            threads = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++)
+                threads[i - 1] = Integer.parseInt(args[i]);
+        }
+
+        GameState state = new StandardDrakeSetup().startState(new Board(4));
+        double baseTime = 0;
+        double baseSpeed = 0;
+
+        System.out.printf("depth %d, %d cores%n", depth, Runtime.getRuntime().availableProcessors());
+
+        for (int i = 0; i < WARMUP_SEARCHES; i++)
+            search(state, depth, 1);
+
+        for (int count : threads) {
+            search(state, depth, count);
+            SearchResult result = search(state, depth, count);
+
+            double seconds = Math.max(result.millis(), 1) / 1000.0;
+            double speed = result.nodes() / seconds;
+
+            if (baseTime == 0) {
+                baseTime = seconds;
+                baseSpeed = speed;
+            }
+
+            System.out.printf("threads %2d  time to depth %8.3f s (%5.2fx)  %,12.0f nodes/s (%5.2fx)  score %d%n",
+                    count, seconds, baseTime / seconds, speed, speed / baseSpeed, result.score());
+        }
+    }
+
+    /**
+     * Searches the state to the depth with a fresh table.
+     *
+     * @param state   the state to search
+     * @param depth   the depth to reach
+     * @param threads the number of threads
+     * @return        the result of the search
+     */
+    private static SearchResult search(GameState state, int depth, int threads) {
+        LazySmpSearch search = new LazySmpSearch(new TranspositionTable(TABLE_MEGABYTES), threads);
+        SearchResult result = search.search(state, 0, depth, new AtomicBoolean());
+
+        search.shutdown();
+        return result;
+    }
+}
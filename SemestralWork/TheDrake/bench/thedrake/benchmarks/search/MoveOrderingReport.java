@@ -0,0 +1,76 @@
+package thedrake.benchmarks.search;
+
+import thedrake.benchmarks.models.BenchmarkPositions;
+import thedrake.engines.search.AlphaBetaSearch;
+import thedrake.engines.search.SearchResult;
+import thedrake.engines.tables.TranspositionTable;
+import thedrake.models.boards.Board;
+import thedrake.models.setups.StandardDrakeSetup;
+import thedrake.models.states.GameState;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The `MoveOrderingReport` class measures how much `MoveOrdering` prunes. It searches the `StandardDrakeSetup`
+ * start state on an empty 4x4 board and the `BenchmarkPositions` to a fixed depth with a fresh table, once with
+ * the moves unordered and once ordered, and prints the nodes and the effective branching factor of both.
+ * The effective branching factor is the ratio of the nodes of a search to the depth and of one to the depth
+ * below, i.e. how many times the tree grows with every ply.
+ *
+ * Usage: {@code java thedrake.benchmarks.search.MoveOrderingReport [depth]}
+ */
+public class MoveOrderingReport {
+    /**
+     * The depth searched when no argument is given.
+     */
+    private static final int DEFAULT_DEPTH = 9;
+
+    /**
+     * The size of the table in megabytes.
+     */
+    private static final int TABLE_MEGABYTES = 64;
+
+    /**
+     * Runs the report and prints one line per position.
+     *
+     * @param args optionally the depth
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+
+        report("start 4x4", new StandardDrakeSetup().startState(new Board(4)), depth);
+        for (String phase : new String[] { "opening", "midgame", "endgame" })
+            report(phase, BenchmarkPositions.of(phase), depth);
+    }
+
+    /**
+     * Searches a position unordered and ordered and prints the comparison.
+     *
+     * @param name  the name of the position
+     * @param state the position
+     * @param depth the depth to reach
+     */
+    private static void report(String name, GameState state, int depth) {
+        long unordered = search(state, depth, false);
+        long ordered = search(state, depth, true);
+
+        System.out.printf("%-10s depth %d  unordered %,12d nodes (EBF %5.2f)  ordered %,12d nodes (EBF %5.2f)  %5.1fx%n",
+                name, depth, unordered, unordered / (double) search(state, depth - 1, false),
+                ordered, ordered / (double) search(state, depth - 1, true), unordered / (double) ordered);
+    }
+
+    /**
+     * Searches the state to the depth with a fresh table.
+     *
+     * @param state   the state to search
+     * @param depth   the depth to reach
+     * @param ordered whether the moves are ordered
+     * @return        the number of searched nodes
+     */
+    private static long search(GameState state, int depth, boolean ordered) {
+        AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(TABLE_MEGABYTES), ordered, true);
+        SearchResult result = search.search(state, 0, depth, new AtomicBoolean());
+
+        return result.nodes();
+    }
+}
@@ -0,0 +1,65 @@
+package thedrake.benchmarks.search;
+
+import thedrake.benchmarks.models.BenchmarkPositions;
+import thedrake.engines.search.AlphaBetaSearch;
+import thedrake.engines.search.SearchResult;
+import thedrake.engines.tables.TranspositionTable;
+import thedrake.models.states.GameState;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The `QuiescenceReport` class shows how much of the tree the quiescence search consumes. It searches
+ * the `BenchmarkPositions` to every depth up to the given one with a fresh table, once scoring the leaves
+ * directly and once by the quiescence search, and prints the nodes, the share of quiescence nodes
+ * and the score and move of both.
+ *
+ * Usage: {@code java thedrake.benchmarks.search.QuiescenceReport [depth]}
+ */
+public class QuiescenceReport {
+    /**
+     * The deepest depth searched when no argument is given.
+     */
+    private static final int DEFAULT_DEPTH = 6;
+
+    /**
+     * The size of the table in megabytes.
+     */
+    private static final int TABLE_MEGABYTES = 64;
+
+    /**
+     * Runs the report and prints one line per position and depth.
+     *
+     * @param args optionally the deepest depth
+     */
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+
+        for (String phase : new String[] { "opening", "midgame", "endgame" }) {
+            GameState state = BenchmarkPositions.of(phase);
+
+            for (int depth = 1; depth <= maxDepth; depth++) {
+                SearchResult plain = search(state, depth, false);
+                SearchResult quiet = search(state, depth, true);
+
+                System.out.printf("%-8s depth %d  plain %,10d nodes score %6d %-8s  quiescence %,10d nodes " +
+                                "(%4.1f%% quiescence) score %6d %s%n", phase, depth, plain.nodes(), plain.score(),
+                        plain.move().target(), quiet.nodes(), 100.0 * quiet.quiescenceNodes() / quiet.nodes(),
+                        quiet.score(), quiet.move().target());
+            }
+        }
+    }
+
+    /**
+     * Searches the state to the depth with a fresh table.
+     *
+     * @param state     the state to search
+     * @param depth     the depth to reach
+     * @param quiescent whether the leaves are resolved by the quiescence search
+     * @return          the result of the search
+     */
+    private static SearchResult search(GameState state, int depth, boolean quiescent) {
+        AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(TABLE_MEGABYTES), true, quiescent);
+        return search.search(state, 0, depth, new AtomicBoolean());
+    }
+}
@@ -0,0 +1,148 @@
+package thedrake.benchmarks.troops;
+
+import thedrake.models.boards.Board;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.setups.StandardDrakeSetup;
+import thedrake.models.tiles.troops.TroopTile;
+import thedrake.models.troops.BoardTroops;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The `BoardTroopsAllocationBenchmark` class measures how many bytes a single troop step allocates.
+ * The legacy variant reproduces the former behaviour of `BoardTroops.troopStep`, which copied the troop map
+ * once in the method and once more in the constructor. The current variant calls `BoardTroops.troopStep`.
+ * Allocation is read from the per-thread counter of the HotSpot `ThreadMXBean`.
+ *
+ * Usage: {@code java thedrake.benchmarks.troops.BoardTroopsAllocationBenchmark [steps]}
+ */
+public class BoardTroopsAllocationBenchmark {
+    /**
+     * The number of steps measured when no argument is given.
+     */
+    private static final int DEFAULT_STEPS = 1_000_000;
+
+    /**
+     * The number of steps executed before the measurement to let the JIT compile the code.
+     */
+    private static final int WARMUP_STEPS = 200_000;
+
+    /**
+     * The thread bean used to read the allocated bytes of the current thread.
+     */
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * A value derived from the results of the measured code so that the JIT cannot remove it.
+     */
+    private static int sink;
+
+    /**
+     * Runs the benchmark and prints the allocation per step of both variants.
+     *
+     * @param args optionally the number of measured steps
+     */
+    public static void main(String[] args) {
+        int steps = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_STEPS;
+        PositionFactory pf = new Board(4).positionFactory();
+        BoardTroops troops = startTroops(pf);
+        BoardPos from = pf.pos("b2");
+        BoardPos to = pf.pos("c2");
+
+        legacySteps(troops, from, to, WARMUP_STEPS);
+        currentSteps(troops, from, to, WARMUP_STEPS);
+
+        long legacy = allocatedPerStep(() -> legacySteps(troops, from, to, steps), steps);
+        long current = allocatedPerStep(() -> currentSteps(troops, from, to, steps), steps);
+
+        System.out.printf("troops on board: %d, steps: %d%n", troops.troopPositions().size(), steps);
+        System.out.printf("legacy HashMap copies : %5d B/step%n", legacy);
+        System.out.printf("persistent TroopMap   : %5d B/step%n", current);
+        System.out.printf("(sink %d)%n", sink);
+    }
+
+    /**
+     * Creates the troops of the blue player with the leader, both guards and two more troops placed.
+     *
+     * @param pf the position factory of the board
+     * @return   the troops ready to move
+     */
+    private static BoardTroops startTroops(PositionFactory pf) {
+        StandardDrakeSetup setup = new StandardDrakeSetup();
+
+        return new BoardTroops(PlayingSide.BLUE)
+                .placeTroop(setup.DRAKE, pf.pos("a1"))
+                .placeTroop(setup.CLUBMAN, pf.pos("b1"))
+                .placeTroop(setup.CLUBMAN, pf.pos("a2"))
+                .placeTroop(setup.SPEARMAN, pf.pos("b2"))
+                .placeTroop(setup.ARCHER, pf.pos("c1"));
+    }
+
+    /**
+     * Measures the bytes allocated by the given task divided by the number of steps it performs.
+     *
+     * @param task  the measured task
+     * @param steps the number of steps the task performs
+     * @return      the allocated bytes per step
+     */
+    private static long allocatedPerStep(Runnable task, int steps) {
+        long threadId = Thread.currentThread().getId();
+        long before = THREADS.getThreadAllocatedBytes(threadId);
+        task.run();
+        long after = THREADS.getThreadAllocatedBytes(threadId);
+
+        return (after - before) / steps;
+    }
+
+    /**
+     * Moves a troop back and forth using the current `BoardTroops.troopStep`.
+     *
+     * @param troops the starting troops
+     * @param from   the first position of the moving troop
+     * @param to     the second position of the moving troop
+     * @param steps  the number of steps
+     */
+    private static void currentSteps(BoardTroops troops, BoardPos from, BoardPos to, int steps) {
+        for (int i = 0; i < steps; i++) {
+            troops = troops.troopStep(from, to);
+            BoardPos swap = from;
+            from = to;
+            to = swap;
+        }
+
+        sink += troops.guards();
+    }
+
+    /**
+     * Moves a troop back and forth the way `BoardTroops.troopStep` did before the persistent map,
+     * copying the full map in the method and again in the constructor.
+     *
+     * @param troops the starting troops
+     * @param from   the first position of the moving troop
+     * @param to     the second position of the moving troop
+     * @param steps  the number of steps
+     */
+    private static void legacySteps(BoardTroops troops, BoardPos from, BoardPos to, int steps) {
+        Map<BoardPos, TroopTile> map = new HashMap<>();
+        for (BoardPos pos : troops.troopPositions())
+            map.put(pos, troops.at(pos).get());
+
+        for (int i = 0; i < steps; i++) {
+            Map<BoardPos, TroopTile> newTroops = new HashMap<>(map);
+            TroopTile tile = newTroops.remove(from);
+            newTroops.put(to, tile.flipped());
+            map = new HashMap<>(newTroops);
+
+            BoardPos swap = from;
+            from = to;
+            to = swap;
+        }
+
+        sink += map.size();
+    }
+}
@@ -3,13 +3,33 @@ package thedrake.controllers.mainmenu;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
+import javafx.scene.layout.HBox;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
+import thedrake.engines.endgames.Tablebase;
+import thedrake.engines.interfaces.Engine;
+import thedrake.engines.mcts.MctsSearch;
+import thedrake.engines.openings.BookEngine;
+import thedrake.engines.openings.OpeningBook;
+import thedrake.engines.search.Evaluation;
+import thedrake.engines.search.EvaluationWeights;
+import thedrake.engines.search.LazySmpSearch;
+import thedrake.engines.tables.TranspositionTable;
+import thedrake.models.bitboards.interfaces.SearchBoard;
+import thedrake.models.boards.PlayingSide;
+import thedrake.ui.BoardView;
+import thedrake.ui.ComputerPlayer;
+import thedrake.ui.SearchStatisticsView;
+import thedrake.ui.TheDrakeApp;
 
+import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.ResourceBundle;
 
 /**
@@ -20,6 +40,24 @@ public class MainMenuController implements Initializable {
 
     private static final String FONT_PATH = "/thedrake/fonts/Cinzel/static/Cinzel-SemiBold.ttf";
 
+    private static final long COMPUTER_THINKING_TIME = 2000; // Time budget of one computer move in milliseconds
+
+    private static final String ENGINE_PROPERTY = "thedrake.engine"; // System property choosing "alphabeta" or "mcts"
+
+    private static final String WEIGHTS_PROPERTY = "thedrake.weights"; // System property naming a file of evaluation weights
+
+    private static final String TABLEBASE_PROPERTY = "thedrake.tablebase"; // System property naming an endgame tablebase file
+
+    private static final String BOOK_PROPERTY = "thedrake.book"; // System property naming an opening book file
+
+    private static final String PONDER_PROPERTY = "thedrake.ponder"; // System property turning pondering off if "false"
+
+    private static final String DEBUG_PROPERTY = "thedrake.debug"; // System property showing the search statistics
+
+    private static final String DIMENSION_PROPERTY = "thedrake.dimension"; // System property sizing the board, 4 to 16
+
+    private static final int ENGINE_MEGABYTES = 256; // Size of the transposition table or the search tree
+
     @FXML
     private Button playerVSPlayerGameButton; // Button for starting a player vs player game
 
@@ -59,12 +97,117 @@ public class MainMenuController implements Initializable {
 
     /**
      * Handles the action when the Player VS PC Game button is pressed.
+     * Replaces the menu with a board on which the player plays blue against the computer playing orange.
+     * The endgame tablebase, if there is one, serves both the engine and the hints of the board.
+     * The computer ponders on the player's time unless the `thedrake.ponder` system property is "false".
+     * If the `thedrake.debug` system property is "true", the statistics of its searches are shown next to the board.
+     * The board is 4x4 unless the `thedrake.dimension` system property sets another dimension up to 16.
      *
-     * @param event the event triggered by pressing the button
+     * @param event                  the event triggered by pressing the button
+     * @throws IllegalStateException if the dimension of the board is out of range
      */
     @FXML
     public void handlePlayerVSPCGameButton(ActionEvent event) {
-        System.out.println("Player VS PC Game Button Pressed!");
+        Stage stage = (Stage) this.playerVSPCGameButton.getScene().getWindow();
+        int dimension = boardDimension();
+        Tablebase tablebase = openTablebase();
+        boolean ponder = Boolean.parseBoolean(System.getProperty(PONDER_PROPERTY, "true"));
+        ComputerPlayer computer = new ComputerPlayer(PlayingSide.ORANGE, COMPUTER_THINKING_TIME,
+                withBook(createEngine(tablebase)), ponder);
+        BoardView boardView = new BoardView(TheDrakeApp.createSampleGameState(dimension), computer, tablebase);
+        Parent root = boardView;
+
+        if (Boolean.getBoolean(DEBUG_PROPERTY)) {
+            SearchStatisticsView statisticsView = new SearchStatisticsView();
+            computer.setStatisticsListener(statisticsView::show);
+            root = new HBox(boardView, statisticsView);
+        }
+
+        stage.setOnHidden(hidden -> boardView.stopComputer());
+        stage.setScene(new Scene(root));
+    }
+
+    /**
+     * Reads the dimension of the board from the `thedrake.dimension` system property. The sample state needs
+     * at least 4 squares per side and the engines search at most `SearchBoard.MAX_DIMENSION`.
+     *
+     * @return                       the dimension of the board, 4 if the property is not set
+     * @throws IllegalStateException if the dimension is out of range
+     */
+    private int boardDimension() {
+        int dimension = Integer.getInteger(DIMENSION_PROPERTY, 4);
+
+        if (dimension < 4 || dimension > SearchBoard.MAX_DIMENSION)
+            throw new IllegalStateException("The dimension of the board " + dimension + " is not between 4 and " +
+                    SearchBoard.MAX_DIMENSION + ".");
+
+        return dimension;
+    }
+
+    /**
+     * Creates the engine of the computer player chosen by the `thedrake.engine` system property,
+     * the alpha-beta search unless it is "mcts". Both engines use all available cores.
+     * The alpha-beta search scores positions by the weights of the file named by the `thedrake.weights`
+     * system property, or by the standard weights if it is not set, and the endgames by the tablebase.
+     *
+     * @param tablebase              the endgame tablebase, or null
+     * @return                       the engine of the computer player
+     * @throws IllegalStateException if the file of weights cannot be read
+     */
+    private Engine createEngine(Tablebase tablebase) {
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        if (System.getProperty(ENGINE_PROPERTY, "alphabeta").equals("mcts"))
+            return new MctsSearch(threads, ENGINE_MEGABYTES);
+
+        String weights = System.getProperty(WEIGHTS_PROPERTY);
+        Evaluation evaluation = Evaluation.standard();
+
+        try {
+            if (weights != null)
+                evaluation = new Evaluation(EvaluationWeights.load(Path.of(weights)));
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Cannot read the evaluation weights " + weights + ".", e);
+        }
+
+        return new LazySmpSearch(new TranspositionTable(ENGINE_MEGABYTES), threads, evaluation, tablebase);
+    }
+
+    /**
+     * Puts the opening book named by the `thedrake.book` system property in front of an engine,
+     * see `OpeningBookBuilder`.
+     *
+     * @param engine                 the engine searching the positions out of the book
+     * @return                       the engine playing the book moves first, or the given one without a book
+     * @throws IllegalStateException if the book cannot be read
+     */
+    private Engine withBook(Engine engine) {
+        String file = System.getProperty(BOOK_PROPERTY);
+
+        try {
+            return file == null ? engine : new BookEngine(OpeningBook.open(Path.of(file)), engine);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Cannot read the opening book " + file + ".", e);
+        }
+    }
+
+    /**
+     * Opens the endgame tablebase named by the `thedrake.tablebase` system property, see `TablebaseGenerator`.
+     *
+     * @return                       the tablebase, or null if the property is not set
+     * @throws IllegalStateException if the tablebase cannot be read
+     */
+    private Tablebase openTablebase() {
+        String file = System.getProperty(TABLEBASE_PROPERTY);
+
+        try {
+            return file == null ? null : Tablebase.open(Path.of(file));
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Cannot read the endgame tablebase " + file + ".", e);
+        }
     }
 
     /**
@@ -0,0 +1,220 @@
+package thedrake.engines.endgames;
+
+import thedrake.models.boards.PlayingSide;
+
+import java.util.Arrays;
+
+/**
+ * The `Material` class describes the troops on the board in the positions of one table of a `Tablebase`:
+ * the troop codes of both sides, each side listing its leader first and its other troops ordered by code.
+ * The troops of all positions of the table take slots in that order, blue first.
+ *
+ * A position of the table is indexed by the side on turn followed by the square and the face of every slot,
+ * each slot being one digit of radix 2 * n * n, so the index is computed and decoded by plain arithmetic.
+ * Indices of impossible positions, e.g. two troops on one square, are part of the table but never used.
+ */
+final class Material {
+    /**
+     * The largest number of troops on the board a table can describe.
+     */
+    static final int MAX_TROOPS = 5;
+
+    /**
+     * The number of bits of a troop code in a material key.
+     */
+    private static final int KEY_BITS = 6;
+
+    /**
+     * The troop codes of all slots, the blue ones first.
+     */
+    private final int[] codes;
+
+    /**
+     * The number of blue slots.
+     */
+    private final int blue;
+
+    /**
+     * Constructs a Material.
+     *
+     * @param blue                      the troop codes of blue, the leader first
+     * @param orange                    the troop codes of orange, the leader first
+     * @throws IllegalArgumentException if a side has no leader or there are more than MAX_TROOPS troops
+     */
+    Material(int[] blue, int[] orange) {
+        if (blue.length == 0 || orange.length == 0)
+            throw new IllegalArgumentException("Both sides need their leader on the board.");
+
+        if (blue.length + orange.length > MAX_TROOPS)
+            throw new IllegalArgumentException("A table holds at most " + MAX_TROOPS + " troops.");
+
+        this.blue = blue.length;
+        this.codes = new int[blue.length + orange.length];
+        System.arraycopy(blue, 0, this.codes, 0, blue.length);
+        System.arraycopy(orange, 0, this.codes, blue.length, orange.length);
+
+        Arrays.sort(this.codes, 1, this.blue);
+        Arrays.sort(this.codes, this.blue + 1, this.codes.length);
+    }
+
+    /**
+     * Gets the number of slots.
+     *
+     * @return the number of troops on the board
+     */
+    int troops() {
+        return this.codes.length;
+    }
+
+    /**
+     * Gets the troop code of a slot.
+     *
+     * @param slot the slot
+     * @return     the troop code
+     */
+    int code(int slot) {
+        return this.codes[slot];
+    }
+
+    /**
+     * Gets the side owning a slot.
+     *
+     * @param slot the slot
+     * @return     0 for blue, 1 for orange
+     */
+    int side(int slot) {
+        return slot < this.blue ? 0 : 1;
+    }
+
+    /**
+     * Checks whether a slot holds the leader of its side.
+     *
+     * @param slot the slot
+     * @return     true if the slot is the first one of its side
+     */
+    boolean isLeader(int slot) {
+        return slot == 0 || slot == this.blue;
+    }
+
+    /**
+     * Gets the material left after the troop of a slot is captured. The other slots keep their order.
+     *
+     * @param slot                      the slot of the captured troop, not a leader
+     * @return                          the smaller material
+     * @throws IllegalArgumentException if the slot holds a leader
+     */
+    Material without(int slot) {
+        if (this.isLeader(slot))
+            throw new IllegalArgumentException("Capturing a leader ends the game.");
+
+        int[] blue = new int[this.blue - (slot < this.blue ? 1 : 0)];
+        int[] orange = new int[this.codes.length - 1 - blue.length];
+
+        for (int s = 0, b = 0, o = 0; s < this.codes.length; s++)
+            if (s == slot)
+                continue;
+            else if (s < this.blue)
+                blue[b++] = this.codes[s];
+            else
+                orange[o++] = this.codes[s];
+
+        return new Material(blue, orange);
+    }
+
+    /**
+     * Gets the key identifying the material, equal for all materials with the same troops.
+     *
+     * @return the key
+     */
+    long key() {
+        return key(this.codes, this.blue);
+    }
+
+    /**
+     * Gets the key of the material of the given slots, see `key()`.
+     *
+     * @param codes the troop codes of all slots, each side listing its leader first and the others ordered by code
+     * @param blue  the number of blue slots
+     * @return      the key
+     */
+    static long key(int[] codes, int blue) {
+        long key = 0;
+
+        for (int slot = 0; slot < codes.length; slot++) {
+            if (slot == blue)
+                key <<= KEY_BITS;
+            key = key << KEY_BITS | codes[slot] + 1;
+        }
+
+        return key;
+    }
+
+    /**
+     * Gets the number of positions of a table of this material on a board of the given dimension.
+     *
+     * @param dimension                 the dimension of the board
+     * @return                          the number of indices
+     * @throws IllegalArgumentException if the table would not fit into an array
+     */
+    int size(int dimension) {
+        long size = 2;
+        for (int slot = 0; slot < this.codes.length; slot++)
+            size *= radix(dimension);
+
+        if (size > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("The table of " + this.codes.length + " troops on a board of " +
+                    "dimension " + dimension + " is too large.");
+
+        return (int) size;
+    }
+
+    /**
+     * Gets the radix of one slot of an index.
+     *
+     * @param dimension the dimension of the board
+     * @return          twice the number of squares
+     */
+    static int radix(int dimension) {
+        return 2 * dimension * dimension;
+    }
+
+    /**
+     * Gets the digit of a side in an index, blue being 0 as its slots come first.
+     *
+     * @param side the side
+     * @return     0 for blue, 1 for orange
+     */
+    static int digit(PlayingSide side) {
+        return side == PlayingSide.BLUE ? 0 : 1;
+    }
+
+    /**
+     * Gets the side of a digit of an index, see `digit(PlayingSide)`.
+     *
+     * @param digit 0 for blue, 1 for orange
+     * @return      the side
+     */
+    static PlayingSide playingSide(int digit) {
+        return digit == 0 ? PlayingSide.BLUE : PlayingSide.ORANGE;
+    }
+
+    /**
+     * Gets the index of a position.
+     *
+     * @param dimension the dimension of the board
+     * @param side      the digit of the side on turn
+     * @param squares   the squares of the slots
+     * @param faces     the ordinals of the faces of the slots
+     * @param count     the number of slots
+     * @return          the index of the position
+     */
+    static int index(int dimension, int side, int[] squares, int[] faces, int count) {
+        int radix = radix(dimension);
+        int index = side;
+
+        for (int slot = 0; slot < count; slot++)
+            index = index * radix + squares[slot] * 2 + faces[slot];
+
+        return index;
+    }
+}
@@ -0,0 +1,403 @@
+package thedrake.engines.endgames;
+
+import thedrake.models.boards.Army;
+import thedrake.models.boards.Board;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.models.tiles.interfaces.BoardTile;
+import thedrake.models.tiles.troops.TroopTile;
+import thedrake.models.troops.BoardTroops;
+import thedrake.ui.ValidMoves;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * The `Tablebase` class answers the exact outcome of endgame positions from a file written by `TablebaseGenerator`.
+ * A position is covered when both stacks are empty, both leaders and their guards are placed and the board
+ * with its mountains and the troops on it match one of the tables of the file. The outcome of a covered position
+ * is read from a memory-mapped table by its index, so probing reads the file through the page cache and
+ * the tables take no heap, however large they are.
+ *
+ * Every position holds one unsigned byte: 0 if neither side can force a win, or the distance in plies
+ * to the capture of a leader plus one. The side on turn wins if the distance is odd and loses if it is even;
+ * a side without any move loses at distance 0, as in the search.
+ *
+ * The file starts with a header listing the board, the troop types by name and the key, offset and length
+ * of every table, the tables ordered by key, followed by the tables themselves.
+ * An instance is immutable and can be probed by any number of threads.
+ */
+public class Tablebase {
+    /**
+     * The value returned by `probe` when the position is not covered by the tablebase.
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * The value of a position neither side can force a win in.
+     */
+    public static final int DRAW = 0;
+
+    /**
+     * The first four bytes of a tablebase file.
+     */
+    static final int MAGIC = 0x54445442;
+
+    /**
+     * The version of the file format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The dimension of the board of the tables.
+     */
+    private final int dimension;
+
+    /**
+     * The mask of the mountain squares of the board of the tables, the square index being `j * dimension + i`.
+     */
+    private final long mountains;
+
+    /**
+     * The largest number of troops on the board of a table.
+     */
+    private final int maxTroops;
+
+    /**
+     * The names of the troop types in the order of their codes.
+     */
+    private final String[] troops;
+
+    /**
+     * The material keys of the tables in ascending order.
+     */
+    private final long[] keys;
+
+    /**
+     * The mapped tables in the order of their keys.
+     */
+    private final MappedByteBuffer[] tables;
+
+    /**
+     * Constructs a Tablebase.
+     *
+     * @param dimension the dimension of the board of the tables
+     * @param mountains the mask of the mountain squares
+     * @param maxTroops the largest number of troops on the board of a table
+     * @param troops    the names of the troop types in the order of their codes
+     * @param keys      the material keys of the tables in ascending order
+     * @param tables    the mapped tables in the order of their keys
+     */
+    private Tablebase(int dimension, long mountains, int maxTroops, String[] troops, long[] keys,
+                      MappedByteBuffer[] tables) {
+        this.dimension = dimension;
+        this.mountains = mountains;
+        this.maxTroops = maxTroops;
+        this.troops = troops;
+        this.keys = keys;
+        this.tables = tables;
+    }
+
+    /**
+     * Opens a tablebase file, mapping its tables into memory.
+     *
+     * @param file         the file
+     * @return             the tablebase
+     * @throws IOException if the file cannot be read or is not a tablebase file
+     */
+    public static Tablebase open(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                throw new IOException(file + " is not a tablebase file of version " + VERSION + ".");
+
+            int dimension = in.readInt();
+            long mountains = in.readLong();
+            int maxTroops = in.readInt();
+
+            String[] troops = new String[in.readInt()];
+            for (int code = 0; code < troops.length; code++)
+                troops[code] = in.readUTF();
+
+            int count = in.readInt();
+            long[] keys = new long[count];
+            MappedByteBuffer[] tables = new MappedByteBuffer[count];
+
+            for (int t = 0; t < count; t++) {
+                keys[t] = in.readLong();
+                long offset = in.readLong();
+                int length = in.readInt();
+
+                if (t > 0 && keys[t] <= keys[t - 1])
+                    throw new IOException("The tables of " + file + " are not ordered by key.");
+
+                if (offset + length > channel.size())
+                    throw new IOException("The tablebase file " + file + " is truncated.");
+
+                tables[t] = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            }
+
+            return new Tablebase(dimension, mountains, maxTroops, troops, keys, tables);
+        }
+    }
+
+    /**
+     * Gets the dimension of the board of the tables.
+     *
+     * @return the dimension of the board
+     */
+    public int dimension() {
+        return this.dimension;
+    }
+
+    /**
+     * Gets the largest number of troops on the board of a table.
+     *
+     * @return the largest number of troops
+     */
+    public int maxTroops() {
+        return this.maxTroops;
+    }
+
+    /**
+     * Gets the number of tables.
+     *
+     * @return the number of tables
+     */
+    public int tables() {
+        return this.tables.length;
+    }
+
+    /**
+     * Looks up the outcome of a position.
+     *
+     * @param state the position
+     * @return      NOT_FOUND if the position is not covered, DRAW, or the distance to the capture of a leader plus one
+     */
+    public int probe(GameState state) {
+        if (state.result() != GameResult.IN_PLAY || state.board().dimension() != this.dimension ||
+                !isEndgame(state.army(PlayingSide.BLUE)) || !isEndgame(state.army(PlayingSide.ORANGE)))
+            return NOT_FOUND;
+
+        BoardTroops blue = state.army(PlayingSide.BLUE).boardTroops();
+        BoardTroops orange = state.army(PlayingSide.ORANGE).boardTroops();
+        int blueCount = blue.troopPositions().size();
+        int count = blueCount + orange.troopPositions().size();
+
+        if (count > this.maxTroops || this.mountainMask(state.board()) != this.mountains)
+            return NOT_FOUND;
+
+        int[] codes = new int[count];
+        int[] squares = new int[count];
+        int[] faces = new int[count];
+
+        if (!this.fill(blue, 0, codes, squares, faces) || !this.fill(orange, blueCount, codes, squares, faces))
+            return NOT_FOUND;
+
+        int table = this.table(Material.key(codes, blueCount));
+        if (table < 0)
+            return NOT_FOUND;
+
+        int index = Material.index(this.dimension, Material.digit(state.sideOnTurn()), squares, faces, count);
+
+        return this.tables[table].get(index) & 0xFF;
+    }
+
+    /**
+     * Chooses the best move of a covered position: the fastest win, else a drawing move, else the slowest loss.
+     *
+     * @param state the position
+     * @return      the best move, or an empty Optional if the position is not covered or has no move
+     */
+    public Optional<Move> hint(GameState state) {
+        if (this.probe(state) == NOT_FOUND)
+            return Optional.empty();
+
+        Move best = null;
+        int bestScore = Integer.MIN_VALUE;
+
+        for (Move move : new ValidMoves(state).allMoves()) {
+            GameState next = move.execute(state);
+
+            if (next.result() == GameResult.VICTORY)
+                return Optional.of(move);
+
+            int value = this.probe(next);
+            if (value == NOT_FOUND)
+                continue;
+
+            int score = -score(value);
+            if (score > bestScore) {
+                best = move;
+                bestScore = score;
+            }
+        }
+
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * Checks whether a value of a position is a win for the side on turn.
+     *
+     * @param value the value returned by `probe`
+     * @return      true if the side on turn can force the capture of the enemy leader
+     */
+    public static boolean isWin(int value) {
+        return value > DRAW && distance(value) % 2 == 1;
+    }
+
+    /**
+     * Checks whether a value of a position is a loss for the side on turn.
+     *
+     * @param value the value returned by `probe`
+     * @return      true if the enemy can force the capture of the leader of the side on turn
+     */
+    public static boolean isLoss(int value) {
+        return value > DRAW && distance(value) % 2 == 0;
+    }
+
+    /**
+     * Gets the distance of a won or lost position to the capture of a leader.
+     *
+     * @param value the value returned by `probe`, neither NOT_FOUND nor DRAW
+     * @return      the distance in plies
+     */
+    public static int distance(int value) {
+        return value - 1;
+    }
+
+    /**
+     * Orders the values of positions from the point of view of the side on turn: a faster win is better,
+     * a draw comes next and a slower loss is better than a faster one.
+     *
+     * @param value the value returned by `probe`, not NOT_FOUND
+     * @return      the score of the value
+     */
+    private static int score(int value) {
+        if (isWin(value))
+            return 256 - distance(value);
+
+        if (isLoss(value))
+            return distance(value) - 256;
+
+        return 0;
+    }
+
+    /**
+     * Checks whether an army can be part of a covered position: its stack is empty and it has placed
+     * its leader and guards.
+     *
+     * @param army the army
+     * @return     true if the army is in its endgame
+     */
+    private static boolean isEndgame(Army army) {
+        BoardTroops troops = army.boardTroops();
+
+        return army.stack().isEmpty() && troops.isLeaderPlaced() && !troops.isPlacingGuards();
+    }
+
+    /**
+     * Writes the codes, squares and faces of the troops of one side into the slots starting at the given one,
+     * the leader first and the other troops ordered by code.
+     *
+     * @param troops  the troops of the side
+     * @param first   the first slot of the side
+     * @param codes   the troop codes of the slots
+     * @param squares the squares of the slots
+     * @param faces   the ordinals of the faces of the slots
+     * @return        false if a troop is of a type unknown to the tablebase
+     */
+    private boolean fill(BoardTroops troops, int first, int[] codes, int[] squares, int[] faces) {
+        int next = first + 1;
+
+        for (BoardPos pos : troops.troopPositions()) {
+            TroopTile tile = troops.at(pos).get();
+            int code = this.code(tile.troop().name());
+
+            if (code < 0)
+                return false;
+
+            int slot = pos.equals(troops.leaderPosition()) ? first : next++;
+
+            // Insertion by code keeps the troops other than the leader ordered
+            if (slot != first)
+                for (; slot > first + 1 && codes[slot - 1] > code; slot--) {
+                    codes[slot] = codes[slot - 1];
+                    squares[slot] = squares[slot - 1];
+                    faces[slot] = faces[slot - 1];
+                }
+
+            codes[slot] = code;
+            squares[slot] = pos.j() * this.dimension + pos.i();
+            faces[slot] = tile.face().ordinal();
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the code of a troop type.
+     *
+     * @param name the name of the troop type
+     * @return     the code, or -1 if the type is unknown to the tablebase
+     */
+    private int code(String name) {
+        for (int code = 0; code < this.troops.length; code++)
+            if (this.troops[code].equals(name))
+                return code;
+
+        return -1;
+    }
+
+    /**
+     * Finds the table of a material.
+     *
+     * @param key the key of the material
+     * @return    the index of the table, or a negative number if there is none
+     */
+    private int table(long key) {
+        int low = 0;
+        int high = this.keys.length - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+
+            if (this.keys[middle] < key)
+                low = middle + 1;
+            else if (this.keys[middle] > key)
+                high = middle - 1;
+            else
+                return middle;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Computes the mask of the mountain squares of a board of the dimension of the tables.
+     *
+     * @param board the board
+     * @return      the mask of the mountain squares
+     */
+    private long mountainMask(Board board) {
+        long mask = 0;
+
+        for (int square = 0; square < this.dimension * this.dimension; square++)
+            if (board.at(PositionFactory.canonicalPos(this.dimension, square % this.dimension,
+                    square / this.dimension)) == BoardTile.MOUNTAIN)
+                mask |= 1L << square;
+
+        return mask;
+    }
+}
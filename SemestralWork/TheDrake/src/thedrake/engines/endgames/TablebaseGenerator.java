@@ -0,0 +1,679 @@
+package thedrake.engines.endgames;
+
+import thedrake.engines.perft.Perft;
+import thedrake.models.bitboards.interfaces.BitBoard;
+import thedrake.models.bitboards.tables.MoveTables;
+import thedrake.models.bitboards.troops.TroopIndex;
+import thedrake.models.boards.Board;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.states.GameState;
+import thedrake.models.tiles.interfaces.BoardTile;
+import thedrake.models.troops.Troop;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The `TablebaseGenerator` class solves endgames of The Drake by retrograde analysis and writes them
+ * into a file read by `Tablebase`. An endgame is a position with empty stacks and only a few troops
+ * of one army left on the board, both leaders among them, so every placement of the troops on the squares
+ * of the board without mountains, with both faces and either side on turn, can be enumerated and solved.
+ *
+ * A table is solved in iterations. Iteration n finds the positions decided in exactly n plies: a position
+ * is won in n if a move leads to a position lost in n - 1, and lost in n if every move leads to a position
+ * won in at most n - 1. Capturing the enemy leader wins in 1 and a side without any move loses in 0.
+ * Capturing any other troop leads into the table of the smaller material, which is solved first.
+ * Positions still undecided when an iteration finds nothing new are draws. Each iteration is split
+ * into fork-join tasks over ranges of indices; a task only writes the positions of its range, and the values
+ * written in the same iteration never satisfy the conditions of that iteration, so no locks are needed.
+ * Moves are generated from the precompiled `MoveTables` with the same rules as `BitBoard`.
+ *
+ * The tool runs headless, without JavaFX on the classpath:
+ * {@code java thedrake.engines.endgames.TablebaseGenerator [--troops N] [--dimension D] [--mountains b2,d3]
+ * [--threads T] [--output FILE]}
+ * The board of the application is 4x4 with a mountain on b2.
+ */
+public class TablebaseGenerator {
+    /**
+     * The number of indices below which an iteration task is not split.
+     */
+    private static final int TASK_SIZE = 1 << 12;
+
+    /**
+     * The largest distance a byte of a table can hold.
+     */
+    private static final int MAX_DISTANCE = 254;
+
+    /**
+     * The troops of an army, the leader first, both sides having the same army.
+     */
+    private final List<Troop> army;
+
+    /**
+     * The index of the distinct troop types of the army.
+     */
+    private final TroopIndex troops;
+
+    /**
+     * The move tables of the troops for the board.
+     */
+    private final MoveTables moveTables;
+
+    /**
+     * The dimension of the board.
+     */
+    private final int dimension;
+
+    /**
+     * The mask of all squares of the board.
+     */
+    private final long boardMask;
+
+    /**
+     * The mask of the mountain squares of the board.
+     */
+    private final long mountains;
+
+    /**
+     * The pool running the iterations.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The solved tables by the key of their material.
+     */
+    private final Map<Long, byte[]> solved;
+
+    /**
+     * Constructs a TablebaseGenerator.
+     *
+     * @param board                     the board with its mountains
+     * @param army                      the troops of an army, the leader first
+     * @param pool                      the pool running the iterations
+     * @throws IllegalArgumentException if the board is larger than `BitBoard.MAX_DIMENSION`
+     */
+    public TablebaseGenerator(Board board, List<Troop> army, ForkJoinPool pool) {
+        List<Troop> distinct = new ArrayList<>();
+        for (Troop troop : army)
+            if (!distinct.contains(troop))
+                distinct.add(troop);
+
+        this.army = army;
+        this.troops = new TroopIndex(distinct);
+        this.dimension = board.dimension();
+        this.moveTables = this.troops.moveTables(this.dimension);
+        this.boardMask = this.dimension == BitBoard.MAX_DIMENSION ? -1L : (1L << (this.dimension * this.dimension)) - 1;
+        this.pool = pool;
+        this.solved = new HashMap<>();
+
+        long mask = 0;
+        for (int square = 0; square < this.dimension * this.dimension; square++)
+            if (board.at(PositionFactory.canonicalPos(this.dimension, square % this.dimension,
+                    square / this.dimension)) == BoardTile.MOUNTAIN)
+                mask |= BitBoard.bit(square);
+        this.mountains = mask;
+    }
+
+    /**
+     * Solves every material with at most the given number of troops on the board and writes the tables to a file.
+     *
+     * @param maxTroops                 the largest number of troops on the board, both leaders included
+     * @param file                      the file
+     * @param out                       the stream receiving a line about every solved table, or null
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if the number of troops is not between 2 and `Material.MAX_TROOPS`
+     */
+    public void generate(int maxTroops, Path file, PrintStream out) throws IOException {
+        if (maxTroops < 2 || maxTroops > Material.MAX_TROOPS)
+            throw new IllegalArgumentException("A tablebase holds between 2 and " + Material.MAX_TROOPS + " troops.");
+
+        List<int[]> sides = new ArrayList<>();
+        this.collectSides(new int[0], 1, maxTroops - 1, sides);
+
+        Map<Long, Material> materials = new TreeMap<>();
+        for (int[] blue : sides)
+            for (int[] orange : sides)
+                if (blue.length + orange.length <= maxTroops) {
+                    Material material = new Material(blue, orange);
+                    materials.put(material.key(), material);
+                }
+
+        for (Material material : materials.values()) {
+            long start = System.nanoTime();
+            byte[] values = this.solve(material);
+
+            if (out != null)
+                out.println(this.describe(material, values, (System.nanoTime() - start) / 1e9));
+        }
+
+        this.write(file, maxTroops, materials);
+    }
+
+    /**
+     * Solves the table of a material, solving the tables of the smaller materials first.
+     * Solved tables are kept, so every material is solved once.
+     *
+     * @param material the material
+     * @return         the values of the positions of the table
+     */
+    byte[] solve(Material material) {
+        byte[] values = this.solved.get(material.key());
+        if (values != null)
+            return values;
+
+        byte[][] smaller = new byte[material.troops()][];
+        int longest = -1;
+
+        for (int slot = 0; slot < material.troops(); slot++)
+            if (!material.isLeader(slot)) {
+                smaller[slot] = this.solve(material.without(slot));
+                for (byte value : smaller[slot])
+                    longest = Math.max(longest, Tablebase.distance(value & 0xFF));
+            }
+
+        values = new byte[material.size(this.dimension)];
+
+        // Positions of the smaller tables may decide positions of this one as late as one ply after the longest
+        for (int n = 0; ; n++) {
+            if (n > MAX_DISTANCE)
+                throw new IllegalStateException("A distance of the table exceeds " + MAX_DISTANCE + " plies.");
+
+            long decided = this.pool.invoke(new IterationTask(material, values, smaller, n, 0, values.length));
+
+            if (decided == 0 && n > longest + 1)
+                break;
+        }
+
+        this.solved.put(material.key(), values);
+        return values;
+    }
+
+    /**
+     * Collects the troop codes of every subset of the army other than the leader, prefixed by the leader.
+     * Each subset is listed once, ordered by code.
+     *
+     * @param prefix the codes collected so far, the leader excluded
+     * @param from   the index of the army troop to consider next
+     * @param limit  the largest number of troops other than the leader
+     * @param sides  the list receiving the codes of the sides
+     */
+    private void collectSides(int[] prefix, int from, int limit, List<int[]> sides) {
+        int[] side = new int[prefix.length + 1];
+        side[0] = this.troops.code(this.army.get(0));
+        System.arraycopy(prefix, 0, side, 1, prefix.length);
+        sides.add(side);
+
+        if (prefix.length == limit)
+            return;
+
+        for (int i = from; i < this.army.size(); i++) {
+            int code = this.troops.code(this.army.get(i));
+            boolean repeated = false;
+
+            // Two equal troops of the army give the same subset, so only the first of them starts it
+            for (int j = from; j < i; j++)
+                repeated |= this.army.get(j) == this.army.get(i);
+
+            if (repeated || prefix.length > 0 && code < prefix[prefix.length - 1])
+                continue;
+
+            int[] extended = new int[prefix.length + 1];
+            System.arraycopy(prefix, 0, extended, 0, prefix.length);
+            extended[prefix.length] = code;
+            this.collectSides(extended, i + 1, limit, sides);
+        }
+    }
+
+    /**
+     * Writes the header and the tables of the given materials to a file.
+     *
+     * @param file         the file
+     * @param maxTroops    the largest number of troops on the board
+     * @param materials    the materials by their keys in ascending order
+     * @throws IOException if the file cannot be written
+     */
+    private void write(Path file, int maxTroops, Map<Long, Material> materials) throws IOException {
+        long[] offsets = new long[materials.size()];
+        long offset = this.header(maxTroops, materials, offsets).length;
+
+        int t = 0;
+        for (Material material : materials.values()) {
+            offsets[t++] = offset;
+            offset += this.solved.get(material.key()).length;
+        }
+
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            out.write(this.header(maxTroops, materials, offsets));
+
+            for (Material material : materials.values())
+                out.write(this.solved.get(material.key()));
+        }
+    }
+
+    /**
+     * Builds the header of a tablebase file, see `Tablebase`.
+     *
+     * @param maxTroops    the largest number of troops on the board
+     * @param materials    the materials by their keys in ascending order
+     * @param offsets      the offsets of the tables in the file
+     * @return             the bytes of the header
+     * @throws IOException never, the header is built in memory
+     */
+    private byte[] header(int maxTroops, Map<Long, Material> materials, long[] offsets) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(Tablebase.MAGIC);
+        out.writeInt(Tablebase.VERSION);
+        out.writeInt(this.dimension);
+        out.writeLong(this.mountains);
+        out.writeInt(maxTroops);
+
+        out.writeInt(this.troops.size());
+        for (Troop troop : this.troops.troops())
+            out.writeUTF(troop.name());
+
+        out.writeInt(materials.size());
+        int t = 0;
+        for (Material material : materials.values()) {
+            out.writeLong(material.key());
+            out.writeLong(offsets[t++]);
+            out.writeInt(material.size(this.dimension));
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Describes a solved table: its troops, the number of won, lost and drawn positions and the longest distance.
+     *
+     * @param material the material of the table
+     * @param values   the values of the positions
+     * @param seconds  the time spent solving the table
+     * @return         the description
+     */
+    private String describe(Material material, byte[] values, double seconds) {
+        StringBuilder troops = new StringBuilder();
+        long wins = 0;
+        long losses = 0;
+        int longest = 0;
+
+        for (int slot = 0; slot < material.troops(); slot++) {
+            if (slot > 0)
+                troops.append(material.side(slot) != material.side(slot - 1) ? " vs " : ",");
+            troops.append(this.troops.troop(material.code(slot)).name());
+        }
+
+        for (byte value : values) {
+            int v = value & 0xFF;
+            if (Tablebase.isWin(v))
+                wins++;
+            else if (Tablebase.isLoss(v))
+                losses++;
+            longest = Math.max(longest, Tablebase.distance(v));
+        }
+
+        return String.format("%-40s %,12d positions %,12d won %,12d lost longest %3d %8.3f s",
+                troops, values.length, wins, losses, longest, seconds);
+    }
+
+    /**
+     * The `IterationTask` class runs one iteration over a range of indices of a table, splitting the range
+     * while it is larger than `TASK_SIZE`, and counts the positions it decided.
+     */
+    private class IterationTask extends RecursiveTask<Long> {
+        /**
+         * The version of the serialized form inherited from `ForkJoinTask`.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The material of the table.
+         */
+        private final Material material;
+
+        /**
+         * The values of the positions of the table.
+         */
+        private final byte[] values;
+
+        /**
+         * The solved tables of the materials left after capturing the troop of each slot, null for the leaders.
+         */
+        private final byte[][] smaller;
+
+        /**
+         * The distance of the positions decided by the iteration.
+         */
+        private final int n;
+
+        /**
+         * The first index of the range.
+         */
+        private final int from;
+
+        /**
+         * The index after the last one of the range.
+         */
+        private final int to;
+
+        /**
+         * Constructs an IterationTask.
+         *
+         * @param material the material of the table
+         * @param values   the values of the positions of the table
+         * @param smaller  the solved tables of the smaller materials by slot
+         * @param n        the distance of the positions decided by the iteration
+         * @param from     the first index of the range
+         * @param to       the index after the last one of the range
+         */
+        private IterationTask(Material material, byte[] values, byte[][] smaller, int n, int from, int to) {
+            this.material = material;
+            this.values = values;
+            this.smaller = smaller;
+            this.n = n;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Runs the iteration over the range, forking the halves of a large range.
+         *
+         * @return the number of decided positions
+         */
+        @Override
+        protected Long compute() {
+            if (this.to - this.from > TASK_SIZE) {
+                int middle = (this.from + this.to) >>> 1;
+                IterationTask low = new IterationTask(this.material, this.values, this.smaller, this.n,
+                        this.from, middle);
+                IterationTask high = new IterationTask(this.material, this.values, this.smaller, this.n,
+                        middle, this.to);
+
+                high.fork();
+                return low.compute() + high.join();
+            }
+
+            Position position = new Position(this.material);
+            long decided = 0;
+
+            for (int index = this.from; index < this.to; index++)
+                if (this.values[index] == 0 && position.decode(index)) {
+                    int value = position.solve(this.values, this.smaller, this.n);
+
+                    if (value != Tablebase.DRAW) {
+                        this.values[index] = (byte) value;
+                        decided++;
+                    }
+                }
+
+            return decided;
+        }
+    }
+
+    /**
+     * The `Position` class decodes an index of a table and generates the moves of the position,
+     * reusing its arrays for every index of a task.
+     */
+    private class Position {
+        /**
+         * The material of the table.
+         */
+        private final Material material;
+
+        /**
+         * The radix of a slot of an index.
+         */
+        private final int radix;
+
+        /**
+         * The place value of each slot in an index.
+         */
+        private final int[] places;
+
+        /**
+         * The squares of the slots.
+         */
+        private final int[] squares;
+
+        /**
+         * The ordinals of the faces of the slots.
+         */
+        private final int[] faces;
+
+        /**
+         * The slot of the troop on each square, valid only for occupied squares.
+         */
+        private final int[] slots;
+
+        /**
+         * The masks of the squares occupied by each side.
+         */
+        private final long[] occupancy;
+
+        /**
+         * The index of the decoded position.
+         */
+        private int index;
+
+        /**
+         * The digit of the side on turn, 0 for blue.
+         */
+        private int side;
+
+        /**
+         * Constructs a Position.
+         *
+         * @param material the material of the table
+         */
+        private Position(Material material) {
+            this.material = material;
+            this.radix = Material.radix(dimension);
+            this.places = new int[material.troops() + 1];
+            this.squares = new int[material.troops()];
+            this.faces = new int[material.troops()];
+            this.slots = new int[dimension * dimension];
+            this.occupancy = new long[2];
+
+            this.places[material.troops()] = 1;
+            for (int slot = material.troops() - 1; slot >= 0; slot--)
+                this.places[slot] = this.places[slot + 1] * this.radix;
+        }
+
+        /**
+         * Decodes an index.
+         *
+         * @param index the index
+         * @return      false if the index is not a possible position, with two troops on a square
+         *              or a troop on a mountain
+         */
+        private boolean decode(int index) {
+            int rest = index;
+
+            this.index = index;
+            this.occupancy[0] = 0;
+            this.occupancy[1] = 0;
+
+            for (int slot = this.squares.length - 1; slot >= 0; slot--) {
+                int digit = rest % this.radix;
+                rest /= this.radix;
+
+                int square = digit >> 1;
+                long mask = BitBoard.bit(square);
+
+                if (((this.occupancy[0] | this.occupancy[1] | mountains) & mask) != 0)
+                    return false;
+
+                this.squares[slot] = square;
+                this.faces[slot] = digit & 1;
+                this.slots[square] = slot;
+                this.occupancy[this.material.side(slot)] |= mask;
+            }
+
+            this.side = rest;
+            return true;
+        }
+
+        /**
+         * Decides the decoded position in the given iteration.
+         *
+         * @param values  the values of the table
+         * @param smaller the solved tables of the smaller materials by slot
+         * @param n       the distance of the positions decided by the iteration
+         * @return        the value of the position, or DRAW if it is not decided in this iteration
+         */
+        private int solve(byte[] values, byte[][] smaller, int n) {
+            long free = boardMask & ~(this.occupancy[0] | this.occupancy[1] | mountains);
+            long enemy = this.occupancy[1 - this.side];
+            boolean moved = false;
+            boolean allWon = true;
+            boolean winning = false;
+            int longestWin = 0;
+
+            for (int slot = 0; slot < this.squares.length; slot++) {
+                if (this.material.side(slot) != this.side)
+                    continue;
+
+                int origin = this.squares[slot];
+                int entry = moveTables.entry(this.material.code(slot), this.faces[slot],
+                        Material.playingSide(this.side).ordinal(), origin);
+                long shifts = moveTables.shifts(entry);
+                long steps = (shifts & free) | moveTables.slideSteps(entry, free);
+                long captures = (shifts | moveTables.slideFirsts(entry)) & enemy;
+                long strikes = moveTables.strikes(entry) & enemy;
+
+                // Capturing the enemy leader wins at once, decided in the iteration of distance 1
+                for (long targets = captures | strikes; targets != 0; targets &= targets - 1)
+                    if (this.material.isLeader(this.slots[Long.numberOfTrailingZeros(targets)]))
+                        return n == 1 ? 2 : Tablebase.DRAW;
+
+                long[] kinds = { steps, captures, strikes };
+                for (int kind = 0; kind < kinds.length; kind++)
+                    for (long targets = kinds[kind]; targets != 0; targets &= targets - 1) {
+                        int target = Long.numberOfTrailingZeros(targets);
+                        int value;
+
+                        if (kind == 0)
+                            value = values[this.stepIndex(slot, target)] & 0xFF;
+                        else {
+                            int captured = this.slots[target];
+                            int square = kind == 1 ? target : origin;
+                            value = smaller[captured][this.captureIndex(slot, square, captured)] & 0xFF;
+                        }
+
+                        moved = true;
+
+                        // The value is the one of the opponent, so a won position of the opponent is lost for us
+                        if (Tablebase.isWin(value))
+                            longestWin = Math.max(longestWin, Tablebase.distance(value));
+                        else {
+                            allWon = false;
+                            winning |= Tablebase.isLoss(value) && Tablebase.distance(value) < n;
+                        }
+                    }
+            }
+
+            if (!moved)
+                return 1;
+
+            if (n % 2 == 1 && winning)
+                return n + 1;
+
+            if (n % 2 == 0 && allWon && longestWin < n)
+                return n + 1;
+
+            return Tablebase.DRAW;
+        }
+
+        /**
+         * Gets the index of the position after the troop of a slot steps to the target, flipping its face.
+         *
+         * @param slot   the slot of the moving troop
+         * @param target the target square
+         * @return       the index in the same table
+         */
+        private int stepIndex(int slot, int target) {
+            int digit = this.squares[slot] * 2 + this.faces[slot];
+            int moved = target * 2 + 1 - this.faces[slot];
+
+            return this.index + (1 - 2 * this.side) * this.places[0] + (moved - digit) * this.places[slot + 1];
+        }
+
+        /**
+         * Gets the index of the position after the troop of a slot captures the troop of another slot,
+         * ending on the given square with its face flipped.
+         *
+         * @param slot     the slot of the capturing troop
+         * @param square   the square the capturing troop ends on
+         * @param captured the slot of the captured troop
+         * @return         the index in the table of the smaller material
+         */
+        private int captureIndex(int slot, int square, int captured) {
+            int index = 1 - this.side;
+
+            for (int s = 0; s < this.squares.length; s++)
+                if (s == slot)
+                    index = index * this.radix + square * 2 + 1 - this.faces[s];
+                else if (s != captured)
+                    index = index * this.radix + this.squares[s] * 2 + this.faces[s];
+
+            return index;
+        }
+    }
+
+    /**
+     * Generates a tablebase for the army of the standard setup on a board with the given mountains.
+     *
+     * @param args         the command line options, see the class description
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int troops = 3;
+        int dimension = 4;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> mountains = new ArrayList<>();
+        Path output = Path.of("thedrake.tb");
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--troops"))
+                troops = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--dimension"))
+                dimension = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--mountains"))
+                mountains = List.of(args[++i].split(","));
+            else if (args[i].equals("--threads"))
+                threads = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--output"))
+                output = Path.of(args[++i]);
+            else
+                throw new IllegalArgumentException("Unknown option " + args[i] + ".");
+        }
+
+        GameState start = Perft.startState(dimension, mountains);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        PrintStream out = System.out;
+
+        out.printf("tablebase %dx%d, mountains %s, up to %d troops, %d threads%n", dimension, dimension,
+                mountains.isEmpty() ? "none" : String.join(",", mountains), troops, threads);
+
+        long begin = System.nanoTime();
+        new TablebaseGenerator(start.board(), start.armyOnTurn().stack(), pool).generate(troops, output, out);
+        pool.shutdown();
+
+        out.printf("written %s, %,d bytes, %.3f s%n", output, Files.size(output), (System.nanoTime() - begin) / 1e9);
+    }
+}
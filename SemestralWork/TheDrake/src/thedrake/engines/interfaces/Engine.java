@@ -0,0 +1,42 @@
+package thedrake.engines.interfaces;
+
+import thedrake.engines.search.SearchResult;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.states.GameState;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The `Engine` interface is implemented by the engines a computer player can choose its moves with.
+ * An engine searches until its time budget runs out or its cancellation flag is set and may keep
+ * what it learned for the following searches.
+ */
+public interface Engine {
+
+    /**
+     * Searches for the best move of the side on turn.
+     *
+     * @param state     the position to search
+     * @param millis    the time budget in milliseconds
+     * @param cancelled the flag stopping the search once it is set
+     * @return          the best move found, or a result without a move if the game is over
+     */
+    public SearchResult search(GameState state, long millis, AtomicBoolean cancelled);
+
+    /**
+     * Gets the move the engine expects to be played in a position reached from its last search, usually
+     * the reply to the move it has just chosen. A pondering player searches the position after that move
+     * while the opponent thinks.
+     *
+     * @param state the position
+     * @return      the expected move, or null if the engine expects none
+     */
+    public default Move expectedReply(GameState state) {
+        return null;
+    }
+
+    /**
+     * Stops the threads of the engine. The engine cannot be used afterwards.
+     */
+    public void shutdown();
+}
@@ -0,0 +1,115 @@
+package thedrake.engines.mcts;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * The `MctsNode` class is a node of the Monte Carlo search tree, reached from its parent by one move.
+ * The statistics are updated by several threads at once through field updaters, so a node costs
+ * no more than its own fields and the array of its children.
+ */
+final class MctsNode {
+    /**
+     * The estimated size of a node in bytes: the object header and the fields.
+     */
+    static final int BYTES = 40;
+
+    /**
+     * The updater of `visits`.
+     */
+    private static final AtomicIntegerFieldUpdater<MctsNode> VISITS =
+            AtomicIntegerFieldUpdater.newUpdater(MctsNode.class, "visits");
+
+    /**
+     * The updater of `reward`.
+     */
+    private static final AtomicLongFieldUpdater<MctsNode> REWARD =
+            AtomicLongFieldUpdater.newUpdater(MctsNode.class, "reward");
+
+    /**
+     * The updater of `expanding`.
+     */
+    private static final AtomicIntegerFieldUpdater<MctsNode> EXPANDING =
+            AtomicIntegerFieldUpdater.newUpdater(MctsNode.class, "expanding");
+
+    /**
+     * The code of the move leading to the node, see `MoveCodes`.
+     */
+    final int move;
+
+    /**
+     * The children of the node, or null while the node is not expanded.
+     */
+    volatile MctsNode[] children;
+
+    /**
+     * The number of playouts through the node, including the ones still running.
+     */
+    volatile int visits;
+
+    /**
+     * The sum of the rewards of the finished playouts through the node in half points
+     * (2 for a win, 1 for a draw) of the side that played the move leading to the node.
+     */
+    volatile long reward;
+
+    /**
+     * 1 once a thread has started to expand the node, 0 before.
+     */
+    volatile int expanding;
+
+    /**
+     * Constructs an MctsNode.
+     *
+     * @param move the code of the move leading to the node
+     */
+    MctsNode(int move) {
+        this.move = move;
+    }
+
+    /**
+     * Counts a playout entering the node. Until its reward is added, the playout counts as a loss,
+     * which steers the other threads to different nodes (virtual loss).
+     */
+    void enter() {
+        VISITS.incrementAndGet(this);
+    }
+
+    /**
+     * Adds the reward of a finished playout.
+     *
+     * @param halfPoints the reward in half points
+     */
+    void reward(int halfPoints) {
+        REWARD.addAndGet(this, halfPoints);
+    }
+
+    /**
+     * Claims the expansion of the node.
+     *
+     * @return true if the calling thread is the one to expand the node, false otherwise
+     */
+    boolean claimExpansion() {
+        return EXPANDING.compareAndSet(this, 0, 1);
+    }
+
+    /**
+     * Gets the average reward of the side that played the move leading to the node.
+     *
+     * @return the average reward between 0 and 1, 0 for an unvisited node
+     */
+    double value() {
+        int visits = this.visits;
+        return visits == 0 ? 0 : this.reward / (2.0 * visits);
+    }
+
+    /**
+     * Estimates the size of an array of children.
+     *
+     * @param count the number of children
+     * @return      the size of the array in bytes
+     */
+    static long arrayBytes(int count) {
+        return (16 + 4L * count + 7) & ~7L;
+    }
+}
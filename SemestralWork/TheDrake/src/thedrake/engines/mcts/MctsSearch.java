@@ -0,0 +1,560 @@
+package thedrake.engines.mcts;
+
+import thedrake.engines.interfaces.Engine;
+import thedrake.engines.search.SearchResult;
+import thedrake.engines.search.SearchStatistics;
+import thedrake.models.bitboards.interfaces.SearchBoard;
+import thedrake.models.moves.codes.MoveCodes;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The `MctsSearch` class is a Monte Carlo tree search engine (UCT). Every iteration walks down the tree choosing
+ * the child with the best upper confidence bound, expands the reached leaf, plays a random game to the end
+ * and adds its result to all nodes on the path. The most visited root move is played.
+ *
+ * All threads work on one tree (tree parallelism). A thread entering a node counts its visit at once and its result
+ * only at the end, so a running playout counts as a loss and the other threads spread to other nodes (virtual loss).
+ * Playouts run on a `SearchBoard` per thread with `generateMoves` and make/unmake, so they allocate nothing.
+ *
+ * The tree stops growing when its estimated size reaches the memory cap; the iterations then only add playouts.
+ * The tree is kept between searches, and when the next searched position is reached from the previous root
+ * by one or two moves, the subtree of that position becomes the new root.
+ */
+public class MctsSearch implements Engine {
+    /**
+     * The exploration constant of the upper confidence bound.
+     */
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    /**
+     * The number of plies after which a playout ends as a draw.
+     */
+    private static final int MAX_PLAYOUT_PLIES = 200;
+
+    /**
+     * The deepest level of the tree an iteration walks to.
+     */
+    private static final int MAX_TREE_DEPTH = 256;
+
+    /**
+     * The winner of a playout that ends without one.
+     */
+    private static final int DRAW = -1;
+
+    /**
+     * The number of threads including the calling one.
+     */
+    private final int threads;
+
+    /**
+     * The largest estimated size of the tree in bytes.
+     */
+    private final long memoryCap;
+
+    /**
+     * The threads running the helper workers, or null for a single thread.
+     */
+    private final ExecutorService helpers;
+
+    /**
+     * The estimated size of the tree in bytes.
+     */
+    private final AtomicLong treeBytes = new AtomicLong();
+
+    /**
+     * The number of nodes of the tree.
+     */
+    private final AtomicLong treeNodes = new AtomicLong();
+
+    /**
+     * The number of playouts of the current search.
+     */
+    private final AtomicLong playouts = new AtomicLong();
+
+    /**
+     * The root of the tree, or null before the first search.
+     */
+    private MctsNode root;
+
+    /**
+     * The position of the root.
+     */
+    private GameState rootState;
+
+    /**
+     * The playouts per second of the last search.
+     */
+    private double playoutsPerSecond;
+
+    /**
+     * Constructs an MctsSearch.
+     *
+     * @param threads                   the number of threads including the calling one
+     * @param memoryMegabytes           the largest estimated size of the tree in megabytes
+     * @throws IllegalArgumentException if the number of threads or the memory cap is not positive
+     */
+    public MctsSearch(int threads, int memoryMegabytes) {
+        if (threads < 1)
+            throw new IllegalArgumentException("The search needs at least one thread.");
+
+        if (memoryMegabytes < 1)
+            throw new IllegalArgumentException("The memory cap must be at least 1 MB.");
+
+        this.threads = threads;
+        this.memoryCap = (long) memoryMegabytes << 20;
+        this.helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "mcts-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Searches for the best move until the time budget runs out or the search is cancelled.
+     *
+     * @param state     the position to search
+     * @param millis    the time budget in milliseconds
+     * @param cancelled the flag stopping the search once it is set
+     * @return          the most visited move, or a result without a move if the game is over
+     */
+    @Override
+    public SearchResult search(GameState state, long millis, AtomicBoolean cancelled) {
+        return this.search(state, millis, Long.MAX_VALUE, cancelled);
+    }
+
+    /**
+     * Searches for the best move until the time budget or the number of playouts runs out or the search
+     * is cancelled. The score of the result is the expected reward of the move between -1000 for a loss
+     * and 1000 for a win, its depth the deepest level of the tree and its nodes the number of playouts.
+     * The principal variation of its statistics follows the most visited children; it has no table counters.
+     *
+     * @param state       the position to search
+     * @param millis      the time budget in milliseconds, or 0 for no limit
+     * @param maxPlayouts the largest number of playouts
+     * @param cancelled   the flag stopping the search once it is set
+     * @return            the most visited move, or a result without a move if the game is over
+     */
+    public SearchResult search(GameState state, long millis, long maxPlayouts, AtomicBoolean cancelled) {
+        long start = System.nanoTime();
+        long deadline = millis > 0 ? start + millis * 1_000_000 : Long.MAX_VALUE;
+        SearchBoard position = SearchBoard.of(state);
+        int[] moves = new int[position.maxMoves()];
+
+        if (position.generateMoves(moves) == 0)
+            return new SearchResult(null, state.result() == GameResult.DRAW ? 0 : -1000, 0, 0, 0);
+
+        this.reuse(state);
+        this.playouts.set(0);
+
+        // The root is expanded even above the memory cap, so there is always a move to choose
+        if (this.root.children == null && this.root.claimExpansion())
+            this.expand(this.root, position, moves);
+
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 1; i < this.threads; i++) {
+            Worker helper = new Worker(position.copy());
+            futures.add(this.helpers.submit(() -> helper.run(deadline, maxPlayouts, cancelled)));
+        }
+
+        int depth = new Worker(position).run(deadline, maxPlayouts, cancelled);
+        for (Future<Integer> future : futures)
+            depth = Math.max(depth, join(future));
+
+        long elapsed = System.nanoTime() - start;
+        MctsNode best = null;
+        for (MctsNode child : this.root.children)
+            if (best == null || child.visits > best.visits)
+                best = child;
+
+        long playouts = Math.min(this.playouts.get(), maxPlayouts);
+        Move move = MoveCodes.decode(best.move, state.board().dimension());
+        int score = (int) Math.round((2 * best.value() - 1) * 1000);
+
+        this.playoutsPerSecond = playouts / Math.max(elapsed / 1e9, 1e-9);
+        return new SearchResult(move, score, new SearchStatistics(depth, depth, playouts, 0, elapsed / 1_000_000,
+                0, 0, 0, 0, 0, new long[0], this.principalVariation(state)));
+    }
+
+    /**
+     * Follows the most visited children from the root, the line the tree is most confident about.
+     *
+     * @param state the position of the root
+     * @return      the moves of the most visited children, the move of the root first
+     */
+    private List<Move> principalVariation(GameState state) {
+        List<Move> variation = new ArrayList<>();
+        int dimension = state.board().dimension();
+        MctsNode node = this.root;
+
+        while (node.children != null) {
+            MctsNode best = null;
+            for (MctsNode child : node.children)
+                if (best == null || child.visits > best.visits)
+                    best = child;
+
+            if (best == null || best.visits == 0)
+                break;
+
+            variation.add(MoveCodes.decode(best.move, dimension));
+            node = best;
+        }
+
+        return variation;
+    }
+
+    /**
+     * Gets the playouts per second of the last search.
+     *
+     * @return the playouts per second
+     */
+    public double playoutsPerSecond() {
+        return this.playoutsPerSecond;
+    }
+
+    /**
+     * Gets the estimated size of the tree.
+     *
+     * @return the size of the tree in bytes
+     */
+    public long treeBytes() {
+        return this.treeBytes.get();
+    }
+
+    /**
+     * Gets the number of nodes of the tree.
+     *
+     * @return the number of nodes
+     */
+    public long treeNodes() {
+        return this.treeNodes.get();
+    }
+
+    /**
+     * Gets the number of playouts through the root of the tree, including the ones of reused searches.
+     *
+     * @return the number of root visits, 0 before the first search
+     */
+    public int rootVisits() {
+        return this.root == null ? 0 : this.root.visits;
+    }
+
+    /**
+     * Gets the most visited move of a position of the tree: the root or a position one move below it,
+     * usually the position after the move the last search chose.
+     *
+     * @param state the position
+     * @return      the most visited move, or null if the position is not expanded in the tree
+     */
+    @Override
+    public Move expectedReply(GameState state) {
+        if (this.root == null || this.root.children == null)
+            return null;
+
+        int dimension = state.board().dimension();
+        MctsNode node = null;
+
+        if (this.rootState.zobristKey() == state.zobristKey())
+            node = this.root;
+        else
+            for (MctsNode child : this.root.children)
+                if (MoveCodes.decode(child.move, dimension).execute(this.rootState).zobristKey() ==
+                        state.zobristKey())
+                    node = child;
+
+        MctsNode[] children = node == null ? null : node.children;
+        MctsNode best = null;
+
+        if (children != null)
+            for (MctsNode child : children)
+                if (best == null || child.visits > best.visits)
+                    best = child;
+
+        return best == null || best.visits == 0 ? null : MoveCodes.decode(best.move, dimension);
+    }
+
+    /**
+     * Stops the helper threads. The search cannot be used afterwards.
+     */
+    @Override
+    public void shutdown() {
+        if (this.helpers != null)
+            this.helpers.shutdownNow();
+    }
+
+    /**
+     * Makes the node of the given position the root of the tree, keeping its subtree if the position
+     * is the previous root or is reached from it by one or two moves, and starting a new tree otherwise.
+     *
+     * @param state the position to search
+     */
+    private void reuse(GameState state) {
+        MctsNode found = null;
+
+        if (this.root != null && this.rootState.zobristKey() == state.zobristKey())
+            found = this.root;
+        else if (this.root != null && this.root.children != null) {
+            int dimension = state.board().dimension();
+
+            for (MctsNode child : this.root.children) {
+                GameState childState = MoveCodes.decode(child.move, dimension).execute(this.rootState);
+
+                if (childState.zobristKey() == state.zobristKey())
+                    found = child;
+                else if (child.children != null)
+                    for (MctsNode grandchild : child.children)
+                        if (MoveCodes.decode(grandchild.move, dimension).execute(childState).zobristKey() ==
+                                state.zobristKey())
+                            found = grandchild;
+
+                if (found != null)
+                    break;
+            }
+        }
+
+        this.root = found != null ? found : new MctsNode(MoveCodes.NONE);
+        this.rootState = state;
+        this.measureTree();
+    }
+
+    /**
+     * Adds the children of a node for all moves of its position. The calling thread must have claimed the expansion.
+     *
+     * @param node     the node to expand
+     * @param position the position of the node
+     * @param moves    the buffer of generated moves
+     * @return         the children of the node
+     */
+    private MctsNode[] expand(MctsNode node, SearchBoard position, int[] moves) {
+        int count = position.generateMoves(moves);
+        MctsNode[] children = new MctsNode[count];
+
+        for (int i = 0; i < count; i++)
+            children[i] = new MctsNode(moves[i]);
+
+        this.treeNodes.addAndGet(count);
+        this.treeBytes.addAndGet(MctsNode.arrayBytes(count) + (long) count * MctsNode.BYTES);
+        node.children = children;
+
+        return children;
+    }
+
+    /**
+     * Recounts the nodes and the estimated size of the tree.
+     */
+    private void measureTree() {
+        Deque<MctsNode> pending = new ArrayDeque<>();
+        long nodes = 0;
+        long bytes = 0;
+
+        pending.push(this.root);
+        while (!pending.isEmpty()) {
+            MctsNode node = pending.pop();
+            MctsNode[] children = node.children;
+
+            nodes++;
+            bytes += MctsNode.BYTES;
+
+            if (children != null) {
+                bytes += MctsNode.arrayBytes(children.length);
+                for (MctsNode child : children)
+                    pending.push(child);
+            }
+        }
+
+        this.treeNodes.set(nodes);
+        this.treeBytes.set(bytes);
+    }
+
+    /**
+     * Waits for a helper worker to end.
+     *
+     * @param future                 the helper worker
+     * @return                       the deepest level of the tree it reached
+     * @throws IllegalStateException if the helper failed or the waiting thread was interrupted
+     */
+    private static int join(Future<Integer> future) {
+        try {
+            return future.get();
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("A search worker failed.", e.getCause());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a search worker.", e);
+        }
+    }
+
+    /**
+     * The `Worker` class runs the iterations of one thread on its own copy of the root position.
+     */
+    private class Worker {
+        /**
+         * The position of the thread, at the root between iterations.
+         */
+        private final SearchBoard position;
+
+        /**
+         * The buffer of generated moves.
+         */
+        private final int[] moves;
+
+        /**
+         * The nodes on the path of the current iteration, the root first.
+         */
+        private final MctsNode[] path = new MctsNode[MAX_TREE_DEPTH + 2];
+
+        /**
+         * The sides that played the moves leading to the nodes of the path.
+         */
+        private final int[] movers = new int[MAX_TREE_DEPTH + 2];
+
+        /**
+         * Constructs a Worker.
+         *
+         * @param position the root position, owned by the worker from now on
+         */
+        private Worker(SearchBoard position) {
+            this.position = position;
+            this.moves = new int[position.maxMoves()];
+        }
+
+        /**
+         * Runs iterations until the search stops.
+         *
+         * @param deadline    the value of `System.nanoTime()` at which the search stops
+         * @param maxPlayouts the largest number of playouts of all threads
+         * @param cancelled   the flag stopping the search once it is set
+         * @return            the deepest level of the tree reached
+         */
+        private int run(long deadline, long maxPlayouts, AtomicBoolean cancelled) {
+            int deepest = 0;
+
+            while (!cancelled.get() && System.nanoTime() < deadline && playouts.incrementAndGet() <= maxPlayouts)
+                deepest = Math.max(deepest, this.iterate());
+
+            return deepest;
+        }
+
+        /**
+         * Runs one iteration: selection, expansion, playout and backpropagation.
+         *
+         * @return the level of the tree the iteration reached
+         */
+        private int iterate() {
+            SearchBoard position = this.position;
+            MctsNode node = root;
+            int depth = 0;
+
+            node.enter();
+            this.path[0] = node;
+
+            // Selection
+            while (node.children != null && node.children.length > 0 && depth < MAX_TREE_DEPTH) {
+                node = select(node);
+                node.enter();
+                this.movers[++depth] = position.sideOnTurn().ordinal();
+                this.path[depth] = node;
+                position.make(node.move);
+            }
+
+            // Expansion
+            if (node.children == null && position.result() == GameResult.IN_PLAY &&
+                    treeBytes.get() < memoryCap && node.claimExpansion()) {
+                MctsNode[] children = expand(node, position, this.moves);
+
+                if (children.length > 0 && depth < MAX_TREE_DEPTH) {
+                    node = children[ThreadLocalRandom.current().nextInt(children.length)];
+                    node.enter();
+                    this.movers[++depth] = position.sideOnTurn().ordinal();
+                    this.path[depth] = node;
+                    position.make(node.move);
+                }
+            }
+
+            int winner = this.playout();
+
+            // Backpropagation
+            for (int d = depth; d > 0; d--) {
+                this.path[d].reward(winner == DRAW ? 1 : winner == this.movers[d] ? 2 : 0);
+                position.unmake();
+            }
+
+            return depth;
+        }
+
+        /**
+         * Plays random moves from the current position to the end of the game and takes them back.
+         *
+         * @return the ordinal of the winning side, or DRAW
+         */
+        private int playout() {
+            SearchBoard position = this.position;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int winner = DRAW;
+            int plies = 0;
+
+            while (position.result() == GameResult.IN_PLAY && plies < MAX_PLAYOUT_PLIES) {
+                int count = position.generateMoves(this.moves);
+
+                if (count == 0) {
+                    winner = 1 - position.sideOnTurn().ordinal();
+                    break;
+                }
+
+                position.make(this.moves[random.nextInt(count)]);
+                plies++;
+            }
+
+            if (position.result() == GameResult.VICTORY)
+                winner = 1 - position.sideOnTurn().ordinal();
+
+            for (int i = 0; i < plies; i++)
+                position.unmake();
+
+            return winner;
+        }
+
+        /**
+         * Chooses the child with the highest upper confidence bound. Unvisited children come first.
+         *
+         * @param node the expanded node
+         * @return     the chosen child
+         */
+        private MctsNode select(MctsNode node) {
+            MctsNode[] children = node.children;
+            double logVisits = Math.log(Math.max(node.visits, 1));
+            MctsNode best = null;
+            double bestBound = Double.NEGATIVE_INFINITY;
+
+            for (MctsNode child : children) {
+                int visits = child.visits;
+
+                if (visits == 0)
+                    return child;
+
+                double bound = child.reward / (2.0 * visits) + EXPLORATION * Math.sqrt(logVisits / visits);
+                if (bound > bestBound) {
+                    bestBound = bound;
+                    best = child;
+                }
+            }
+
+            return best;
+        }
+    }
+}
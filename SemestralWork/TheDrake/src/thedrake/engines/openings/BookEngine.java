@@ -0,0 +1,74 @@
+package thedrake.engines.openings;
+
+import thedrake.engines.interfaces.Engine;
+import thedrake.engines.search.SearchResult;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.states.GameState;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The `BookEngine` class plays the moves of an `OpeningBook` while the game is in the book and leaves
+ * the other positions to another engine. A book move is reported with score 0 and depth 0, as nothing was searched.
+ */
+public class BookEngine implements Engine {
+    /**
+     * The opening book.
+     */
+    private final OpeningBook book;
+
+    /**
+     * The engine searching the positions out of the book.
+     */
+    private final Engine engine;
+
+    /**
+     * Constructs a BookEngine.
+     *
+     * @param book   the opening book
+     * @param engine the engine searching the positions out of the book
+     */
+    public BookEngine(OpeningBook book, Engine engine) {
+        this.book = book;
+        this.engine = engine;
+    }
+
+    /**
+     * Plays the book move of the position, or searches it with the other engine if it is not in the book.
+     *
+     * @param state     the position to search
+     * @param millis    the time budget in milliseconds
+     * @param cancelled the flag stopping the search once it is set
+     * @return          the book move, or the result of the other engine
+     */
+    @Override
+    public SearchResult search(GameState state, long millis, AtomicBoolean cancelled) {
+        long start = System.nanoTime();
+        Optional<Move> move = this.book.move(state);
+
+        if (move.isEmpty())
+            return this.engine.search(state, millis, cancelled);
+
+        return new SearchResult(move.get(), 0, 0, 0, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Gets the move the other engine expects, as the book expects none.
+     *
+     * @param state the position
+     * @return      the expected move of the other engine, or null
+     */
+    @Override
+    public Move expectedReply(GameState state) {
+        return this.engine.expectedReply(state);
+    }
+
+    /**
+     * Stops the threads of the other engine. The engine cannot be used afterwards.
+     */
+    @Override
+    public void shutdown() {
+        this.engine.shutdown();
+    }
+}
@@ -0,0 +1,258 @@
+package thedrake.engines.openings;
+
+import thedrake.models.boards.Board;
+import thedrake.models.moves.codes.MoveCodes;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.models.tiles.interfaces.BoardTile;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * The `OpeningBook` class answers the moves of the first plies of a game from a file written by
+ * `OpeningBookBuilder`. The book holds one entry per position and move played from it in the self-play games
+ * of the builder: the Zobrist key of the position, the code of the move, the number of games the move was
+ * played in and the points the side playing it scored, 2 for a win and 1 for a draw.
+ *
+ * The entries follow a short header and are ordered by key and then by move, so the entries of a position
+ * are found by a binary search over the memory-mapped file and lie next to each other. A lookup reads
+ * the file through the page cache and the entries take no heap, however large the book is.
+ * The book move of a position is its entry with the highest average score, the more often played one
+ * on a tie. An instance is immutable and can be used by any number of threads.
+ */
+public class OpeningBook {
+    /**
+     * The first four bytes of a book file.
+     */
+    static final int MAGIC = 0x5444424B;
+
+    /**
+     * The version of the file format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The number of bytes of the header: magic, version, dimension, mountains, plies and entry count.
+     */
+    static final int HEADER_BYTES = 4 + 4 + 4 + 8 + 4 + 4;
+
+    /**
+     * The number of bytes of an entry: key, move, games and points.
+     */
+    static final int ENTRY_BYTES = 8 + 4 + 4 + 4;
+
+    /**
+     * The dimension of the board of the book.
+     */
+    private final int dimension;
+
+    /**
+     * The mask of the mountain squares of the board of the book, the square index being `j * dimension + i`.
+     */
+    private final long mountains;
+
+    /**
+     * The number of plies of the games the book covers.
+     */
+    private final int plies;
+
+    /**
+     * The number of entries.
+     */
+    private final int entries;
+
+    /**
+     * The mapped entries.
+     */
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Constructs an OpeningBook.
+     *
+     * @param dimension the dimension of the board of the book
+     * @param mountains the mask of the mountain squares
+     * @param plies     the number of plies the book covers
+     * @param entries   the number of entries
+     * @param buffer    the mapped entries
+     */
+    private OpeningBook(int dimension, long mountains, int plies, int entries, MappedByteBuffer buffer) {
+        this.dimension = dimension;
+        this.mountains = mountains;
+        this.plies = plies;
+        this.entries = entries;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Opens a book file, mapping its entries into memory.
+     *
+     * @param file         the file
+     * @return             the book
+     * @throws IOException if the file cannot be read or is not a book file
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file));
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || in.readInt() != MAGIC || in.readInt() != VERSION)
+                throw new IOException(file + " is not an opening book file of version " + VERSION + ".");
+
+            int dimension = in.readInt();
+            long mountains = in.readLong();
+            int plies = in.readInt();
+            int entries = in.readInt();
+
+            if (entries < 0 || HEADER_BYTES + (long) entries * ENTRY_BYTES != channel.size())
+                throw new IOException("The opening book file " + file + " is truncated.");
+
+            if ((long) entries * ENTRY_BYTES > Integer.MAX_VALUE)
+                throw new IOException("The opening book file " + file + " is too large to be mapped.");
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES,
+                    (long) entries * ENTRY_BYTES);
+
+            return new OpeningBook(dimension, mountains, plies, entries, buffer);
+        }
+    }
+
+    /**
+     * Gets the number of plies of the games the book covers.
+     *
+     * @return the number of plies
+     */
+    public int plies() {
+        return this.plies;
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return the number of entries
+     */
+    public int entries() {
+        return this.entries;
+    }
+
+    /**
+     * Chooses the book move of a position.
+     *
+     * @param state the position
+     * @return      the move with the highest average score, or an empty Optional if the position is not in the book
+     */
+    public Optional<Move> move(GameState state) {
+        if (state.result() != GameResult.IN_PLAY || state.board().dimension() != this.dimension ||
+                mountainMask(state.board()) != this.mountains)
+            return Optional.empty();
+
+        int best = -1;
+        int entry = this.find(state.zobristKey());
+
+        for (; entry >= 0 && entry < this.entries && this.key(entry) == state.zobristKey(); entry++)
+            if (best < 0 || this.isBetter(entry, best))
+                best = entry;
+
+        return best < 0 ? Optional.empty() : Optional.of(MoveCodes.decode(this.move(best), this.dimension));
+    }
+
+    /**
+     * Finds the first entry of a position by a binary search.
+     *
+     * @param key the Zobrist key of the position
+     * @return    the index of the first entry, or -1 if the position is not in the book
+     */
+    int find(long key) {
+        int low = 0;
+        int high = this.entries;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (this.key(middle) < key)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+
+        return low < this.entries && this.key(low) == key ? low : -1;
+    }
+
+    /**
+     * Gets the Zobrist key of the position of an entry.
+     *
+     * @param entry the index of the entry
+     * @return      the key
+     */
+    long key(int entry) {
+        return this.buffer.getLong(entry * ENTRY_BYTES);
+    }
+
+    /**
+     * Gets the move code of an entry.
+     *
+     * @param entry the index of the entry
+     * @return      the move code, see `MoveCodes`
+     */
+    int move(int entry) {
+        return this.buffer.getInt(entry * ENTRY_BYTES + 8);
+    }
+
+    /**
+     * Gets the number of games the move of an entry was played in.
+     *
+     * @param entry the index of the entry
+     * @return      the number of games
+     */
+    int games(int entry) {
+        return this.buffer.getInt(entry * ENTRY_BYTES + 12);
+    }
+
+    /**
+     * Gets the points the side playing the move of an entry scored.
+     *
+     * @param entry the index of the entry
+     * @return      the points, 2 for every win and 1 for every draw
+     */
+    int points(int entry) {
+        return this.buffer.getInt(entry * ENTRY_BYTES + 16);
+    }
+
+    /**
+     * Checks whether the move of an entry is better than the move of another entry of the same position.
+     *
+     * @param entry the entry
+     * @param other the other entry
+     * @return      true if its average score is higher, or equal with more games
+     */
+    private boolean isBetter(int entry, int other) {
+        long score = (long) this.points(entry) * this.games(other);
+        long otherScore = (long) this.points(other) * this.games(entry);
+
+        return score > otherScore || score == otherScore && this.games(entry) > this.games(other);
+    }
+
+    /**
+     * Computes the mask of the mountain squares of a board.
+     *
+     * @param board the board
+     * @return      the mask of the mountain squares
+     */
+    static long mountainMask(Board board) {
+        int dimension = board.dimension();
+        long mask = 0;
+
+        for (int square = 0; square < dimension * dimension; square++)
+            if (board.at(PositionFactory.canonicalPos(dimension, square % dimension,
+                    square / dimension)) == BoardTile.MOUNTAIN)
+                mask |= 1L << square;
+
+        return mask;
+    }
+}
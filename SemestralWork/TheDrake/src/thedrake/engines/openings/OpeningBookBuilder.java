@@ -0,0 +1,366 @@
+package thedrake.engines.openings;
+
+import thedrake.engines.perft.Perft;
+import thedrake.engines.search.AlphaBetaSearch;
+import thedrake.engines.search.Evaluation;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.moves.codes.MoveCodes;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.ui.ValidMoves;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The `OpeningBookBuilder` class plays self-play games from the start state on several threads and writes
+ * the moves of their first plies into a file read by `OpeningBook`. Both sides choose their moves by a fixed-depth
+ * `AlphaBetaSearch`; within the plies of the book a random move is played instead with probability `EXPLORATION`,
+ * so the games spread over the setup (the leader on the home row, then the guards) and the first moves.
+ * A game without a capture of a leader within `MAX_GAME_PLIES` plies counts as a draw.
+ *
+ * The results are aggregated by the Zobrist key of the position and the code of the move, so transpositions
+ * share their entries. Moves played in fewer than the minimum number of games are left out of the file.
+ * Every game is played with its own random generator seeded by the seed of the book and the number of the game,
+ * so a book does not depend on the number of threads.
+ *
+ * The tool runs headless, without JavaFX on the classpath:
+ * {@code java thedrake.engines.openings.OpeningBookBuilder [--games N] [--plies P] [--depth D] [--min-games M]
+ * [--seed S] [--dimension D] [--mountains b2,d3] [--threads T] [--output FILE]}
+ * and reports the results of the games, the size of the file and the time of a lookup.
+ */
+public class OpeningBookBuilder {
+    /**
+     * The probability of playing a random move within the plies of the book.
+     */
+    private static final double EXPLORATION = 0.25;
+
+    /**
+     * The number of plies after which a game ends as a draw.
+     */
+    private static final int MAX_GAME_PLIES = 200;
+
+    /**
+     * The number of lookups timed for the report.
+     */
+    private static final int TIMED_LOOKUPS = 1 << 20;
+
+    /**
+     * The start state of the games.
+     */
+    private final GameState start;
+
+    /**
+     * The number of plies of every game recorded in the book.
+     */
+    private final int plies;
+
+    /**
+     * The depth of the search choosing the moves.
+     */
+    private final int depth;
+
+    /**
+     * The games played and the points scored by every move, by the key of the position and the move code.
+     */
+    private final Map<Long, Map<Integer, int[]>> positions;
+
+    /**
+     * The number of games won by blue, won by orange and drawn.
+     */
+    private final int[] results;
+
+    /**
+     * Constructs an OpeningBookBuilder.
+     *
+     * @param start                     the start state of the games
+     * @param plies                     the number of plies of every game recorded in the book
+     * @param depth                     the depth of the search choosing the moves
+     * @throws IllegalArgumentException if the plies or the depth are not positive
+     */
+    public OpeningBookBuilder(GameState start, int plies, int depth) {
+        if (plies < 1 || depth < 1)
+            throw new IllegalArgumentException("The book needs at least one ply and a search of depth one.");
+
+        this.start = start;
+        this.plies = plies;
+        this.depth = depth;
+        this.positions = new HashMap<>();
+        this.results = new int[3];
+    }
+
+    /**
+     * Plays the self-play games on the given number of threads and writes the book file.
+     *
+     * @param games                     the number of games
+     * @param minGames                  the smallest number of games a move must be played in to be written
+     * @param threads                   the number of threads playing the games
+     * @param seed                      the seed of the random moves
+     * @param file                      the file
+     * @param out                       the stream receiving the report, or null
+     * @return                          the number of written entries
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if the number of threads is not positive
+     */
+    public int build(int games, int minGames, int threads, long seed, Path file, PrintStream out) throws IOException {
+        if (threads < 1)
+            throw new IllegalArgumentException("The builder needs at least one thread.");
+
+        long begin = System.nanoTime();
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService players = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "book-player");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++)
+            futures.add(players.submit(() -> {
+                for (int game = next.getAndIncrement(); game < games; game = next.getAndIncrement())
+                    this.play(new Random(seed * 31 + game));
+            }));
+
+        try {
+            for (Future<?> future : futures)
+                join(future);
+        }
+        finally {
+            players.shutdown();
+        }
+
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        int entries = this.write(file, minGames);
+
+        if (out != null) {
+            out.printf("%,d games in %.3f s: %,d blue wins, %,d orange wins, %,d draws%n", games, seconds,
+                    this.results[0], this.results[1], this.results[2]);
+            out.printf("%,d positions, %,d entries played in at least %d games%n", this.positions.size(), entries,
+                    minGames);
+            out.printf("written %s, %,d bytes%n", file, Files.size(file));
+            timeLookup(OpeningBook.open(file), seed, out);
+        }
+
+        return entries;
+    }
+
+    /**
+     * Plays one self-play game and records its first plies. The game gets its own search, so its moves
+     * do not depend on the games played before on the same thread.
+     *
+     * @param random the generator of the random moves
+     */
+    private void play(Random random) {
+        AlphaBetaSearch search = new AlphaBetaSearch(null, Evaluation.standard());
+        int dimension = this.start.board().dimension();
+        long[] keys = new long[this.plies];
+        int[] moves = new int[this.plies];
+        PlayingSide[] sides = new PlayingSide[this.plies];
+        GameState state = this.start;
+        PlayingSide winner = null;
+        int ply = 0;
+
+        for (; ply < MAX_GAME_PLIES && state.result() == GameResult.IN_PLAY; ply++) {
+            List<Move> valid = new ValidMoves(state).allMoves();
+
+            // A side without any move loses, as in the search
+            if (valid.isEmpty()) {
+                winner = state.sideOnTurn() == PlayingSide.BLUE ? PlayingSide.ORANGE : PlayingSide.BLUE;
+                break;
+            }
+
+            Move move = ply < this.plies && random.nextDouble() < EXPLORATION ?
+                    valid.get(random.nextInt(valid.size())) :
+                    search.search(state, 0, this.depth, new AtomicBoolean()).move();
+
+            if (ply < this.plies) {
+                keys[ply] = state.zobristKey();
+                moves[ply] = MoveCodes.encode(move, dimension);
+                sides[ply] = state.sideOnTurn();
+            }
+
+            GameState next = move.execute(state);
+            if (next.result() == GameResult.VICTORY)
+                winner = state.sideOnTurn();
+            state = next;
+        }
+
+        this.record(keys, moves, sides, Math.min(ply, this.plies), winner);
+    }
+
+    /**
+     * Adds the recorded plies of a game to the positions of the book.
+     *
+     * @param keys   the keys of the positions of the recorded plies
+     * @param moves  the codes of the moves of the recorded plies
+     * @param sides  the sides playing the recorded plies
+     * @param count  the number of recorded plies
+     * @param winner the side that won the game, or null for a draw
+     */
+    private synchronized void record(long[] keys, int[] moves, PlayingSide[] sides, int count, PlayingSide winner) {
+        this.results[winner == null ? 2 : winner == PlayingSide.BLUE ? 0 : 1]++;
+
+        for (int ply = 0; ply < count; ply++) {
+            int[] entry = this.positions.computeIfAbsent(keys[ply], key -> new HashMap<>())
+                    .computeIfAbsent(moves[ply], move -> new int[2]);
+
+            entry[0]++;
+            entry[1] += winner == null ? 1 : winner == sides[ply] ? 2 : 0;
+        }
+    }
+
+    /**
+     * Writes the entries played in enough games to the book file, ordered by key and move, see `OpeningBook`.
+     *
+     * @param file         the file
+     * @param minGames     the smallest number of games a move must be played in to be written
+     * @return             the number of written entries
+     * @throws IOException if the file cannot be written
+     */
+    private int write(Path file, int minGames) throws IOException {
+        Map<Long, Map<Integer, int[]>> sorted = new TreeMap<>();
+        int entries = 0;
+
+        for (Map.Entry<Long, Map<Integer, int[]>> position : this.positions.entrySet()) {
+            Map<Integer, int[]> moves = new TreeMap<>();
+
+            for (Map.Entry<Integer, int[]> move : position.getValue().entrySet())
+                if (move.getValue()[0] >= minGames)
+                    moves.put(move.getKey(), move.getValue());
+
+            if (!moves.isEmpty()) {
+                sorted.put(position.getKey(), moves);
+                entries += moves.size();
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(OpeningBook.VERSION);
+            out.writeInt(this.start.board().dimension());
+            out.writeLong(OpeningBook.mountainMask(this.start.board()));
+            out.writeInt(this.plies);
+            out.writeInt(entries);
+
+            for (Map.Entry<Long, Map<Integer, int[]>> position : sorted.entrySet())
+                for (Map.Entry<Integer, int[]> move : position.getValue().entrySet()) {
+                    out.writeLong(position.getKey());
+                    out.writeInt(move.getKey());
+                    out.writeInt(move.getValue()[0]);
+                    out.writeInt(move.getValue()[1]);
+                }
+        }
+
+        return entries;
+    }
+
+    /**
+     * Measures and reports the average time of a lookup in a book, about half of the looked up keys
+     * being in the book.
+     *
+     * @param book the book
+     * @param seed the seed of the keys not in the book
+     * @param out  the stream receiving the report
+     */
+    private static void timeLookup(OpeningBook book, long seed, PrintStream out) {
+        Random random = new Random(seed);
+        long[] keys = new long[Math.max(1, book.entries())];
+        long found = 0;
+
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = i < book.entries() && random.nextBoolean() ? book.key(i) : random.nextLong();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < TIMED_LOOKUPS; i++)
+            found += book.find(keys[i % keys.length]) >= 0 ? 1 : 0;
+        long nanos = System.nanoTime() - start;
+
+        out.printf("lookup %.0f ns on average, %,d of %,d keys found%n", (double) nanos / TIMED_LOOKUPS, found,
+                TIMED_LOOKUPS);
+    }
+
+    /**
+     * Waits for a thread playing games to end.
+     *
+     * @param future                 the thread playing games
+     * @throws IllegalStateException if it failed or the waiting thread was interrupted
+     */
+    private static void join(Future<?> future) {
+        try {
+            future.get();
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("A self-play game failed.", e.getCause());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the self-play games.", e);
+        }
+    }
+
+    /**
+     * Builds an opening book from the start state of the standard setup.
+     *
+     * @param args the command line options, see the class description
+     * @throws IOException if the book cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int games = 2000;
+        int plies = 8;
+        int depth = 3;
+        int minGames = 3;
+        long seed = 1;
+        int dimension = 4;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> mountains = new ArrayList<>();
+        Path output = Path.of("thedrake.book");
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--games"))
+                games = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--plies"))
+                plies = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--depth"))
+                depth = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--min-games"))
+                minGames = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--seed"))
+                seed = Long.parseLong(args[++i]);
+            else if (args[i].equals("--dimension"))
+                dimension = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--mountains"))
+                mountains = List.of(args[++i].split(","));
+            else if (args[i].equals("--threads"))
+                threads = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--output"))
+                output = Path.of(args[++i]);
+            else
+                throw new IllegalArgumentException("Unknown option " + args[i] + ".");
+        }
+
+        PrintStream out = System.out;
+
+        out.printf("opening book %dx%d, mountains %s, %d plies, search depth %d, %d threads%n", dimension, dimension,
+                mountains.isEmpty() ? "none" : String.join(",", mountains), plies, depth, threads);
+
+        new OpeningBookBuilder(Perft.startState(dimension, mountains), plies, depth)
+                .build(games, minGames, threads, seed, output, out);
+    }
+}
@@ -0,0 +1,216 @@
+package thedrake.engines.perft;
+
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.states.GameState;
+import thedrake.ui.ValidMoves;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The `ParallelPerft` class counts the leaf nodes of the game tree on all cores. The top plies of the tree
+ * are split into fork-join tasks, each walking its subtree over immutable `GameState`s, so the tasks share
+ * nothing but the optional `PerftTable` and the counts are simply summed. Running the same count with growing
+ * thread counts measures how the whole model layer scales.
+ *
+ * The tool runs headless, without JavaFX on the classpath:
+ * {@code java thedrake.engines.perft.ParallelPerft [--depth N] [--split S] [--threads 1,2,4] [--hash MB]
+ * [--dimension D] [--mountains b2,d3]}
+ */
+public class ParallelPerft {
+    /**
+     * The pool running the tasks.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The number of plies from the root that are split into separate tasks.
+     */
+    private final int splitDepth;
+
+    /**
+     * The table caching subtree counts, or null for plain perft.
+     */
+    private final PerftTable table;
+
+    /**
+     * Constructs a ParallelPerft.
+     *
+     * @param pool                      the pool running the tasks
+     * @param splitDepth                the number of plies split into tasks, at least 1
+     * @param table                     the table caching subtree counts, or null to count every subtree
+     * @throws IllegalArgumentException if the split depth is less than 1
+     */
+    public ParallelPerft(ForkJoinPool pool, int splitDepth, PerftTable table) {
+        if (splitDepth < 1)
+            throw new IllegalArgumentException("At least the root has to be split.");
+
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+        this.table = table;
+    }
+
+    /**
+     * Counts the leaf nodes of the game tree of the given state to the given depth.
+     *
+     * @param state the root state
+     * @param depth the depth of the tree
+     * @return      the number of leaf nodes
+     */
+    public long perft(GameState state, int depth) {
+        return this.pool.invoke(new PerftTask(state, depth, this.splitDepth));
+    }
+
+    /**
+     * Counts the leaf nodes of a subtree on the current thread, using the table if there is one.
+     *
+     * @param state the root of the subtree
+     * @param depth the depth of the subtree
+     * @return      the number of leaf nodes
+     */
+    private long count(GameState state, int depth) {
+        if (this.table == null)
+            return Perft.perft(state, depth);
+
+        if (depth <= 1)
+            return depth == 0 ? 1 : new ValidMoves(state).allMoves().size();
+
+        long cached = this.table.probe(state.zobristKey(), depth);
+        if (cached != PerftTable.MISS)
+            return cached;
+
+        long nodes = 0;
+        for (Move move : new ValidMoves(state).allMoves())
+            nodes += this.count(move.execute(state), depth - 1);
+
+        this.table.store(state.zobristKey(), depth, nodes);
+        return nodes;
+    }
+
+    /**
+     * The `PerftTask` class counts one subtree, forking a task for every move while it is within the split plies.
+     */
+    private class PerftTask extends RecursiveTask<Long> {
+        /**
+         * The version of the serialized form inherited from `ForkJoinTask`.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The root of the subtree.
+         */
+        private final GameState state;
+
+        /**
+         * The depth of the subtree.
+         */
+        private final int depth;
+
+        /**
+         * The number of plies of the subtree still split into tasks.
+         */
+        private final int split;
+
+        /**
+         * Constructs a PerftTask.
+         *
+         * @param state the root of the subtree
+         * @param depth the depth of the subtree
+         * @param split the number of plies still split into tasks
+         */
+        private PerftTask(GameState state, int depth, int split) {
+            this.state = state;
+            this.depth = depth;
+            this.split = split;
+        }
+
+        /**
+         * Counts the subtree, forking the child subtrees while splitting.
+         *
+         * @return the number of leaf nodes
+         */
+        @Override
+        protected Long compute() {
+            if (this.split == 0 || this.depth <= 1)
+                return count(this.state, this.depth);
+
+            List<PerftTask> tasks = new ArrayList<>();
+            for (Move move : new ValidMoves(this.state).allMoves())
+                tasks.add(new PerftTask(move.execute(this.state), this.depth - 1, this.split - 1));
+
+            long nodes = 0;
+            for (PerftTask task : invokeAll(tasks))
+                nodes += task.join();
+
+            return nodes;
+        }
+    }
+
+    /**
+     * Runs parallel perft from the start state with every requested thread count, printing the node count,
+     * the time, the nodes per second and the speedup over the first thread count.
+     *
+     * @param args the command line options, see the class description
+     */
+    public static void main(String[] args) {
+        int depth = 9;
+        int split = 2;
+        int hash = 0;
+        int dimension = 4;
+        List<String> mountains = new ArrayList<>();
+        List<Integer> threads = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--depth"))
+                depth = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--split"))
+                split = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--threads"))
+                for (String count : args[++i].split(","))
+                    threads.add(Integer.parseInt(count));
+            else if (args[i].equals("--hash"))
+                hash = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--dimension"))
+                dimension = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--mountains"))
+                mountains = List.of(args[++i].split(","));
+            else
+                throw new IllegalArgumentException("Unknown option " + args[i] + ".");
+        }
+
+        if (threads.isEmpty())
+            for (int count = 1; count <= Runtime.getRuntime().availableProcessors(); count *= 2)
+                threads.add(count);
+
+        GameState state = Perft.startState(dimension, mountains);
+        PrintStream out = System.out;
+        double baseline = 0;
+
+        out.printf("parallel perft %dx%d depth %d, split %d, %s, %d cores%n", dimension, dimension, depth, split,
+                hash > 0 ? "hash " + hash + " MB" : "no hash", Runtime.getRuntime().availableProcessors());
+
+        // Warm-up counts keep the compilation of the first measured run out of the speedups
+        for (int round = 0; round < 2; round++)
+            new ParallelPerft(ForkJoinPool.commonPool(), split, hash > 0 ? new PerftTable(hash) : null)
+                    .perft(state, depth);
+
+        for (int count : threads) {
+            ForkJoinPool pool = new ForkJoinPool(count);
+            PerftTable table = hash > 0 ? new PerftTable(hash) : null;
+
+            long start = System.nanoTime();
+            long nodes = new ParallelPerft(pool, split, table).perft(state, depth);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            pool.shutdown();
+
+            if (baseline == 0)
+                baseline = seconds;
+
+            out.printf("threads %3d %,16d nodes %9.3f s %,14.0f nodes/s speedup %5.2f%n",
+                    count, nodes, seconds, nodes / seconds, baseline / seconds);
+        }
+    }
+}
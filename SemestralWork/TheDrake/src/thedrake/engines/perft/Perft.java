@@ -0,0 +1,184 @@
+package thedrake.engines.perft;
+
+import thedrake.models.bitboards.interfaces.SearchBoard;
+import thedrake.models.boards.Board;
+import thedrake.models.moves.codes.MoveCodes;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.setups.StandardDrakeSetup;
+import thedrake.models.states.GameState;
+import thedrake.models.tiles.interfaces.BoardTile;
+import thedrake.ui.ValidMoves;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The `Perft` class counts the leaf nodes of the game tree of The Drake to a fixed depth.
+ * The counts are a fingerprint of the move generator: any change of the rules or any generator bug changes them,
+ * and the time it takes to count them measures the throughput of move generation and execution.
+ * The reference walk uses `ValidMoves.allMoves()` and `Move.execute` on immutable `GameState`s;
+ * the bitboard walk uses a `SearchBoard` with int-encoded moves and make/unmake, on boards up to 16x16.
+ *
+ * The tool runs headless, without JavaFX on the classpath:
+ * {@code java thedrake.engines.perft.Perft [--depth N] [--dimension D] [--mountains b2,d3] [--divide] [--bitboard]}
+ */
+public class Perft {
+    /**
+     * The class only holds static methods.
+     */
+    private Perft() {
+    }
+
+    /**
+     * Counts the leaf nodes of the game tree of the given state to the given depth,
+     * generating moves by `ValidMoves.allMoves()` and playing them by `Move.execute`.
+     *
+     * @param state the root state
+     * @param depth the depth of the tree
+     * @return      the number of leaf nodes
+     */
+    public static long perft(GameState state, int depth) {
+        if (depth == 0)
+            return 1;
+
+        List<Move> moves = new ValidMoves(state).allMoves();
+
+        if (depth == 1)
+            return moves.size();
+
+        long nodes = 0;
+        for (Move move : moves)
+            nodes += perft(move.execute(state), depth - 1);
+
+        return nodes;
+    }
+
+    /**
+     * Counts the leaf nodes below each root move of the given state.
+     *
+     * @param state the root state
+     * @param depth the depth of the tree, at least 1
+     * @return      the number of leaf nodes by root move, in the order of generation
+     */
+    public static Map<Move, Long> divide(GameState state, int depth) {
+        Map<Move, Long> counts = new LinkedHashMap<>();
+
+        for (Move move : new ValidMoves(state).allMoves())
+            counts.put(move, perft(move.execute(state), depth - 1));
+
+        return counts;
+    }
+
+    /**
+     * Counts the leaf nodes of the game tree of the given position to the given depth using
+     * the bitboard move generator. The position is restored before the method returns.
+     *
+     * @param position the root position
+     * @param depth    the depth of the tree
+     * @return         the number of leaf nodes
+     */
+    public static long perft(SearchBoard position, int depth) {
+        int[][] buffers = new int[Math.max(depth, 1)][position.maxMoves()];
+        return perft(position, depth, buffers);
+    }
+
+    /**
+     * Counts the leaf nodes of the bitboard game tree using one preallocated move buffer per ply.
+     *
+     * @param position the current position
+     * @param depth    the remaining depth
+     * @param buffers  the move buffers indexed by remaining depth - 1
+     * @return         the number of leaf nodes
+     */
+    private static long perft(SearchBoard position, int depth, int[][] buffers) {
+        if (depth == 0)
+            return 1;
+
+        int[] moves = buffers[depth - 1];
+        int count = position.generateMoves(moves);
+
+        if (depth == 1)
+            return count;
+
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            position.make(moves[i]);
+            nodes += perft(position, depth - 1, buffers);
+            position.unmake();
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Creates the start state of the standard setup on a board of the given dimension with the given mountains.
+     *
+     * @param dimension the dimension of the board
+     * @param mountains the names of the mountain squares, e.g. "b2"
+     * @return          the start state
+     */
+    public static GameState startState(int dimension, List<String> mountains) {
+        Board board = new Board(dimension);
+        PositionFactory pf = board.positionFactory();
+        List<Board.TileAt> tiles = new ArrayList<>();
+
+        for (String name : mountains)
+            tiles.add(new Board.TileAt(pf.pos(name), BoardTile.MOUNTAIN));
+
+        return new StandardDrakeSetup().startState(board.withTiles(tiles.toArray(new Board.TileAt[0])));
+    }
+
+    /**
+     * Runs perft from the start state for every depth up to the requested one, printing the node counts,
+     * the time and the nodes per second, optionally followed by the divide of the last depth.
+     *
+     * @param args the command line options, see the class description
+     */
+    public static void main(String[] args) {
+        int depth = 4;
+        int dimension = 4;
+        List<String> mountains = new ArrayList<>();
+        boolean divide = false;
+        boolean bitboard = false;
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--depth"))
+                depth = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--dimension"))
+                dimension = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--mountains"))
+                mountains = List.of(args[++i].split(","));
+            else if (args[i].equals("--divide"))
+                divide = true;
+            else if (args[i].equals("--bitboard"))
+                bitboard = true;
+            else
+                throw new IllegalArgumentException("Unknown option " + args[i] + ".");
+        }
+
+        GameState state = startState(dimension, mountains);
+        PrintStream out = System.out;
+
+        out.printf("perft %dx%d, mountains %s, %s generator%n", dimension, dimension,
+                mountains.isEmpty() ? "none" : String.join(",", mountains), bitboard ? "bitboard" : "GameState");
+
+        for (int d = 1; d <= depth; d++) {
+            long start = System.nanoTime();
+            long nodes = bitboard ? perft(SearchBoard.of(state), d) : perft(state, d);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            out.printf("depth %2d %,16d nodes %9.3f s %,14.0f nodes/s%n", d, nodes, seconds, nodes / seconds);
+        }
+
+        if (divide && depth > 0) {
+            out.println("divide:");
+            for (Map.Entry<Move, Long> entry : divide(state, depth).entrySet())
+                out.printf("%-8s %,d%n", MoveCodes.toString(MoveCodes.encode(entry.getKey(), dimension), dimension),
+                        entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package thedrake.engines.perft;
+
+/**
+ * The `PerftTable` class caches the leaf counts of subtrees by position key and depth, so a hashed perft
+ * counts a position reached by different move orders only once. Like the `TranspositionTable`, every entry
+ * is a pair of longs, the key XOR-ed with the data and the data itself, so entries torn by concurrent writers
+ * read as misses and the table can be shared by all perft tasks without locks.
+ * The data holds the depth in bits 0-7 and the count in bits 8-63; an entry is always replaced.
+ */
+public class PerftTable {
+    /**
+     * The value returned by `probe` when the subtree is not in the table.
+     */
+    public static final long MISS = -1;
+
+    /**
+     * The slots of the table: entry e has its checked key at index 2e and its data at index 2e + 1.
+     */
+    private final long[] slots;
+
+    /**
+     * The mask turning a key into the index of its entry.
+     */
+    private final long entryMask;
+
+    /**
+     * Constructs a PerftTable of at most the given size. The number of entries is the largest power
+     * of two that fits, each entry taking 16 bytes.
+     *
+     * @param megabytes                 the size of the table in megabytes
+     * @throws IllegalArgumentException if the size is not positive or too large
+     */
+    public PerftTable(int megabytes) {
+        if (megabytes <= 0 || megabytes > 16384)
+            throw new IllegalArgumentException("The size of the table must be between 1 and 16384 MB.");
+
+        long entries = Long.highestOneBit(((long) megabytes << 20) / 16);
+        if (entries * 2 > Integer.MAX_VALUE - 8)
+            entries /= 2;
+
+        this.slots = new long[(int) entries * 2];
+        this.entryMask = entries - 1;
+    }
+
+    /**
+     * Looks up the leaf count of the subtree of the given position and depth.
+     *
+     * @param key   the key of the position
+     * @param depth the depth of the subtree, between 1 and 255
+     * @return      the leaf count, or MISS if it is not in the table
+     */
+    public long probe(long key, int depth) {
+        int index = this.index(key, depth);
+        long data = this.slots[index + 1];
+
+        if (data == 0 || (this.slots[index] ^ data) != key || (int) (data & 0xFF) != depth)
+            return MISS;
+
+        return data >>> 8;
+    }
+
+    /**
+     * Stores the leaf count of the subtree of the given position and depth.
+     *
+     * @param key   the key of the position
+     * @param depth the depth of the subtree, between 1 and 255
+     * @param count the leaf count, below 2^56
+     */
+    public void store(long key, int depth, long count) {
+        int index = this.index(key, depth);
+        long data = count << 8 | depth;
+
+        this.slots[index] = key ^ data;
+        this.slots[index + 1] = data;
+    }
+
+    /**
+     * Gets the index of the first slot of the entry of the given position and depth.
+     *
+     * @param key   the key of the position
+     * @param depth the depth of the subtree
+     * @return      the index of the first slot of the entry
+     */
+    private int index(long key, int depth) {
+        return (int) ((key ^ depth * 0x9E3779B97F4A7C15L) & this.entryMask) * 2;
+    }
+}
@@ -0,0 +1,306 @@
+package thedrake.engines.pondering;
+
+import thedrake.engines.interfaces.Engine;
+import thedrake.engines.search.SearchResult;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The `PonderingEngine` class lets an engine think on the opponent's time. After every search it asks the engine
+ * for the expected reply to the chosen move and searches the position after that reply on its own thread,
+ * without a time limit, while the opponent thinks.
+ *
+ * When the next search is asked for the pondered position (a ponder hit), the running search becomes the search
+ * of the move: it keeps its table and partial results and is stopped once the time budget measured from the start
+ * of pondering runs out, so the time pondered is saved. Any other position (a ponder miss) stops the pondering
+ * search at once and is searched as usual, the engine still keeping what the pondering put into its tables.
+ * The engine is never used by two threads at once. The calls of an instance must not overlap.
+ */
+public class PonderingEngine implements Engine {
+    /**
+     * The interval in milliseconds at which a search waiting for a pondering search checks its flags.
+     */
+    private static final long POLL_MILLIS = 5;
+
+    /**
+     * The engine searching the positions.
+     */
+    private final Engine engine;
+
+    /**
+     * The thread running the pondering searches.
+     */
+    private final ExecutorService ponderer;
+
+    /**
+     * The running pondering search, or null.
+     */
+    private Ponder ponder;
+
+    /**
+     * The number of pondering searches started.
+     */
+    private int ponders;
+
+    /**
+     * The number of searches of a pondered position.
+     */
+    private int hits;
+
+    /**
+     * The number of searches of a position other than the pondered one.
+     */
+    private int misses;
+
+    /**
+     * The time of the time budgets spent pondering before ponder hits, in milliseconds.
+     */
+    private long savedMillis;
+
+    /**
+     * Constructs a PonderingEngine.
+     *
+     * @param engine the engine searching the positions
+     */
+    public PonderingEngine(Engine engine) {
+        this.engine = engine;
+        this.ponderer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ponderer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Searches for the best move, taking over the pondering search on a ponder hit, and starts pondering
+     * on the expected reply to the chosen move.
+     *
+     * @param state     the position to search
+     * @param millis    the time budget in milliseconds, or 0 for no limit
+     * @param cancelled the flag stopping the search once it is set
+     * @return          the best move found, or a result without a move if the game is over
+     */
+    @Override
+    public SearchResult search(GameState state, long millis, AtomicBoolean cancelled) {
+        Ponder ponder = this.ponder;
+        SearchResult result = null;
+
+        this.ponder = null;
+
+        if (ponder != null && ponder.state.zobristKey() == state.zobristKey()) {
+            long pondered = (System.nanoTime() - ponder.start) / 1_000_000;
+
+            this.hits++;
+            this.savedMillis += millis > 0 ? Math.min(pondered, millis) : pondered;
+            result = ponder.finish(millis > 0 ? ponder.start + millis * 1_000_000 : Long.MAX_VALUE, cancelled);
+        }
+        else if (ponder != null) {
+            this.misses++;
+            ponder.abort();
+        }
+
+        if (result == null)
+            result = this.engine.search(state, millis, cancelled);
+
+        if (result.move() != null && !cancelled.get())
+            this.startPondering(result.move().execute(state));
+
+        return result;
+    }
+
+    /**
+     * Stops the running pondering search, e.g. when the game is over. The next search counts as a miss
+     * only if a pondering search was running.
+     */
+    public void stopPondering() {
+        if (this.ponder != null) {
+            this.ponder.abort();
+            this.ponder = null;
+        }
+    }
+
+    /**
+     * Gets the number of pondering searches started.
+     *
+     * @return the number of ponders
+     */
+    public int ponders() {
+        return this.ponders;
+    }
+
+    /**
+     * Gets the number of searches of a pondered position.
+     *
+     * @return the number of ponder hits
+     */
+    public int hits() {
+        return this.hits;
+    }
+
+    /**
+     * Gets the number of searches of a position other than the pondered one.
+     *
+     * @return the number of ponder misses
+     */
+    public int misses() {
+        return this.misses;
+    }
+
+    /**
+     * Gets the share of ponder hits among the searches that followed a pondering search.
+     *
+     * @return the hit rate between 0 and 1, 0 if there was no such search
+     */
+    public double hitRate() {
+        return this.hits + this.misses == 0 ? 0 : (double) this.hits / (this.hits + this.misses);
+    }
+
+    /**
+     * Gets the time of the time budgets spent pondering before ponder hits.
+     *
+     * @return the saved time in milliseconds
+     */
+    public long savedMillis() {
+        return this.savedMillis;
+    }
+
+    /**
+     * Describes the pondering statistics, e.g. "ponder hits 3 of 5 (60.0%), 4200 ms saved".
+     *
+     * @return the description
+     */
+    public String report() {
+        return String.format("ponder hits %d of %d (%.1f%%), %d ms saved", this.hits, this.hits + this.misses,
+                100 * this.hitRate(), this.savedMillis);
+    }
+
+    /**
+     * Gets the expected move of the engine.
+     *
+     * @param state the position
+     * @return      the expected move, or null if the engine expects none
+     */
+    @Override
+    public Move expectedReply(GameState state) {
+        return this.engine.expectedReply(state);
+    }
+
+    /**
+     * Stops pondering and the threads of the engine. The engine cannot be used afterwards.
+     */
+    @Override
+    public void shutdown() {
+        this.stopPondering();
+        this.ponderer.shutdownNow();
+        this.engine.shutdown();
+    }
+
+    /**
+     * Starts searching the position after the expected reply in a position on the pondering thread.
+     *
+     * @param state the position after the chosen move
+     */
+    private void startPondering(GameState state) {
+        if (state.result() != GameResult.IN_PLAY)
+            return;
+
+        Move reply = this.engine.expectedReply(state);
+        if (reply == null)
+            return;
+
+        GameState expected = reply.execute(state);
+        if (expected.result() != GameResult.IN_PLAY)
+            return;
+
+        AtomicBoolean stopped = new AtomicBoolean();
+        Future<SearchResult> future = this.ponderer.submit(() -> this.engine.search(expected, 0, stopped));
+
+        this.ponder = new Ponder(expected, stopped, future);
+        this.ponders++;
+    }
+
+    /**
+     * The `Ponder` class holds a running pondering search.
+     */
+    private static class Ponder {
+        /**
+         * The pondered position.
+         */
+        private final GameState state;
+
+        /**
+         * The flag stopping the pondering search.
+         */
+        private final AtomicBoolean stopped;
+
+        /**
+         * The pondering search.
+         */
+        private final Future<SearchResult> future;
+
+        /**
+         * The value of `System.nanoTime()` at which pondering started.
+         */
+        private final long start;
+
+        /**
+         * Constructs a Ponder.
+         *
+         * @param state   the pondered position
+         * @param stopped the flag stopping the pondering search
+         * @param future  the pondering search
+         */
+        private Ponder(GameState state, AtomicBoolean stopped, Future<SearchResult> future) {
+            this.state = state;
+            this.stopped = stopped;
+            this.future = future;
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * Lets the pondering search run until the deadline or the cancellation of the search taking it over.
+         *
+         * @param deadline               the value of `System.nanoTime()` at which the search stops
+         * @param cancelled              the flag of the search taking it over
+         * @return                       the result of the pondering search
+         * @throws IllegalStateException if the pondering search failed or the waiting thread was interrupted
+         */
+        private SearchResult finish(long deadline, AtomicBoolean cancelled) {
+            while (true) {
+                if (cancelled.get() || System.nanoTime() >= deadline)
+                    this.stopped.set(true);
+
+                try {
+                    return this.future.get(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                catch (TimeoutException e) {
+                    // The search is still running, so the flags are checked again
+                }
+                catch (ExecutionException e) {
+                    throw new IllegalStateException("The pondering search failed.", e.getCause());
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the pondering search.", e);
+                }
+            }
+        }
+
+        /**
+         * Stops the pondering search and waits for it to end, discarding its result.
+         */
+        private void abort() {
+            this.stopped.set(true);
+            this.finish(Long.MIN_VALUE, this.stopped);
+        }
+    }
+}
@@ -0,0 +1,641 @@
+package thedrake.engines.search;
+
+import thedrake.engines.endgames.Tablebase;
+import thedrake.engines.tables.TranspositionTable;
+import thedrake.models.moves.codes.MoveCodes;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.positions.interfaces.TilePos;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.ui.ValidMoves;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The `AlphaBetaSearch` class chooses moves for a computer player. It runs an iterative-deepening negamax search
+ * with alpha-beta pruning over `ValidMoves.allMoves()` and `Move.execute`, scoring the leaves by an `Evaluation`
+ * whose troop terms are passed down the tree and updated by the delta of every move. Instead of scoring a leaf
+ * in the middle of an exchange, a quiescence search plays on the captures of `ValidMoves.captures()` until
+ * the side on turn prefers to stop capturing (stand pat) or no capture can raise the score enough (delta pruning).
+ * Results are kept in a `TranspositionTable`, the moves of every position are tried in the order of `MoveOrdering`
+ * and the best root move of each iteration is tried first in the next one. Positions covered by an endgame
+ * `Tablebase` are not searched but scored by their exact outcome.
+ *
+ * The search stops when the time budget runs out or when its cancellation flag is set, checking both
+ * every `CHECK_INTERVAL` nodes, and returns the best move of the deepest iteration it finished.
+ * A side that has lost its leader or has no move loses; a win found sooner scores higher.
+ * An instance is not thread-safe, but several instances may share one table; `LazySmpSearch` runs such
+ * instances as helpers, which start at a different depth and try the root moves in a different order.
+ *
+ * Every search reports its `SearchStatistics`, whose principal variation follows the table moves from the root
+ * once the search has ended, so it is cut short where an entry was overwritten.
+ */
+public class AlphaBetaSearch {
+    /**
+     * The score of winning at the root. A win n plies from the root scores `WIN - n`.
+     */
+    public static final int WIN = 30000;
+
+    /**
+     * The deepest iteration the search runs.
+     */
+    public static final int MAX_DEPTH = 64;
+
+    /**
+     * The farthest distance from the root the quiescence search captures at.
+     */
+    private static final int MAX_PLY = 2 * MAX_DEPTH;
+
+    /**
+     * The lowest score of a win.
+     */
+    private static final int WIN_BOUND = WIN - MAX_PLY - 1;
+
+    /**
+     * The margin by which a capture must be able to raise the score above alpha to be searched by the quiescence
+     * search, covering the leader safety and other changes the troop terms of the capture do not show.
+     */
+    private static final int DELTA_MARGIN = 50;
+
+    /**
+     * A score above every reachable score.
+     */
+    private static final int INFINITY = WIN + 1;
+
+    /**
+     * The number of nodes between two checks of the time budget and the cancellation flag, a power of two.
+     */
+    private static final int CHECK_INTERVAL = 1024;
+
+    /**
+     * The table of search results, or null to search without one.
+     */
+    private final TranspositionTable table;
+
+    /**
+     * The index of the helper thread running the search, 0 for the main thread.
+     */
+    private final int helper;
+
+    /**
+     * The order of the moves, or null to try the moves in the order of `ValidMoves` with only the table move first.
+     */
+    private final MoveOrdering ordering;
+
+    /**
+     * The evaluation of the leaves.
+     */
+    private final Evaluation evaluation;
+
+    /**
+     * Whether the leaves are resolved by the quiescence search.
+     */
+    private final boolean quiescent;
+
+    /**
+     * The tablebase scoring the endgames it covers, or null to search them.
+     */
+    private final Tablebase tablebase;
+
+    /**
+     * The number of nodes of the current search.
+     */
+    private long nodes;
+
+    /**
+     * The number of nodes of the current search visited by the quiescence search, included in `nodes`.
+     */
+    private long quiescenceNodes;
+
+    /**
+     * The farthest distance from the root a node of the current search was visited at.
+     */
+    private int selectiveDepth;
+
+    /**
+     * The number of table probes of the current search.
+     */
+    private long tableProbes;
+
+    /**
+     * The number of table probes of the current search which found their position.
+     */
+    private long tableHits;
+
+    /**
+     * The number of table hits of the current search whose score ended the search of their position.
+     */
+    private long tableCutoffs;
+
+    /**
+     * The number of beta cutoffs of the main search of the current search.
+     */
+    private long betaCutoffs;
+
+    /**
+     * The number of beta cutoffs of the current search caused by the first move tried.
+     */
+    private long firstMoveCutoffs;
+
+    /**
+     * The value of `System.nanoTime()` at which the current search stops.
+     */
+    private long deadline;
+
+    /**
+     * The cancellation flag of the current search.
+     */
+    private AtomicBoolean cancelled;
+
+    /**
+     * Whether the current iteration was stopped and its scores are meaningless.
+     */
+    private boolean aborted;
+
+    /**
+     * Constructs an AlphaBetaSearch.
+     *
+     * @param table the table of search results, or null to search without one
+     */
+    public AlphaBetaSearch(TranspositionTable table) {
+        this(table, 0, true, true, Evaluation.standard(), null);
+    }
+
+    /**
+     * Constructs an AlphaBetaSearch scoring the leaves by the given evaluation.
+     *
+     * @param table      the table of search results, or null to search without one
+     * @param evaluation the evaluation of the leaves
+     */
+    public AlphaBetaSearch(TranspositionTable table, Evaluation evaluation) {
+        this(table, 0, true, true, evaluation, null);
+    }
+
+    /**
+     * Constructs an AlphaBetaSearch scoring the leaves by the given evaluation and the endgames by a tablebase.
+     *
+     * @param table      the table of search results, or null to search without one
+     * @param evaluation the evaluation of the leaves
+     * @param tablebase  the tablebase scoring the endgames it covers, or null to search them
+     */
+    public AlphaBetaSearch(TranspositionTable table, Evaluation evaluation, Tablebase tablebase) {
+        this(table, 0, true, true, evaluation, tablebase);
+    }
+
+    /**
+     * Constructs an AlphaBetaSearch which may try the moves unordered or score the leaves without the quiescence
+     * search, e.g. to measure what either gains.
+     *
+     * @param table     the table of search results, or null to search without one
+     * @param ordered   whether the moves are ordered by `MoveOrdering`
+     * @param quiescent whether the leaves are resolved by the quiescence search
+     */
+    public AlphaBetaSearch(TranspositionTable table, boolean ordered, boolean quiescent) {
+        this(table, 0, ordered, quiescent, Evaluation.standard(), null);
+    }
+
+    /**
+     * Constructs an AlphaBetaSearch run by a thread of a parallel search. Odd helpers skip the first iteration
+     * and every helper rotates the root moves after the best one by its index, so the threads spread over
+     * different parts of the tree and share their findings through the table.
+     *
+     * @param table      the table of search results, or null to search without one
+     * @param helper     the index of the thread, 0 for the main thread
+     * @param evaluation the evaluation of the leaves
+     * @param tablebase  the tablebase scoring the endgames it covers, or null to search them
+     */
+    AlphaBetaSearch(TranspositionTable table, int helper, Evaluation evaluation, Tablebase tablebase) {
+        this(table, helper, true, true, evaluation, tablebase);
+    }
+
+    /**
+     * Constructs an AlphaBetaSearch.
+     *
+     * @param table      the table of search results, or null to search without one
+     * @param helper     the index of the thread, 0 for the main thread
+     * @param ordered    whether the moves are ordered by `MoveOrdering`
+     * @param quiescent  whether the leaves are resolved by the quiescence search
+     * @param evaluation the evaluation of the leaves
+     * @param tablebase  the tablebase scoring the endgames it covers, or null to search them
+     */
+    private AlphaBetaSearch(TranspositionTable table, int helper, boolean ordered, boolean quiescent,
+                            Evaluation evaluation, Tablebase tablebase) {
+        this.table = table;
+        this.helper = helper;
+        this.ordering = ordered ? new MoveOrdering() : null;
+        this.quiescent = quiescent;
+        this.evaluation = evaluation;
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Searches for the best move of the side on turn.
+     *
+     * @param state     the position to search
+     * @param millis    the time budget in milliseconds, or 0 for no limit
+     * @param maxDepth  the deepest iteration, at most MAX_DEPTH
+     * @param cancelled the flag stopping the search once it is set
+     * @return          the best move found, or a result without a move if the game is over
+     */
+    public SearchResult search(GameState state, long millis, int maxDepth, AtomicBoolean cancelled) {
+        if (this.table != null)
+            this.table.newSearch();
+
+        return this.iterate(state, millis, maxDepth, cancelled);
+    }
+
+    /**
+     * Runs the iterations of a search in the current generation of the table.
+     *
+     * @param state     the position to search
+     * @param millis    the time budget in milliseconds, or 0 for no limit
+     * @param maxDepth  the deepest iteration, at most MAX_DEPTH
+     * @param cancelled the flag stopping the search once it is set
+     * @return          the best move found, or a result without a move if the game is over
+     */
+    SearchResult iterate(GameState state, long millis, int maxDepth, AtomicBoolean cancelled) {
+        long start = System.nanoTime();
+        List<Move> moves = state.result() == GameResult.IN_PLAY ?
+                new ValidMoves(state).allMoves() : new ArrayList<>();
+
+        this.nodes = 0;
+        this.quiescenceNodes = 0;
+        this.selectiveDepth = 0;
+        this.tableProbes = 0;
+        this.tableHits = 0;
+        this.tableCutoffs = 0;
+        this.betaCutoffs = 0;
+        this.firstMoveCutoffs = 0;
+        this.deadline = millis > 0 ? start + millis * 1_000_000 : Long.MAX_VALUE;
+        this.cancelled = cancelled;
+        this.aborted = false;
+
+        if (moves.isEmpty())
+            return new SearchResult(null, state.result() == GameResult.DRAW ? 0 : -WIN, 0, 0, 0);
+
+        int dimension = state.board().dimension();
+
+        if (this.ordering != null) {
+            int[] codes = new int[moves.size()];
+            int[] scores = new int[moves.size()];
+
+            this.ordering.newSearch(dimension);
+            this.ordering.score(state, moves, codes, scores, MoveCodes.NONE, 0);
+            for (int i = 0; i < moves.size(); i++)
+                MoveOrdering.pickNext(moves, codes, scores, i);
+        }
+
+        Move best = moves.get(0);
+        int bestScore = -INFINITY;
+        int completed = 0;
+        int terms = this.evaluation.troopTerms(state);
+        List<Long> iterationMillis = new ArrayList<>();
+        long iterationStart = start;
+
+        for (int depth = 1 + this.helper % 2; depth <= Math.min(maxDepth, MAX_DEPTH); depth++) {
+            int alpha = -INFINITY;
+            Move iterationBest = null;
+
+            moves.remove(best);
+            moves.add(0, best);
+            if (this.helper > 0)
+                Collections.rotate(moves.subList(1, moves.size()), this.helper);
+
+            for (Move move : moves) {
+                int score = -this.negamax(move.execute(state), depth - 1, -INFINITY, -alpha, 1,
+                        -(terms + this.evaluation.delta(state, move)));
+
+                if (this.aborted)
+                    break;
+
+                if (score > alpha) {
+                    alpha = score;
+                    iterationBest = move;
+                }
+            }
+
+            // The previous best move is searched first, so a move of an unfinished iteration is at least as good
+            if (iterationBest != null) {
+                best = iterationBest;
+                bestScore = alpha;
+            }
+
+            if (this.aborted)
+                break;
+
+            completed = depth;
+            iterationMillis.add((System.nanoTime() - iterationStart) / 1_000_000);
+            iterationStart = System.nanoTime();
+
+            if (this.table != null)
+                this.table.store(state.zobristKey(), depth, TranspositionTable.EXACT, bestScore,
+                        MoveCodes.encode(best, dimension));
+
+            if (Math.abs(bestScore) >= WIN_BOUND)
+                break;
+        }
+
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        SearchStatistics statistics = new SearchStatistics(completed, this.selectiveDepth, this.nodes,
+                this.quiescenceNodes, elapsed, this.tableProbes, this.tableHits, this.tableCutoffs, this.betaCutoffs,
+                this.firstMoveCutoffs, iterationMillis.stream().mapToLong(Long::longValue).toArray(),
+                this.principalVariation(state, best, completed));
+
+        return new SearchResult(best, bestScore, statistics);
+    }
+
+    /**
+     * Follows the best move and then the table moves from the root, which after a search store the best line.
+     *
+     * @param state the position searched
+     * @param best  the best move of the search
+     * @param depth the depth of the last completed iteration, the most moves the line gets
+     * @return      the best move and the table moves after it which are valid in their positions
+     */
+    private List<Move> principalVariation(GameState state, Move best, int depth) {
+        List<Move> variation = new ArrayList<>();
+        Move move = best;
+
+        while (move != null) {
+            variation.add(move);
+            state = move.execute(state);
+            move = null;
+
+            if (this.table == null || variation.size() >= depth || state.result() != GameResult.IN_PLAY)
+                break;
+
+            long data = this.table.probe(state.zobristKey());
+            int code = data == TranspositionTable.MISS ? MoveCodes.NONE : TranspositionTable.move(data);
+            int dimension = state.board().dimension();
+
+            if (code != MoveCodes.NONE)
+                for (Move valid : new ValidMoves(state).allMoves())
+                    if (MoveCodes.encode(valid, dimension) == code)
+                        move = valid;
+        }
+
+        return variation;
+    }
+
+    /**
+     * Scores a position by negamax with alpha-beta pruning.
+     *
+     * @param state the position
+     * @param depth the remaining depth
+     * @param alpha the score the side on turn is already guaranteed
+     * @param beta  the score the opponent is already guaranteed, negated
+     * @param ply   the distance from the root
+     * @param terms the troop terms of the evaluation from the point of view of the side on turn
+     * @return      the score from the point of view of the side on turn
+     */
+    private int negamax(GameState state, int depth, int alpha, int beta, int ply, int terms) {
+        if (depth == 0 && this.quiescent)
+            return this.quiescence(state, alpha, beta, ply, terms);
+
+        if ((++this.nodes & (CHECK_INTERVAL - 1)) == 0 &&
+                (System.nanoTime() > this.deadline || this.cancelled.get()))
+            this.aborted = true;
+
+        if (ply > this.selectiveDepth)
+            this.selectiveDepth = ply;
+
+        if (this.aborted)
+            return 0;
+
+        if (state.result() == GameResult.VICTORY)
+            return -(WIN - ply);
+
+        if (state.result() == GameResult.DRAW)
+            return 0;
+
+        if (this.tablebase != null) {
+            int value = this.tablebase.probe(state);
+            if (value != Tablebase.NOT_FOUND)
+                return tablebaseScore(value, ply);
+        }
+
+        if (depth == 0)
+            return terms + this.evaluation.leaderSafety(state);
+
+        long key = state.zobristKey();
+        int tableMove = MoveCodes.NONE;
+
+        if (this.table != null) {
+            long data = this.table.probe(key);
+
+            this.tableProbes++;
+            if (data != TranspositionTable.MISS) {
+                int score = fromTable(TranspositionTable.score(data), ply);
+                int bound = TranspositionTable.bound(data);
+
+                tableMove = TranspositionTable.move(data);
+                this.tableHits++;
+
+                if (TranspositionTable.depth(data) >= depth && (bound == TranspositionTable.EXACT ||
+                        bound == TranspositionTable.LOWER && score >= beta ||
+                        bound == TranspositionTable.UPPER && score <= alpha)) {
+                    this.tableCutoffs++;
+                    return score;
+                }
+            }
+        }
+
+        List<Move> moves = new ValidMoves(state).allMoves();
+        if (moves.isEmpty())
+            return -(WIN - ply);
+
+        int dimension = state.board().dimension();
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = MoveCodes.NONE;
+
+        int[] codes = new int[moves.size()];
+        int[] scores = new int[moves.size()];
+
+        if (this.ordering != null)
+            this.ordering.score(state, moves, codes, scores, tableMove, ply);
+        else
+            for (int i = 0; i < moves.size(); i++) {
+                codes[i] = MoveCodes.encode(moves.get(i), dimension);
+                scores[i] = codes[i] == tableMove ? 1 : 0;
+            }
+
+        for (int i = 0; i < moves.size(); i++) {
+            MoveOrdering.pickNext(moves, codes, scores, i);
+
+            Move move = moves.get(i);
+            int score = -this.negamax(move.execute(state), depth - 1, -beta, -alpha, ply + 1,
+                    -(terms + this.evaluation.delta(state, move)));
+
+            if (this.aborted)
+                return 0;
+
+            if (score > best) {
+                best = score;
+                bestMove = codes[i];
+
+                if (score > alpha)
+                    alpha = score;
+
+                if (alpha >= beta) {
+                    this.betaCutoffs++;
+                    if (i == 0)
+                        this.firstMoveCutoffs++;
+
+                    if (this.ordering != null)
+                        this.ordering.cutoff(state, move, codes[i], depth, ply);
+                    break;
+                }
+            }
+        }
+
+        if (this.table != null) {
+            int bound = TranspositionTable.EXACT;
+
+            if (best <= originalAlpha)
+                bound = TranspositionTable.UPPER;
+            else if (best >= beta)
+                bound = TranspositionTable.LOWER;
+
+            this.table.store(key, depth, bound, toTable(best, ply), bestMove);
+        }
+
+        return best;
+    }
+
+    /**
+     * Scores a position by searching only captures. The side on turn may stand pat, i.e. take the evaluation
+     * of the position instead of capturing, and captures that cannot raise the evaluation above alpha even
+     * by `DELTA_MARGIN` are skipped unless they capture the leader.
+     *
+     * @param state the position
+     * @param alpha the score the side on turn is already guaranteed
+     * @param beta  the score the opponent is already guaranteed, negated
+     * @param ply   the distance from the root
+     * @param terms the troop terms of the evaluation from the point of view of the side on turn
+     * @return      the score from the point of view of the side on turn
+     */
+    private int quiescence(GameState state, int alpha, int beta, int ply, int terms) {
+        if ((++this.nodes & (CHECK_INTERVAL - 1)) == 0 &&
+                (System.nanoTime() > this.deadline || this.cancelled.get()))
+            this.aborted = true;
+
+        this.quiescenceNodes++;
+        if (ply > this.selectiveDepth)
+            this.selectiveDepth = ply;
+
+        if (this.aborted)
+            return 0;
+
+        if (state.result() == GameResult.VICTORY)
+            return -(WIN - ply);
+
+        if (state.result() == GameResult.DRAW)
+            return 0;
+
+        if (this.tablebase != null) {
+            int value = this.tablebase.probe(state);
+            if (value != Tablebase.NOT_FOUND)
+                return tablebaseScore(value, ply);
+        }
+
+        int standPat = terms + this.evaluation.leaderSafety(state);
+        if (standPat >= beta || ply >= MAX_PLY)
+            return standPat;
+
+        List<Move> captures = new ValidMoves(state).captures();
+        int[] codes = new int[captures.size()];
+        int[] scores = new int[captures.size()];
+        TilePos leader = state.armyNotOnTurn().boardTroops().leaderPosition();
+        int best = standPat;
+
+        if (standPat > alpha)
+            alpha = standPat;
+
+        if (this.ordering != null)
+            this.ordering.score(state, captures, codes, scores, MoveCodes.NONE, ply);
+
+        for (int i = 0; i < captures.size(); i++) {
+            MoveOrdering.pickNext(captures, codes, scores, i);
+
+            Move capture = captures.get(i);
+            int delta = this.evaluation.delta(state, capture);
+
+            if (standPat + delta + DELTA_MARGIN <= alpha && !capture.target().equals(leader))
+                continue;
+
+            int score = -this.quiescence(capture.execute(state), -beta, -alpha, ply + 1, -(terms + delta));
+
+            if (this.aborted)
+                return 0;
+
+            if (score > best) {
+                best = score;
+
+                if (score > alpha)
+                    alpha = score;
+
+                if (alpha >= beta)
+                    break;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Converts a value of the tablebase into a score relative to the root, scoring a win or a loss
+     * like one found by the search at the same distance.
+     *
+     * @param value the value of the position, not `Tablebase.NOT_FOUND`
+     * @param ply   the distance of the position from the root
+     * @return      the score from the point of view of the side on turn
+     */
+    private static int tablebaseScore(int value, int ply) {
+        if (Tablebase.isWin(value))
+            return WIN - ply - Tablebase.distance(value);
+
+        if (Tablebase.isLoss(value))
+            return -(WIN - ply - Tablebase.distance(value));
+
+        return 0;
+    }
+
+    /**
+     * Converts a win score relative to the root into one relative to the position, so it can be reused
+     * wherever the position is reached.
+     *
+     * @param score the score relative to the root
+     * @param ply   the distance of the position from the root
+     * @return      the score to store
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= WIN_BOUND)
+            return score + ply;
+
+        if (score <= -WIN_BOUND)
+            return score - ply;
+
+        return score;
+    }
+
+    /**
+     * Converts a stored win score relative to the position back into one relative to the root.
+     *
+     * @param score the stored score
+     * @param ply   the distance of the position from the root
+     * @return      the score relative to the root
+     */
+    private static int fromTable(int score, int ply) {
+        if (score >= WIN_BOUND)
+            return score - ply;
+
+        if (score <= -WIN_BOUND)
+            return score + ply;
+
+        return score;
+    }
+}
@@ -0,0 +1,271 @@
+package thedrake.engines.search;
+
+import thedrake.models.boards.Army;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.moves.captures.CaptureOnly;
+import thedrake.models.moves.interfaces.BoardMove;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.moves.stacks.PlaceFromStack;
+import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.states.GameState;
+import thedrake.models.tiles.troops.TroopTile;
+import thedrake.models.troops.BoardTroops;
+import thedrake.models.troops.Troop;
+import thedrake.models.troops.TroopFace;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The `Evaluation` class scores positions that the search does not look beyond, from the point of view
+ * of the side on turn, by the `EvaluationWeights` it is given. The score has two parts:
+ *
+ * - The troop terms. A troop in the stack is worth its material; a troop on the board is worth its material,
+ *   the bonus of its face, the mobility bonus of the actions of its face and the value of its square in its
+ *   piece-square table. Every move only changes the terms of the troops it moves, flips or captures,
+ *   so the search keeps this part up to date by `delta` instead of summing all troops at every leaf.
+ * - The leader safety, i.e. the guards and attackers next to each leader, which depends on the troops around
+ *   the leader and is computed by `leaderSafety` at the leaves.
+ *
+ * Lost leaders are scored by the search itself. An instance may be shared by several search threads.
+ */
+public final class Evaluation {
+    /**
+     * The evaluation with the standard weights.
+     */
+    private static final Evaluation STANDARD = new Evaluation(EvaluationWeights.standard());
+
+    /**
+     * The weights of the evaluation.
+     */
+    private final EvaluationWeights weights;
+
+    /**
+     * The troop terms of the board dimension evaluated last.
+     */
+    private volatile Terms terms = new Terms(0);
+
+    /**
+     * Constructs an Evaluation.
+     *
+     * @param weights the weights of the evaluation
+     */
+    public Evaluation(EvaluationWeights weights) {
+        this.weights = weights;
+    }
+
+    /**
+     * Gets the evaluation with the standard weights.
+     *
+     * @return the standard evaluation
+     */
+    public static Evaluation standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Scores a position that is still in play by the standard weights.
+     *
+     * @param state the game state
+     * @return      the score from the point of view of the side on turn
+     */
+    public static int evaluate(GameState state) {
+        return STANDARD.score(state);
+    }
+
+    /**
+     * Scores a position that is still in play from scratch.
+     *
+     * @param state the game state
+     * @return      the score from the point of view of the side on turn
+     */
+    public int score(GameState state) {
+        return this.troopTerms(state) + this.leaderSafety(state);
+    }
+
+    /**
+     * Sums the troop terms of a position from scratch.
+     *
+     * @param state the game state
+     * @return      the troop terms of the side on turn minus the ones of its opponent
+     */
+    public int troopTerms(GameState state) {
+        Terms terms = this.terms(state);
+        return this.troopTerms(terms, state.armyOnTurn()) - this.troopTerms(terms, state.armyNotOnTurn());
+    }
+
+    /**
+     * Computes how a move changes the troop terms.
+     *
+     * @param state the position before the move
+     * @param move  the move
+     * @return      the change of the troop terms from the point of view of the side playing the move
+     */
+    public int delta(GameState state, Move move) {
+        Terms terms = this.terms(state);
+        PlayingSide side = state.sideOnTurn();
+        BoardPos target = move.target();
+
+        if (move instanceof PlaceFromStack) {
+            Troop troop = state.armyOnTurn().stack().get(0);
+            return terms.of(troop, side, TroopFace.AVERS, target) - this.weights.material(troop.name());
+        }
+
+        BoardPos origin = ((BoardMove) move).origin();
+        TroopTile tile = state.armyOnTurn().boardTroops().at(origin).get();
+        BoardPos landing = move instanceof CaptureOnly ? origin : target;
+        int delta = terms.of(tile.troop(), side, tile.flipped().face(), landing) -
+                terms.of(tile.troop(), side, tile.face(), origin);
+
+        TroopTile captured = state.armyNotOnTurn().boardTroops().at(target).orElse(null);
+        if (captured != null)
+            delta += terms.of(captured.troop(), captured.side(), captured.face(), target);
+
+        return delta;
+    }
+
+    /**
+     * Scores the safety of both leaders.
+     *
+     * @param state the game state
+     * @return      the safety of the leader of the side on turn minus the one of its opponent
+     */
+    public int leaderSafety(GameState state) {
+        return this.leaderSafety(state.armyOnTurn().boardTroops(), state.armyNotOnTurn().boardTroops()) -
+                this.leaderSafety(state.armyNotOnTurn().boardTroops(), state.armyOnTurn().boardTroops());
+    }
+
+    /**
+     * Sums the troop terms of an army.
+     *
+     * @param terms the troop terms of the board
+     * @param army  the army
+     * @return      the terms of its troops on the board and in the stack
+     */
+    private int troopTerms(Terms terms, Army army) {
+        BoardTroops troops = army.boardTroops();
+        int sum = 0;
+
+        for (BoardPos pos : troops.troopPositions()) {
+            TroopTile tile = troops.at(pos).get();
+            sum += terms.of(tile.troop(), army.side(), tile.face(), pos);
+        }
+
+        for (Troop troop : army.stack())
+            sum += this.weights.material(troop.name());
+
+        return sum;
+    }
+
+    /**
+     * Scores the safety of a leader.
+     *
+     * @param own   the troops of the side of the leader
+     * @param enemy the troops of its opponent
+     * @return      the bonus of the guards and attackers next to the leader, 0 if it is not placed
+     */
+    private int leaderSafety(BoardTroops own, BoardTroops enemy) {
+        if (!own.isLeaderPlaced())
+            return 0;
+
+        int safety = 0;
+        for (BoardPos pos : ((BoardPos) own.leaderPosition()).neighbours())
+            if (own.at(pos).isPresent())
+                safety += this.weights.leaderGuard();
+            else if (enemy.at(pos).isPresent())
+                safety += this.weights.leaderAttacker();
+
+        return safety;
+    }
+
+    /**
+     * Gets the troop terms of the board of a position.
+     *
+     * @param state the game state
+     * @return      the troop terms of its board dimension
+     */
+    private Terms terms(GameState state) {
+        Terms terms = this.terms;
+        int dimension = state.board().dimension();
+
+        if (terms.dimension != dimension) {
+            terms = new Terms(dimension);
+            this.terms = terms;
+        }
+
+        return terms;
+    }
+
+    /**
+     * The `Terms` class caches the terms of troops on the board of one dimension. The terms of a troop
+     * are computed the first time it is met and indexed by `(side * 2 + face) * squares + j * dimension + i`.
+     */
+    private final class Terms {
+        /**
+         * The dimension of the board.
+         */
+        private final int dimension;
+
+        /**
+         * The terms of every troop met so far.
+         */
+        private final Map<Troop, int[]> troops = new ConcurrentHashMap<>();
+
+        /**
+         * Constructs Terms.
+         *
+         * @param dimension the dimension of the board
+         */
+        private Terms(int dimension) {
+            this.dimension = dimension;
+        }
+
+        /**
+         * Gets the term of a troop on the board.
+         *
+         * @param troop the troop
+         * @param side  the side of the troop
+         * @param face  the face the troop shows
+         * @param pos   the position of the troop
+         * @return      the term of the troop
+         */
+        private int of(Troop troop, PlayingSide side, TroopFace face, BoardPos pos) {
+            int[] terms = this.troops.computeIfAbsent(troop, this::compute);
+            int squares = this.dimension * this.dimension;
+
+            return terms[(side.ordinal() * 2 + face.ordinal()) * squares + pos.j() * this.dimension + pos.i()];
+        }
+
+        /**
+         * Computes the terms of a troop on every square.
+         *
+         * @param troop the troop
+         * @return      the terms indexed by side, face and square
+         */
+        private int[] compute(Troop troop) {
+            int squares = this.dimension * this.dimension;
+            int[] terms = new int[4 * squares];
+
+            for (PlayingSide side : PlayingSide.values())
+                for (TroopFace face : TroopFace.values()) {
+                    int[] pst = weights.pst(troop.name(), face);
+                    int size = (int) Math.round(Math.sqrt(pst.length));
+                    int base = weights.material(troop.name()) + weights.face(troop.name(), face) +
+                            weights.mobility() * troop.actions(face).size();
+
+                    for (int j = 0; j < this.dimension; j++)
+                        for (int i = 0; i < this.dimension; i++) {
+                            int row = side == PlayingSide.BLUE ? j : this.dimension - 1 - j;
+                            int square = base;
+
+                            if (size > 0)
+                                square += pst[row * size / this.dimension * size + i * size / this.dimension];
+
+                            terms[(side.ordinal() * 2 + face.ordinal()) * squares + j * this.dimension + i] = square;
+                        }
+                }
+
+            return terms;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package thedrake.engines.search;
+
+import thedrake.models.troops.TroopFace;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * The `EvaluationWeights` class holds the weights of `Evaluation`, so they can be tuned offline and loaded
+ * without recompiling. The weights are stored in a properties file:
+ *
+ * <pre>
+ * material.default = 100               the value of a troop on the board or in the stack
+ * material.Drake = 100                 the value of a troop of the named type
+ * face.Spearman.REVERS = 5             the bonus of a troop on the board showing the named face, 0 by default
+ * mobility = 2                         the bonus of every action of the face a troop on the board shows
+ * leader.guard = 8                     the bonus of every own troop next to the leader
+ * leader.attacker = -12                the bonus of every enemy troop next to the leader
+ * pst.default = 0,2,2,0,2,5,...        the piece-square table of troops on the board
+ * pst.Drake = ...                      the piece-square table of the named type
+ * pst.Drake.REVERS = ...               the piece-square table of the named type showing the named face
+ * </pre>
+ *
+ * A piece-square table lists n * n values row by row, starting with the row the side places its leader on
+ * and going towards the enemy, so both sides read it the same way. On a board of another dimension a square
+ * takes the value of the square at the same relative place in the table. Missing keys keep their standard value.
+ */
+public final class EvaluationWeights {
+    /**
+     * The standard weights, scoring every troop alike and favouring the centre and a guarded leader.
+     */
+    private static final String STANDARD =
+            "material.default = 100\n" +
+            "mobility = 2\n" +
+            "leader.guard = 8\n" +
+            "leader.attacker = -12\n" +
+            "pst.default = 0,2,2,0, 2,5,5,2, 2,5,5,2, 0,2,2,0\n" +
+            "pst.Drake = 4,6,6,4, 0,2,2,0, -4,-2,-2,-4, -8,-6,-6,-8\n";
+
+    /**
+     * The weights by their keys.
+     */
+    private final Properties properties;
+
+    /**
+     * Constructs an EvaluationWeights.
+     *
+     * @param properties the weights by their keys
+     */
+    private EvaluationWeights(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Gets the standard weights.
+     *
+     * @return the standard weights
+     */
+    public static EvaluationWeights standard() {
+        return new EvaluationWeights(standardProperties());
+    }
+
+    /**
+     * Loads weights from a properties file. Keys missing in the file keep their standard value.
+     *
+     * @param file                      the file
+     * @return                          the weights
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a weight is not an integer or a piece-square table is not square
+     */
+    public static EvaluationWeights load(Path file) throws IOException {
+        Properties properties = standardProperties();
+
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+
+        EvaluationWeights weights = new EvaluationWeights(properties);
+        for (String key : properties.stringPropertyNames())
+            if (key.startsWith("pst."))
+                weights.table(key);
+            else
+                weights.weight(key, 0);
+
+        return weights;
+    }
+
+    /**
+     * Saves the weights to a properties file, e.g. as the starting point of a tuning.
+     *
+     * @param file         the file
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Map.Entry<Object, Object> entry : new TreeMap<>(this.properties).entrySet())
+                writer.write(entry.getKey() + " = " + entry.getValue() + System.lineSeparator());
+        }
+    }
+
+    /**
+     * Gets the value of a troop on the board or in the stack.
+     *
+     * @param troop the name of the troop
+     * @return      the value of the troop
+     */
+    public int material(String troop) {
+        return this.weight("material." + troop, this.weight("material.default", 0));
+    }
+
+    /**
+     * Gets the bonus of a troop on the board showing a face.
+     *
+     * @param troop the name of the troop
+     * @param face  the face
+     * @return      the bonus of the face
+     */
+    public int face(String troop, TroopFace face) {
+        return this.weight("face." + troop + "." + face, 0);
+    }
+
+    /**
+     * Gets the bonus of every action of the face a troop on the board shows.
+     *
+     * @return the bonus of an action
+     */
+    public int mobility() {
+        return this.weight("mobility", 0);
+    }
+
+    /**
+     * Gets the bonus of every own troop next to the leader.
+     *
+     * @return the bonus of a guard
+     */
+    public int leaderGuard() {
+        return this.weight("leader.guard", 0);
+    }
+
+    /**
+     * Gets the bonus of every enemy troop next to the leader.
+     *
+     * @return the bonus of an attacker, usually negative
+     */
+    public int leaderAttacker() {
+        return this.weight("leader.attacker", 0);
+    }
+
+    /**
+     * Gets the piece-square table of a troop showing a face.
+     *
+     * @param troop the name of the troop
+     * @param face  the face
+     * @return      the n * n values of the table row by row, or an empty array if there is none
+     */
+    public int[] pst(String troop, TroopFace face) {
+        String key = "pst." + troop + "." + face;
+
+        if (!this.properties.containsKey(key))
+            key = "pst." + troop;
+
+        if (!this.properties.containsKey(key))
+            key = "pst.default";
+
+        return this.table(key);
+    }
+
+    /**
+     * Parses a weight.
+     *
+     * @param key                       the key of the weight
+     * @param fallback                  the value if the key is missing
+     * @return                          the weight
+     * @throws IllegalArgumentException if the weight is not an integer
+     */
+    private int weight(String key, int fallback) {
+        String value = this.properties.getProperty(key);
+
+        if (value == null)
+            return fallback;
+
+        try {
+            return Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The weight " + key + " is not an integer: " + value, e);
+        }
+    }
+
+    /**
+     * Parses a piece-square table.
+     *
+     * @param key                       the key of the table
+     * @return                          the values of the table, or an empty array if the key is missing
+     * @throws IllegalArgumentException if a value is not an integer or the number of values is not a square
+     */
+    private int[] table(String key) {
+        String value = this.properties.getProperty(key, "").trim();
+
+        if (value.isEmpty())
+            return new int[0];
+
+        String[] parts = value.split("\\s*,\\s*");
+        int size = (int) Math.round(Math.sqrt(parts.length));
+
+        if (size * size != parts.length)
+            throw new IllegalArgumentException("The table " + key + " has " + parts.length + " values, not n * n.");
+
+        int[] table = new int[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++)
+                table[i] = Integer.parseInt(parts[i]);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The table " + key + " is not a list of integers: " + value, e);
+        }
+
+        return table;
+    }
+
+    /**
+     * Parses the standard weights.
+     *
+     * @return the standard weights by their keys
+     */
+    private static Properties standardProperties() {
+        Properties properties = new Properties();
+
+        try {
+            properties.load(new StringReader(STANDARD));
+        }
+        catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return properties;
+    }
+}
@@ -0,0 +1,191 @@
+package thedrake.engines.search;
+
+import thedrake.engines.endgames.Tablebase;
+import thedrake.engines.interfaces.Engine;
+import thedrake.engines.tables.TranspositionTable;
+import thedrake.models.moves.codes.MoveCodes;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.states.GameState;
+import thedrake.ui.ValidMoves;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The `LazySmpSearch` class searches on several threads at once. Besides the calling thread, which runs the main
+ * search, helper threads search the same root with a slightly different depth and move order. All threads share
+ * one `TranspositionTable`, so the helpers fill it with results the main search then finds instead of searching.
+ * The move of the main search is reported; the helpers stop as soon as it ends, and their nodes and other
+ * counters are added to the reported statistics.
+ */
+public class LazySmpSearch implements Engine {
+    /**
+     * The table shared by all threads.
+     */
+    private final TranspositionTable table;
+
+    /**
+     * The searches of all threads, the main one first.
+     */
+    private final AlphaBetaSearch[] searches;
+
+    /**
+     * The threads running the helper searches.
+     */
+    private final ExecutorService helpers;
+
+    /**
+     * Constructs a LazySmpSearch.
+     *
+     * @param table                     the table shared by all threads, not null
+     * @param threads                   the number of threads including the calling one
+     * @throws IllegalArgumentException if the number of threads is not positive
+     */
+    public LazySmpSearch(TranspositionTable table, int threads) {
+        this(table, threads, Evaluation.standard());
+    }
+
+    /**
+     * Constructs a LazySmpSearch scoring the leaves by the given evaluation.
+     *
+     * @param table                     the table shared by all threads, not null
+     * @param threads                   the number of threads including the calling one
+     * @param evaluation                the evaluation of the leaves, shared by all threads
+     * @throws IllegalArgumentException if the number of threads is not positive
+     */
+    public LazySmpSearch(TranspositionTable table, int threads, Evaluation evaluation) {
+        this(table, threads, evaluation, null);
+    }
+
+    /**
+     * Constructs a LazySmpSearch scoring the leaves by the given evaluation and the endgames by a tablebase.
+     *
+     * @param table                     the table shared by all threads, not null
+     * @param threads                   the number of threads including the calling one
+     * @param evaluation                the evaluation of the leaves, shared by all threads
+     * @param tablebase                 the tablebase shared by all threads, or null to search the endgames
+     * @throws IllegalArgumentException if the number of threads is not positive
+     */
+    public LazySmpSearch(TranspositionTable table, int threads, Evaluation evaluation, Tablebase tablebase) {
+        if (threads < 1)
+            throw new IllegalArgumentException("The search needs at least one thread.");
+
+        this.table = table;
+        this.searches = new AlphaBetaSearch[threads];
+        for (int i = 0; i < threads; i++)
+            this.searches[i] = new AlphaBetaSearch(table, i, evaluation, tablebase);
+
+        this.helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the number of threads of the search.
+     *
+     * @return the number of threads including the calling one
+     */
+    public int threads() {
+        return this.searches.length;
+    }
+
+    /**
+     * Searches for the best move of the side on turn on all threads as deep as the time budget allows.
+     *
+     * @param state     the position to search
+     * @param millis    the time budget in milliseconds
+     * @param cancelled the flag stopping the search once it is set
+     * @return          the result of the main search with the counters of all threads
+     */
+    @Override
+    public SearchResult search(GameState state, long millis, AtomicBoolean cancelled) {
+        return this.search(state, millis, AlphaBetaSearch.MAX_DEPTH, cancelled);
+    }
+
+    /**
+     * Searches for the best move of the side on turn on all threads.
+     *
+     * @param state     the position to search
+     * @param millis    the time budget in milliseconds, or 0 for no limit
+     * @param maxDepth  the deepest iteration of the main search, at most AlphaBetaSearch.MAX_DEPTH
+     * @param cancelled the flag stopping the search once it is set
+     * @return          the result of the main search with the counters of all threads
+     */
+    public SearchResult search(GameState state, long millis, int maxDepth, AtomicBoolean cancelled) {
+        AtomicBoolean stopped = new AtomicBoolean();
+        List<Future<SearchResult>> futures = new ArrayList<>();
+
+        this.table.newSearch();
+
+        for (int i = 1; i < this.searches.length; i++) {
+            AlphaBetaSearch helper = this.searches[i];
+            futures.add(this.helpers.submit(() -> helper.iterate(state, millis, maxDepth, stopped)));
+        }
+
+        SearchResult main = this.searches[0].iterate(state, millis, maxDepth, cancelled);
+        SearchStatistics statistics = main.statistics();
+
+        stopped.set(true);
+        for (Future<SearchResult> future : futures)
+            statistics = statistics.plus(join(future).statistics());
+
+        return new SearchResult(main.move(), main.score(), statistics);
+    }
+
+    /**
+     * Gets the best move of a position stored in the shared table, which after a search holds
+     * the principal variation.
+     *
+     * @param state the position
+     * @return      the valid move of the table entry, or null if the position has none
+     */
+    @Override
+    public Move expectedReply(GameState state) {
+        long data = this.table.probe(state.zobristKey());
+        int code = data == TranspositionTable.MISS ? MoveCodes.NONE : TranspositionTable.move(data);
+        int dimension = state.board().dimension();
+
+        if (code != MoveCodes.NONE)
+            for (Move move : new ValidMoves(state).allMoves())
+                if (MoveCodes.encode(move, dimension) == code)
+                    return move;
+
+        return null;
+    }
+
+    /**
+     * Stops the helper threads. The search cannot be used afterwards.
+     */
+    @Override
+    public void shutdown() {
+        if (this.helpers != null)
+            this.helpers.shutdownNow();
+    }
+
+    /**
+     * Waits for a helper search to end.
+     *
+     * @param future                 the helper search
+     * @return                       its result
+     * @throws IllegalStateException if the helper failed or the waiting thread was interrupted
+     */
+    private static SearchResult join(Future<SearchResult> future) {
+        try {
+            return future.get();
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("A helper search failed.", e.getCause());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a helper search.", e);
+        }
+    }
+}
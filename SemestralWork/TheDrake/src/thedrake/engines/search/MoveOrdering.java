@@ -0,0 +1,268 @@
+package thedrake.engines.search;
+
+import thedrake.models.moves.codes.MoveCodes;
+import thedrake.models.moves.interfaces.BoardMove;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.states.GameState;
+import thedrake.models.troops.BoardTroops;
+import thedrake.models.troops.Troop;
+import thedrake.models.troops.TroopFace;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The `MoveOrdering` class decides in which order `AlphaBetaSearch` tries the moves of a position,
+ * since alpha-beta prunes the more, the sooner it meets the best move. The move from the `TranspositionTable`
+ * goes first, then captures of the leader, then other captures by the value of the captured troop,
+ * then the two killer moves of the ply (quiet moves that caused a cutoff in a sibling position) and finally
+ * the quiet moves by their history score, which grows every time the same troop moving between the same
+ * two squares causes a cutoff anywhere in the tree.
+ *
+ * The value of a troop is the number of actions on both of its faces, so troops that reach more squares
+ * are captured first. An instance belongs to one search thread.
+ */
+final class MoveOrdering {
+    /**
+     * The score of the move from the table.
+     */
+    private static final int TABLE_MOVE = 1 << 30;
+
+    /**
+     * The score of capturing the leader.
+     */
+    private static final int LEADER_CAPTURE = 1 << 29;
+
+    /**
+     * The score of a capture before the value of the captured troop is added.
+     */
+    private static final int CAPTURE = 1 << 28;
+
+    /**
+     * The score of the first killer move; the second one scores one less.
+     */
+    private static final int KILLER = 1 << 27;
+
+    /**
+     * The history score above which all history scores are halved, below `KILLER`.
+     */
+    private static final int HISTORY_LIMIT = 1 << 26;
+
+    /**
+     * The two killer moves of every ply, the most recent one first.
+     */
+    private final int[][] killers = new int[AlphaBetaSearch.MAX_DEPTH + 1][2];
+
+    /**
+     * The indices of the troops seen so far in `history`.
+     */
+    private final Map<Troop, Integer> troops = new IdentityHashMap<>();
+
+    /**
+     * The history scores of every troop, indexed by `origin * squares + target`, where placements
+     * from the stack use origin `squares`.
+     */
+    private int[][] history = new int[0][];
+
+    /**
+     * The number of squares of the board the history scores belong to.
+     */
+    private int squares;
+
+    /**
+     * Prepares the ordering for a new search. Killer moves are forgotten and history scores are halved,
+     * so the previous search still guides the next one without dominating it.
+     *
+     * @param dimension the dimension of the board of the new search
+     */
+    void newSearch(int dimension) {
+        for (int[] killer : this.killers)
+            Arrays.fill(killer, MoveCodes.NONE);
+
+        if (this.squares != dimension * dimension) {
+            this.squares = dimension * dimension;
+            this.troops.clear();
+            this.history = new int[0][];
+            return;
+        }
+
+        for (int[] scores : this.history)
+            for (int i = 0; i < scores.length; i++)
+                scores[i] >>= 1;
+    }
+
+    /**
+     * Scores the moves of a position. A higher score means the move is tried sooner.
+     *
+     * @param state     the position
+     * @param moves     the moves of the position
+     * @param codes     the array receiving the codes of the moves
+     * @param scores    the array receiving the scores of the moves
+     * @param tableMove the code of the move from the table, or MoveCodes.NONE
+     * @param ply       the distance of the position from the root
+     */
+    void score(GameState state, List<Move> moves, int[] codes, int[] scores, int tableMove, int ply) {
+        int dimension = state.board().dimension();
+        int[] killers = this.killers[Math.min(ply, AlphaBetaSearch.MAX_DEPTH)];
+
+        for (int i = 0; i < moves.size(); i++) {
+            int code = MoveCodes.encode(moves.get(i), dimension);
+            codes[i] = code;
+
+            if (code == tableMove)
+                scores[i] = TABLE_MOVE;
+            else if (MoveCodes.isCapture(code))
+                scores[i] = captureScore(state, moves.get(i));
+            else if (code == killers[0])
+                scores[i] = KILLER;
+            else if (code == killers[1])
+                scores[i] = KILLER - 1;
+            else
+                scores[i] = this.historyScore(state, moves.get(i), code);
+        }
+    }
+
+    /**
+     * Records a move that caused a cutoff. Captures are already ordered well, so only quiet moves become
+     * killers and gain history.
+     *
+     * @param state the position of the move
+     * @param move  the move
+     * @param code  the code of the move
+     * @param depth the remaining depth of the position
+     * @param ply   the distance of the position from the root
+     */
+    void cutoff(GameState state, Move move, int code, int depth, int ply) {
+        if (MoveCodes.isCapture(code))
+            return;
+
+        int[] killers = this.killers[Math.min(ply, AlphaBetaSearch.MAX_DEPTH)];
+        if (killers[0] != code) {
+            killers[1] = killers[0];
+            killers[0] = code;
+        }
+
+        int[] scores = this.history(troop(state, move));
+        int index = this.index(code);
+
+        scores[index] += depth * depth;
+        if (scores[index] > HISTORY_LIMIT)
+            for (int[] troopScores : this.history)
+                for (int i = 0; i < troopScores.length; i++)
+                    troopScores[i] >>= 1;
+    }
+
+    /**
+     * Moves the move with the highest score among the moves from the index on to the index.
+     *
+     * @param moves  the moves
+     * @param codes  the codes of the moves
+     * @param scores the scores of the moves
+     * @param index  the index of the next move to try
+     */
+    static void pickNext(List<Move> moves, int[] codes, int[] scores, int index) {
+        int best = index;
+
+        for (int i = index + 1; i < moves.size(); i++)
+            if (scores[i] > scores[best])
+                best = i;
+
+        if (best == index)
+            return;
+
+        moves.set(best, moves.set(index, moves.get(best)));
+
+        int code = codes[best];
+        codes[best] = codes[index];
+        codes[index] = code;
+
+        int score = scores[best];
+        scores[best] = scores[index];
+        scores[index] = score;
+    }
+
+    /**
+     * Gets the value of a troop as a capture target.
+     *
+     * @param troop the troop
+     * @return      the number of actions on both faces of the troop
+     */
+    static int value(Troop troop) {
+        return troop.actions(TroopFace.AVERS).size() + troop.actions(TroopFace.REVERS).size();
+    }
+
+    /**
+     * Scores a capture by the captured troop.
+     *
+     * @param state the position
+     * @param move  the capture
+     * @return      the score of the capture
+     */
+    private static int captureScore(GameState state, Move move) {
+        BoardTroops enemy = state.armyNotOnTurn().boardTroops();
+
+        if (move.target().equals(enemy.leaderPosition()))
+            return LEADER_CAPTURE;
+
+        return CAPTURE + value(enemy.at(move.target()).get().troop());
+    }
+
+    /**
+     * Gets the history score of a quiet move.
+     *
+     * @param state the position
+     * @param move  the move
+     * @param code  the code of the move
+     * @return      the history score
+     */
+    private int historyScore(GameState state, Move move, int code) {
+        Integer troop = this.troops.get(troop(state, move));
+        return troop == null ? 0 : this.history[troop][this.index(code)];
+    }
+
+    /**
+     * Gets the troop making a move.
+     *
+     * @param state the position
+     * @param move  the move
+     * @return      the troop on the origin square, or the top of the stack for a placement
+     */
+    private static Troop troop(GameState state, Move move) {
+        if (!(move instanceof BoardMove))
+            return state.armyOnTurn().stack().get(0);
+
+        return state.armyOnTurn().boardTroops().at(((BoardMove) move).origin()).get().troop();
+    }
+
+    /**
+     * Gets the history scores of a troop, adding the troop if it is new.
+     *
+     * @param troop the troop
+     * @return      its history scores
+     */
+    private int[] history(Troop troop) {
+        Integer index = this.troops.get(troop);
+
+        if (index == null) {
+            index = this.history.length;
+            this.troops.put(troop, index);
+            this.history = Arrays.copyOf(this.history, index + 1);
+            this.history[index] = new int[(this.squares + 1) * this.squares];
+        }
+
+        return this.history[index];
+    }
+
+    /**
+     * Gets the index of a quiet move in the history scores of its troop.
+     *
+     * @param code the code of the move
+     * @return     the index of the origin and target squares
+     */
+    private int index(int code) {
+        int origin = MoveCodes.kind(code) == MoveCodes.PLACE ? this.squares : MoveCodes.origin(code);
+        return origin * this.squares + MoveCodes.target(code);
+    }
+}
@@ -0,0 +1,138 @@
+package thedrake.engines.search;
+
+import thedrake.models.moves.interfaces.Move;
+
+/**
+ * The `SearchResult` class holds the outcome of a search: the best move found, its score and
+ * the effort spent on finding it, described by its `SearchStatistics`.
+ */
+public class SearchResult {
+    /**
+     * The best move, or null if the position has no moves.
+     */
+    private final Move move;
+
+    /**
+     * The score of the best move from the point of view of the side on turn.
+     */
+    private final int score;
+
+    /**
+     * The statistics of the search.
+     */
+    private final SearchStatistics statistics;
+
+    /**
+     * Constructs a SearchResult.
+     *
+     * @param move   the best move, or null if the position has no moves
+     * @param score  the score of the best move
+     * @param depth  the depth of the last completed iteration
+     * @param nodes  the number of searched nodes
+     * @param millis the time spent searching in milliseconds
+     */
+    public SearchResult(Move move, int score, int depth, long nodes, long millis) {
+        this(move, score, depth, nodes, 0, millis);
+    }
+
+    /**
+     * Constructs a SearchResult of a search with a quiescence search.
+     *
+     * @param move            the best move, or null if the position has no moves
+     * @param score           the score of the best move
+     * @param depth           the depth of the last completed iteration
+     * @param nodes           the number of searched nodes
+     * @param quiescenceNodes the number of searched nodes of the quiescence search, included in nodes
+     * @param millis          the time spent searching in milliseconds
+     */
+    public SearchResult(Move move, int score, int depth, long nodes, long quiescenceNodes, long millis) {
+        this(move, score, new SearchStatistics(move, depth, nodes, quiescenceNodes, millis));
+    }
+
+    /**
+     * Constructs a SearchResult with the full statistics of the search.
+     *
+     * @param move       the best move, or null if the position has no moves
+     * @param score      the score of the best move
+     * @param statistics the statistics of the search
+     */
+    public SearchResult(Move move, int score, SearchStatistics statistics) {
+        this.move = move;
+        this.score = score;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Gets the best move.
+     *
+     * @return the best move, or null if the position has no moves
+     */
+    public Move move() {
+        return this.move;
+    }
+
+    /**
+     * Gets the score of the best move from the point of view of the side on turn.
+     *
+     * @return the score
+     */
+    public int score() {
+        return this.score;
+    }
+
+    /**
+     * Gets the depth of the last completed iteration.
+     *
+     * @return the depth
+     */
+    public int depth() {
+        return this.statistics.depth();
+    }
+
+    /**
+     * Gets the number of searched nodes.
+     *
+     * @return the number of nodes
+     */
+    public long nodes() {
+        return this.statistics.nodes();
+    }
+
+    /**
+     * Gets the number of searched nodes of the quiescence search.
+     *
+     * @return the number of quiescence nodes, included in nodes()
+     */
+    public long quiescenceNodes() {
+        return this.statistics.quiescenceNodes();
+    }
+
+    /**
+     * Gets the time spent searching.
+     *
+     * @return the time in milliseconds
+     */
+    public long millis() {
+        return this.statistics.millis();
+    }
+
+    /**
+     * Gets the statistics of the search.
+     *
+     * @return the statistics
+     */
+    public SearchStatistics statistics() {
+        return this.statistics;
+    }
+
+    /**
+     * Describes the result in one line.
+     *
+     * @return the description of the result
+     */
+    @Override
+    public String toString() {
+        return String.format("move %s score %d depth %d nodes %d (quiescence %d) time %d ms", this.move, this.score,
+                this.depth(), this.nodes(), this.quiescenceNodes(), this.millis());
+    }
+}
@@ -0,0 +1,295 @@
+package thedrake.engines.search;
+
+import thedrake.models.moves.codes.MoveCodes;
+import thedrake.models.moves.interfaces.Move;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * The `SearchStatistics` class describes the effort of one search: how many nodes it visited and how fast,
+ * how well the transposition table and the move order worked, how deep it got and how long each iteration took,
+ * along with the principal variation it expects. Engines without some of the counters, e.g. a search without
+ * a table or the Monte Carlo tree search, report them as 0.
+ *
+ * `toString()` gives the statistics as one line of space-separated `key=value` fields, which is what the computer
+ * player logs after every move, e.g. "depth=6 seldepth=14 nodes=81234 qnodes=40211 nps=812340 time=100
+ * tt_probes=30512 tt_hits=12044 tt_cutoffs=8123 cutoffs=9120 first_cutoffs=8312 iterations=0,1,3,9,27,60
+ * pv=b2-b3,@c4,b3xc4".
+ */
+public class SearchStatistics {
+    /**
+     * The depth of the last completed iteration.
+     */
+    private final int depth;
+
+    /**
+     * The farthest distance from the root a node was visited at, including the quiescence search.
+     */
+    private final int selectiveDepth;
+
+    /**
+     * The number of searched nodes.
+     */
+    private final long nodes;
+
+    /**
+     * The number of searched nodes of the quiescence search, included in `nodes`.
+     */
+    private final long quiescenceNodes;
+
+    /**
+     * The time spent searching in milliseconds.
+     */
+    private final long millis;
+
+    /**
+     * The number of transposition table probes.
+     */
+    private final long tableProbes;
+
+    /**
+     * The number of probes which found their position.
+     */
+    private final long tableHits;
+
+    /**
+     * The number of hits whose score ended the search of their position.
+     */
+    private final long tableCutoffs;
+
+    /**
+     * The number of beta cutoffs of the main search.
+     */
+    private final long betaCutoffs;
+
+    /**
+     * The number of beta cutoffs caused by the first move tried.
+     */
+    private final long firstMoveCutoffs;
+
+    /**
+     * The time of each completed iteration in milliseconds, the first iteration first.
+     */
+    private final long[] iterationMillis;
+
+    /**
+     * The best move and the expected moves after it.
+     */
+    private final List<Move> principalVariation;
+
+    /**
+     * Constructs a SearchStatistics.
+     *
+     * @param depth              the depth of the last completed iteration
+     * @param selectiveDepth     the farthest distance from the root a node was visited at
+     * @param nodes              the number of searched nodes
+     * @param quiescenceNodes    the number of searched nodes of the quiescence search, included in nodes
+     * @param millis             the time spent searching in milliseconds
+     * @param tableProbes        the number of transposition table probes
+     * @param tableHits          the number of probes which found their position
+     * @param tableCutoffs       the number of hits whose score ended the search of their position
+     * @param betaCutoffs        the number of beta cutoffs of the main search
+     * @param firstMoveCutoffs   the number of beta cutoffs caused by the first move tried
+     * @param iterationMillis    the time of each completed iteration in milliseconds
+     * @param principalVariation the best move and the expected moves after it, empty if there is no move
+     */
+    public SearchStatistics(int depth, int selectiveDepth, long nodes, long quiescenceNodes, long millis,
+                            long tableProbes, long tableHits, long tableCutoffs, long betaCutoffs,
+                            long firstMoveCutoffs, long[] iterationMillis, List<Move> principalVariation) {
+        this.depth = depth;
+        this.selectiveDepth = selectiveDepth;
+        this.nodes = nodes;
+        this.quiescenceNodes = quiescenceNodes;
+        this.millis = millis;
+        this.tableProbes = tableProbes;
+        this.tableHits = tableHits;
+        this.tableCutoffs = tableCutoffs;
+        this.betaCutoffs = betaCutoffs;
+        this.firstMoveCutoffs = firstMoveCutoffs;
+        this.iterationMillis = iterationMillis.clone();
+        this.principalVariation = List.copyOf(principalVariation);
+    }
+
+    /**
+     * Constructs the statistics of a search which only counts its nodes.
+     *
+     * @param move            the best move, or null if the position has no moves
+     * @param depth           the depth of the last completed iteration
+     * @param nodes           the number of searched nodes
+     * @param quiescenceNodes the number of searched nodes of the quiescence search, included in nodes
+     * @param millis          the time spent searching in milliseconds
+     */
+    SearchStatistics(Move move, int depth, long nodes, long quiescenceNodes, long millis) {
+        this(depth, depth, nodes, quiescenceNodes, millis, 0, 0, 0, 0, 0, new long[0],
+                move == null ? List.of() : List.of(move));
+    }
+
+    /**
+     * Adds the counters of a helper search of `LazySmpSearch` to the statistics of the main search.
+     * The depths, times and principal variation stay those of the main search, except the selective depth,
+     * which is the farthest of both.
+     *
+     * @param helper the statistics of the helper search
+     * @return       the combined statistics
+     */
+    SearchStatistics plus(SearchStatistics helper) {
+        return new SearchStatistics(this.depth, Math.max(this.selectiveDepth, helper.selectiveDepth),
+                this.nodes + helper.nodes, this.quiescenceNodes + helper.quiescenceNodes, this.millis,
+                this.tableProbes + helper.tableProbes, this.tableHits + helper.tableHits,
+                this.tableCutoffs + helper.tableCutoffs, this.betaCutoffs + helper.betaCutoffs,
+                this.firstMoveCutoffs + helper.firstMoveCutoffs, this.iterationMillis, this.principalVariation);
+    }
+
+    /**
+     * Gets the depth of the last completed iteration.
+     *
+     * @return the depth
+     */
+    public int depth() {
+        return this.depth;
+    }
+
+    /**
+     * Gets the farthest distance from the root a node was visited at, including the quiescence search.
+     *
+     * @return the selective depth
+     */
+    public int selectiveDepth() {
+        return this.selectiveDepth;
+    }
+
+    /**
+     * Gets the number of searched nodes.
+     *
+     * @return the number of nodes
+     */
+    public long nodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Gets the number of searched nodes of the quiescence search.
+     *
+     * @return the number of quiescence nodes, included in nodes()
+     */
+    public long quiescenceNodes() {
+        return this.quiescenceNodes;
+    }
+
+    /**
+     * Gets the time spent searching.
+     *
+     * @return the time in milliseconds
+     */
+    public long millis() {
+        return this.millis;
+    }
+
+    /**
+     * Gets the number of nodes searched per second.
+     *
+     * @return the nodes per second, 0 if the search took no measurable time
+     */
+    public long nodesPerSecond() {
+        return this.millis == 0 ? 0 : this.nodes * 1000 / this.millis;
+    }
+
+    /**
+     * Gets the number of transposition table probes.
+     *
+     * @return the number of probes
+     */
+    public long tableProbes() {
+        return this.tableProbes;
+    }
+
+    /**
+     * Gets the number of probes which found their position.
+     *
+     * @return the number of hits
+     */
+    public long tableHits() {
+        return this.tableHits;
+    }
+
+    /**
+     * Gets the number of table hits whose score ended the search of their position.
+     *
+     * @return the number of table cutoffs
+     */
+    public long tableCutoffs() {
+        return this.tableCutoffs;
+    }
+
+    /**
+     * Gets the number of beta cutoffs of the main search.
+     *
+     * @return the number of beta cutoffs
+     */
+    public long betaCutoffs() {
+        return this.betaCutoffs;
+    }
+
+    /**
+     * Gets the number of beta cutoffs caused by the first move tried.
+     *
+     * @return the number of first move cutoffs
+     */
+    public long firstMoveCutoffs() {
+        return this.firstMoveCutoffs;
+    }
+
+    /**
+     * Gets the share of beta cutoffs caused by the first move tried, which measures the move order.
+     *
+     * @return the share between 0 and 1, 0 if there was no cutoff
+     */
+    public double firstMoveCutoffRate() {
+        return this.betaCutoffs == 0 ? 0 : (double) this.firstMoveCutoffs / this.betaCutoffs;
+    }
+
+    /**
+     * Gets the time of each completed iteration.
+     *
+     * @return the times in milliseconds, the first iteration first
+     */
+    public long[] iterationMillis() {
+        return this.iterationMillis.clone();
+    }
+
+    /**
+     * Gets the principal variation: the best move and the moves the search expects after it.
+     *
+     * @return the moves, empty if the position has no moves
+     */
+    public List<Move> principalVariation() {
+        return this.principalVariation;
+    }
+
+    /**
+     * Describes the statistics in one line of space-separated `key=value` fields. The iteration times
+     * and the moves of the principal variation are separated by commas, the moves written as by
+     * `MoveCodes.toString`, and an empty list is written as "-".
+     *
+     * @return the description of the statistics
+     */
+    @Override
+    public String toString() {
+        StringJoiner iterations = new StringJoiner(",").setEmptyValue("-");
+        StringJoiner variation = new StringJoiner(",").setEmptyValue("-");
+
+        Arrays.stream(this.iterationMillis).forEach(millis -> iterations.add(Long.toString(millis)));
+        for (Move move : this.principalVariation) {
+            int dimension = move.target().dimension();
+            variation.add(MoveCodes.toString(MoveCodes.encode(move, dimension), dimension));
+        }
+
+        return String.format("depth=%d seldepth=%d nodes=%d qnodes=%d nps=%d time=%d tt_probes=%d tt_hits=%d " +
+                        "tt_cutoffs=%d cutoffs=%d first_cutoffs=%d iterations=%s pv=%s", this.depth,
+                this.selectiveDepth, this.nodes, this.quiescenceNodes, this.nodesPerSecond(), this.millis,
+                this.tableProbes, this.tableHits, this.tableCutoffs, this.betaCutoffs, this.firstMoveCutoffs,
+                iterations, variation);
+    }
+}
@@ -0,0 +1,330 @@
+package thedrake.engines.tables;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The `TranspositionTable` class is a fixed-size hash table of search results shared by the search threads.
+ * Every entry is packed into one `long` of data holding the best move, the score, the depth, the bound type
+ * and the search generation, stored next to the position key XOR-ed with the data. A reader accepts an entry
+ * only if the stored key XOR the data gives back the probed key, so an entry torn by two threads writing
+ * at the same time is simply treated as a miss and no locks are needed.
+ *
+ * The entries are grouped into buckets of two: the first entry keeps the deepest result of the current search,
+ * the second one is always replaced. Keys are usually `GameState.zobristKey()`; moves are opaque ints
+ * chosen by the search.
+ */
+public class TranspositionTable {
+    /**
+     * The bound type of an exact score.
+     */
+    public static final int EXACT = 1;
+
+    /**
+     * The bound type of a score that is a lower bound (the search failed high).
+     */
+    public static final int LOWER = 2;
+
+    /**
+     * The bound type of a score that is an upper bound (the search failed low).
+     */
+    public static final int UPPER = 3;
+
+    /**
+     * The value returned by `probe` when the position is not in the table.
+     */
+    public static final long MISS = 0;
+
+    /**
+     * The number of entries counted when estimating the fill ratio.
+     */
+    private static final int FILL_SAMPLE = 1 << 16;
+
+    /**
+     * The slots of the table: entry e has its checked key at index 2e and its data at index 2e + 1.
+     */
+    private final long[] slots;
+
+    /**
+     * The mask turning a key into the index of the first entry of its bucket.
+     */
+    private final long bucketMask;
+
+    /**
+     * The generation of the current search, used to replace results of older searches first.
+     */
+    private volatile int generation;
+
+    /**
+     * The number of probes.
+     */
+    private final LongAdder probes = new LongAdder();
+
+    /**
+     * The number of probes that found the position.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * The number of probes that found the bucket occupied by other positions only.
+     */
+    private final LongAdder collisions = new LongAdder();
+
+    /**
+     * The number of stored entries.
+     */
+    private final LongAdder stores = new LongAdder();
+
+    /**
+     * Constructs a TranspositionTable of at most the given size. The number of entries is the largest power
+     * of two that fits, each entry taking 16 bytes.
+     *
+     * @param megabytes                 the size of the table in megabytes
+     * @throws IllegalArgumentException if the size is not positive or too large
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes <= 0 || megabytes > 16384)
+            throw new IllegalArgumentException("The size of the table must be between 1 and 16384 MB.");
+
+        long entries = Long.highestOneBit(((long) megabytes << 20) / 16);
+        if (entries * 2 > Integer.MAX_VALUE - 8)
+            entries /= 2;
+
+        this.slots = new long[(int) entries * 2];
+        this.bucketMask = entries - 2;
+    }
+
+    /**
+     * Gets the number of entries of the table.
+     *
+     * @return the capacity of the table
+     */
+    public int capacity() {
+        return this.slots.length / 2;
+    }
+
+    /**
+     * Starts a new search. Results of previous searches are kept, but are the first to be replaced.
+     */
+    public void newSearch() {
+        this.generation = (this.generation + 1) & 0x3F;
+    }
+
+    /**
+     * Removes all entries and resets the statistics.
+     */
+    public void clear() {
+        Arrays.fill(this.slots, 0);
+        this.probes.reset();
+        this.hits.reset();
+        this.collisions.reset();
+        this.stores.reset();
+    }
+
+    /**
+     * Looks up the position with the given key.
+     *
+     * @param key the key of the position
+     * @return    the packed data of the entry, or MISS if the position is not in the table
+     */
+    public long probe(long key) {
+        int index = this.index(key);
+        boolean occupied = false;
+
+        this.probes.increment();
+
+        for (int e = index; e < index + 4; e += 2) {
+            long checked = this.slots[e];
+            long data = this.slots[e + 1];
+
+            if (data == MISS)
+                continue;
+
+            if ((checked ^ data) == key) {
+                this.hits.increment();
+                return data;
+            }
+
+            occupied = true;
+        }
+
+        if (occupied)
+            this.collisions.increment();
+
+        return MISS;
+    }
+
+    /**
+     * Stores the result of searching the position with the given key.
+     *
+     * @param key   the key of the position
+     * @param depth the remaining depth of the search, between 0 and 255
+     * @param bound the bound type of the score: EXACT, LOWER or UPPER
+     * @param score the score, between Short.MIN_VALUE and Short.MAX_VALUE
+     * @param move  the best move found, or 0 if there is none
+     */
+    public void store(long key, int depth, int bound, int score, int move) {
+        int index = this.index(key);
+        int generation = this.generation;
+        long data = pack(depth, bound, score, move, generation);
+        long deepData = this.slots[index + 1];
+        boolean sameKey = (this.slots[index] ^ deepData) == key;
+
+        // The deep entry is replaced by the same position, a deeper search or any search of a newer generation
+        if (deepData == MISS || sameKey || generation(deepData) != generation || depth >= depth(deepData)) {
+            if (sameKey && move == 0)
+                data = pack(depth, bound, score, move(deepData), generation);
+
+            this.slots[index] = key ^ data;
+            this.slots[index + 1] = data;
+        }
+        else {
+            this.slots[index + 2] = key ^ data;
+            this.slots[index + 3] = data;
+        }
+
+        this.stores.increment();
+    }
+
+    /**
+     * Gets the index of the first slot of the bucket of the given key.
+     *
+     * @param key the key of the position
+     * @return    the index of the first slot of the bucket
+     */
+    private int index(long key) {
+        return (int) (key & this.bucketMask) * 2;
+    }
+
+    /**
+     * Packs the fields of an entry into one long: bits 0-31 move, 32-47 score, 48-55 depth, 56-57 bound,
+     * 58-63 generation. The bound is never zero, so packed data is never equal to MISS.
+     *
+     * @param depth      the depth
+     * @param bound      the bound type
+     * @param score      the score
+     * @param move       the move
+     * @param generation the generation
+     * @return           the packed data
+     */
+    private static long pack(int depth, int bound, int score, int move, int generation) {
+        return (move & 0xFFFFFFFFL) | (score & 0xFFFFL) << 32 | (long) (depth & 0xFF) << 48 |
+                (long) (bound & 0x3) << 56 | (long) generation << 58;
+    }
+
+    /**
+     * Gets the best move of a packed entry.
+     *
+     * @param data the packed data returned by `probe`
+     * @return     the best move, or 0 if there is none
+     */
+    public static int move(long data) {
+        return (int) data;
+    }
+
+    /**
+     * Gets the score of a packed entry.
+     *
+     * @param data the packed data returned by `probe`
+     * @return     the score
+     */
+    public static int score(long data) {
+        return (short) (data >>> 32);
+    }
+
+    /**
+     * Gets the depth of a packed entry.
+     *
+     * @param data the packed data returned by `probe`
+     * @return     the depth
+     */
+    public static int depth(long data) {
+        return (int) (data >>> 48) & 0xFF;
+    }
+
+    /**
+     * Gets the bound type of a packed entry.
+     *
+     * @param data the packed data returned by `probe`
+     * @return     EXACT, LOWER or UPPER
+     */
+    public static int bound(long data) {
+        return (int) (data >>> 56) & 0x3;
+    }
+
+    /**
+     * Gets the generation of a packed entry.
+     *
+     * @param data the packed data
+     * @return     the generation
+     */
+    private static int generation(long data) {
+        return (int) (data >>> 58);
+    }
+
+    /**
+     * Gets the share of probes that found the position.
+     *
+     * @return the hit rate between 0 and 1
+     */
+    public double hitRate() {
+        long probes = this.probes.sum();
+        return probes == 0 ? 0 : (double) this.hits.sum() / probes;
+    }
+
+    /**
+     * Gets the share of probes that missed the position while its bucket was occupied by other positions.
+     *
+     * @return the collision rate between 0 and 1
+     */
+    public double collisionRate() {
+        long probes = this.probes.sum();
+        return probes == 0 ? 0 : (double) this.collisions.sum() / probes;
+    }
+
+    /**
+     * Estimates the share of occupied entries from the first entries of the table.
+     *
+     * @return the fill ratio between 0 and 1
+     */
+    public double fillRatio() {
+        int sample = Math.min(this.capacity(), FILL_SAMPLE);
+        int filled = 0;
+
+        for (int e = 0; e < sample; e++)
+            if (this.slots[e * 2 + 1] != MISS)
+                filled++;
+
+        return (double) filled / sample;
+    }
+
+    /**
+     * Gets the number of probes since the table was created or cleared.
+     *
+     * @return the number of probes
+     */
+    public long probes() {
+        return this.probes.sum();
+    }
+
+    /**
+     * Gets the number of stores since the table was created or cleared.
+     *
+     * @return the number of stores
+     */
+    public long stores() {
+        return this.stores.sum();
+    }
+
+    /**
+     * Describes the size and statistics of the table.
+     *
+     * @return a one-line summary
+     */
+    @Override
+    public String toString() {
+        return String.format("tt %d MB, %d entries, hits %.1f%%, collisions %.1f%%, fill %.1f%%",
+                (long) this.slots.length * 8 >> 20, this.capacity(),
+                this.hitRate() * 100, this.collisionRate() * 100, this.fillRatio() * 100);
+    }
+}
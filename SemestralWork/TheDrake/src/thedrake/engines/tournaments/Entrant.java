@@ -0,0 +1,50 @@
+package thedrake.engines.tournaments;
+
+import thedrake.engines.interfaces.Engine;
+
+import java.util.function.Supplier;
+
+/**
+ * The `Entrant` class names an engine playing a `Tournament` and creates a fresh instance of it for every game,
+ * so the games running at once share no engine state.
+ */
+public class Entrant {
+    /**
+     * The name of the engine in the report and the results file.
+     */
+    private final String name;
+
+    /**
+     * The factory of the engine instances.
+     */
+    private final Supplier<Engine> factory;
+
+    /**
+     * Constructs an Entrant.
+     *
+     * @param name    the name of the engine
+     * @param factory the factory of the engine instances
+     */
+    public Entrant(String name, Supplier<Engine> factory) {
+        this.name = name;
+        this.factory = factory;
+    }
+
+    /**
+     * Gets the name of the engine.
+     *
+     * @return the name
+     */
+    public String name() {
+        return this.name;
+    }
+
+    /**
+     * Creates an engine instance for one game.
+     *
+     * @return the engine
+     */
+    public Engine create() {
+        return this.factory.get();
+    }
+}
@@ -0,0 +1,140 @@
+package thedrake.engines.tournaments;
+
+/**
+ * The `MatchScore` class holds the wins, draws and losses of the first engine of a match and estimates
+ * the Elo difference between the engines from them. The error bar is the 95% confidence interval of the score,
+ * computed from the standard deviation of the score of one game, and converted to Elo at its ends.
+ */
+public class MatchScore {
+    /**
+     * The number of standard errors of the 95% confidence interval.
+     */
+    private static final double CONFIDENCE = 1.96;
+
+    /**
+     * The number of games won by the first engine.
+     */
+    private final int wins;
+
+    /**
+     * The number of drawn games.
+     */
+    private final int draws;
+
+    /**
+     * The number of games lost by the first engine.
+     */
+    private final int losses;
+
+    /**
+     * Constructs a MatchScore.
+     *
+     * @param wins   the number of games won by the first engine
+     * @param draws  the number of drawn games
+     * @param losses the number of games lost by the first engine
+     */
+    public MatchScore(int wins, int draws, int losses) {
+        this.wins = wins;
+        this.draws = draws;
+        this.losses = losses;
+    }
+
+    /**
+     * Gets the number of games won by the first engine.
+     *
+     * @return the number of wins
+     */
+    public int wins() {
+        return this.wins;
+    }
+
+    /**
+     * Gets the number of drawn games.
+     *
+     * @return the number of draws
+     */
+    public int draws() {
+        return this.draws;
+    }
+
+    /**
+     * Gets the number of games lost by the first engine.
+     *
+     * @return the number of losses
+     */
+    public int losses() {
+        return this.losses;
+    }
+
+    /**
+     * Gets the number of games.
+     *
+     * @return the number of games
+     */
+    public int games() {
+        return this.wins + this.draws + this.losses;
+    }
+
+    /**
+     * Gets the score of the first engine, a win counting 1 and a draw 1/2.
+     *
+     * @return the score as a fraction of the games, 0.5 if no game was played
+     */
+    public double score() {
+        return this.games() == 0 ? 0.5 : (this.wins + 0.5 * this.draws) / this.games();
+    }
+
+    /**
+     * Estimates how many Elo points the first engine is stronger than the second one.
+     *
+     * @return the Elo difference, infinite if one engine scored every point
+     */
+    public double elo() {
+        return elo(this.score());
+    }
+
+    /**
+     * Estimates the half-width of the 95% confidence interval of the Elo difference.
+     *
+     * @return the error bar in Elo points, infinite if the interval reaches a score of 0 or 1
+     */
+    public double eloMargin() {
+        int games = this.games();
+        if (games == 0)
+            return Double.POSITIVE_INFINITY;
+
+        double score = this.score();
+        double variance = (this.wins * Math.pow(1 - score, 2) + this.draws * Math.pow(0.5 - score, 2) +
+                this.losses * Math.pow(score, 2)) / games;
+        double error = CONFIDENCE * Math.sqrt(variance / games);
+
+        return (elo(score + error) - elo(score - error)) / 2;
+    }
+
+    /**
+     * Converts a score to an Elo difference by the logistic model.
+     *
+     * @param score the expected score of the first engine
+     * @return      the Elo difference
+     */
+    static double elo(double score) {
+        if (score <= 0)
+            return Double.NEGATIVE_INFINITY;
+
+        if (score >= 1)
+            return Double.POSITIVE_INFINITY;
+
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    /**
+     * Describes the score, e.g. "+12 -8 =5, 58.0%, Elo +55.9 +/- 128.4".
+     *
+     * @return the description
+     */
+    @Override
+    public String toString() {
+        return String.format("+%d -%d =%d, %.1f%%, Elo %+.1f +/- %.1f", this.wins, this.losses, this.draws,
+                100 * this.score(), this.elo(), this.eloMargin());
+    }
+}
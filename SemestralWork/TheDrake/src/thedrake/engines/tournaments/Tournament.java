@@ -0,0 +1,417 @@
+package thedrake.engines.tournaments;
+
+import thedrake.engines.interfaces.Engine;
+import thedrake.engines.mcts.MctsSearch;
+import thedrake.engines.perft.Perft;
+import thedrake.engines.search.Evaluation;
+import thedrake.engines.search.EvaluationWeights;
+import thedrake.engines.search.LazySmpSearch;
+import thedrake.engines.search.SearchResult;
+import thedrake.engines.tables.TranspositionTable;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.moves.codes.MoveCodes;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The `Tournament` class plays a match of two engines from the start state of the standard setup, running
+ * several games at once on a thread pool. The engines swap sides every game, the first engine playing blue
+ * in the even games, and every game gets fresh engine instances.
+ *
+ * Every move has the same time budget. A shared clock thread sets the cancellation flag of the search when
+ * the budget runs out, and a side whose search returns later than the grace time after that loses on time.
+ * A game ends when a leader is captured, a side has no move or loses on time, or as a draw by the rules
+ * or after the move limit.
+ * Every finished game is written as one line of a CSV results file, and the report gives the score of the first
+ * engine with the Elo difference and its error bar, see `MatchScore`, and the number of games per second.
+ *
+ * The tool runs headless, without JavaFX on the classpath:
+ * {@code java thedrake.engines.tournaments.Tournament [--first ENGINE] [--second ENGINE] [--games N]
+ * [--concurrency C] [--time MILLIS] [--grace MILLIS] [--max-plies P] [--hash MB] [--dimension D]
+ * [--mountains b2,d3] [--output FILE]}
+ * where an engine is "alphabeta", "alphabeta:WEIGHTS" scoring by the weights of a file, or "mcts".
+ * Every engine searches on one thread, so the default concurrency of one game per core uses all cores.
+ */
+public class Tournament {
+    /**
+     * The first line of the results file.
+     */
+    private static final String HEADER = "game,blue,orange,result,reason,plies,moves";
+
+    /**
+     * The start state of the games.
+     */
+    private final GameState start;
+
+    /**
+     * The first engine.
+     */
+    private final Entrant first;
+
+    /**
+     * The second engine.
+     */
+    private final Entrant second;
+
+    /**
+     * The time budget of one move in milliseconds.
+     */
+    private final long moveMillis;
+
+    /**
+     * The time in milliseconds a search may exceed its budget by before its side loses on time.
+     */
+    private final long graceMillis;
+
+    /**
+     * The number of plies after which a game ends as a draw.
+     */
+    private final int maxPlies;
+
+    /**
+     * Constructs a Tournament.
+     *
+     * @param start       the start state of the games
+     * @param first       the first engine
+     * @param second      the second engine
+     * @param moveMillis  the time budget of one move in milliseconds
+     * @param graceMillis the time a search may exceed its budget by before its side loses on time
+     * @param maxPlies    the number of plies after which a game ends as a draw
+     */
+    public Tournament(GameState start, Entrant first, Entrant second, long moveMillis, long graceMillis,
+                      int maxPlies) {
+        this.start = start;
+        this.first = first;
+        this.second = second;
+        this.moveMillis = moveMillis;
+        this.graceMillis = graceMillis;
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * Plays the games of the match and writes them to the results file in the order they finish.
+     *
+     * @param games                     the number of games
+     * @param concurrency               the number of games played at once
+     * @param results                   the results file
+     * @param out                       the stream receiving the report, or null
+     * @return                          the score of the first engine
+     * @throws IOException              if the results file cannot be written
+     * @throws IllegalArgumentException if the concurrency is not positive
+     */
+    public MatchScore play(int games, int concurrency, Path results, PrintStream out) throws IOException {
+        if (concurrency < 1)
+            throw new IllegalArgumentException("The tournament needs at least one thread.");
+
+        long begin = System.nanoTime();
+        ExecutorService players = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "tournament-game");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ScheduledExecutorService clock = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tournament-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<Game> finished = new ExecutorCompletionService<>(players);
+        int[] outcomes = new int[3];
+
+        for (int number = 0; number < games; number++) {
+            int game = number;
+            finished.submit(() -> this.play(game, clock));
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(results)) {
+            writer.write(HEADER);
+            writer.newLine();
+
+            for (int n = 0; n < games; n++) {
+                Game game = take(finished);
+
+                writer.write(game.line(this.first.name(), this.second.name()));
+                writer.newLine();
+                writer.flush();
+                outcomes[game.firstOutcome()]++;
+            }
+        }
+        finally {
+            players.shutdownNow();
+            clock.shutdownNow();
+        }
+
+        MatchScore score = new MatchScore(outcomes[2], outcomes[1], outcomes[0]);
+
+        if (out != null) {
+            double seconds = (System.nanoTime() - begin) / 1e9;
+
+            out.printf("%s vs %s: %s%n", this.first.name(), this.second.name(), score);
+            out.printf("%,d games in %.1f s, %.2f games/s, results in %s%n", games, seconds, games / seconds, results);
+        }
+
+        return score;
+    }
+
+    /**
+     * Plays one game of the match.
+     *
+     * @param number the number of the game, the first engine playing blue if it is even
+     * @param clock  the thread cancelling the searches that run out of time
+     * @return       the finished game
+     */
+    private Game play(int number, ScheduledExecutorService clock) {
+        boolean firstBlue = number % 2 == 0;
+        Engine blue = (firstBlue ? this.first : this.second).create();
+        Engine orange = (firstBlue ? this.second : this.first).create();
+        int dimension = this.start.board().dimension();
+        StringBuilder moves = new StringBuilder();
+        GameState state = this.start;
+        int plies = 0;
+
+        try {
+            for (; plies < this.maxPlies && state.result() == GameResult.IN_PLAY; plies++) {
+                PlayingSide side = state.sideOnTurn();
+                AtomicBoolean cancelled = new AtomicBoolean();
+                ScheduledFuture<?> alarm = clock.schedule(() -> cancelled.set(true), this.moveMillis,
+                        TimeUnit.MILLISECONDS);
+
+                long start = System.nanoTime();
+                SearchResult result = (side == PlayingSide.BLUE ? blue : orange).search(state, this.moveMillis,
+                        cancelled);
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                alarm.cancel(false);
+
+                if (result.move() == null)
+                    return new Game(number, firstBlue, opponent(side), "no moves", plies, moves);
+
+                if (millis > this.moveMillis + this.graceMillis)
+                    return new Game(number, firstBlue, opponent(side), "time forfeit", plies, moves);
+
+                if (plies > 0)
+                    moves.append(' ');
+                moves.append(MoveCodes.toString(MoveCodes.encode(result.move(), dimension), dimension));
+                state = result.move().execute(state);
+
+                if (state.result() == GameResult.VICTORY)
+                    return new Game(number, firstBlue, side, "leader captured", plies + 1, moves);
+
+                if (state.result() == GameResult.DRAW)
+                    return new Game(number, firstBlue, null, "draw", plies + 1, moves);
+            }
+
+            return new Game(number, firstBlue, null, "move limit", plies, moves);
+        }
+        finally {
+            blue.shutdown();
+            orange.shutdown();
+        }
+    }
+
+    /**
+     * Gets the opponent of a side.
+     *
+     * @param side the side
+     * @return     the other side
+     */
+    private static PlayingSide opponent(PlayingSide side) {
+        return side == PlayingSide.BLUE ? PlayingSide.ORANGE : PlayingSide.BLUE;
+    }
+
+    /**
+     * Waits for the next game to finish.
+     *
+     * @param finished               the games being played
+     * @return                       the finished game
+     * @throws IllegalStateException if the game failed or the waiting thread was interrupted
+     */
+    private static Game take(CompletionService<Game> finished) {
+        try {
+            return finished.take().get();
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("A tournament game failed.", e.getCause());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the tournament games.", e);
+        }
+    }
+
+    /**
+     * Creates an engine entrant from its description: "alphabeta", "alphabeta:WEIGHTS" or "mcts".
+     * Every instance searches on one thread.
+     *
+     * @param description               the description of the engine
+     * @param megabytes                 the size of the transposition table or the search tree of every instance
+     * @return                          the entrant
+     * @throws IOException              if the file of weights cannot be read
+     * @throws IllegalArgumentException if the engine is unknown
+     */
+    static Entrant entrant(String description, int megabytes) throws IOException {
+        if (description.equals("mcts"))
+            return new Entrant(description, () -> new MctsSearch(1, megabytes));
+
+        if (description.equals("alphabeta") || description.startsWith("alphabeta:")) {
+            Evaluation evaluation = description.equals("alphabeta") ? Evaluation.standard() :
+                    new Evaluation(EvaluationWeights.load(Path.of(description.substring("alphabeta:".length()))));
+
+            return new Entrant(description, () -> new LazySmpSearch(new TranspositionTable(megabytes), 1, evaluation));
+        }
+
+        throw new IllegalArgumentException("Unknown engine " + description + ".");
+    }
+
+    /**
+     * Plays a match of two engines, see the class description.
+     *
+     * @param args         the command line options
+     * @throws IOException if a file of weights cannot be read or the results file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        String first = "alphabeta";
+        String second = "mcts";
+        int games = 100;
+        int concurrency = Runtime.getRuntime().availableProcessors();
+        long millis = 100;
+        long grace = 100;
+        int maxPlies = 300;
+        int megabytes = 16;
+        int dimension = 4;
+        List<String> mountains = new ArrayList<>();
+        Path output = Path.of("tournament.csv");
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--first"))
+                first = args[++i];
+            else if (args[i].equals("--second"))
+                second = args[++i];
+            else if (args[i].equals("--games"))
+                games = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--concurrency"))
+                concurrency = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--time"))
+                millis = Long.parseLong(args[++i]);
+            else if (args[i].equals("--grace"))
+                grace = Long.parseLong(args[++i]);
+            else if (args[i].equals("--max-plies"))
+                maxPlies = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--hash"))
+                megabytes = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--dimension"))
+                dimension = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--mountains"))
+                mountains = List.of(args[++i].split(","));
+            else if (args[i].equals("--output"))
+                output = Path.of(args[++i]);
+            else
+                throw new IllegalArgumentException("Unknown option " + args[i] + ".");
+        }
+
+        PrintStream out = System.out;
+
+        out.printf("tournament %dx%d, mountains %s, %d games, %d at once, %d ms per move%n", dimension, dimension,
+                mountains.isEmpty() ? "none" : String.join(",", mountains), games, concurrency, millis);
+
+        new Tournament(Perft.startState(dimension, mountains), entrant(first, megabytes), entrant(second, megabytes),
+                millis, grace, maxPlies).play(games, concurrency, output, out);
+    }
+
+    /**
+     * The `Game` class holds a finished game of the match.
+     */
+    private static class Game {
+        /**
+         * The number of the game.
+         */
+        private final int number;
+
+        /**
+         * Whether the first engine played blue.
+         */
+        private final boolean firstBlue;
+
+        /**
+         * The side that won, or null for a draw.
+         */
+        private final PlayingSide winner;
+
+        /**
+         * Why the game ended.
+         */
+        private final String reason;
+
+        /**
+         * The number of plies played.
+         */
+        private final int plies;
+
+        /**
+         * The played moves separated by spaces.
+         */
+        private final String moves;
+
+        /**
+         * Constructs a Game.
+         *
+         * @param number    the number of the game
+         * @param firstBlue whether the first engine played blue
+         * @param winner    the side that won, or null for a draw
+         * @param reason    why the game ended
+         * @param plies     the number of plies played
+         * @param moves     the played moves separated by spaces
+         */
+        private Game(int number, boolean firstBlue, PlayingSide winner, String reason, int plies,
+                     CharSequence moves) {
+            this.number = number;
+            this.firstBlue = firstBlue;
+            this.winner = winner;
+            this.reason = reason;
+            this.plies = plies;
+            this.moves = moves.toString();
+        }
+
+        /**
+         * Gets the outcome of the game for the first engine.
+         *
+         * @return 0 for a loss, 1 for a draw and 2 for a win
+         */
+        private int firstOutcome() {
+            if (this.winner == null)
+                return 1;
+
+            return (this.winner == PlayingSide.BLUE) == this.firstBlue ? 2 : 0;
+        }
+
+        /**
+         * Describes the game as a line of the results file, see `HEADER`.
+         *
+         * @param first  the name of the first engine
+         * @param second the name of the second engine
+         * @return       the line
+         */
+        private String line(String first, String second) {
+            String result = this.winner == null ? "1/2-1/2" : this.winner == PlayingSide.BLUE ? "1-0" : "0-1";
+
+            return String.join(",", String.valueOf(this.number), this.firstBlue ? first : second,
+                    this.firstBlue ? second : first, result, this.reason, String.valueOf(this.plies),
+                    this.moves);
+        }
+    }
+}
@@ -5,8 +5,11 @@ import thedrake.models.positions.boards.Offset2D;
 import thedrake.models.boards.PlayingSide;
 import thedrake.models.moves.interfaces.Move;
 import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.positions.interfaces.TilePos;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiFunction;
 
 /**
  * The `TroopAction` abstract class represents an action that a troop can perform in the game The Drake.
@@ -56,4 +59,36 @@ public abstract class TroopAction {
      * @return       a list of moves that can be performed as a result of this action
      */
     public abstract List<Move> movesFrom(BoardPos origin, PlayingSide side, GameState state);
+
+    /**
+     * Determines the captures among the possible moves for a troop from a given position.
+     * It generates only the capturing moves, so searches over captures do not build the other moves.
+     *
+     * @param origin the starting position of the troop on the board
+     * @param side   the playing side of the troop (BLUE or ORANGE)
+     * @param state  the current state of the game
+     * @return       a list of the capturing moves that can be performed as a result of this action
+     */
+    public abstract List<Move> capturesFrom(BoardPos origin, PlayingSide side, GameState state);
+
+    /**
+     * Determines the capture of the enemy troop on the square one offset away from the troop, if there is one.
+     * The subclasses differ only in the move performing the capture, which is built by the given factory.
+     *
+     * @param origin  the starting position of the troop on the board
+     * @param side    the playing side of the troop (BLUE or ORANGE)
+     * @param state   the current state of the game
+     * @param capture the factory of the capturing move from the origin and the target
+     * @return        a list with the capture, or an empty list
+     */
+    protected List<Move> captureOnOffset(BoardPos origin, PlayingSide side, GameState state,
+                                         BiFunction<BoardPos, BoardPos, Move> capture) {
+        List<Move> result = new ArrayList<>();
+        TilePos target = origin.stepByPlayingSide(this.offset(), side);
+
+        if (state.canCapture(origin, target))
+            result.add(capture.apply(origin, (BoardPos) target));
+
+        return result;
+    }
 }
@@ -62,4 +62,18 @@ public class SlideAction extends TroopAction {
 
         return result;
     }
+
+    /**
+     * Determines the capture of the enemy troop on the target square of this action, if there is one,
+     * the troop stepping onto the captured square. A slide captures only on its first square.
+     *
+     * @param origin the starting position of the troop on the board
+     * @param side   the playing side of the troop (BLUE or ORANGE)
+     * @param state  the current state of the game
+     * @return       a list with the capture, or an empty list
+     */
+    @Override
+    public List<Move> capturesFrom(BoardPos origin, PlayingSide side, GameState state) {
+        return this.captureOnOffset(origin, side, state, StepAndCapture::new);
+    }
 }
@@ -7,9 +7,7 @@ import thedrake.models.actions.interfaces.TroopAction;
 import thedrake.models.moves.captures.CaptureOnly;
 import thedrake.models.moves.interfaces.Move;
 import thedrake.models.positions.boards.BoardPos;
-import thedrake.models.positions.interfaces.TilePos;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -49,12 +47,20 @@ public class StrikeAction extends TroopAction {
      */
     @Override
     public List<Move> movesFrom(BoardPos origin, PlayingSide side, GameState state) {
-        List<Move> result = new ArrayList<>();
-        TilePos target = origin.stepByPlayingSide(this.offset(), side);
-
-        if (state.canCapture(origin, target))
-            result.add(new CaptureOnly(origin, (BoardPos) target));
+        return this.captureOnOffset(origin, side, state, CaptureOnly::new);
+    }
 
-        return result;
+    /**
+     * Determines the capture of the enemy troop on the target square of this action, if there is one,
+     * the troop staying on its square.
+     *
+     * @param origin the starting position of the troop on the board
+     * @param side   the playing side of the troop (BLUE or ORANGE)
+     * @param state  the current state of the game
+     * @return       a list with the capture, or an empty list
+     */
+    @Override
+    public List<Move> capturesFrom(BoardPos origin, PlayingSide side, GameState state) {
+        return this.captureOnOffset(origin, side, state, CaptureOnly::new);
     }
 }
@@ -0,0 +1,916 @@
+package thedrake.models.bitboards.interfaces;
+
+import thedrake.models.bitboards.tables.MoveTables;
+import thedrake.models.bitboards.troops.TroopIndex;
+import thedrake.models.boards.Army;
+import thedrake.models.boards.Board;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.moves.captures.CaptureOnly;
+import thedrake.models.moves.codes.MoveCodes;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.moves.stacks.PlaceFromStack;
+import thedrake.models.moves.steps.StepAndCapture;
+import thedrake.models.moves.steps.StepOnly;
+import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.positions.interfaces.TilePos;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.models.tiles.interfaces.BoardTile;
+import thedrake.models.tiles.interfaces.Tile;
+import thedrake.models.tiles.troops.TroopTile;
+import thedrake.models.troops.BoardTroops;
+import thedrake.models.troops.Troop;
+import thedrake.models.troops.TroopFace;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The `BitBoard` abstract class is a bitboard representation of a game of The Drake.
+ * Every square of the board is one bit of a `long` mask (the square index is `j * dimension + i`),
+ * so occupancy, sides, faces and troop types are kept as masks and the rules of `GameState`
+ * are answered by a handful of bit operations instead of map lookups.
+ * Subclasses decide whether the representation is immutable or updated in place.
+ */
+public abstract class BitBoard {
+    /**
+     * The largest board dimension whose squares fit into a single `long` mask.
+     */
+    public static final int MAX_DIMENSION = 8;
+
+    /**
+     * The value used for squares and codes that are not present, e.g. the leader square before it is placed.
+     */
+    public static final int NONE = -1;
+
+    /**
+     * The playing sides indexed by their ordinal, cached to avoid cloning `PlayingSide.values()`.
+     */
+    protected static final PlayingSide[] SIDES = PlayingSide.values();
+
+    /**
+     * The dimension of the game board.
+     */
+    protected final int dimension;
+
+    /**
+     * The index translating troop codes to troop types and back.
+     */
+    protected final TroopIndex troops;
+
+    /**
+     * The precompiled targets of the actions of the troops on a board of this dimension.
+     */
+    protected final MoveTables moveTables;
+
+    /**
+     * The mask of all squares on the board.
+     */
+    protected final long boardMask;
+
+    /**
+     * The mask of all squares in the first column (i == 0).
+     */
+    protected final long firstColumn;
+
+    /**
+     * The mask of all squares in the last column (i == dimension - 1).
+     */
+    protected final long lastColumn;
+
+    /**
+     * The mask of the squares holding a mountain tile.
+     */
+    protected final long mountains;
+
+    /**
+     * The masks of squares occupied by troops, indexed by the ordinal of the playing side.
+     */
+    protected final long[] occupancy;
+
+    /**
+     * The masks of squares occupied by each troop type, indexed by the troop code.
+     */
+    protected final long[] troopMasks;
+
+    /**
+     * The mask of squares whose troop shows its revers (back) face.
+     */
+    protected long revers;
+
+    /**
+     * The leader squares indexed by the ordinal of the playing side, or NONE if the leader is not on the board.
+     */
+    protected final int[] leaders;
+
+    /**
+     * The number of guards placed by each side, indexed by the ordinal of the playing side.
+     */
+    protected final int[] guards;
+
+    /**
+     * The troop codes of the stacks, indexed by the ordinal of the playing side. The arrays are never modified.
+     */
+    protected final int[][] stacks;
+
+    /**
+     * The index of the next troop to be placed from each stack.
+     */
+    protected final int[] stackTops;
+
+    /**
+     * The codes of captured enemy troops, indexed by the ordinal of the capturing side.
+     */
+    protected final int[][] captured;
+
+    /**
+     * The number of valid entries in each array of captured troops.
+     */
+    protected final int[] capturedCounts;
+
+    /**
+     * An upper bound of the number of legal moves in any position of the game, see `maxMoves`.
+     */
+    protected final int maxMoves;
+
+    /**
+     * The ordinal of the side currently taking their turn.
+     */
+    protected int sideOnTurn;
+
+    /**
+     * The current result of the game.
+     */
+    protected GameResult result;
+
+    /**
+     * Constructs a BitBoard from an existing game state.
+     *
+     * @param state                     the game state to convert
+     * @param troops                    the index used to encode the troops of the state
+     * @throws IllegalArgumentException if the board is larger than MAX_DIMENSION
+     */
+    protected BitBoard(GameState state, TroopIndex troops) {
+        Board board = state.board();
+
+        if (board.dimension() > MAX_DIMENSION)
+            throw new IllegalArgumentException("The dimension of a bitboard can be at most " + MAX_DIMENSION + ".");
+
+        this.dimension = board.dimension();
+        this.troops = troops;
+        this.moveTables = troops.moveTables(this.dimension);
+        this.boardMask = this.dimension == MAX_DIMENSION ? -1L : (1L << (this.dimension * this.dimension)) - 1;
+
+        long first = 0;
+        long last = 0;
+        for (int j = 0; j < this.dimension; j++) {
+            first |= bit(j * this.dimension);
+            last |= bit(j * this.dimension + this.dimension - 1);
+        }
+        this.firstColumn = first;
+        this.lastColumn = last;
+
+        PositionFactory pf = board.positionFactory();
+        long mountainMask = 0;
+        for (int square = 0; square < this.dimension * this.dimension; square++)
+            if (board.at(pf.pos(square % this.dimension, square / this.dimension)) == BoardTile.MOUNTAIN)
+                mountainMask |= bit(square);
+        this.mountains = mountainMask;
+
+        this.occupancy = new long[2];
+        this.troopMasks = new long[troops.size()];
+        this.leaders = new int[2];
+        this.guards = new int[2];
+        this.stacks = new int[2][];
+        this.stackTops = new int[2];
+        this.captured = new int[2][];
+        this.capturedCounts = new int[2];
+
+        int troopCount = 0;
+        for (PlayingSide side : SIDES) {
+            Army army = state.army(side);
+            troopCount += army.boardTroops().troopPositions().size() + army.stack().size() + army.captured().size();
+        }
+
+        for (PlayingSide side : SIDES) {
+            int s = side.ordinal();
+            Army army = state.army(side);
+            BoardTroops boardTroops = army.boardTroops();
+
+            for (BoardPos pos : boardTroops.troopPositions()) {
+                TroopTile tile = boardTroops.at(pos).get();
+                long mask = bit(this.square(pos));
+
+                this.occupancy[s] |= mask;
+                this.troopMasks[troops.code(tile.troop())] |= mask;
+                if (tile.face() == TroopFace.REVERS)
+                    this.revers |= mask;
+            }
+
+            this.leaders[s] = boardTroops.isLeaderPlaced() ? this.square(boardTroops.leaderPosition()) : NONE;
+            this.guards[s] = boardTroops.guards();
+
+            this.stacks[s] = new int[army.stack().size()];
+            for (int i = 0; i < army.stack().size(); i++)
+                this.stacks[s][i] = troops.code(army.stack().get(i));
+
+            this.captured[s] = new int[troopCount];
+            for (Troop troop : army.captured())
+                this.captured[s][this.capturedCounts[s]++] = troops.code(troop);
+        }
+
+        this.maxMoves = (2 * troopCount + 1) * this.dimension * this.dimension;
+        this.sideOnTurn = state.sideOnTurn().ordinal();
+        this.result = state.result();
+    }
+
+    /**
+     * Constructs a BitBoard as a deep copy of another one. The never-modified stack arrays are shared.
+     *
+     * @param other the bitboard to copy
+     */
+    protected BitBoard(BitBoard other) {
+        this.dimension = other.dimension;
+        this.troops = other.troops;
+        this.moveTables = other.moveTables;
+        this.boardMask = other.boardMask;
+        this.firstColumn = other.firstColumn;
+        this.lastColumn = other.lastColumn;
+        this.mountains = other.mountains;
+        this.occupancy = other.occupancy.clone();
+        this.troopMasks = other.troopMasks.clone();
+        this.revers = other.revers;
+        this.leaders = other.leaders.clone();
+        this.guards = other.guards.clone();
+        this.stacks = other.stacks;
+        this.stackTops = other.stackTops.clone();
+        this.captured = new int[][] { other.captured[0].clone(), other.captured[1].clone() };
+        this.capturedCounts = other.capturedCounts.clone();
+        this.maxMoves = other.maxMoves;
+        this.sideOnTurn = other.sideOnTurn;
+        this.result = other.result;
+    }
+
+    /**
+     * Gets the mask with only the bit of the given square set.
+     *
+     * @param square the index of the square
+     * @return       the mask of the square
+     */
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * Gets the dimension of the game board.
+     *
+     * @return the dimension of the game board
+     */
+    public int dimension() {
+        return this.dimension;
+    }
+
+    /**
+     * Gets the index used to encode the troops.
+     *
+     * @return the troop index
+     */
+    public TroopIndex troopIndex() {
+        return this.troops;
+    }
+
+    /**
+     * Gets the side that is currently taking their turn.
+     *
+     * @return the side on turn
+     */
+    public PlayingSide sideOnTurn() {
+        return SIDES[this.sideOnTurn];
+    }
+
+    /**
+     * Gets the current result of the game.
+     *
+     * @return the game result
+     */
+    public GameResult result() {
+        return this.result;
+    }
+
+    /**
+     * Gets the index of the square at the given position.
+     *
+     * @param pos the position on the board
+     * @return    the index of the square
+     */
+    public int square(TilePos pos) {
+        return pos.j() * this.dimension + pos.i();
+    }
+
+    /**
+     * Gets the board position of the given square.
+     *
+     * @param square the index of the square
+     * @return       the position on the board
+     */
+    public BoardPos position(int square) {
+        return PositionFactory.canonicalPos(this.dimension, square % this.dimension, square / this.dimension);
+    }
+
+    /**
+     * Gets the mask of squares occupied by the troops of the given side.
+     *
+     * @param side the playing side
+     * @return     the occupancy mask of the side
+     */
+    public long occupancy(PlayingSide side) {
+        return this.occupancy[side.ordinal()];
+    }
+
+    /**
+     * Gets the mask of squares occupied by any troop.
+     *
+     * @return the occupancy mask of both sides
+     */
+    public long occupied() {
+        return this.occupancy[0] | this.occupancy[1];
+    }
+
+    /**
+     * Gets the mask of squares holding a mountain tile.
+     *
+     * @return the mountain mask
+     */
+    public long mountains() {
+        return this.mountains;
+    }
+
+    /**
+     * Gets the mask of squares whose troop shows its revers (back) face.
+     *
+     * @return the revers mask
+     */
+    public long revers() {
+        return this.revers;
+    }
+
+    /**
+     * Gets the mask of squares occupied by the given troop type of either side.
+     *
+     * @param code the code of the troop type
+     * @return     the mask of the troop type
+     */
+    public long troopMask(int code) {
+        return this.troopMasks[code];
+    }
+
+    /**
+     * Gets the code of the troop on the given square.
+     *
+     * @param square the index of the square
+     * @return       the troop code, or NONE if the square is empty
+     */
+    public int troopCode(int square) {
+        long mask = bit(square);
+
+        for (int code = 0; code < this.troopMasks.length; code++)
+            if ((this.troopMasks[code] & mask) != 0)
+                return code;
+
+        return NONE;
+    }
+
+    /**
+     * Gets the leader square of the given side.
+     *
+     * @param side the playing side
+     * @return     the leader square, or NONE if the leader is not on the board
+     */
+    public int leaderSquare(PlayingSide side) {
+        return this.leaders[side.ordinal()];
+    }
+
+    /**
+     * Gets the number of guards placed by the given side.
+     *
+     * @param side the playing side
+     * @return     the number of guards
+     */
+    public int guards(PlayingSide side) {
+        return this.guards[side.ordinal()];
+    }
+
+    /**
+     * Gets the number of troops remaining in the stack of the given side.
+     *
+     * @param side the playing side
+     * @return     the size of the stack
+     */
+    public int stackSize(PlayingSide side) {
+        int s = side.ordinal();
+        return this.stacks[s].length - this.stackTops[s];
+    }
+
+    /**
+     * Gets the mask of all squares orthogonally adjacent to the squares of the given mask.
+     *
+     * @param mask the squares whose neighbours are requested
+     * @return     the mask of neighbouring squares
+     */
+    public long neighbours(long mask) {
+        return (((mask & ~this.lastColumn) << 1) | ((mask & ~this.firstColumn) >>> 1) |
+                (mask << this.dimension) | (mask >>> this.dimension)) & this.boardMask;
+    }
+
+    /**
+     * Gets the mask of the home row of the given side, where its leader has to be placed.
+     *
+     * @param side the ordinal of the playing side
+     * @return     the mask of the home row
+     */
+    protected long homeRow(int side) {
+        long row = (1L << this.dimension) - 1;
+        return side == PlayingSide.BLUE.ordinal() ? row : row << (this.dimension * (this.dimension - 1));
+    }
+
+    /**
+     * Gets the mask of squares a troop can step on, i.e. on-board squares without a troop or a mountain.
+     *
+     * @return the mask of free squares
+     */
+    protected long free() {
+        return this.boardMask & ~(this.occupancy[0] | this.occupancy[1] | this.mountains);
+    }
+
+    /**
+     * Checks if a step can be initiated from the given square by the side on turn.
+     *
+     * @param origin the starting square
+     * @return       true if a step can be initiated, false otherwise
+     */
+    protected boolean canStepFrom(int origin) {
+        int side = this.sideOnTurn;
+
+        return this.result == GameResult.IN_PLAY && (this.occupancy[side] & bit(origin)) != 0 &&
+                this.leaders[side] != NONE && this.guards[side] >= 2;
+    }
+
+    /**
+     * Checks if a step move is valid from the origin to the target square.
+     *
+     * @param origin the starting square
+     * @param target the target square
+     * @return       true if the move is valid, false otherwise
+     */
+    public boolean canStep(int origin, int target) {
+        return this.canStepFrom(origin) && (this.free() & bit(target)) != 0;
+    }
+
+    /**
+     * Checks if a capture move is valid from the origin to the target square.
+     *
+     * @param origin the starting square
+     * @param target the target square
+     * @return       true if the move is valid, false otherwise
+     */
+    public boolean canCapture(int origin, int target) {
+        return this.canStepFrom(origin) && (this.occupancy[1 - this.sideOnTurn] & bit(target)) != 0;
+    }
+
+    /**
+     * Checks if a troop can be placed from the stack to the target square.
+     *
+     * @param target the target square
+     * @return       true if a troop can be placed, false otherwise
+     */
+    public boolean canPlaceFromStack(int target) {
+        return (this.placeTargets() & bit(target)) != 0;
+    }
+
+    /**
+     * Checks if a step move is valid from the origin to the target position.
+     *
+     * @param origin the starting position for the move
+     * @param target the target position for the move
+     * @return       true if the move is valid, false otherwise
+     */
+    public boolean canStep(TilePos origin, TilePos target) {
+        if (origin.equals(TilePos.OFF_BOARD) || target.equals(TilePos.OFF_BOARD))
+            return false;
+
+        return this.canStep(this.square(origin), this.square(target));
+    }
+
+    /**
+     * Checks if a capture move is valid from the origin to the target position.
+     *
+     * @param origin the starting position for the move
+     * @param target the target position for the move
+     * @return       true if the move is valid, false otherwise
+     */
+    public boolean canCapture(TilePos origin, TilePos target) {
+        if (origin.equals(TilePos.OFF_BOARD) || target.equals(TilePos.OFF_BOARD))
+            return false;
+
+        return this.canCapture(this.square(origin), this.square(target));
+    }
+
+    /**
+     * Checks if a troop can be placed from the stack to the target position.
+     *
+     * @param target the target position to place a troop from the stack
+     * @return       true if a troop can be placed, false otherwise
+     */
+    public boolean canPlaceFromStack(TilePos target) {
+        if (target.equals(TilePos.OFF_BOARD))
+            return false;
+
+        return this.canPlaceFromStack(this.square(target));
+    }
+
+    /**
+     * Gets the mask of squares where the side on turn can place the next troop of its stack.
+     * The leader goes to the home row, the two guards next to the leader and any other troop next to a friendly troop.
+     *
+     * @return the mask of valid placement squares
+     */
+    public long placeTargets() {
+        int side = this.sideOnTurn;
+
+        if (this.result != GameResult.IN_PLAY || this.stackTops[side] == this.stacks[side].length)
+            return 0;
+
+        if (this.leaders[side] == NONE)
+            return this.free() & this.homeRow(side);
+
+        if (this.guards[side] < 2)
+            return this.free() & this.neighbours(bit(this.leaders[side]));
+
+        return this.free() & this.neighbours(this.occupancy[side]);
+    }
+
+    /**
+     * Gets the mask of target squares of `StepOnly` moves of the troop on the origin square.
+     *
+     * @param origin the square of the troop
+     * @return       the mask of target squares
+     */
+    public long stepTargets(int origin) {
+        return this.actionTargets(origin, StepOnly.class);
+    }
+
+    /**
+     * Gets the mask of target squares of `StepAndCapture` moves of the troop on the origin square.
+     *
+     * @param origin the square of the troop
+     * @return       the mask of target squares
+     */
+    public long stepAndCaptureTargets(int origin) {
+        return this.actionTargets(origin, StepAndCapture.class);
+    }
+
+    /**
+     * Gets the mask of target squares of `CaptureOnly` moves of the troop on the origin square.
+     *
+     * @param origin the square of the troop
+     * @return       the mask of target squares
+     */
+    public long captureOnlyTargets(int origin) {
+        return this.actionTargets(origin, CaptureOnly.class);
+    }
+
+    /**
+     * Collects the target squares of one kind of move over all actions of the troop on the origin square.
+     * The targets are looked up in the move tables and masked by the occupancy. The semantics follow
+     * `ShiftAction`, `SlideAction` and `StrikeAction`: a shift steps or captures, a slide steps along its ray
+     * until it is blocked and captures only on its first square, and a strike captures without moving.
+     *
+     * @param origin the square of the troop
+     * @param kind   the class of the moves whose targets are requested
+     * @return       the mask of target squares
+     */
+    private long actionTargets(int origin, Class<? extends Move> kind) {
+        if (!this.canStepFrom(origin))
+            return 0;
+
+        int face = (this.revers & bit(origin)) != 0 ? TroopFace.REVERS.ordinal() : TroopFace.AVERS.ordinal();
+        int entry = this.moveTables.entry(this.troopCode(origin), face, this.sideOnTurn, origin);
+
+        if (kind == StepOnly.class) {
+            long free = this.free();
+            return (this.moveTables.shifts(entry) & free) | this.moveTables.slideSteps(entry, free);
+        }
+
+        long enemy = this.occupancy[1 - this.sideOnTurn];
+
+        if (kind == StepAndCapture.class)
+            return (this.moveTables.shifts(entry) | this.moveTables.slideFirsts(entry)) & enemy;
+
+        return this.moveTables.strikes(entry) & enemy;
+    }
+
+    /**
+     * Returns the tile at a specified position on the board, built from the masks.
+     *
+     * @param pos the position on the board to check
+     * @return    the troop tile at the position, or the board tile if no troop is present
+     */
+    public Tile tileAt(TilePos pos) {
+        int square = this.square(pos);
+        long mask = bit(square);
+
+        for (PlayingSide side : SIDES)
+            if ((this.occupancy[side.ordinal()] & mask) != 0)
+                return new TroopTile(this.troops.troop(this.troopCode(square)), side,
+                        (this.revers & mask) != 0 ? TroopFace.REVERS : TroopFace.AVERS);
+
+        return (this.mountains & mask) != 0 ? BoardTile.MOUNTAIN : BoardTile.EMPTY;
+    }
+
+    /**
+     * Generates the list of moves of the troop on the given position, converted from the target masks.
+     *
+     * @param pos the position of the troop
+     * @return    a list of Move objects representing all legal moves of the troop
+     */
+    public List<Move> movesFrom(BoardPos pos) {
+        List<Move> moves = new ArrayList<>();
+        int origin = this.square(pos);
+
+        for (long targets = this.stepTargets(origin); targets != 0; targets &= targets - 1)
+            moves.add(new StepOnly(pos, this.position(Long.numberOfTrailingZeros(targets))));
+
+        for (long targets = this.stepAndCaptureTargets(origin); targets != 0; targets &= targets - 1)
+            moves.add(new StepAndCapture(pos, this.position(Long.numberOfTrailingZeros(targets))));
+
+        for (long targets = this.captureOnlyTargets(origin); targets != 0; targets &= targets - 1)
+            moves.add(new CaptureOnly(pos, this.position(Long.numberOfTrailingZeros(targets))));
+
+        return moves;
+    }
+
+    /**
+     * Gets an upper bound of the number of legal moves in any position of the game,
+     * the size of a buffer that is always large enough for `generateMoves`.
+     * Every troop can step to or capture on each square at most twice and a placement goes to each square at most once.
+     *
+     * @return the maximal number of moves
+     */
+    public int maxMoves() {
+        return this.maxMoves;
+    }
+
+    /**
+     * Writes the codes of all legal moves of the side on turn into the buffer, see `MoveCodes`.
+     * The moves of the troops on the board come first, ordered by square, followed by the placements from the stack.
+     * Nothing is allocated.
+     *
+     * @param moves the buffer receiving the move codes, at least `maxMoves()` long
+     * @return      the number of moves written
+     */
+    public int generateMoves(int[] moves) {
+        int side = this.sideOnTurn;
+        int count = 0;
+
+        if (this.result != GameResult.IN_PLAY)
+            return 0;
+
+        if (this.leaders[side] != NONE && this.guards[side] >= 2) {
+            long free = this.free();
+            long enemy = this.occupancy[1 - side];
+
+            for (long troops = this.occupancy[side]; troops != 0; troops &= troops - 1) {
+                int origin = Long.numberOfTrailingZeros(troops);
+                int face = (this.revers & bit(origin)) != 0 ? TroopFace.REVERS.ordinal() : TroopFace.AVERS.ordinal();
+                int entry = this.moveTables.entry(this.troopCode(origin), face, side, origin);
+                long shifts = this.moveTables.shifts(entry);
+
+                for (long targets = (shifts & free) | this.moveTables.slideSteps(entry, free);
+                        targets != 0; targets &= targets - 1)
+                    moves[count++] = MoveCodes.encode(MoveCodes.STEP, origin, Long.numberOfTrailingZeros(targets));
+
+                for (long targets = (shifts | this.moveTables.slideFirsts(entry)) & enemy;
+                        targets != 0; targets &= targets - 1)
+                    moves[count++] = MoveCodes.encode(MoveCodes.STEP_CAPTURE, origin, Long.numberOfTrailingZeros(targets));
+
+                for (long targets = this.moveTables.strikes(entry) & enemy; targets != 0; targets &= targets - 1)
+                    moves[count++] = MoveCodes.encode(MoveCodes.CAPTURE, origin, Long.numberOfTrailingZeros(targets));
+            }
+        }
+
+        for (long targets = this.placeTargets(); targets != 0; targets &= targets - 1)
+            moves[count++] = MoveCodes.place(Long.numberOfTrailingZeros(targets));
+
+        return count;
+    }
+
+    /**
+     * Generates the list of all legal moves of the side on turn, including placements from the stack.
+     * The moves are decoded from `generateMoves`.
+     *
+     * @return a list of all legal moves
+     */
+    public List<Move> allMoves() {
+        int[] codes = new int[this.maxMoves];
+        int count = this.generateMoves(codes);
+        List<Move> moves = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++)
+            moves.add(MoveCodes.decode(codes[i], this.dimension));
+
+        return moves;
+    }
+
+    /**
+     * Places the next troop of the stack of the side on turn to the target square and passes the turn.
+     *
+     * @param target                    the target square
+     * @throws IllegalArgumentException if the placement is not valid
+     */
+    protected void applyPlaceFromStack(int target) {
+        if (!this.canPlaceFromStack(target))
+            throw new IllegalArgumentException();
+
+        int side = this.sideOnTurn;
+        long mask = bit(target);
+
+        this.occupancy[side] |= mask;
+        this.troopMasks[this.stacks[side][this.stackTops[side]++]] |= mask;
+
+        if (this.leaders[side] == NONE)
+            this.leaders[side] = target;
+        else if (this.guards[side] < 2)
+            this.guards[side]++;
+
+        this.passTurn(GameResult.IN_PLAY);
+    }
+
+    /**
+     * Moves the troop of the side on turn from the origin to the target square and passes the turn.
+     *
+     * @param origin                    the starting square
+     * @param target                    the target square
+     * @throws IllegalArgumentException if the step is not valid
+     */
+    protected void applyStepOnly(int origin, int target) {
+        if (!this.canStep(origin, target))
+            throw new IllegalArgumentException();
+
+        this.moveTroop(origin, target);
+        this.passTurn(GameResult.IN_PLAY);
+    }
+
+    /**
+     * Moves the troop of the side on turn from the origin to the target square, capturing the enemy troop there,
+     * and passes the turn. Capturing the enemy leader wins the game.
+     *
+     * @param origin                    the starting square
+     * @param target                    the square of the captured troop
+     * @throws IllegalArgumentException if the capture is not valid
+     */
+    protected void applyStepAndCapture(int origin, int target) {
+        if (!this.canCapture(origin, target))
+            throw new IllegalArgumentException();
+
+        GameResult newResult = this.captureTroop(target);
+        this.moveTroop(origin, target);
+        this.passTurn(newResult);
+    }
+
+    /**
+     * Captures the enemy troop on the target square without moving, flipping the capturing troop,
+     * and passes the turn. Capturing the enemy leader wins the game.
+     *
+     * @param origin                    the square of the capturing troop
+     * @param target                    the square of the captured troop
+     * @throws IllegalArgumentException if the capture is not valid
+     */
+    protected void applyCaptureOnly(int origin, int target) {
+        if (!this.canCapture(origin, target))
+            throw new IllegalArgumentException();
+
+        GameResult newResult = this.captureTroop(target);
+        this.revers ^= bit(origin);
+        this.passTurn(newResult);
+    }
+
+    /**
+     * Marks the game as resigned by the side on turn, passing the turn to the winning side.
+     */
+    protected void applyResign() {
+        this.passTurn(GameResult.VICTORY);
+    }
+
+    /**
+     * Marks the game as a draw. The side on turn does not change.
+     */
+    protected void applyDraw() {
+        this.result = GameResult.DRAW;
+    }
+
+    /**
+     * Moves the troop from the origin to the target square, flipping it and following it with the leader square.
+     *
+     * @param origin the starting square
+     * @param target the target square
+     */
+    protected void moveTroop(int origin, int target) {
+        int side = this.sideOnTurn;
+        int code = this.troopCode(origin);
+        long originMask = bit(origin);
+        long targetMask = bit(target);
+
+        this.occupancy[side] ^= originMask | targetMask;
+        this.troopMasks[code] ^= originMask | targetMask;
+
+        if ((this.revers & originMask) == 0)
+            this.revers |= targetMask;
+
+        this.revers &= ~originMask;
+
+        if (this.leaders[side] == origin)
+            this.leaders[side] = target;
+    }
+
+    /**
+     * Removes the enemy troop from the target square and adds it to the troops captured by the side on turn.
+     *
+     * @param target                 the square of the captured troop
+     * @return                       VICTORY if the captured troop was the enemy leader, IN_PLAY otherwise
+     * @throws IllegalStateException if the enemy is still placing its leader or guards
+     */
+    protected GameResult captureTroop(int target) {
+        int side = this.sideOnTurn;
+        int enemy = 1 - side;
+
+        if (this.leaders[enemy] == NONE || this.guards[enemy] < 2)
+            throw new IllegalStateException("Cannot move troops before guards are placed.");
+
+        int code = this.troopCode(target);
+        long mask = ~bit(target);
+
+        this.occupancy[enemy] &= mask;
+        this.troopMasks[code] &= mask;
+        this.revers &= mask;
+        this.captured[side][this.capturedCounts[side]++] = code;
+
+        if (this.leaders[enemy] == target) {
+            this.leaders[enemy] = NONE;
+            return GameResult.VICTORY;
+        }
+
+        return GameResult.IN_PLAY;
+    }
+
+    /**
+     * Passes the turn to the other side and sets the result of the game.
+     *
+     * @param newResult the new result of the game
+     */
+    protected void passTurn(GameResult newResult) {
+        this.sideOnTurn = 1 - this.sideOnTurn;
+        this.result = newResult;
+    }
+
+    /**
+     * Converts the bitboard back to an equivalent immutable `GameState`.
+     *
+     * @return a new GameState with the same board, armies, side on turn and result
+     */
+    public GameState toGameState() {
+        Board board = new Board(this.dimension);
+        List<Board.TileAt> tiles = new ArrayList<>();
+
+        for (long mask = this.mountains; mask != 0; mask &= mask - 1)
+            tiles.add(new Board.TileAt(this.position(Long.numberOfTrailingZeros(mask)), BoardTile.MOUNTAIN));
+        board = board.withTiles(tiles.toArray(new Board.TileAt[0]));
+
+        Army[] armies = new Army[2];
+        for (PlayingSide side : SIDES) {
+            int s = side.ordinal();
+            Map<BoardPos, TroopTile> troopMap = new HashMap<>();
+
+            for (long mask = this.occupancy[s]; mask != 0; mask &= mask - 1) {
+                int square = Long.numberOfTrailingZeros(mask);
+                troopMap.put(this.position(square), (TroopTile) this.tileAt(this.position(square)));
+            }
+
+            TilePos leader = this.leaders[s] == NONE ? TilePos.OFF_BOARD : this.position(this.leaders[s]);
+            List<Troop> stack = new ArrayList<>();
+            for (int i = this.stackTops[s]; i < this.stacks[s].length; i++)
+                stack.add(this.troops.troop(this.stacks[s][i]));
+
+            List<Troop> capturedTroops = new ArrayList<>();
+            for (int i = 0; i < this.capturedCounts[s]; i++)
+                capturedTroops.add(this.troops.troop(this.captured[s][i]));
+
+            armies[s] = new Army(new BoardTroops(side, troopMap, leader, this.guards[s]), stack, capturedTroops);
+        }
+
+        return new GameState(board, armies[PlayingSide.BLUE.ordinal()], armies[PlayingSide.ORANGE.ordinal()],
+                this.sideOnTurn(), this.result);
+    }
+}
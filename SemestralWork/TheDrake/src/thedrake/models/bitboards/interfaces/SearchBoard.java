@@ -0,0 +1,115 @@
+package thedrake.models.bitboards.interfaces;
+
+import thedrake.models.bitboards.states.SearchPosition;
+import thedrake.models.bitboards.states.WideSearchPosition;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+
+/**
+ * The `SearchBoard` interface is a mutable position for tree search: moves are generated as `MoveCodes`,
+ * made in place and taken back by `unmake`, so a search allocates nothing once its buffers are grown.
+ * `of` picks the representation by the size of the board: a `SearchPosition` keeps every mask in one `long`
+ * up to `BitBoard.MAX_DIMENSION`, and a `WideSearchPosition` spreads the masks over several words
+ * up to `MAX_DIMENSION`.
+ */
+public interface SearchBoard {
+    /**
+     * The largest board dimension of a search board, limited by the 8 bits of a square in a move code.
+     */
+    int MAX_DIMENSION = 16;
+
+    /**
+     * Creates the search board of a game state, indexing the troops found in the state.
+     *
+     * @param state                     the game state to convert
+     * @return                          a `SearchPosition` if the masks fit into one `long`,
+     *                                  a `WideSearchPosition` otherwise
+     * @throws IllegalArgumentException if the board is larger than MAX_DIMENSION
+     */
+    static SearchBoard of(GameState state) {
+        int dimension = state.board().dimension();
+
+        if (dimension <= BitBoard.MAX_DIMENSION)
+            return SearchPosition.of(state);
+
+        if (dimension <= MAX_DIMENSION)
+            return WideSearchPosition.of(state);
+
+        throw new IllegalArgumentException("The dimension of a search board can be at most " + MAX_DIMENSION + ".");
+    }
+
+    /**
+     * Gets the dimension of the game board.
+     *
+     * @return the dimension of the game board
+     */
+    int dimension();
+
+    /**
+     * Gets the side that is currently taking their turn.
+     *
+     * @return the side on turn
+     */
+    PlayingSide sideOnTurn();
+
+    /**
+     * Gets the current result of the game.
+     *
+     * @return the game result
+     */
+    GameResult result();
+
+    /**
+     * Gets an upper bound of the number of legal moves in any position of the game,
+     * the size of a buffer that is always large enough for `generateMoves`.
+     *
+     * @return the maximal number of moves
+     */
+    int maxMoves();
+
+    /**
+     * Writes the codes of all legal moves of the side on turn into the buffer, see `MoveCodes`.
+     * The moves of the troops on the board come first, ordered by square, followed by the placements from the stack.
+     *
+     * @param moves the buffer receiving the move codes, at least `maxMoves()` long
+     * @return      the number of moves written
+     */
+    int generateMoves(int[] moves);
+
+    /**
+     * Makes the move with the given code, see `MoveCodes`.
+     *
+     * @param move                      the move code
+     * @throws IllegalArgumentException if the move is not valid
+     */
+    void make(int move);
+
+    /**
+     * Takes back the last made move, restoring the position exactly as it was before the move.
+     *
+     * @throws IllegalStateException if no move has been made
+     */
+    void unmake();
+
+    /**
+     * Gets the number of moves that have been made and not yet taken back.
+     *
+     * @return the depth of the undo stack
+     */
+    int ply();
+
+    /**
+     * Creates a copy of the position with an empty undo stack, e.g. for another thread.
+     *
+     * @return the copy
+     */
+    SearchBoard copy();
+
+    /**
+     * Converts the position back to an equivalent immutable `GameState`.
+     *
+     * @return a new GameState with the same board, armies, side on turn and result
+     */
+    GameState toGameState();
+}
@@ -0,0 +1,145 @@
+package thedrake.models.bitboards.states;
+
+import thedrake.models.bitboards.interfaces.BitBoard;
+import thedrake.models.bitboards.troops.TroopIndex;
+import thedrake.models.moves.captures.CaptureOnly;
+import thedrake.models.moves.interfaces.BoardMove;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.moves.stacks.PlaceFromStack;
+import thedrake.models.moves.steps.StepAndCapture;
+import thedrake.models.moves.steps.StepOnly;
+import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.states.GameState;
+
+/**
+ * The `BitBoardState` class is an immutable bitboard counterpart of `GameState`.
+ * It answers the same questions and performs the same transitions as `GameState`,
+ * but every query is a few bit operations on the masks of `BitBoard`.
+ * Every transition returns a new BitBoardState and leaves this one untouched.
+ */
+public class BitBoardState extends BitBoard {
+    /**
+     * Constructs a BitBoardState equivalent to the given game state.
+     *
+     * @param state  the game state to convert
+     * @param troops the index used to encode the troops of the state
+     */
+    public BitBoardState(GameState state, TroopIndex troops) {
+        super(state, troops);
+    }
+
+    /**
+     * Constructs a BitBoardState as a copy of another one.
+     *
+     * @param other the state to copy
+     */
+    private BitBoardState(BitBoardState other) {
+        super(other);
+    }
+
+    /**
+     * Creates a BitBoardState equivalent to the given game state, indexing the troops found in the state.
+     *
+     * @param state the game state to convert
+     * @return      a new BitBoardState
+     */
+    public static BitBoardState of(GameState state) {
+        return new BitBoardState(state, TroopIndex.scan(state));
+    }
+
+    /**
+     * Performs a step move only.
+     *
+     * @param origin the starting position for the move
+     * @param target the target position for the move
+     * @return       a new BitBoardState reflecting the move
+     */
+    public BitBoardState stepOnly(BoardPos origin, BoardPos target) {
+        BitBoardState next = new BitBoardState(this);
+        next.applyStepOnly(this.square(origin), this.square(target));
+        return next;
+    }
+
+    /**
+     * Performs a step move and captures an enemy troop.
+     *
+     * @param origin the starting position for the move
+     * @param target the target position for the move
+     * @return       a new BitBoardState reflecting the move
+     */
+    public BitBoardState stepAndCapture(BoardPos origin, BoardPos target) {
+        BitBoardState next = new BitBoardState(this);
+        next.applyStepAndCapture(this.square(origin), this.square(target));
+        return next;
+    }
+
+    /**
+     * Captures an enemy troop without moving.
+     *
+     * @param origin the position of the capturing troop
+     * @param target the position of the enemy troop
+     * @return       a new BitBoardState reflecting the capture
+     */
+    public BitBoardState captureOnly(BoardPos origin, BoardPos target) {
+        BitBoardState next = new BitBoardState(this);
+        next.applyCaptureOnly(this.square(origin), this.square(target));
+        return next;
+    }
+
+    /**
+     * Places a troop from the stack to the target position.
+     *
+     * @param target the target position for placing a troop from the stack
+     * @return       a new BitBoardState reflecting the placement
+     */
+    public BitBoardState placeFromStack(BoardPos target) {
+        BitBoardState next = new BitBoardState(this);
+        next.applyPlaceFromStack(this.square(target));
+        return next;
+    }
+
+    /**
+     * Marks the game as resigned by the current player.
+     *
+     * @return a new BitBoardState with the result set to victory for the opposing player
+     */
+    public BitBoardState resign() {
+        BitBoardState next = new BitBoardState(this);
+        next.applyResign();
+        return next;
+    }
+
+    /**
+     * Marks the game as a draw.
+     *
+     * @return a new BitBoardState representing a draw
+     */
+    public BitBoardState draw() {
+        BitBoardState next = new BitBoardState(this);
+        next.applyDraw();
+        return next;
+    }
+
+    /**
+     * Executes one of the standard moves on this state, the bitboard counterpart of `Move.execute`.
+     *
+     * @param move                      the move to execute
+     * @return                          a new BitBoardState reflecting the move
+     * @throws IllegalArgumentException if the move is not valid or of an unknown kind
+     */
+    public BitBoardState execute(Move move) {
+        if (move instanceof PlaceFromStack)
+            return this.placeFromStack(move.target());
+
+        if (move instanceof StepOnly)
+            return this.stepOnly(((BoardMove) move).origin(), move.target());
+
+        if (move instanceof StepAndCapture)
+            return this.stepAndCapture(((BoardMove) move).origin(), move.target());
+
+        if (move instanceof CaptureOnly)
+            return this.captureOnly(((BoardMove) move).origin(), move.target());
+
+        throw new IllegalArgumentException("Unknown move " + move + ".");
+    }
+}
@@ -0,0 +1,356 @@
+package thedrake.models.bitboards.states;
+
+import thedrake.models.bitboards.interfaces.BitBoard;
+import thedrake.models.bitboards.interfaces.SearchBoard;
+import thedrake.models.bitboards.troops.TroopIndex;
+import thedrake.models.moves.captures.CaptureOnly;
+import thedrake.models.moves.codes.MoveCodes;
+import thedrake.models.moves.interfaces.BoardMove;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.moves.stacks.PlaceFromStack;
+import thedrake.models.moves.steps.StepAndCapture;
+import thedrake.models.moves.steps.StepOnly;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+
+/**
+ * The `SearchPosition` class is a mutable bitboard of The Drake intended for tree search.
+ * Instead of creating a new state for every move, `make` updates the masks in place and pushes a single
+ * `long` describing the change onto an undo stack, and `unmake` takes the last move back using that record.
+ * Once the undo stack has grown to the depth of the search, making and unmaking moves allocates nothing.
+ * A SearchPosition can be created from a `GameState` and converted back to one at any time.
+ */
+public class SearchPosition extends BitBoard implements SearchBoard {
+    /**
+     * The kind of an undo record of a placement from the stack.
+     */
+    private static final int PLACE = 0;
+
+    /**
+     * The kind of an undo record of a step without capture.
+     */
+    private static final int STEP = 1;
+
+    /**
+     * The kind of an undo record of a step with capture.
+     */
+    private static final int STEP_CAPTURE = 2;
+
+    /**
+     * The kind of an undo record of a capture without moving.
+     */
+    private static final int CAPTURE = 3;
+
+    /**
+     * The kind of an undo record of a resignation.
+     */
+    private static final int RESIGN = 4;
+
+    /**
+     * The kind of an undo record of a draw.
+     */
+    private static final int DRAW = 5;
+
+    /**
+     * The value stored in a 7-bit field of an undo record in place of NONE.
+     */
+    private static final int NONE_FIELD = 0x7F;
+
+    /**
+     * The initial capacity of the undo stack.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The game results indexed by their ordinal, cached to avoid cloning `GameResult.values()`.
+     */
+    private static final GameResult[] RESULTS = GameResult.values();
+
+    /**
+     * The undo records of the moves made so far, the last made move on top.
+     */
+    private long[] undo;
+
+    /**
+     * The number of records on the undo stack.
+     */
+    private int ply;
+
+    /**
+     * Constructs a SearchPosition equivalent to the given game state.
+     *
+     * @param state  the game state to convert
+     * @param troops the index used to encode the troops of the state
+     */
+    public SearchPosition(GameState state, TroopIndex troops) {
+        super(state, troops);
+        this.undo = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Constructs a SearchPosition as a copy of another bitboard with an empty undo stack.
+     *
+     * @param other the bitboard to copy
+     */
+    public SearchPosition(BitBoard other) {
+        super(other);
+        this.undo = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Creates a SearchPosition equivalent to the given game state, indexing the troops found in the state.
+     *
+     * @param state the game state to convert
+     * @return      a new SearchPosition
+     */
+    public static SearchPosition of(GameState state) {
+        return new SearchPosition(state, TroopIndex.scan(state));
+    }
+
+    /**
+     * Creates a copy of the position with an empty undo stack.
+     *
+     * @return the copy
+     */
+    @Override
+    public SearchPosition copy() {
+        return new SearchPosition(this);
+    }
+
+    /**
+     * Gets the number of moves that have been made and not yet taken back.
+     *
+     * @return the depth of the undo stack
+     */
+    @Override
+    public int ply() {
+        return this.ply;
+    }
+
+    /**
+     * Makes one of the standard moves on this position.
+     *
+     * @param move                      the move to make
+     * @throws IllegalArgumentException if the move is not valid or of an unknown kind
+     */
+    public void make(Move move) {
+        if (move instanceof PlaceFromStack)
+            this.makePlaceFromStack(this.square(move.target()));
+        else if (move instanceof StepOnly)
+            this.makeStepOnly(this.square(((BoardMove) move).origin()), this.square(move.target()));
+        else if (move instanceof StepAndCapture)
+            this.makeStepAndCapture(this.square(((BoardMove) move).origin()), this.square(move.target()));
+        else if (move instanceof CaptureOnly)
+            this.makeCaptureOnly(this.square(((BoardMove) move).origin()), this.square(move.target()));
+        else
+            throw new IllegalArgumentException("Unknown move " + move + ".");
+    }
+
+    /**
+     * Makes the move with the given code, see `MoveCodes`.
+     *
+     * @param move                      the move code
+     * @throws IllegalArgumentException if the move is not valid
+     */
+    @Override
+    public void make(int move) {
+        int kind = MoveCodes.kind(move);
+        int origin = MoveCodes.origin(move);
+        int target = MoveCodes.target(move);
+
+        if (kind == MoveCodes.PLACE)
+            this.makePlaceFromStack(target);
+        else if (kind == MoveCodes.STEP)
+            this.makeStepOnly(origin, target);
+        else if (kind == MoveCodes.STEP_CAPTURE)
+            this.makeStepAndCapture(origin, target);
+        else if (kind == MoveCodes.CAPTURE)
+            this.makeCaptureOnly(origin, target);
+        else
+            throw new IllegalArgumentException("Invalid move code " + move + ".");
+    }
+
+    /**
+     * Places the next troop of the stack of the side on turn to the target square.
+     *
+     * @param target                    the target square
+     * @throws IllegalArgumentException if the placement is not valid
+     */
+    public void makePlaceFromStack(int target) {
+        long record = this.record(PLACE, NONE, target);
+        this.applyPlaceFromStack(target);
+        this.push(record);
+    }
+
+    /**
+     * Moves the troop of the side on turn from the origin to the target square.
+     *
+     * @param origin                    the starting square
+     * @param target                    the target square
+     * @throws IllegalArgumentException if the step is not valid
+     */
+    public void makeStepOnly(int origin, int target) {
+        long record = this.record(STEP, origin, target);
+        this.applyStepOnly(origin, target);
+        this.push(record);
+    }
+
+    /**
+     * Moves the troop of the side on turn from the origin to the target square, capturing the enemy troop there.
+     *
+     * @param origin                    the starting square
+     * @param target                    the square of the captured troop
+     * @throws IllegalArgumentException if the capture is not valid
+     */
+    public void makeStepAndCapture(int origin, int target) {
+        long record = this.record(STEP_CAPTURE, origin, target);
+        this.applyStepAndCapture(origin, target);
+        this.push(record);
+    }
+
+    /**
+     * Captures the enemy troop on the target square without moving.
+     *
+     * @param origin                    the square of the capturing troop
+     * @param target                    the square of the captured troop
+     * @throws IllegalArgumentException if the capture is not valid
+     */
+    public void makeCaptureOnly(int origin, int target) {
+        long record = this.record(CAPTURE, origin, target);
+        this.applyCaptureOnly(origin, target);
+        this.push(record);
+    }
+
+    /**
+     * Resigns the game on behalf of the side on turn.
+     */
+    public void makeResign() {
+        long record = this.record(RESIGN, NONE, NONE);
+        this.applyResign();
+        this.push(record);
+    }
+
+    /**
+     * Marks the game as a draw.
+     */
+    public void makeDraw() {
+        long record = this.record(DRAW, NONE, NONE);
+        this.applyDraw();
+        this.push(record);
+    }
+
+    /**
+     * Takes back the last made move, restoring the position exactly as it was before the move.
+     *
+     * @throws IllegalStateException if no move has been made
+     */
+    @Override
+    public void unmake() {
+        if (this.ply == 0)
+            throw new IllegalStateException("There is no move to take back.");
+
+        long record = this.undo[--this.ply];
+        int kind = (int) (record & 0x7);
+        int origin = field(record, 3);
+        int target = field(record, 10);
+        int side = (int) (record >>> 17) & 1;
+        int enemy = 1 - side;
+
+        if (kind == PLACE) {
+            long mask = bit(target);
+            this.occupancy[side] &= ~mask;
+            this.troopMasks[this.stacks[side][--this.stackTops[side]]] &= ~mask;
+        }
+        else if (kind == STEP || kind == STEP_CAPTURE) {
+            long originMask = bit(origin);
+            long targetMask = bit(target);
+            this.troopMasks[this.troopCode(target)] ^= originMask | targetMask;
+            this.occupancy[side] ^= originMask | targetMask;
+            this.revers &= ~targetMask;
+            if ((record & (1L << 18)) != 0)
+                this.revers |= originMask;
+        }
+        else if (kind == CAPTURE)
+            this.revers ^= bit(origin);
+
+        if (kind == STEP_CAPTURE || kind == CAPTURE) {
+            long mask = bit(target);
+            this.occupancy[enemy] |= mask;
+            this.troopMasks[this.captured[side][--this.capturedCounts[side]]] |= mask;
+            if ((record & (1L << 19)) != 0)
+                this.revers |= mask;
+        }
+
+        this.leaders[side] = field(record, 20);
+        this.leaders[enemy] = field(record, 27);
+        this.guards[side] = (int) (record >>> 34) & 0x3;
+        this.sideOnTurn = side;
+        this.result = RESULTS[(int) (record >>> 36) & 0x3];
+    }
+
+    /**
+     * Builds the undo record of a move about to be made. The record layout is:
+     * bits 0-2 kind, 3-9 origin, 10-16 target, 17 moving side, 18 origin shows revers,
+     * 19 target shows revers, 20-26 own leader, 27-33 enemy leader, 34-35 own guards, 36-37 result.
+     *
+     * @param kind   the kind of the move
+     * @param origin the starting square, or NONE
+     * @param target the target square, or NONE
+     * @return       the undo record
+     */
+    private long record(int kind, int origin, int target) {
+        int side = this.sideOnTurn;
+        long record = kind;
+
+        record |= (long) toField(origin) << 3;
+        record |= (long) toField(target) << 10;
+        record |= (long) side << 17;
+        if (origin != NONE && (this.revers & bit(origin)) != 0)
+            record |= 1L << 18;
+        if (target != NONE && (this.revers & bit(target)) != 0)
+            record |= 1L << 19;
+        record |= (long) toField(this.leaders[side]) << 20;
+        record |= (long) toField(this.leaders[1 - side]) << 27;
+        record |= (long) this.guards[side] << 34;
+        record |= (long) this.result.ordinal() << 36;
+
+        return record;
+    }
+
+    /**
+     * Pushes an undo record, growing the undo stack if it is full.
+     *
+     * @param record the undo record
+     */
+    private void push(long record) {
+        if (this.ply == this.undo.length) {
+            long[] grown = new long[this.undo.length * 2];
+            System.arraycopy(this.undo, 0, grown, 0, this.undo.length);
+            this.undo = grown;
+        }
+
+        this.undo[this.ply++] = record;
+    }
+
+    /**
+     * Encodes a square, or NONE, into a 7-bit field.
+     *
+     * @param square the square or NONE
+     * @return       the field value
+     */
+    private static int toField(int square) {
+        return square == NONE ? NONE_FIELD : square;
+    }
+
+    /**
+     * Decodes a 7-bit field of an undo record into a square, or NONE.
+     *
+     * @param record the undo record
+     * @param shift  the position of the field
+     * @return       the square or NONE
+     */
+    private static int field(long record, int shift) {
+        int value = (int) (record >>> shift) & NONE_FIELD;
+        return value == NONE_FIELD ? NONE : value;
+    }
+}
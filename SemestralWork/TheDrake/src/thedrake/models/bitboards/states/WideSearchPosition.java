@@ -0,0 +1,800 @@
+package thedrake.models.bitboards.states;
+
+import thedrake.models.bitboards.interfaces.SearchBoard;
+import thedrake.models.bitboards.tables.WideMoveTables;
+import thedrake.models.bitboards.troops.TroopIndex;
+import thedrake.models.boards.Army;
+import thedrake.models.boards.Board;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.moves.codes.MoveCodes;
+import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.positions.interfaces.TilePos;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.models.tiles.interfaces.BoardTile;
+import thedrake.models.tiles.troops.TroopTile;
+import thedrake.models.troops.BoardTroops;
+import thedrake.models.troops.Troop;
+import thedrake.models.troops.TroopFace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The `WideSearchPosition` class is the mutable search position of boards up to `SearchBoard.MAX_DIMENSION`,
+ * whose squares do not fit into the single `long` masks of `SearchPosition`. The occupancy, revers and mountain
+ * masks are spread over the words of `WideMoveTables`, so generating moves costs one operation per word
+ * instead of one, and the troop on each square is kept in an array instead of one mask per troop type.
+ * The rules, the order of the generated moves and the undo stack are those of `SearchPosition`; the fields
+ * of an undo record are 9 bits wide to hold the 256 squares of the largest board.
+ */
+public class WideSearchPosition implements SearchBoard {
+    /**
+     * The value used for squares that are not present, e.g. the leader square before it is placed.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * The kind of an undo record of a placement from the stack.
+     */
+    private static final int PLACE = 0;
+
+    /**
+     * The kind of an undo record of a step without capture.
+     */
+    private static final int STEP = 1;
+
+    /**
+     * The kind of an undo record of a step with capture.
+     */
+    private static final int STEP_CAPTURE = 2;
+
+    /**
+     * The kind of an undo record of a capture without moving.
+     */
+    private static final int CAPTURE = 3;
+
+    /**
+     * The value stored in a 9-bit field of an undo record in place of NONE.
+     */
+    private static final int NONE_FIELD = 0x1FF;
+
+    /**
+     * The initial capacity of the undo stack.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The playing sides indexed by their ordinal, cached to avoid cloning `PlayingSide.values()`.
+     */
+    private static final PlayingSide[] SIDES = PlayingSide.values();
+
+    /**
+     * The game results indexed by their ordinal, cached to avoid cloning `GameResult.values()`.
+     */
+    private static final GameResult[] RESULTS = GameResult.values();
+
+    /**
+     * The dimension of the game board.
+     */
+    private final int dimension;
+
+    /**
+     * The number of longs of a mask of the board.
+     */
+    private final int words;
+
+    /**
+     * The index translating troop codes to troop types and back.
+     */
+    private final TroopIndex troops;
+
+    /**
+     * The precompiled targets of the actions of the troops and the masks of the board.
+     */
+    private final WideMoveTables tables;
+
+    /**
+     * The mask of the squares holding a mountain tile. The array is never modified.
+     */
+    private final long[] mountains;
+
+    /**
+     * The masks of squares occupied by troops, `words` longs per side indexed by the ordinal of the side.
+     */
+    private final long[] occupancy;
+
+    /**
+     * The mask of squares whose troop shows its revers (back) face.
+     */
+    private final long[] revers;
+
+    /**
+     * The troop code on each square, or NONE if the square has no troop.
+     */
+    private final int[] codes;
+
+    /**
+     * The leader squares indexed by the ordinal of the playing side, or NONE if the leader is not on the board.
+     */
+    private final int[] leaders;
+
+    /**
+     * The number of guards placed by each side, indexed by the ordinal of the playing side.
+     */
+    private final int[] guards;
+
+    /**
+     * The troop codes of the stacks, indexed by the ordinal of the playing side. The arrays are never modified.
+     */
+    private final int[][] stacks;
+
+    /**
+     * The index of the next troop to be placed from each stack.
+     */
+    private final int[] stackTops;
+
+    /**
+     * The codes of captured enemy troops, indexed by the ordinal of the capturing side.
+     */
+    private final int[][] captured;
+
+    /**
+     * The number of valid entries in each array of captured troops.
+     */
+    private final int[] capturedCounts;
+
+    /**
+     * An upper bound of the number of legal moves in any position of the game, see `maxMoves`.
+     */
+    private final int maxMoves;
+
+    /**
+     * The mask of free squares, reused by every call of `generateMoves`.
+     */
+    private final long[] free;
+
+    /**
+     * The mask of the targets being converted to move codes, reused by every call of `generateMoves`.
+     */
+    private final long[] targets;
+
+    /**
+     * The ordinal of the side currently taking their turn.
+     */
+    private int sideOnTurn;
+
+    /**
+     * The current result of the game.
+     */
+    private GameResult result;
+
+    /**
+     * The undo records of the moves made so far, the last made move on top.
+     */
+    private long[] undo;
+
+    /**
+     * The number of records on the undo stack.
+     */
+    private int ply;
+
+    /**
+     * Constructs a WideSearchPosition equivalent to the given game state.
+     *
+     * @param state                     the game state to convert
+     * @param troops                    the index used to encode the troops of the state
+     * @throws IllegalArgumentException if the board is larger than `SearchBoard.MAX_DIMENSION`
+     */
+    public WideSearchPosition(GameState state, TroopIndex troops) {
+        Board board = state.board();
+
+        this.dimension = board.dimension();
+        this.troops = troops;
+        this.tables = troops.wideMoveTables(this.dimension);
+        this.words = this.tables.words();
+
+        int squares = this.dimension * this.dimension;
+        PositionFactory pf = board.positionFactory();
+
+        this.mountains = new long[this.words];
+        for (int square = 0; square < squares; square++)
+            if (board.at(pf.pos(square % this.dimension, square / this.dimension)) == BoardTile.MOUNTAIN)
+                this.mountains[square >>> 6] |= 1L << square;
+
+        this.occupancy = new long[2 * this.words];
+        this.revers = new long[this.words];
+        this.codes = new int[squares];
+        this.leaders = new int[2];
+        this.guards = new int[2];
+        this.stacks = new int[2][];
+        this.stackTops = new int[2];
+        this.captured = new int[2][];
+        this.capturedCounts = new int[2];
+        this.free = new long[this.words];
+        this.targets = new long[this.words];
+        this.undo = new long[INITIAL_CAPACITY];
+
+        Arrays.fill(this.codes, NONE);
+
+        int troopCount = 0;
+        for (PlayingSide side : SIDES) {
+            Army army = state.army(side);
+            troopCount += army.boardTroops().troopPositions().size() + army.stack().size() + army.captured().size();
+        }
+
+        for (PlayingSide side : SIDES) {
+            int s = side.ordinal();
+            Army army = state.army(side);
+            BoardTroops boardTroops = army.boardTroops();
+
+            for (BoardPos pos : boardTroops.troopPositions()) {
+                TroopTile tile = boardTroops.at(pos).get();
+                int square = this.square(pos);
+
+                this.occupancy[s * this.words + (square >>> 6)] |= 1L << square;
+                this.codes[square] = troops.code(tile.troop());
+                if (tile.face() == TroopFace.REVERS)
+                    this.revers[square >>> 6] |= 1L << square;
+            }
+
+            this.leaders[s] = boardTroops.isLeaderPlaced() ? this.square(boardTroops.leaderPosition()) : NONE;
+            this.guards[s] = boardTroops.guards();
+
+            this.stacks[s] = new int[army.stack().size()];
+            for (int i = 0; i < army.stack().size(); i++)
+                this.stacks[s][i] = troops.code(army.stack().get(i));
+
+            this.captured[s] = new int[troopCount];
+            for (Troop troop : army.captured())
+                this.captured[s][this.capturedCounts[s]++] = troops.code(troop);
+        }
+
+        this.maxMoves = (2 * troopCount + 1) * squares;
+        this.sideOnTurn = state.sideOnTurn().ordinal();
+        this.result = state.result();
+    }
+
+    /**
+     * Constructs a WideSearchPosition as a copy of another one with an empty undo stack.
+     * The never-modified mountain and stack arrays are shared.
+     *
+     * @param other the position to copy
+     */
+    public WideSearchPosition(WideSearchPosition other) {
+        this.dimension = other.dimension;
+        this.words = other.words;
+        this.troops = other.troops;
+        this.tables = other.tables;
+        this.mountains = other.mountains;
+        this.occupancy = other.occupancy.clone();
+        this.revers = other.revers.clone();
+        this.codes = other.codes.clone();
+        this.leaders = other.leaders.clone();
+        this.guards = other.guards.clone();
+        this.stacks = other.stacks;
+        this.stackTops = other.stackTops.clone();
+        this.captured = new int[][] { other.captured[0].clone(), other.captured[1].clone() };
+        this.capturedCounts = other.capturedCounts.clone();
+        this.maxMoves = other.maxMoves;
+        this.free = new long[this.words];
+        this.targets = new long[this.words];
+        this.sideOnTurn = other.sideOnTurn;
+        this.result = other.result;
+        this.undo = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Creates a WideSearchPosition equivalent to the given game state, indexing the troops found in the state.
+     *
+     * @param state the game state to convert
+     * @return      a new WideSearchPosition
+     */
+    public static WideSearchPosition of(GameState state) {
+        return new WideSearchPosition(state, TroopIndex.scan(state));
+    }
+
+    /**
+     * Gets the dimension of the game board.
+     *
+     * @return the dimension of the game board
+     */
+    @Override
+    public int dimension() {
+        return this.dimension;
+    }
+
+    /**
+     * Gets the side that is currently taking their turn.
+     *
+     * @return the side on turn
+     */
+    @Override
+    public PlayingSide sideOnTurn() {
+        return SIDES[this.sideOnTurn];
+    }
+
+    /**
+     * Gets the current result of the game.
+     *
+     * @return the game result
+     */
+    @Override
+    public GameResult result() {
+        return this.result;
+    }
+
+    /**
+     * Gets an upper bound of the number of legal moves in any position of the game.
+     * Every troop can step to or capture on each square at most twice and a placement goes to each square at most once.
+     *
+     * @return the maximal number of moves
+     */
+    @Override
+    public int maxMoves() {
+        return this.maxMoves;
+    }
+
+    /**
+     * Gets the number of moves that have been made and not yet taken back.
+     *
+     * @return the depth of the undo stack
+     */
+    @Override
+    public int ply() {
+        return this.ply;
+    }
+
+    /**
+     * Creates a copy of the position with an empty undo stack.
+     *
+     * @return the copy
+     */
+    @Override
+    public WideSearchPosition copy() {
+        return new WideSearchPosition(this);
+    }
+
+    /**
+     * Gets the index of the square at the given position.
+     *
+     * @param pos the position on the board
+     * @return    the index of the square
+     */
+    public int square(TilePos pos) {
+        return pos.j() * this.dimension + pos.i();
+    }
+
+    /**
+     * Writes the codes of all legal moves of the side on turn into the buffer, see `MoveCodes`.
+     * The moves of the troops on the board come first, ordered by square, followed by the placements from the stack.
+     * Nothing is allocated.
+     *
+     * @param moves the buffer receiving the move codes, at least `maxMoves()` long
+     * @return      the number of moves written
+     */
+    @Override
+    public int generateMoves(int[] moves) {
+        int side = this.sideOnTurn;
+        int enemy = (1 - side) * this.words;
+        int count = 0;
+
+        if (this.result != GameResult.IN_PLAY)
+            return 0;
+
+        this.computeFree();
+
+        if (this.leaders[side] != NONE && this.guards[side] >= 2)
+            for (int w = 0; w < this.words; w++)
+                for (long troops = this.occupancy[side * this.words + w]; troops != 0; troops &= troops - 1) {
+                    int origin = (w << 6) + Long.numberOfTrailingZeros(troops);
+                    int entry = this.tables.entry(this.codes[origin], this.face(origin), side, origin);
+
+                    for (int v = 0; v < this.words; v++)
+                        this.targets[v] = this.tables.shifts(entry, v) & this.free[v];
+                    this.tables.slideSteps(entry, this.free, this.targets);
+                    count = this.encode(moves, count, MoveCodes.STEP, origin);
+
+                    for (int v = 0; v < this.words; v++)
+                        this.targets[v] = (this.tables.shifts(entry, v) | this.tables.slideFirsts(entry, v)) &
+                                this.occupancy[enemy + v];
+                    count = this.encode(moves, count, MoveCodes.STEP_CAPTURE, origin);
+
+                    for (int v = 0; v < this.words; v++)
+                        this.targets[v] = this.tables.strikes(entry, v) & this.occupancy[enemy + v];
+                    count = this.encode(moves, count, MoveCodes.CAPTURE, origin);
+                }
+
+        this.placeTargets();
+        return this.encode(moves, count, MoveCodes.PLACE, 0);
+    }
+
+    /**
+     * Makes the move with the given code, see `MoveCodes`.
+     *
+     * @param move                      the move code
+     * @throws IllegalArgumentException if the move is not valid
+     */
+    @Override
+    public void make(int move) {
+        int kind = MoveCodes.kind(move);
+        int origin = MoveCodes.origin(move);
+        int target = MoveCodes.target(move);
+        long record;
+
+        if (kind == MoveCodes.PLACE) {
+            this.computeFree();
+            this.placeTargets();
+            if (!isSet(this.targets, 0, target))
+                throw new IllegalArgumentException("Invalid move code " + move + ".");
+
+            record = this.record(PLACE, NONE, target);
+            this.placeFromStack(target);
+        }
+        else if (kind == MoveCodes.STEP) {
+            this.computeFree();
+            if (!this.canStepFrom(origin) || !isSet(this.free, 0, target))
+                throw new IllegalArgumentException("Invalid move code " + move + ".");
+
+            record = this.record(STEP, origin, target);
+            this.moveTroop(origin, target);
+            this.passTurn(GameResult.IN_PLAY);
+        }
+        else if (kind == MoveCodes.STEP_CAPTURE || kind == MoveCodes.CAPTURE) {
+            if (!this.canStepFrom(origin) || !isSet(this.occupancy, (1 - this.sideOnTurn) * this.words, target))
+                throw new IllegalArgumentException("Invalid move code " + move + ".");
+
+            record = this.record(kind == MoveCodes.CAPTURE ? CAPTURE : STEP_CAPTURE, origin, target);
+            GameResult newResult = this.captureTroop(target);
+
+            if (kind == MoveCodes.CAPTURE)
+                this.revers[origin >>> 6] ^= 1L << origin;
+            else
+                this.moveTroop(origin, target);
+
+            this.passTurn(newResult);
+        }
+        else
+            throw new IllegalArgumentException("Invalid move code " + move + ".");
+
+        this.push(record);
+    }
+
+    /**
+     * Takes back the last made move, restoring the position exactly as it was before the move.
+     *
+     * @throws IllegalStateException if no move has been made
+     */
+    @Override
+    public void unmake() {
+        if (this.ply == 0)
+            throw new IllegalStateException("There is no move to take back.");
+
+        long record = this.undo[--this.ply];
+        int kind = (int) (record & 0x7);
+        int origin = field(record, 3);
+        int target = field(record, 12);
+        int side = (int) (record >>> 21) & 1;
+        int enemy = 1 - side;
+
+        if (kind == PLACE) {
+            this.occupancy[side * this.words + (target >>> 6)] &= ~(1L << target);
+            this.codes[target] = NONE;
+            this.stackTops[side]--;
+        }
+        else if (kind == STEP || kind == STEP_CAPTURE) {
+            this.occupancy[side * this.words + (origin >>> 6)] ^= 1L << origin;
+            this.occupancy[side * this.words + (target >>> 6)] ^= 1L << target;
+            this.codes[origin] = this.codes[target];
+            this.codes[target] = NONE;
+            this.revers[target >>> 6] &= ~(1L << target);
+            if ((record & (1L << 22)) != 0)
+                this.revers[origin >>> 6] |= 1L << origin;
+        }
+        else
+            this.revers[origin >>> 6] ^= 1L << origin;
+
+        if (kind == STEP_CAPTURE || kind == CAPTURE) {
+            this.occupancy[enemy * this.words + (target >>> 6)] |= 1L << target;
+            this.codes[target] = this.captured[side][--this.capturedCounts[side]];
+            if ((record & (1L << 23)) != 0)
+                this.revers[target >>> 6] |= 1L << target;
+        }
+
+        this.leaders[side] = field(record, 24);
+        this.leaders[enemy] = field(record, 33);
+        this.guards[side] = (int) (record >>> 42) & 0x3;
+        this.sideOnTurn = side;
+        this.result = RESULTS[(int) (record >>> 44) & 0x3];
+    }
+
+    /**
+     * Converts the position back to an equivalent immutable `GameState`.
+     *
+     * @return a new GameState with the same board, armies, side on turn and result
+     */
+    @Override
+    public GameState toGameState() {
+        Board board = new Board(this.dimension);
+        List<Board.TileAt> tiles = new ArrayList<>();
+        int squares = this.dimension * this.dimension;
+
+        for (int square = 0; square < squares; square++)
+            if (isSet(this.mountains, 0, square))
+                tiles.add(new Board.TileAt(this.position(square), BoardTile.MOUNTAIN));
+        board = board.withTiles(tiles.toArray(new Board.TileAt[0]));
+
+        Army[] armies = new Army[2];
+        for (PlayingSide side : SIDES) {
+            int s = side.ordinal();
+            Map<BoardPos, TroopTile> troopMap = new HashMap<>();
+
+            for (int square = 0; square < squares; square++)
+                if (isSet(this.occupancy, s * this.words, square))
+                    troopMap.put(this.position(square), new TroopTile(this.troops.troop(this.codes[square]), side,
+                            isSet(this.revers, 0, square) ? TroopFace.REVERS : TroopFace.AVERS));
+
+            TilePos leader = this.leaders[s] == NONE ? TilePos.OFF_BOARD : this.position(this.leaders[s]);
+            List<Troop> stack = new ArrayList<>();
+            for (int i = this.stackTops[s]; i < this.stacks[s].length; i++)
+                stack.add(this.troops.troop(this.stacks[s][i]));
+
+            List<Troop> capturedTroops = new ArrayList<>();
+            for (int i = 0; i < this.capturedCounts[s]; i++)
+                capturedTroops.add(this.troops.troop(this.captured[s][i]));
+
+            armies[s] = new Army(new BoardTroops(side, troopMap, leader, this.guards[s]), stack, capturedTroops);
+        }
+
+        return new GameState(board, armies[PlayingSide.BLUE.ordinal()], armies[PlayingSide.ORANGE.ordinal()],
+                this.sideOnTurn(), this.result);
+    }
+
+    /**
+     * Gets the board position of the given square.
+     *
+     * @param square the index of the square
+     * @return       the position on the board
+     */
+    private BoardPos position(int square) {
+        return PositionFactory.canonicalPos(this.dimension, square % this.dimension, square / this.dimension);
+    }
+
+    /**
+     * Checks whether the bit of a square is set in a mask stored in an array.
+     *
+     * @param masks  the array of masks
+     * @param offset the index of the first word of the mask
+     * @param square the square
+     * @return       true if the bit is set, false otherwise
+     */
+    private static boolean isSet(long[] masks, int offset, int square) {
+        return (masks[offset + (square >>> 6)] & 1L << square) != 0;
+    }
+
+    /**
+     * Gets the ordinal of the face shown by the troop on a square.
+     *
+     * @param square the square of the troop
+     * @return       the ordinal of the face
+     */
+    private int face(int square) {
+        return isSet(this.revers, 0, square) ? TroopFace.REVERS.ordinal() : TroopFace.AVERS.ordinal();
+    }
+
+    /**
+     * Computes the mask of squares a troop can step on, i.e. on-board squares without a troop or a mountain.
+     */
+    private void computeFree() {
+        for (int w = 0; w < this.words; w++)
+            this.free[w] = this.tables.board(w) &
+                    ~(this.occupancy[w] | this.occupancy[this.words + w] | this.mountains[w]);
+    }
+
+    /**
+     * Computes the mask of squares where the side on turn can place the next troop of its stack into `targets`.
+     * The leader goes to the home row, the two guards next to the leader and any other troop next to a friendly troop.
+     * The mask of free squares must be computed first.
+     */
+    private void placeTargets() {
+        int side = this.sideOnTurn;
+
+        Arrays.fill(this.targets, 0);
+
+        if (this.result != GameResult.IN_PLAY || this.stackTops[side] == this.stacks[side].length)
+            return;
+
+        if (this.leaders[side] == NONE)
+            for (int w = 0; w < this.words; w++)
+                this.targets[w] = this.tables.homeRow(side, w);
+        else if (this.guards[side] < 2)
+            for (int w = 0; w < this.words; w++)
+                this.targets[w] = this.tables.neighbours(this.leaders[side], w);
+        else
+            for (int w = 0; w < this.words; w++)
+                for (long troops = this.occupancy[side * this.words + w]; troops != 0; troops &= troops - 1) {
+                    int square = (w << 6) + Long.numberOfTrailingZeros(troops);
+                    for (int v = 0; v < this.words; v++)
+                        this.targets[v] |= this.tables.neighbours(square, v);
+                }
+
+        for (int w = 0; w < this.words; w++)
+            this.targets[w] &= this.free[w];
+    }
+
+    /**
+     * Writes the move codes of the squares of `targets` into the buffer.
+     *
+     * @param moves  the buffer receiving the move codes
+     * @param count  the number of moves already in the buffer
+     * @param kind   the kind of the moves
+     * @param origin the origin square of the moves
+     * @return       the number of moves in the buffer
+     */
+    private int encode(int[] moves, int count, int kind, int origin) {
+        for (int w = 0; w < this.words; w++)
+            for (long targets = this.targets[w]; targets != 0; targets &= targets - 1)
+                moves[count++] = MoveCodes.encode(kind, origin, (w << 6) + Long.numberOfTrailingZeros(targets));
+
+        return count;
+    }
+
+    /**
+     * Checks if a step can be initiated from the given square by the side on turn.
+     *
+     * @param origin the starting square
+     * @return       true if a step can be initiated, false otherwise
+     */
+    private boolean canStepFrom(int origin) {
+        int side = this.sideOnTurn;
+
+        return this.result == GameResult.IN_PLAY && isSet(this.occupancy, side * this.words, origin) &&
+                this.leaders[side] != NONE && this.guards[side] >= 2;
+    }
+
+    /**
+     * Places the next troop of the stack of the side on turn to the target square and passes the turn.
+     *
+     * @param target the target square
+     */
+    private void placeFromStack(int target) {
+        int side = this.sideOnTurn;
+
+        this.occupancy[side * this.words + (target >>> 6)] |= 1L << target;
+        this.codes[target] = this.stacks[side][this.stackTops[side]++];
+
+        if (this.leaders[side] == NONE)
+            this.leaders[side] = target;
+        else if (this.guards[side] < 2)
+            this.guards[side]++;
+
+        this.passTurn(GameResult.IN_PLAY);
+    }
+
+    /**
+     * Moves the troop from the origin to the target square, flipping it and following it with the leader square.
+     *
+     * @param origin the starting square
+     * @param target the target square
+     */
+    private void moveTroop(int origin, int target) {
+        int side = this.sideOnTurn;
+
+        this.occupancy[side * this.words + (origin >>> 6)] ^= 1L << origin;
+        this.occupancy[side * this.words + (target >>> 6)] ^= 1L << target;
+        this.codes[target] = this.codes[origin];
+        this.codes[origin] = NONE;
+
+        if (!isSet(this.revers, 0, origin))
+            this.revers[target >>> 6] |= 1L << target;
+
+        this.revers[origin >>> 6] &= ~(1L << origin);
+
+        if (this.leaders[side] == origin)
+            this.leaders[side] = target;
+    }
+
+    /**
+     * Removes the enemy troop from the target square and adds it to the troops captured by the side on turn.
+     *
+     * @param target                 the square of the captured troop
+     * @return                       VICTORY if the captured troop was the enemy leader, IN_PLAY otherwise
+     * @throws IllegalStateException if the enemy is still placing its leader or guards
+     */
+    private GameResult captureTroop(int target) {
+        int side = this.sideOnTurn;
+        int enemy = 1 - side;
+
+        if (this.leaders[enemy] == NONE || this.guards[enemy] < 2)
+            throw new IllegalStateException("Cannot move troops before guards are placed.");
+
+        this.occupancy[enemy * this.words + (target >>> 6)] &= ~(1L << target);
+        this.revers[target >>> 6] &= ~(1L << target);
+        this.captured[side][this.capturedCounts[side]++] = this.codes[target];
+        this.codes[target] = NONE;
+
+        if (this.leaders[enemy] == target) {
+            this.leaders[enemy] = NONE;
+            return GameResult.VICTORY;
+        }
+
+        return GameResult.IN_PLAY;
+    }
+
+    /**
+     * Passes the turn to the other side and sets the result of the game.
+     *
+     * @param newResult the new result of the game
+     */
+    private void passTurn(GameResult newResult) {
+        this.sideOnTurn = 1 - this.sideOnTurn;
+        this.result = newResult;
+    }
+
+    /**
+     * Builds the undo record of a move about to be made. The record layout is:
+     * bits 0-2 kind, 3-11 origin, 12-20 target, 21 moving side, 22 origin shows revers,
+     * 23 target shows revers, 24-32 own leader, 33-41 enemy leader, 42-43 own guards, 44-45 result.
+     *
+     * @param kind   the kind of the move
+     * @param origin the starting square, or NONE
+     * @param target the target square
+     * @return       the undo record
+     */
+    private long record(int kind, int origin, int target) {
+        int side = this.sideOnTurn;
+        long record = kind;
+
+        record |= (long) toField(origin) << 3;
+        record |= (long) toField(target) << 12;
+        record |= (long) side << 21;
+        if (origin != NONE && isSet(this.revers, 0, origin))
+            record |= 1L << 22;
+        if (isSet(this.revers, 0, target))
+            record |= 1L << 23;
+        record |= (long) toField(this.leaders[side]) << 24;
+        record |= (long) toField(this.leaders[1 - side]) << 33;
+        record |= (long) this.guards[side] << 42;
+        record |= (long) this.result.ordinal() << 44;
+
+        return record;
+    }
+
+    /**
+     * Pushes an undo record, growing the undo stack if it is full.
+     *
+     * @param record the undo record
+     */
+    private void push(long record) {
+        if (this.ply == this.undo.length)
+            this.undo = Arrays.copyOf(this.undo, this.undo.length * 2);
+
+        this.undo[this.ply++] = record;
+    }
+
+    /**
+     * Encodes a square, or NONE, into a 9-bit field.
+     *
+     * @param square the square or NONE
+     * @return       the field value
+     */
+    private static int toField(int square) {
+        return square == NONE ? NONE_FIELD : square;
+    }
+
+    /**
+     * Decodes a 9-bit field of an undo record into a square, or NONE.
+     *
+     * @param record the undo record
+     * @param shift  the position of the field
+     * @return       the square or NONE
+     */
+    private static int field(long record, int shift) {
+        int value = (int) (record >>> shift) & NONE_FIELD;
+        return value == NONE_FIELD ? NONE : value;
+    }
+}
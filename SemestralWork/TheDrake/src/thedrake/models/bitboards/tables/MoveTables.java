@@ -0,0 +1,220 @@
+package thedrake.models.bitboards.tables;
+
+import thedrake.models.actions.interfaces.TroopAction;
+import thedrake.models.actions.shifts.ShiftAction;
+import thedrake.models.actions.slides.SlideAction;
+import thedrake.models.actions.strikes.StrikeAction;
+import thedrake.models.bitboards.interfaces.BitBoard;
+import thedrake.models.bitboards.troops.TroopIndex;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.troops.TroopFace;
+
+import java.util.Arrays;
+
+/**
+ * The `MoveTables` class holds the targets of all troop actions precompiled into bitmasks.
+ * For every troop code, face, playing side and square of a board of one dimension it stores
+ * the mask of shift targets, the mask of strike targets, the mask of first squares of slides
+ * and the rays of the slides. Move generation then becomes a table lookup combined with the occupancy masks
+ * instead of walking the actions and stepping positions for every call.
+ * The tables are immutable once compiled, so they can be shared by any number of positions and threads.
+ */
+public class MoveTables {
+    /**
+     * The dimension of the board the tables are compiled for.
+     */
+    private final int dimension;
+
+    /**
+     * The masks of shift targets, indexed by entry.
+     */
+    private final long[] shifts;
+
+    /**
+     * The masks of strike targets, indexed by entry.
+     */
+    private final long[] strikes;
+
+    /**
+     * The masks of the first squares of slides, where a slide can capture, indexed by entry.
+     */
+    private final long[] slideFirsts;
+
+    /**
+     * The index of the first ray of each entry in `rays`. Entry e owns the rays from `rayStarts[e]`
+     * up to `rayStarts[e + 1]`.
+     */
+    private final int[] rayStarts;
+
+    /**
+     * The masks of all squares of the slide rays, from the square next to the troop to the edge of the board.
+     */
+    private final long[] rays;
+
+    /**
+     * Whether the square indices grow along each ray, i.e. whether the nearest square of the ray is its lowest bit.
+     */
+    private final boolean[] ascending;
+
+    /**
+     * Compiles the tables of all troops of the index for a board of the given dimension.
+     *
+     * @param troops                         the troops whose actions are compiled
+     * @param dimension                      the dimension of the board
+     * @throws IllegalArgumentException      if the board is larger than `BitBoard.MAX_DIMENSION`
+     * @throws UnsupportedOperationException if a troop has an action of an unknown kind
+     */
+    public MoveTables(TroopIndex troops, int dimension) {
+        if (dimension > BitBoard.MAX_DIMENSION)
+            throw new IllegalArgumentException("The dimension of a bitboard can be at most " + BitBoard.MAX_DIMENSION + ".");
+
+        int entries = troops.size() * 4 * dimension * dimension;
+        long[] rayBuffer = new long[entries * 2];
+        boolean[] ascendingBuffer = new boolean[entries * 2];
+        int rayCount = 0;
+
+        this.dimension = dimension;
+        this.shifts = new long[entries];
+        this.strikes = new long[entries];
+        this.slideFirsts = new long[entries];
+        this.rayStarts = new int[entries + 1];
+
+        for (int code = 0; code < troops.size(); code++)
+            for (TroopFace face : TroopFace.values())
+                for (PlayingSide side : PlayingSide.values())
+                    for (int square = 0; square < dimension * dimension; square++) {
+                        int entry = this.entry(code, face.ordinal(), side.ordinal(), square);
+                        int flip = side == PlayingSide.BLUE ? 1 : -1;
+                        int oi = square % dimension;
+                        int oj = square / dimension;
+
+                        this.rayStarts[entry] = rayCount;
+
+                        for (TroopAction action : troops.troop(code).actions(face)) {
+                            int dx = action.offset().x;
+                            int dy = action.offset().y * flip;
+
+                            if (!this.isOnBoard(oi + dx, oj + dy))
+                                continue;
+
+                            long first = BitBoard.bit((oj + dy) * dimension + oi + dx);
+
+                            if (action instanceof ShiftAction)
+                                this.shifts[entry] |= first;
+                            else if (action instanceof StrikeAction)
+                                this.strikes[entry] |= first;
+                            else if (action instanceof SlideAction) {
+                                long ray = 0;
+                                for (int i = oi + dx, j = oj + dy; this.isOnBoard(i, j); i += dx, j += dy)
+                                    ray |= BitBoard.bit(j * dimension + i);
+
+                                if (rayCount == rayBuffer.length) {
+                                    rayBuffer = Arrays.copyOf(rayBuffer, rayCount * 2);
+                                    ascendingBuffer = Arrays.copyOf(ascendingBuffer, rayCount * 2);
+                                }
+
+                                this.slideFirsts[entry] |= first;
+                                rayBuffer[rayCount] = ray;
+                                ascendingBuffer[rayCount] = dy * dimension + dx > 0;
+                                rayCount++;
+                            }
+                            else
+                                throw new UnsupportedOperationException(
+                                        "Unknown action " + action.getClass().getSimpleName() + ".");
+                        }
+                    }
+
+        this.rayStarts[entries] = rayCount;
+        this.rays = Arrays.copyOf(rayBuffer, rayCount);
+        this.ascending = Arrays.copyOf(ascendingBuffer, rayCount);
+    }
+
+    /**
+     * Gets the dimension of the board the tables are compiled for.
+     *
+     * @return the dimension of the board
+     */
+    public int dimension() {
+        return this.dimension;
+    }
+
+    /**
+     * Gets the index of the table entry of a troop.
+     *
+     * @param code   the code of the troop
+     * @param face   the ordinal of the face of the troop
+     * @param side   the ordinal of the side of the troop
+     * @param square the square of the troop
+     * @return       the index of the entry
+     */
+    public int entry(int code, int face, int side, int square) {
+        return ((code * 2 + face) * 2 + side) * this.dimension * this.dimension + square;
+    }
+
+    /**
+     * Gets the mask of the targets of shift actions of the entry.
+     *
+     * @param entry the index of the entry
+     * @return      the mask of shift targets
+     */
+    public long shifts(int entry) {
+        return this.shifts[entry];
+    }
+
+    /**
+     * Gets the mask of the targets of strike actions of the entry.
+     *
+     * @param entry the index of the entry
+     * @return      the mask of strike targets
+     */
+    public long strikes(int entry) {
+        return this.strikes[entry];
+    }
+
+    /**
+     * Gets the mask of the first squares of the slide actions of the entry, the only squares a slide can capture on.
+     *
+     * @param entry the index of the entry
+     * @return      the mask of first slide squares
+     */
+    public long slideFirsts(int entry) {
+        return this.slideFirsts[entry];
+    }
+
+    /**
+     * Gets the mask of squares the slides of the entry can step to, each slide stopping before the first square
+     * that is not free.
+     *
+     * @param entry the index of the entry
+     * @param free  the mask of free squares
+     * @return      the mask of slide step targets
+     */
+    public long slideSteps(int entry, long free) {
+        long targets = 0;
+
+        for (int r = this.rayStarts[entry]; r < this.rayStarts[entry + 1]; r++) {
+            long ray = this.rays[r];
+            long blockers = ray & ~free;
+
+            if (blockers == 0)
+                targets |= ray;
+            else if (this.ascending[r])
+                targets |= ray & ((blockers & -blockers) - 1);
+            else
+                targets |= ray & ~((Long.highestOneBit(blockers) << 1) - 1);
+        }
+
+        return targets;
+    }
+
+    /**
+     * Checks whether the given column and row indices lie on the board.
+     *
+     * @param i the horizontal index
+     * @param j the vertical index
+     * @return  true if the indices are on the board, false otherwise
+     */
+    private boolean isOnBoard(int i, int j) {
+        return i >= 0 && i < this.dimension && j >= 0 && j < this.dimension;
+    }
+}
@@ -0,0 +1,322 @@
+package thedrake.models.bitboards.tables;
+
+import thedrake.models.actions.interfaces.TroopAction;
+import thedrake.models.actions.shifts.ShiftAction;
+import thedrake.models.actions.slides.SlideAction;
+import thedrake.models.actions.strikes.StrikeAction;
+import thedrake.models.bitboards.interfaces.SearchBoard;
+import thedrake.models.bitboards.troops.TroopIndex;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.troops.TroopFace;
+
+import java.util.Arrays;
+
+/**
+ * The `WideMoveTables` class is the counterpart of `MoveTables` for boards whose squares do not fit into one `long`.
+ * A mask of the board is spread over `words()` consecutive longs, square s being bit `s % 64` of word `s / 64`,
+ * and the tables store the masks of every entry one after another. The squares of each slide ray are listed
+ * from the troop to the edge of the board, so a slide is followed square by square until it is blocked.
+ * Besides the targets of the troops the tables hold the masks every position of the dimension needs:
+ * the whole board, the home rows and the neighbours of each square.
+ * The tables are immutable once compiled, so they can be shared by any number of positions and threads.
+ */
+public class WideMoveTables {
+    /**
+     * The dimension of the board the tables are compiled for.
+     */
+    private final int dimension;
+
+    /**
+     * The number of longs of a mask of the board.
+     */
+    private final int words;
+
+    /**
+     * The masks of shift targets, `words` longs per entry.
+     */
+    private final long[] shifts;
+
+    /**
+     * The masks of strike targets, `words` longs per entry.
+     */
+    private final long[] strikes;
+
+    /**
+     * The masks of the first squares of slides, where a slide can capture, `words` longs per entry.
+     */
+    private final long[] slideFirsts;
+
+    /**
+     * The index of the first ray of each entry. Entry e owns the rays from `rayStarts[e]` up to `rayStarts[e + 1]`.
+     */
+    private final int[] rayStarts;
+
+    /**
+     * The index of the first square of each ray in `raySquares`. Ray r owns the squares from `squareStarts[r]`
+     * up to `squareStarts[r + 1]`.
+     */
+    private final int[] squareStarts;
+
+    /**
+     * The squares of all rays, each ray from the square next to the troop to the edge of the board.
+     */
+    private final int[] raySquares;
+
+    /**
+     * The mask of all squares of the board.
+     */
+    private final long[] board;
+
+    /**
+     * The masks of the home rows, `words` longs per side indexed by the ordinal of the side.
+     */
+    private final long[] homeRows;
+
+    /**
+     * The masks of the orthogonal neighbours of each square, `words` longs per square.
+     */
+    private final long[] neighbours;
+
+    /**
+     * Compiles the tables of all troops of the index for a board of the given dimension.
+     *
+     * @param troops                         the troops whose actions are compiled
+     * @param dimension                      the dimension of the board
+     * @throws IllegalArgumentException      if the board is larger than `SearchBoard.MAX_DIMENSION`
+     * @throws UnsupportedOperationException if a troop has an action of an unknown kind
+     */
+    public WideMoveTables(TroopIndex troops, int dimension) {
+        if (dimension > SearchBoard.MAX_DIMENSION)
+            throw new IllegalArgumentException("The dimension of a search board can be at most " +
+                    SearchBoard.MAX_DIMENSION + ".");
+
+        int squares = dimension * dimension;
+        int entries = troops.size() * 4 * squares;
+        int[] rayBuffer = new int[entries * 2 + 1];
+        int[] squareBuffer = new int[entries * 2];
+        int rayCount = 0;
+        int squareCount = 0;
+
+        this.dimension = dimension;
+        this.words = (squares + 63) >>> 6;
+        this.shifts = new long[entries * this.words];
+        this.strikes = new long[entries * this.words];
+        this.slideFirsts = new long[entries * this.words];
+        this.rayStarts = new int[entries + 1];
+
+        for (int code = 0; code < troops.size(); code++)
+            for (TroopFace face : TroopFace.values())
+                for (PlayingSide side : PlayingSide.values())
+                    for (int square = 0; square < squares; square++) {
+                        int entry = this.entry(code, face.ordinal(), side.ordinal(), square);
+                        int offset = entry * this.words;
+                        int flip = side == PlayingSide.BLUE ? 1 : -1;
+                        int oi = square % dimension;
+                        int oj = square / dimension;
+
+                        this.rayStarts[entry] = rayCount;
+
+                        for (TroopAction action : troops.troop(code).actions(face)) {
+                            int dx = action.offset().x;
+                            int dy = action.offset().y * flip;
+
+                            if (!this.isOnBoard(oi + dx, oj + dy))
+                                continue;
+
+                            int first = (oj + dy) * dimension + oi + dx;
+
+                            if (action instanceof ShiftAction)
+                                set(this.shifts, offset, first);
+                            else if (action instanceof StrikeAction)
+                                set(this.strikes, offset, first);
+                            else if (action instanceof SlideAction) {
+                                if (rayCount + 1 == rayBuffer.length)
+                                    rayBuffer = Arrays.copyOf(rayBuffer, rayBuffer.length * 2);
+
+                                set(this.slideFirsts, offset, first);
+                                rayBuffer[rayCount++] = squareCount;
+
+                                for (int i = oi + dx, j = oj + dy; this.isOnBoard(i, j); i += dx, j += dy) {
+                                    if (squareCount == squareBuffer.length)
+                                        squareBuffer = Arrays.copyOf(squareBuffer, squareCount * 2);
+
+                                    squareBuffer[squareCount++] = j * dimension + i;
+                                }
+                            }
+                            else
+                                throw new UnsupportedOperationException(
+                                        "Unknown action " + action.getClass().getSimpleName() + ".");
+                        }
+                    }
+
+        this.rayStarts[entries] = rayCount;
+        rayBuffer[rayCount] = squareCount;
+        this.squareStarts = Arrays.copyOf(rayBuffer, rayCount + 1);
+        this.raySquares = Arrays.copyOf(squareBuffer, squareCount);
+
+        this.board = new long[this.words];
+        this.homeRows = new long[2 * this.words];
+        this.neighbours = new long[squares * this.words];
+
+        for (int square = 0; square < squares; square++) {
+            int i = square % dimension;
+            int j = square / dimension;
+
+            set(this.board, 0, square);
+            if (j == 0)
+                set(this.homeRows, PlayingSide.BLUE.ordinal() * this.words, square);
+            if (j == dimension - 1)
+                set(this.homeRows, PlayingSide.ORANGE.ordinal() * this.words, square);
+
+            int offset = square * this.words;
+            if (i + 1 < dimension)
+                set(this.neighbours, offset, square + 1);
+            if (i > 0)
+                set(this.neighbours, offset, square - 1);
+            if (j + 1 < dimension)
+                set(this.neighbours, offset, square + dimension);
+            if (j > 0)
+                set(this.neighbours, offset, square - dimension);
+        }
+    }
+
+    /**
+     * Sets the bit of a square in a mask stored in an array.
+     *
+     * @param masks  the array of masks
+     * @param offset the index of the first word of the mask
+     * @param square the square
+     */
+    private static void set(long[] masks, int offset, int square) {
+        masks[offset + (square >>> 6)] |= 1L << square;
+    }
+
+    /**
+     * Gets the dimension of the board the tables are compiled for.
+     *
+     * @return the dimension of the board
+     */
+    public int dimension() {
+        return this.dimension;
+    }
+
+    /**
+     * Gets the number of longs of a mask of the board.
+     *
+     * @return the number of words
+     */
+    public int words() {
+        return this.words;
+    }
+
+    /**
+     * Gets the index of the table entry of a troop.
+     *
+     * @param code   the code of the troop
+     * @param face   the ordinal of the face of the troop
+     * @param side   the ordinal of the side of the troop
+     * @param square the square of the troop
+     * @return       the index of the entry
+     */
+    public int entry(int code, int face, int side, int square) {
+        return ((code * 2 + face) * 2 + side) * this.dimension * this.dimension + square;
+    }
+
+    /**
+     * Gets one word of the mask of the targets of shift actions of the entry.
+     *
+     * @param entry the index of the entry
+     * @param word  the index of the word
+     * @return      the word of the mask of shift targets
+     */
+    public long shifts(int entry, int word) {
+        return this.shifts[entry * this.words + word];
+    }
+
+    /**
+     * Gets one word of the mask of the targets of strike actions of the entry.
+     *
+     * @param entry the index of the entry
+     * @param word  the index of the word
+     * @return      the word of the mask of strike targets
+     */
+    public long strikes(int entry, int word) {
+        return this.strikes[entry * this.words + word];
+    }
+
+    /**
+     * Gets one word of the mask of the first squares of the slide actions of the entry, the only squares a slide
+     * can capture on.
+     *
+     * @param entry the index of the entry
+     * @param word  the index of the word
+     * @return      the word of the mask of first slide squares
+     */
+    public long slideFirsts(int entry, int word) {
+        return this.slideFirsts[entry * this.words + word];
+    }
+
+    /**
+     * Adds the squares the slides of the entry can step to into a mask, each slide stopping before the first square
+     * that is not free.
+     *
+     * @param entry   the index of the entry
+     * @param free    the mask of free squares
+     * @param targets the mask receiving the slide step targets
+     */
+    public void slideSteps(int entry, long[] free, long[] targets) {
+        for (int r = this.rayStarts[entry]; r < this.rayStarts[entry + 1]; r++)
+            for (int s = this.squareStarts[r]; s < this.squareStarts[r + 1]; s++) {
+                int square = this.raySquares[s];
+                long bit = 1L << square;
+
+                if ((free[square >>> 6] & bit) == 0)
+                    break;
+
+                targets[square >>> 6] |= bit;
+            }
+    }
+
+    /**
+     * Gets one word of the mask of all squares of the board.
+     *
+     * @param word the index of the word
+     * @return     the word of the board mask
+     */
+    public long board(int word) {
+        return this.board[word];
+    }
+
+    /**
+     * Gets one word of the mask of the home row of a side, where its leader has to be placed.
+     *
+     * @param side the ordinal of the playing side
+     * @param word the index of the word
+     * @return     the word of the mask of the home row
+     */
+    public long homeRow(int side, int word) {
+        return this.homeRows[side * this.words + word];
+    }
+
+    /**
+     * Gets one word of the mask of the orthogonal neighbours of a square.
+     *
+     * @param square the square
+     * @param word   the index of the word
+     * @return       the word of the mask of neighbours
+     */
+    public long neighbours(int square, int word) {
+        return this.neighbours[square * this.words + word];
+    }
+
+    /**
+     * Checks whether the given column and row indices lie on the board.
+     *
+     * @param i the horizontal index
+     * @param j the vertical index
+     * @return  true if the indices are on the board, false otherwise
+     */
+    private boolean isOnBoard(int i, int j) {
+        return i >= 0 && i < this.dimension && j >= 0 && j < this.dimension;
+    }
+}
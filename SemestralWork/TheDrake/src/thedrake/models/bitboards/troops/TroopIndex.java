@@ -0,0 +1,241 @@
+package thedrake.models.bitboards.troops;
+
+import thedrake.models.bitboards.interfaces.BitBoard;
+import thedrake.models.bitboards.interfaces.SearchBoard;
+import thedrake.models.bitboards.tables.MoveTables;
+import thedrake.models.bitboards.tables.WideMoveTables;
+import thedrake.models.boards.Army;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.states.GameState;
+import thedrake.models.troops.Troop;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The `TroopIndex` class assigns a small integer code to every troop type taking part in a game of The Drake.
+ * Bitboard representations store troop types as codes (and masks indexed by code) instead of `Troop` references,
+ * and use the index to translate between the two.
+ */
+public class TroopIndex {
+    /**
+     * The maximum number of distinct troop types a single index can hold.
+     */
+    public static final int MAX_TROOPS = 32;
+
+    /**
+     * The number of indices `scan` keeps for reuse.
+     */
+    private static final int SHARED_INDICES = 8;
+
+    /**
+     * The indices built by `scan`, the most recently used first. Every setup creates its own troops,
+     * so the list is bounded to keep the troops of finished games collectable. Guarded by itself.
+     */
+    private static final List<TroopIndex> SHARED = new ArrayList<>();
+
+    /**
+     * The troop types in the order of their codes.
+     */
+    private final List<Troop> troops;
+
+    /**
+     * The move tables of the troops, indexed by the board dimension and compiled on first use.
+     * Threads compiling the same tables in a race all get the tables published first.
+     */
+    private final AtomicReferenceArray<MoveTables> moveTables;
+
+    /**
+     * The multi-word move tables of the troops, indexed by the board dimension and compiled on first use.
+     */
+    private final AtomicReferenceArray<WideMoveTables> wideMoveTables;
+
+    /**
+     * Constructs a TroopIndex over the given troop types. The code of a troop is its position in the list.
+     *
+     * @param troops                    the distinct troop types
+     * @throws IllegalArgumentException if there are more than MAX_TROOPS types or a type is listed twice
+     */
+    public TroopIndex(List<Troop> troops) {
+        if (troops.size() > MAX_TROOPS)
+            throw new IllegalArgumentException("Too many troop types.");
+
+        for (int i = 0; i < troops.size(); i++)
+            for (int j = i + 1; j < troops.size(); j++)
+                if (troops.get(i) == troops.get(j))
+                    throw new IllegalArgumentException("Troop types need to be distinct.");
+
+        this.troops = Collections.unmodifiableList(new ArrayList<>(troops));
+        this.moveTables = new AtomicReferenceArray<>(BitBoard.MAX_DIMENSION + 1);
+        this.wideMoveTables = new AtomicReferenceArray<>(SearchBoard.MAX_DIMENSION + 1);
+    }
+
+    /**
+     * Gets a TroopIndex over all troop types found in the given game state.
+     * Troops on the board, in the stacks and among the captured troops of both armies are collected
+     * in the order in which they are first encountered. A recently scanned index covering all of them
+     * is reused, so the positions of one game share the index and its compiled move tables.
+     *
+     * @param state the game state to scan
+     * @return      a TroopIndex covering every troop of the state
+     */
+    public static TroopIndex scan(GameState state) {
+        List<Troop> found = new ArrayList<>();
+
+        for (PlayingSide side : PlayingSide.values()) {
+            Army army = state.army(side);
+
+            for (BoardPos pos : army.boardTroops().troopPositions())
+                addDistinct(found, army.boardTroops().at(pos).get().troop());
+
+            for (Troop troop : army.stack())
+                addDistinct(found, troop);
+
+            for (Troop troop : army.captured())
+                addDistinct(found, troop);
+        }
+
+        synchronized (SHARED) {
+            for (int i = 0; i < SHARED.size(); i++) {
+                TroopIndex index = SHARED.get(i);
+
+                if (index.covers(found)) {
+                    SHARED.add(0, SHARED.remove(i));
+                    return index;
+                }
+            }
+
+            TroopIndex index = new TroopIndex(found);
+            SHARED.add(0, index);
+            if (SHARED.size() > SHARED_INDICES)
+                SHARED.remove(SHARED_INDICES);
+
+            return index;
+        }
+    }
+
+    /**
+     * Checks whether every given troop has a code in the index. Troops are compared by identity.
+     *
+     * @param troops the troops
+     * @return       true if the index holds all the troops
+     */
+    private boolean covers(List<Troop> troops) {
+        for (Troop troop : troops) {
+            boolean known = false;
+
+            for (Troop indexed : this.troops)
+                known |= indexed == troop;
+
+            if (!known)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Adds the troop to the list unless the very same troop instance is already present.
+     *
+     * @param troops the list of troops collected so far
+     * @param troop  the troop to add
+     */
+    private static void addDistinct(List<Troop> troops, Troop troop) {
+        for (Troop known : troops)
+            if (known == troop)
+                return;
+
+        troops.add(troop);
+    }
+
+    /**
+     * Gets the number of troop types in the index.
+     *
+     * @return the number of troop types
+     */
+    public int size() {
+        return this.troops.size();
+    }
+
+    /**
+     * Gets the troop type with the given code.
+     *
+     * @param code the code of the troop
+     * @return     the troop type
+     */
+    public Troop troop(int code) {
+        return this.troops.get(code);
+    }
+
+    /**
+     * Gets the code of the given troop type. Troops are compared by identity.
+     *
+     * @param troop                     the troop type
+     * @return                          the code of the troop
+     * @throws IllegalArgumentException if the troop is not part of the index
+     */
+    public int code(Troop troop) {
+        for (int code = 0; code < this.troops.size(); code++)
+            if (this.troops.get(code) == troop)
+                return code;
+
+        throw new IllegalArgumentException("Unknown troop " + troop.name() + ".");
+    }
+
+    /**
+     * Gets the troop types in the order of their codes.
+     *
+     * @return an unmodifiable list of troop types
+     */
+    public List<Troop> troops() {
+        return this.troops;
+    }
+
+    /**
+     * Gets the move tables of the troops of the index for a board of the given dimension.
+     * The tables are compiled on the first request and shared by all later ones.
+     *
+     * @param dimension                 the dimension of the board
+     * @return                          the move tables
+     * @throws IllegalArgumentException if the board is larger than `BitBoard.MAX_DIMENSION`
+     */
+    public MoveTables moveTables(int dimension) {
+        if (dimension > BitBoard.MAX_DIMENSION)
+            throw new IllegalArgumentException("The dimension of a bitboard can be at most " + BitBoard.MAX_DIMENSION + ".");
+
+        MoveTables tables = this.moveTables.get(dimension);
+
+        if (tables == null) {
+            this.moveTables.compareAndSet(dimension, null, new MoveTables(this, dimension));
+            tables = this.moveTables.get(dimension);
+        }
+
+        return tables;
+    }
+
+    /**
+     * Gets the multi-word move tables of the troops of the index for a board of the given dimension.
+     * The tables are compiled on the first request and shared by all later ones.
+     *
+     * @param dimension                 the dimension of the board
+     * @return                          the move tables
+     * @throws IllegalArgumentException if the board is larger than `SearchBoard.MAX_DIMENSION`
+     */
+    public WideMoveTables wideMoveTables(int dimension) {
+        if (dimension > SearchBoard.MAX_DIMENSION)
+            throw new IllegalArgumentException("The dimension of a search board can be at most " +
+                    SearchBoard.MAX_DIMENSION + ".");
+
+        WideMoveTables tables = this.wideMoveTables.get(dimension);
+
+        if (tables == null) {
+            this.wideMoveTables.compareAndSet(dimension, null, new WideMoveTables(this, dimension));
+            tables = this.wideMoveTables.get(dimension);
+        }
+
+        return tables;
+    }
+}
@@ -1,8 +1,11 @@
 package thedrake.models.boards;
 
 import thedrake.models.interfaces.JSONSerializable;
+import thedrake.models.json.JSONReader;
 import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.positions.factories.PositionFactory;
 import thedrake.models.positions.interfaces.TilePos;
+import thedrake.models.setups.StandardDrakeSetup;
 import thedrake.models.troops.BoardTroops;
 import thedrake.models.troops.Troop;
 
@@ -101,6 +104,88 @@ public class Army implements JSONSerializable {
         writer.printf("}");
     }
 
+    /**
+     * Appends the same JSON as `toJSON(PrintWriter)` to the builder.
+     *
+     * @param builder the builder receiving the JSON representation of the Army
+     */
+    @Override
+    public void toJSON(StringBuilder builder) {
+        builder.append("{\"boardTroops\":");
+        this.boardTroops.toJSON(builder);
+
+        builder.append(",\"stack\":[");
+        for (int i = 0; i < this.stack.size(); i++) {
+            if (i > 0)
+                builder.append(',');
+
+            this.stack.get(i).toJSON(builder);
+        }
+
+        builder.append("],\"captured\":[");
+        for (int i = 0; i < this.captured.size(); i++) {
+            if (i > 0)
+                builder.append(',');
+
+            this.captured.get(i).toJSON(builder);
+        }
+
+        builder.append("]}");
+    }
+
+    /**
+     * Parses an Army from the JSON written by `toJSON`, the members being accepted in any order.
+     *
+     * @param reader                    the reader positioned at the army
+     * @param setup                     the setup resolving the names of the troops
+     * @param positions                 the factory of the positions of the board the army plays on
+     * @return                          the parsed army
+     * @throws IllegalArgumentException if the JSON is malformed or a member is missing or unknown
+     */
+    public static Army fromJSON(JSONReader reader, StandardDrakeSetup setup, PositionFactory positions) {
+        BoardTroops boardTroops = null;
+        List<Troop> stack = null;
+        List<Troop> captured = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+
+            if (name.equals("boardTroops"))
+                boardTroops = BoardTroops.fromJSON(reader, setup, positions);
+            else if (name.equals("stack"))
+                stack = troopsFromJSON(reader, setup);
+            else if (name.equals("captured"))
+                captured = troopsFromJSON(reader, setup);
+            else
+                throw reader.error("Unknown member \"" + name + "\" of an army");
+        }
+
+        if (boardTroops == null || stack == null || captured == null)
+            throw reader.error("Incomplete army");
+
+        reader.endObject();
+        return new Army(boardTroops, stack, captured);
+    }
+
+    /**
+     * Parses an array of troop names.
+     *
+     * @param reader the reader positioned at the array
+     * @param setup  the setup resolving the names of the troops
+     * @return       an unmodifiable list of the troops
+     */
+    private static List<Troop> troopsFromJSON(JSONReader reader, StandardDrakeSetup setup) {
+        List<Troop> troops = new ArrayList<>();
+
+        reader.beginArray();
+        while (reader.hasNext())
+            troops.add(Troop.fromJSON(reader, setup));
+        reader.endArray();
+
+        return Collections.unmodifiableList(troops);
+    }
+
     /**
      * Returns the playing side of this army.
      *
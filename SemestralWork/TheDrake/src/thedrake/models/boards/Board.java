@@ -2,12 +2,15 @@ package thedrake.models.boards;
 
 import thedrake.models.positions.factories.PositionFactory;
 import thedrake.models.interfaces.JSONSerializable;
+import thedrake.models.json.JSONReader;
 import thedrake.models.positions.boards.BoardPos;
 import thedrake.models.positions.interfaces.TilePos;
 import thedrake.models.tiles.interfaces.BoardTile;
 
 import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * The `Board` class represents the game board in The Drake.
@@ -72,6 +75,92 @@ public class Board implements JSONSerializable {
         writer.printf("}");
     }
 
+    /**
+     * Appends the same JSON as `toJSON(PrintWriter)` to the builder.
+     *
+     * @param builder the builder receiving the JSON representation of the Board
+     */
+    @Override
+    public void toJSON(StringBuilder builder) {
+        builder.append("{\"dimension\":").append(this.dimension).append(",\"tiles\":[");
+
+        for (int i = 0; i < this.dimension; i++)
+            for (int j = 0; j < this.dimension; j++) {
+                if (i > 0 || j > 0)
+                    builder.append(',');
+
+                this.boardTiles[j][i].toJSON(builder);
+            }
+
+        builder.append("]}");
+    }
+
+    /**
+     * Parses a Board from the JSON written by `toJSON`, the members being accepted in any order.
+     * The tiles are listed row by row from the first row, the way `toJSON` writes them.
+     *
+     * @param reader                    the reader positioned at the board
+     * @return                          the parsed board
+     * @throws IllegalArgumentException if the JSON is malformed, a member is missing or unknown,
+     *                                  the dimension is out of range or the number of tiles does not match it
+     */
+    public static Board fromJSON(JSONReader reader) {
+        int dimension = 0;
+        List<BoardTile> tiles = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+
+            if (name.equals("dimension")) {
+                dimension = reader.nextInt();
+                if (dimension < 1 || dimension > PositionFactory.MAX_DIMENSION)
+                    throw reader.error("Invalid dimension " + dimension);
+            }
+            else if (name.equals("tiles")) {
+                tiles = new ArrayList<>();
+
+                reader.beginArray();
+                while (reader.hasNext())
+                    tiles.add(tileFromJSON(reader));
+                reader.endArray();
+            }
+            else
+                throw reader.error("Unknown member \"" + name + "\" of a board");
+        }
+
+        if (dimension == 0 || tiles == null)
+            throw reader.error("Incomplete board");
+        if (tiles.size() != dimension * dimension)
+            throw reader.error("Expected " + dimension * dimension + " tiles, found " + tiles.size());
+
+        reader.endObject();
+
+        Board board = new Board(dimension);
+        for (int k = 0; k < tiles.size(); k++)
+            board.boardTiles[k % dimension][k / dimension] = tiles.get(k);
+
+        return board;
+    }
+
+    /**
+     * Parses the name of a board tile.
+     *
+     * @param reader                    the reader positioned at the tile
+     * @return                          the tile
+     * @throws IllegalArgumentException if the name is not the name of a board tile
+     */
+    private static BoardTile tileFromJSON(JSONReader reader) {
+        String name = reader.nextString();
+
+        if (name.equals(BoardTile.EMPTY.toString()))
+            return BoardTile.EMPTY;
+        if (name.equals(BoardTile.MOUNTAIN.toString()))
+            return BoardTile.MOUNTAIN;
+
+        throw reader.error("Unknown board tile \"" + name + "\"");
+    }
+
     /**
      * Gets the dimension of the game board.
      *
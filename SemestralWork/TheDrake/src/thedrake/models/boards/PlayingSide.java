@@ -34,4 +34,14 @@ public enum PlayingSide implements JSONSerializable {
     public void toJSON(PrintWriter writer) {
         writer.printf("\"%s\"", this.name());
     }
+
+    /**
+     * Appends the name of the PlayingSide to the builder as a JSON string, see `toJSON(PrintWriter)`.
+     *
+     * @param builder the builder receiving the JSON representation of the PlayingSide
+     */
+    @Override
+    public void toJSON(StringBuilder builder) {
+        builder.append('"').append(this.name()).append('"');
+    }
 }
@@ -1,6 +1,7 @@
 package thedrake.models.interfaces;
 
 import java.io.PrintWriter;
+import java.io.StringWriter;
 
 /**
  * The `JSONSerializable` interface provides a standard way for objects to be serialized into JSON format.
@@ -23,4 +24,23 @@ public interface JSONSerializable {
      * @param writer the PrintWriter used to write the JSON representation of the object
      */
     public void toJSON(PrintWriter writer);
+
+    /**
+     * Serializes the implementing object into exactly the same JSON as `toJSON(PrintWriter)`,
+     * appending it to the given builder. The model classes override it with plain appends,
+     * without parsing format strings or creating temporary writers, and a caller can clear and reuse one builder
+     * for any number of objects.
+     *
+     * The default implementation goes through `toJSON(PrintWriter)`.
+     *
+     * @param builder the builder receiving the JSON representation of the object
+     */
+    public default void toJSON(StringBuilder builder) {
+        StringWriter out = new StringWriter();
+        PrintWriter writer = new PrintWriter(out);
+
+        this.toJSON(writer);
+        writer.flush();
+        builder.append(out.getBuffer());
+    }
 }
@@ -0,0 +1,372 @@
+package thedrake.models.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+/**
+ * The `JSONReader` class is a streaming tokenizer of the JSON written by `JSONSerializable.toJSON`.
+ * It reads the input one token at a time and leaves the structure to its caller, so a model class parses
+ * its own JSON with a few calls and no intermediate tree is ever built. Objects and arrays are walked by
+ * `beginObject`/`beginArray`, `hasNext` and `endObject`/`endArray`, and the commas between the elements
+ * are checked by `hasNext`. Only the values the model writes are supported: strings and integers.
+ *
+ * Malformed input is reported by an `IllegalArgumentException` naming the offset of the offending character.
+ */
+public class JSONReader {
+    /**
+     * The size of the buffer the input is read into.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The marker of the end of the input returned by `peek`.
+     */
+    private static final int END = -1;
+
+    /**
+     * The source of the input, or null if the whole input is in the buffer.
+     */
+    private final Reader in;
+
+    /**
+     * The buffered characters of the input.
+     */
+    private final char[] buffer;
+
+    /**
+     * The index of the next character in the buffer.
+     */
+    private int position;
+
+    /**
+     * The number of valid characters in the buffer.
+     */
+    private int limit;
+
+    /**
+     * The offset of the start of the buffer in the input, used in error messages.
+     */
+    private long offset;
+
+    /**
+     * Whether the last token completed a value, so the next element has to be preceded by a comma.
+     */
+    private boolean afterValue;
+
+    /**
+     * The builder reused for the characters of strings.
+     */
+    private final StringBuilder string;
+
+    /**
+     * Creates a reader of the characters of a stream, buffering them as they are needed.
+     *
+     * @param in the source of the JSON
+     */
+    public JSONReader(Reader in) {
+        this.in = in;
+        this.buffer = new char[BUFFER_SIZE];
+        this.string = new StringBuilder();
+    }
+
+    /**
+     * Creates a reader of a JSON string.
+     *
+     * @param json the JSON
+     */
+    public JSONReader(String json) {
+        this.in = null;
+        this.buffer = json.toCharArray();
+        this.limit = this.buffer.length;
+        this.string = new StringBuilder();
+    }
+
+    /**
+     * Consumes the start of an object.
+     *
+     * @throws IllegalArgumentException if the next token is not `{`
+     */
+    public void beginObject() {
+        this.expect('{');
+        this.afterValue = false;
+    }
+
+    /**
+     * Consumes the end of an object.
+     *
+     * @throws IllegalArgumentException if the next token is not `}`
+     */
+    public void endObject() {
+        this.expect('}');
+        this.afterValue = true;
+    }
+
+    /**
+     * Consumes the start of an array.
+     *
+     * @throws IllegalArgumentException if the next token is not `[`
+     */
+    public void beginArray() {
+        this.expect('[');
+        this.afterValue = false;
+    }
+
+    /**
+     * Consumes the end of an array.
+     *
+     * @throws IllegalArgumentException if the next token is not `]`
+     */
+    public void endArray() {
+        this.expect(']');
+        this.afterValue = true;
+    }
+
+    /**
+     * Checks whether the current object or array has another element, consuming the comma before it.
+     *
+     * @return                          true if an element follows, false if the object or array ends
+     * @throws IllegalArgumentException if the elements are not separated by a comma
+     */
+    public boolean hasNext() {
+        int c = this.peek();
+
+        if (c == '}' || c == ']')
+            return false;
+
+        if (this.afterValue) {
+            this.expect(',');
+            this.afterValue = false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads the name of the next member of an object together with the colon after it.
+     *
+     * @return                          the name
+     * @throws IllegalArgumentException if the next token is not a name
+     */
+    public String nextName() {
+        String name = this.nextString();
+        this.expect(':');
+        this.afterValue = false;
+        return name;
+    }
+
+    /**
+     * Reads a string value.
+     *
+     * @return                          the string
+     * @throws IllegalArgumentException if the next token is not a string
+     */
+    public String nextString() {
+        this.expect('"');
+        this.string.setLength(0);
+
+        while (true) {
+            int c = this.read();
+
+            if (c == '"')
+                break;
+            if (c == END || c < ' ')
+                throw this.error("Unterminated string");
+
+            if (c == '\\')
+                c = this.readEscape();
+
+            this.string.append((char) c);
+        }
+
+        this.afterValue = true;
+        return this.string.toString();
+    }
+
+    /**
+     * Reads a string value naming a constant of an enum, as written by `Enum.name()`.
+     *
+     * @param type                      the class of the enum
+     * @param <E>                       the type of the enum
+     * @return                          the constant
+     * @throws IllegalArgumentException if the next token is not a string or names no constant of the enum
+     */
+    public <E extends Enum<E>> E nextEnum(Class<E> type) {
+        String name = this.nextString();
+
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            throw this.error("Unknown " + type.getSimpleName() + " \"" + name + "\"");
+        }
+    }
+
+    /**
+     * Reads an integer value.
+     *
+     * @return                          the integer
+     * @throws IllegalArgumentException if the next token is not an integer or does not fit into an `int`
+     */
+    public int nextInt() {
+        boolean negative = this.peek() == '-';
+        long value = 0;
+        int digits = 0;
+
+        if (negative)
+            this.position++;
+
+        while (this.peekChar() >= '0' && this.peekChar() <= '9') {
+            value = value * 10 + this.read() - '0';
+
+            if (++digits > 10)
+                throw this.error("Integer too long");
+        }
+
+        if (digits == 0)
+            throw this.error("Expected an integer");
+
+        value = negative ? -value : value;
+        if (value != (int) value)
+            throw this.error("Integer out of range");
+
+        this.afterValue = true;
+        return (int) value;
+    }
+
+    /**
+     * Checks that nothing but whitespace follows the last value.
+     *
+     * @throws IllegalArgumentException if there is more input
+     */
+    public void endDocument() {
+        if (this.peek() != END)
+            throw this.error("Unexpected content after the end of the document");
+    }
+
+    /**
+     * Creates the exception of a semantic error found by the caller at the current offset,
+     * e.g. an unknown member or a value out of range.
+     *
+     * @param message the description of the error
+     * @return        the exception to throw
+     */
+    public IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at offset " + (this.offset + this.position) + ".");
+    }
+
+    /**
+     * Reads the character of an escape sequence whose backslash has been consumed.
+     *
+     * @return the escaped character
+     */
+    private int readEscape() {
+        int c = this.read();
+
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(this.read(), 16);
+                    if (digit < 0)
+                        throw this.error("Invalid unicode escape");
+
+                    code = code * 16 + digit;
+                }
+                return code;
+            default:
+                throw this.error("Invalid escape");
+        }
+    }
+
+    /**
+     * Skips whitespace and consumes the given character.
+     *
+     * @param expected                  the expected character
+     * @throws IllegalArgumentException if another character or the end of the input follows
+     */
+    private void expect(char expected) {
+        if (this.peek() != expected)
+            throw this.error("Expected '" + expected + "'");
+
+        this.position++;
+    }
+
+    /**
+     * Skips whitespace and gets the next character without consuming it.
+     *
+     * @return the next character, or END at the end of the input
+     */
+    private int peek() {
+        while (true) {
+            int c = this.peekChar();
+
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r')
+                return c;
+
+            this.position++;
+        }
+    }
+
+    /**
+     * Gets the next character without skipping whitespace or consuming it.
+     *
+     * @return the next character, or END at the end of the input
+     */
+    private int peekChar() {
+        if (this.position == this.limit && !this.fill())
+            return END;
+
+        return this.buffer[this.position];
+    }
+
+    /**
+     * Consumes the next character without skipping whitespace.
+     *
+     * @return the character, or END at the end of the input
+     */
+    private int read() {
+        int c = this.peekChar();
+
+        if (c != END)
+            this.position++;
+
+        return c;
+    }
+
+    /**
+     * Refills the consumed buffer from the stream.
+     *
+     * @return false at the end of the input
+     */
+    private boolean fill() {
+        if (this.in == null)
+            return false;
+
+        try {
+            int read = this.in.read(this.buffer, 0, this.buffer.length);
+            if (read <= 0)
+                return false;
+
+            this.offset += this.limit;
+            this.position = 0;
+            this.limit = read;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
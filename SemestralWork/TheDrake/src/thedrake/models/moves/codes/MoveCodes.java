@@ -0,0 +1,230 @@
+package thedrake.models.moves.codes;
+
+import thedrake.models.moves.captures.CaptureOnly;
+import thedrake.models.moves.interfaces.BoardMove;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.moves.stacks.PlaceFromStack;
+import thedrake.models.moves.steps.StepAndCapture;
+import thedrake.models.moves.steps.StepOnly;
+import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.positions.interfaces.TilePos;
+
+/**
+ * The `MoveCodes` class encodes the moves of The Drake into single `int` values.
+ * A move code holds the kind of the move in bits 16-18, the origin square in bits 8-15 and the target square
+ * in bits 0-7, where the square of a position is `j * dimension + i`. Placements from the stack have origin 0.
+ * The kind is never zero, so 0 can be used as "no move".
+ * Codes let the search generate and store moves without creating `Move` objects,
+ * which are only built by `decode` when the UI needs them.
+ */
+public final class MoveCodes {
+    /**
+     * The code meaning "no move".
+     */
+    public static final int NONE = 0;
+
+    /**
+     * The kind of a placement from the stack.
+     */
+    public static final int PLACE = 1;
+
+    /**
+     * The kind of a step without capture.
+     */
+    public static final int STEP = 2;
+
+    /**
+     * The kind of a step with capture.
+     */
+    public static final int STEP_CAPTURE = 3;
+
+    /**
+     * The kind of a capture without moving.
+     */
+    public static final int CAPTURE = 4;
+
+    /**
+     * The class only holds static methods.
+     */
+    private MoveCodes() {
+    }
+
+    /**
+     * Encodes a move from its parts.
+     *
+     * @param kind   the kind of the move
+     * @param origin the origin square, 0 for placements
+     * @param target the target square
+     * @return       the move code
+     */
+    public static int encode(int kind, int origin, int target) {
+        return kind << 16 | origin << 8 | target;
+    }
+
+    /**
+     * Encodes a placement from the stack to the target square.
+     *
+     * @param target the target square
+     * @return       the move code
+     */
+    public static int place(int target) {
+        return encode(PLACE, 0, target);
+    }
+
+    /**
+     * Gets the kind of a move code.
+     *
+     * @param move the move code
+     * @return     PLACE, STEP, STEP_CAPTURE or CAPTURE
+     */
+    public static int kind(int move) {
+        return move >>> 16;
+    }
+
+    /**
+     * Gets the origin square of a move code.
+     *
+     * @param move the move code
+     * @return     the origin square, 0 for placements
+     */
+    public static int origin(int move) {
+        return (move >>> 8) & 0xFF;
+    }
+
+    /**
+     * Gets the target square of a move code.
+     *
+     * @param move the move code
+     * @return     the target square
+     */
+    public static int target(int move) {
+        return move & 0xFF;
+    }
+
+    /**
+     * Checks whether a move code captures an enemy troop.
+     *
+     * @param move the move code
+     * @return     true for STEP_CAPTURE and CAPTURE moves, false otherwise
+     */
+    public static boolean isCapture(int move) {
+        return kind(move) >= STEP_CAPTURE;
+    }
+
+    /**
+     * Encodes one of the standard moves.
+     *
+     * @param move                      the move
+     * @param dimension                 the dimension of the board
+     * @return                          the move code
+     * @throws IllegalArgumentException if the move is of an unknown kind
+     */
+    public static int encode(Move move, int dimension) {
+        int target = square(move.target(), dimension);
+
+        if (move instanceof PlaceFromStack)
+            return place(target);
+
+        int origin = square(((BoardMove) move).origin(), dimension);
+
+        if (move instanceof StepOnly)
+            return encode(STEP, origin, target);
+
+        if (move instanceof StepAndCapture)
+            return encode(STEP_CAPTURE, origin, target);
+
+        if (move instanceof CaptureOnly)
+            return encode(CAPTURE, origin, target);
+
+        throw new IllegalArgumentException("Unknown move " + move + ".");
+    }
+
+    /**
+     * Decodes a move code back into a standard move.
+     *
+     * @param move                      the move code
+     * @param dimension                 the dimension of the board
+     * @return                          the move
+     * @throws IllegalArgumentException if the code is not a valid move
+     */
+    public static Move decode(int move, int dimension) {
+        int kind = kind(move);
+        BoardPos target = position(target(move), dimension);
+
+        if (kind == PLACE)
+            return new PlaceFromStack(target);
+
+        BoardPos origin = position(origin(move), dimension);
+
+        if (kind == STEP)
+            return new StepOnly(origin, target);
+
+        if (kind == STEP_CAPTURE)
+            return new StepAndCapture(origin, target);
+
+        if (kind == CAPTURE)
+            return new CaptureOnly(origin, target);
+
+        throw new IllegalArgumentException("Invalid move code " + move + ".");
+    }
+
+    /**
+     * Describes a move code, e.g. "b1-c1", "b1xc2", "b1*c3" or "@a1".
+     *
+     * @param move      the move code
+     * @param dimension the dimension of the board
+     * @return          the description of the move
+     */
+    public static String toString(int move, int dimension) {
+        int kind = kind(move);
+        String target = name(target(move), dimension);
+
+        if (kind == PLACE)
+            return "@" + target;
+
+        if (kind == STEP)
+            return name(origin(move), dimension) + "-" + target;
+
+        if (kind == STEP_CAPTURE)
+            return name(origin(move), dimension) + "x" + target;
+
+        if (kind == CAPTURE)
+            return name(origin(move), dimension) + "*" + target;
+
+        return "none";
+    }
+
+    /**
+     * Gets the square of a position.
+     *
+     * @param pos       the position
+     * @param dimension the dimension of the board
+     * @return          the square
+     */
+    private static int square(TilePos pos, int dimension) {
+        return pos.j() * dimension + pos.i();
+    }
+
+    /**
+     * Gets the interned board position of a square.
+     *
+     * @param square    the square
+     * @param dimension the dimension of the board
+     * @return          the position
+     */
+    private static BoardPos position(int square, int dimension) {
+        return PositionFactory.canonicalPos(dimension, square % dimension, square / dimension);
+    }
+
+    /**
+     * Gets the name of a square, e.g. "a1".
+     *
+     * @param square    the square
+     * @param dimension the dimension of the board
+     * @return          the name of the square
+     */
+    private static String name(int square, int dimension) {
+        return String.valueOf((char) ('a' + square % dimension)) + (square / dimension + 1);
+    }
+}
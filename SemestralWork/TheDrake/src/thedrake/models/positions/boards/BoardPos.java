@@ -1,10 +1,10 @@
 package thedrake.models.positions.boards;
 
 import thedrake.models.boards.PlayingSide;
+import thedrake.models.positions.factories.PositionFactory;
 import thedrake.models.positions.interfaces.TilePos;
 
 import java.io.PrintWriter;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -54,6 +54,25 @@ public class BoardPos implements TilePos {
         writer.printf("\"%s\"", this);
     }
 
+    /**
+     * Appends the name of the board position to the builder as a JSON string, see `toJSON(PrintWriter)`.
+     *
+     * @param builder the builder receiving the JSON representation of the BoardPos
+     */
+    @Override
+    public void toJSON(StringBuilder builder) {
+        builder.append('"').append(this.column()).append(this.row()).append('"');
+    }
+
+    /**
+     * Gets the dimension of the game board.
+     *
+     * @return the dimension
+     */
+    public int dimension() {
+        return this.dimension;
+    }
+
     /**
      * Gets the vertical index of the position.
      *
@@ -99,16 +118,15 @@ public class BoardPos implements TilePos {
      *
      * @param columnStep the column step
      * @param rowStep    the row step
-     * @return           a new BoardPos after the move, or TilePos.OFF_BOARD if the move is out of bounds
+     * @return           the canonical BoardPos after the move, or TilePos.OFF_BOARD if the move is out of bounds
      */
     @Override
     public TilePos step(int columnStep, int rowStep) {
-        int newi = i + columnStep;
-        int newj = j + rowStep;
+        int newi = this.i + columnStep;
+        int newj = this.j + rowStep;
 
-        if ((newi >= 0 && newi < this.dimension) && (newj >= 0 && newj < this.dimension)) {
-            return new BoardPos(this.dimension, newi, newj);
-        }
+        if ((newi >= 0 && newi < this.dimension) && (newj >= 0 && newj < this.dimension))
+            return PositionFactory.canonicalPos(this.dimension, newi, newj);
 
         return TilePos.OFF_BOARD;
     }
@@ -117,7 +135,7 @@ public class BoardPos implements TilePos {
      * Moves the position by the specified offset.
      *
      * @param step the offset
-     * @return     a new BoardPos after the move, or TilePos.OFF_BOARD if the move is out of bounds
+     * @return     the canonical BoardPos after the move, or TilePos.OFF_BOARD if the move is out of bounds
      */
     @Override
     public TilePos step(Offset2D step) {
@@ -125,31 +143,13 @@ public class BoardPos implements TilePos {
     }
 
     /**
-     * Gets a list of neighboring positions.
+     * Gets a list of neighboring positions. The list is precomputed and shared, so it must not be modified.
      *
-     * @return a list of neighboring BoardPos
+     * @return an unmodifiable list of neighboring BoardPos
      */
     @Override
     public List<BoardPos> neighbours() {
-        List<BoardPos> result = new ArrayList<>();
-
-        TilePos pos = step(1, 0);
-        if (!pos.equals(TilePos.OFF_BOARD))
-            result.add((BoardPos) pos);
-
-        pos = step(-1, 0);
-        if (!pos.equals(TilePos.OFF_BOARD))
-            result.add((BoardPos) pos);
-
-        pos = step(0, 1);
-        if (!pos.equals(TilePos.OFF_BOARD))
-            result.add((BoardPos) pos);
-
-        pos = step(0, -1);
-        if (!pos.equals(TilePos.OFF_BOARD))
-            result.add((BoardPos) pos);
-
-        return result;
+        return PositionFactory.canonicalNeighbours(this.dimension, this.i, this.j);
     }
 
     /**
@@ -175,13 +175,15 @@ public class BoardPos implements TilePos {
     /**
      * Moves the position in a direction based on the playing side.
      *
+     * The direction is mirrored along the Y-axis for the orange side without creating a flipped offset.
+     *
      * @param dir  the direction offset
      * @param side the playing side
-     * @return     a new BoardPos after the move, or TilePos.OFF_BOARD if the move is out of bounds
+     * @return     the canonical BoardPos after the move, or TilePos.OFF_BOARD if the move is out of bounds
      */
     @Override
     public TilePos stepByPlayingSide(Offset2D dir, PlayingSide side) {
-        return side.equals(PlayingSide.BLUE) ? this.step(dir) : this.step(dir.yFlipped());
+        return side == PlayingSide.BLUE ? this.step(dir.x, dir.y) : this.step(dir.x, -dir.y);
     }
 
     /**
@@ -212,6 +214,7 @@ public class BoardPos implements TilePos {
 
     /**
      * Checks if the position is equal to another object.
+     * Positions obtained from `PositionFactory` are interned, so the identity check is the usual fast path.
      *
      * @param obj the object to compare with
      * @return    true if the positions are equal, false otherwise
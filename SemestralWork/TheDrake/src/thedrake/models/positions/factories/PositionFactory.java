@@ -2,11 +2,106 @@ package thedrake.models.positions.factories;
 
 import thedrake.models.positions.boards.BoardPos;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
 /**
  * The `PositionFactory` class provides methods for creating instances of `BoardPos` and handling board positions.
+ * Positions are flyweights: every position of a board is a single shared `BoardPos` instance.
  */
 public class PositionFactory {
 
+    /**
+     * The largest dimension whose positions are interned, limited by the column letters 'a' to 'z'.
+     */
+    public static final int MAX_DIMENSION = 26;
+
+    /**
+     * The canonical `BoardPos` instances indexed by dimension, vertical index and horizontal index.
+     * Positions of boards up to MAX_DIMENSION are created once, so creating or stepping positions never allocates
+     * and positions of the same board can be compared by identity.
+     */
+    private static final BoardPos[][][] POSITIONS = new BoardPos[MAX_DIMENSION + 1][][];
+
+    /**
+     * The precomputed neighbours of the canonical positions, indexed like POSITIONS.
+     */
+    private static final List<List<List<BoardPos>>> NEIGHBOURS = new ArrayList<>();
+
+    /**
+     * The ranks of the canonical positions in the order of their names, indexed by dimension
+     * and `i * dimension + j`. The names are ordered as strings, so "a10" comes before "a2".
+     */
+    private static final int[][] NAME_RANKS = new int[MAX_DIMENSION + 1][];
+
+    /**
+     * Orders positions of one board by their names as strings, the order of the members of a troop map in JSON.
+     * Canonical positions are compared by their precomputed ranks without building their names.
+     */
+    public static final Comparator<BoardPos> NAME_ORDER = (a, b) -> {
+        if (a.dimension() == b.dimension() && a.dimension() <= MAX_DIMENSION && isOnBoard(a) && isOnBoard(b))
+            return Integer.compare(nameRank(a), nameRank(b));
+
+        return a.toString().compareTo(b.toString());
+    };
+
+    static {
+        NEIGHBOURS.add(Collections.emptyList());
+
+        for (int dimension = 1; dimension <= MAX_DIMENSION; dimension++) {
+            POSITIONS[dimension] = new BoardPos[dimension][dimension];
+
+            for (int i = 0; i < dimension; i++)
+                for (int j = 0; j < dimension; j++)
+                    POSITIONS[dimension][i][j] = new BoardPos(dimension, i, j);
+        }
+
+        for (int dimension = 1; dimension <= MAX_DIMENSION; dimension++) {
+            List<List<BoardPos>> neighbours = new ArrayList<>(dimension * dimension);
+
+            for (int i = 0; i < dimension; i++)
+                for (int j = 0; j < dimension; j++)
+                    neighbours.add(computeNeighbours(dimension, i, j));
+
+            NEIGHBOURS.add(neighbours);
+        }
+
+        for (int dimension = 1; dimension <= MAX_DIMENSION; dimension++) {
+            List<BoardPos> byName = new ArrayList<>(dimension * dimension);
+
+            for (BoardPos[] column : POSITIONS[dimension])
+                byName.addAll(Arrays.asList(column));
+            byName.sort(Comparator.comparing(BoardPos::toString));
+
+            NAME_RANKS[dimension] = new int[dimension * dimension];
+            for (int rank = 0; rank < byName.size(); rank++)
+                NAME_RANKS[dimension][byName.get(rank).i() * dimension + byName.get(rank).j()] = rank;
+        }
+    }
+
+    /**
+     * Gets the rank of a canonical position in the order of the names of the positions of its board.
+     *
+     * @param pos the position, on a board of at most MAX_DIMENSION
+     * @return    the rank
+     */
+    private static int nameRank(BoardPos pos) {
+        return NAME_RANKS[pos.dimension()][pos.i() * pos.dimension() + pos.j()];
+    }
+
+    /**
+     * Checks whether a position lies on its board.
+     *
+     * @param pos the position
+     * @return    true if the indices are within the dimension of the board
+     */
+    private static boolean isOnBoard(BoardPos pos) {
+        return pos.i() >= 0 && pos.i() < pos.dimension() && pos.j() >= 0 && pos.j() < pos.dimension();
+    }
+
     /**
      * The dimension of the game board.
      */
@@ -35,32 +130,88 @@ public class PositionFactory {
     }
 
     /**
-     * Creates a new `BoardPos` instance with the specified vertical and horizontal indices.
+     * Gets the canonical `BoardPos` instance of a board with the specified dimension.
+     * Positions outside of the board or of boards larger than MAX_DIMENSION are not interned
+     * and a new instance is created for them.
+     *
+     * @param dimension the dimension of the game board
+     * @param i         the vertical index
+     * @param j         the horizontal index
+     * @return          the canonical `BoardPos` instance
+     */
+    public static BoardPos canonicalPos(int dimension, int i, int j) {
+        if (dimension > MAX_DIMENSION || i < 0 || i >= dimension || j < 0 || j >= dimension)
+            return new BoardPos(dimension, i, j);
+
+        return POSITIONS[dimension][i][j];
+    }
+
+    /**
+     * Gets the orthogonal neighbours of a position of a board with the specified dimension,
+     * in the order right, left, up and down. The lists of canonical positions are precomputed and shared.
+     *
+     * @param dimension the dimension of the game board
+     * @param i         the vertical index
+     * @param j         the horizontal index
+     * @return          an unmodifiable list of the neighbouring positions
+     */
+    public static List<BoardPos> canonicalNeighbours(int dimension, int i, int j) {
+        if (dimension > MAX_DIMENSION || i < 0 || i >= dimension || j < 0 || j >= dimension)
+            return computeNeighbours(dimension, i, j);
+
+        return NEIGHBOURS.get(dimension).get(i * dimension + j);
+    }
+
+    /**
+     * Computes the orthogonal neighbours of a position that lie on the board.
+     *
+     * @param dimension the dimension of the game board
+     * @param i         the vertical index
+     * @param j         the horizontal index
+     * @return          an unmodifiable list of the neighbouring positions
+     */
+    private static List<BoardPos> computeNeighbours(int dimension, int i, int j) {
+        List<BoardPos> result = new ArrayList<>(4);
+        int[][] steps = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+
+        for (int[] step : steps) {
+            int newi = i + step[0];
+            int newj = j + step[1];
+
+            if (newi >= 0 && newi < dimension && newj >= 0 && newj < dimension)
+                result.add(canonicalPos(dimension, newi, newj));
+        }
+
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Gets the `BoardPos` instance with the specified vertical and horizontal indices.
      *
      * @param i the vertical index
      * @param j the horizontal index
-     * @return  a new `BoardPos` instance
+     * @return  the canonical `BoardPos` instance
      */
     public BoardPos pos(int i, int j) {
-        return new BoardPos(this.dimension, i, j);
+        return canonicalPos(this.dimension, i, j);
     }
 
     /**
-     * Creates a new `BoardPos` instance with the specified column and row indices.
+     * Gets the `BoardPos` instance with the specified column and row indices.
      *
      * @param column the column character
      * @param row    the row index
-     * @return       a new `BoardPos` instance
+     * @return       the canonical `BoardPos` instance
      */
     public BoardPos pos(char column, int row) {
         return this.pos(this.iFromColumn(column), this.jFromRow(row));
     }
 
     /**
-     * Creates a new `BoardPos` instance with the specified position string.
+     * Gets the `BoardPos` instance with the specified position string.
      *
      * @param pos the position string (e.g., "a1")
-     * @return    a new `BoardPos` instance
+     * @return    the canonical `BoardPos` instance
      */
     public BoardPos pos(String pos) {
         return this.pos(pos.charAt(0), Integer.parseInt(pos.substring(1)));
@@ -30,6 +30,11 @@ public interface TilePos extends JSONSerializable {
             writer.printf("\"%s\"", this);
         }
 
+        @Override
+        public void toJSON(StringBuilder builder) {
+            builder.append("\"off-board\"");
+        }
+
         @Override
         public int i() {
             throw new UnsupportedOperationException();
@@ -41,4 +41,14 @@ public enum GameResult implements JSONSerializable {
     public void toJSON(PrintWriter writer) {
         writer.printf("\"%s\"", this.name());
     }
+
+    /**
+     * Appends the name of the GameResult to the builder as a JSON string, see `toJSON(PrintWriter)`.
+     *
+     * @param builder the builder receiving the JSON representation of the GameResult
+     */
+    @Override
+    public void toJSON(StringBuilder builder) {
+        builder.append('"').append(this.name()).append('"');
+    }
 }
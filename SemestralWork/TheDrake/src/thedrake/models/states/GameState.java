@@ -4,12 +4,15 @@ import thedrake.models.boards.Army;
 import thedrake.models.boards.Board;
 import thedrake.models.boards.PlayingSide;
 import thedrake.models.interfaces.JSONSerializable;
+import thedrake.models.json.JSONReader;
 import thedrake.models.positions.boards.BoardPos;
 import thedrake.models.positions.interfaces.TilePos;
+import thedrake.models.setups.StandardDrakeSetup;
 import thedrake.models.tiles.interfaces.Tile;
 import thedrake.models.tiles.troops.TroopTile;
 import thedrake.models.troops.BoardTroops;
 import thedrake.models.troops.Troop;
+import thedrake.models.troops.TroopFace;
 
 import java.io.PrintWriter;
 import java.util.Optional;
@@ -49,6 +52,12 @@ public class GameState implements JSONSerializable {
      */
     private final GameResult result;
 
+    /**
+     * The 64-bit Zobrist key of the state, see `ZobristKeys`.
+     * It is computed from scratch by the public constructors and updated incrementally by every transition.
+     */
+    private final long zobristKey;
+
     /**
      * Constructs a GameState with the initial configuration.
      *
@@ -70,11 +79,28 @@ public class GameState implements JSONSerializable {
      * @param result     the current result of the game
      */
     public GameState(Board board, Army blueArmy, Army orangeArmy, PlayingSide sideOnTurn, GameResult result) {
+        this(board, blueArmy, orangeArmy, sideOnTurn, result,
+                ZobristKeys.of(board, blueArmy, orangeArmy, sideOnTurn, result));
+    }
+
+    /**
+     * Constructs a GameState with custom configuration and an already known Zobrist key.
+     *
+     * @param board      the game board
+     * @param blueArmy   the blue player's army
+     * @param orangeArmy the orange player's army
+     * @param sideOnTurn the side currently taking their turn
+     * @param result     the current result of the game
+     * @param zobristKey the Zobrist key of the state
+     */
+    private GameState(Board board, Army blueArmy, Army orangeArmy, PlayingSide sideOnTurn, GameResult result,
+                      long zobristKey) {
         this.board = board;
         this.sideOnTurn = sideOnTurn;
         this.blueArmy = blueArmy;
         this.orangeArmy = orangeArmy;
         this.result = result;
+        this.zobristKey = zobristKey;
     }
 
     /**
@@ -114,6 +140,124 @@ public class GameState implements JSONSerializable {
         writer.print("}");
     }
 
+    /**
+     * Appends the same JSON as `toJSON(PrintWriter)` to the builder.
+     *
+     * @param builder the builder receiving the JSON representation of the GameState
+     */
+    @Override
+    public void toJSON(StringBuilder builder) {
+        builder.append("{\"result\":");
+        this.result.toJSON(builder);
+        builder.append(",\"board\":");
+        this.board.toJSON(builder);
+        builder.append(",\"blueArmy\":");
+        this.blueArmy.toJSON(builder);
+        builder.append(",\"orangeArmy\":");
+        this.orangeArmy.toJSON(builder);
+        builder.append('}');
+    }
+
+    /**
+     * Parses a GameState from the JSON written by `toJSON` in one pass over the input.
+     * The JSON does not record the side on turn, so it is derived from the stacks: BLUE is on turn
+     * if it has placed no more troops than ORANGE. That is only certain while a leader or guards
+     * are still being placed, a state past the setup or of a finished game has to be parsed with its side on turn
+     * given explicitly.
+     *
+     * @param reader                    the reader positioned at the state
+     * @param setup                     the setup resolving the names of the troops
+     * @return                          the parsed state
+     * @throws IllegalArgumentException if the JSON is malformed, a member is missing or unknown
+     *                                  or the state is past the setup
+     */
+    public static GameState fromJSON(JSONReader reader, StandardDrakeSetup setup) {
+        return fromJSON(reader, setup, null);
+    }
+
+    /**
+     * Parses a GameState from the JSON written by `toJSON` in one pass over the input.
+     * The members are accepted in any order, except that the armies have to follow the board
+     * whose positions they stand on.
+     *
+     * @param reader                    the reader positioned at the state
+     * @param setup                     the setup resolving the names of the troops
+     * @param sideOnTurn                the side on turn, or null to derive it from the stacks during the setup
+     * @return                          the parsed state
+     * @throws IllegalArgumentException if the JSON is malformed, a member is missing or unknown,
+     *                                  an army precedes the board or the side on turn is null past the setup
+     */
+    public static GameState fromJSON(JSONReader reader, StandardDrakeSetup setup, PlayingSide sideOnTurn) {
+        GameResult result = null;
+        Board board = null;
+        Army blueArmy = null;
+        Army orangeArmy = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+
+            if (name.equals("result"))
+                result = reader.nextEnum(GameResult.class);
+            else if (name.equals("board"))
+                board = Board.fromJSON(reader);
+            else if (name.equals("blueArmy") || name.equals("orangeArmy")) {
+                if (board == null)
+                    throw reader.error("The board has to precede the armies");
+
+                Army army = Army.fromJSON(reader, setup, board.positionFactory());
+                if (name.equals("blueArmy"))
+                    blueArmy = army;
+                else
+                    orangeArmy = army;
+            }
+            else
+                throw reader.error("Unknown member \"" + name + "\" of a game state");
+        }
+
+        if (result == null || board == null || blueArmy == null || orangeArmy == null)
+            throw reader.error("Incomplete game state");
+
+        reader.endObject();
+
+        if (sideOnTurn == null) {
+            if (result != GameResult.IN_PLAY || !isSettingUp(blueArmy) && !isSettingUp(orangeArmy))
+                throw reader.error("The side on turn of a state past the setup has to be given");
+
+            sideOnTurn = blueArmy.stack().size() >= orangeArmy.stack().size() ? PlayingSide.BLUE : PlayingSide.ORANGE;
+        }
+
+        return new GameState(board, blueArmy, orangeArmy, sideOnTurn, result);
+    }
+
+    /**
+     * Parses a whole JSON document holding a GameState, see `fromJSON(JSONReader, StandardDrakeSetup, PlayingSide)`.
+     *
+     * @param json                      the JSON of the state
+     * @param setup                     the setup resolving the names of the troops
+     * @param sideOnTurn                the side on turn, or null to derive it from the stacks during the setup
+     * @return                          the parsed state
+     * @throws IllegalArgumentException if the JSON is malformed, anything follows the state
+     *                                  or the side on turn is null past the setup
+     */
+    public static GameState fromJSON(String json, StandardDrakeSetup setup, PlayingSide sideOnTurn) {
+        JSONReader reader = new JSONReader(json);
+        GameState state = fromJSON(reader, setup, sideOnTurn);
+
+        reader.endDocument();
+        return state;
+    }
+
+    /**
+     * Checks whether an army is still placing its leader or guards, when the sides take turns placing troops.
+     *
+     * @param army the army
+     * @return     true if the leader or a guard of the army is still to be placed
+     */
+    private static boolean isSettingUp(Army army) {
+        return !army.boardTroops().isLeaderPlaced() || army.boardTroops().isPlacingGuards();
+    }
+
     /**
      * Gets the game board.
      *
@@ -141,6 +285,16 @@ public class GameState implements JSONSerializable {
         return this.result;
     }
 
+    /**
+     * Gets the 64-bit Zobrist key of the state. States with the same board, troops, stacks, leader positions,
+     * guards, side on turn and result have the same key, regardless of the moves that led to them.
+     *
+     * @return the Zobrist key
+     */
+    public long zobristKey() {
+        return this.zobristKey;
+    }
+
     /**
      * Gets the army for the specified side.
      *
@@ -301,7 +455,8 @@ public class GameState implements JSONSerializable {
     public GameState stepOnly(BoardPos origin, BoardPos target) {
         if (this.canStep(origin, target))
             return this.createNewGameState(this.armyNotOnTurn(),
-                    this.armyOnTurn().troopStep(origin, target), GameResult.IN_PLAY);
+                    this.armyOnTurn().troopStep(origin, target), GameResult.IN_PLAY,
+                    this.zobristKey ^ this.stepKey(origin, target));
 
         throw new IllegalArgumentException();
     }
@@ -322,7 +477,8 @@ public class GameState implements JSONSerializable {
                 newResult = GameResult.VICTORY;
 
             return this.createNewGameState(this.armyNotOnTurn().removeTroop(target),
-                    this.armyOnTurn().troopStep(origin, target).capture(captured), newResult);
+                    this.armyOnTurn().troopStep(origin, target).capture(captured), newResult,
+                    this.zobristKey ^ this.captureKey(target, newResult) ^ this.stepKey(origin, target));
         }
 
         throw new IllegalArgumentException();
@@ -343,8 +499,12 @@ public class GameState implements JSONSerializable {
             if (this.armyNotOnTurn().boardTroops().leaderPosition().equals(target))
                 newResult = GameResult.VICTORY;
 
+            TroopTile tile = this.armyOnTurn().boardTroops().at(origin).get();
+            long flipKey = ZobristKeys.troop(tile, origin) ^ ZobristKeys.troop(tile.flipped(), origin);
+
             return this.createNewGameState(this.armyNotOnTurn().removeTroop(target),
-                    this.armyOnTurn().troopFlip(origin).capture(captured), newResult);
+                    this.armyOnTurn().troopFlip(origin).capture(captured), newResult,
+                    this.zobristKey ^ this.captureKey(target, newResult) ^ flipKey);
         }
 
         throw new IllegalArgumentException();
@@ -359,7 +519,7 @@ public class GameState implements JSONSerializable {
     public GameState placeFromStack(BoardPos target) {
         if (this.canPlaceFromStack(target))
             return this.createNewGameState(this.armyNotOnTurn(), this.armyOnTurn().placeFromStack(target),
-                    GameResult.IN_PLAY);
+                    GameResult.IN_PLAY, this.zobristKey ^ this.placeKey(target));
 
         throw new IllegalArgumentException();
     }
@@ -370,7 +530,8 @@ public class GameState implements JSONSerializable {
      * @return a new GameState with the result set to victory for the opposing player
      */
     public GameState resign() {
-        return this.createNewGameState(this.armyNotOnTurn(), this.armyOnTurn(), GameResult.VICTORY);
+        return this.createNewGameState(this.armyNotOnTurn(), this.armyOnTurn(), GameResult.VICTORY,
+                this.zobristKey ^ ZobristKeys.result(this.result) ^ ZobristKeys.result(GameResult.VICTORY));
     }
 
     /**
@@ -380,7 +541,8 @@ public class GameState implements JSONSerializable {
      * @return a new GameState representing a draw
      */
     public GameState draw() {
-        return this.createNewGameState(this.armyOnTurn(), this.armyNotOnTurn(), GameResult.DRAW);
+        return this.createNewGameState(this.armyOnTurn(), this.armyNotOnTurn(), GameResult.DRAW,
+                this.zobristKey ^ ZobristKeys.result(this.result) ^ ZobristKeys.result(GameResult.DRAW));
     }
 
     /**
@@ -390,12 +552,78 @@ public class GameState implements JSONSerializable {
      * @param armyOnTurn    the army of the player who will take the next turn
      * @param armyNotOnTurn the army of the player who just completed their turn
      * @param result        the new result of the game, which can be IN_PLAY, VICTORY, or DRAW
+     * @param zobristKey    the Zobrist key of the new state apart from the side on turn
      * @return              a new GameState reflecting the updated state of the game
      */
-    private GameState createNewGameState(Army armyOnTurn, Army armyNotOnTurn, GameResult result) {
+    private GameState createNewGameState(Army armyOnTurn, Army armyNotOnTurn, GameResult result, long zobristKey) {
+        zobristKey ^= ZobristKeys.side(this.sideOnTurn) ^ ZobristKeys.side(armyOnTurn.side());
+
         if (armyOnTurn.side().equals(PlayingSide.BLUE))
-            return new GameState(this.board, armyOnTurn, armyNotOnTurn, PlayingSide.BLUE, result);
+            return new GameState(this.board, armyOnTurn, armyNotOnTurn, PlayingSide.BLUE, result, zobristKey);
+
+        return new GameState(this.board, armyNotOnTurn, armyOnTurn, PlayingSide.ORANGE, result, zobristKey);
+    }
+
+    /**
+     * Computes the change of the Zobrist key caused by a step of the troop on turn from the origin to the target,
+     * including the flip of the troop and the move of the leader.
+     *
+     * @param origin the starting position of the troop
+     * @param target the target position of the troop
+     * @return       the change of the key
+     */
+    private long stepKey(BoardPos origin, BoardPos target) {
+        BoardTroops troops = this.armyOnTurn().boardTroops();
+        TroopTile tile = troops.at(origin).get();
+        long delta = ZobristKeys.troop(tile, origin) ^ ZobristKeys.troop(tile.flipped(), target);
+
+        if (origin.equals(troops.leaderPosition()))
+            delta ^= ZobristKeys.leader(this.sideOnTurn, origin) ^ ZobristKeys.leader(this.sideOnTurn, target);
+
+        return delta;
+    }
+
+    /**
+     * Computes the change of the Zobrist key caused by capturing the enemy troop at the target,
+     * including the removal of a captured leader and the new result.
+     *
+     * @param target    the position of the enemy troop
+     * @param newResult the result of the game after the capture
+     * @return          the change of the key
+     */
+    private long captureKey(BoardPos target, GameResult newResult) {
+        BoardTroops troops = this.armyNotOnTurn().boardTroops();
+        PlayingSide enemy = troops.playingSide();
+        long delta = ZobristKeys.troop(troops.at(target).get(), target) ^
+                ZobristKeys.result(this.result) ^ ZobristKeys.result(newResult);
 
-        return new GameState(this.board, armyNotOnTurn, armyOnTurn, PlayingSide.ORANGE, result);
+        if (target.equals(troops.leaderPosition()))
+            delta ^= ZobristKeys.leader(enemy, target) ^ ZobristKeys.leader(enemy, TilePos.OFF_BOARD);
+
+        return delta;
+    }
+
+    /**
+     * Computes the change of the Zobrist key caused by placing the top troop of the stack on turn to the target,
+     * including the placement of the leader or a guard.
+     *
+     * @param target the target position of the troop
+     * @return       the change of the key
+     */
+    private long placeKey(BoardPos target) {
+        Army army = this.armyOnTurn();
+        BoardTroops troops = army.boardTroops();
+        Troop troop = army.stack().get(0);
+        long delta = ZobristKeys.stack(troop, this.sideOnTurn, army.stack().size() - 1) ^
+                ZobristKeys.troop(troop, this.sideOnTurn, TroopFace.AVERS, target) ^
+                ZobristKeys.result(this.result) ^ ZobristKeys.result(GameResult.IN_PLAY);
+
+        if (!troops.isLeaderPlaced())
+            delta ^= ZobristKeys.leader(this.sideOnTurn, TilePos.OFF_BOARD) ^ ZobristKeys.leader(this.sideOnTurn, target);
+        else if (troops.isPlacingGuards())
+            delta ^= ZobristKeys.guards(this.sideOnTurn, troops.guards()) ^
+                    ZobristKeys.guards(this.sideOnTurn, troops.guards() + 1);
+
+        return delta;
     }
 }
@@ -0,0 +1,246 @@
+package thedrake.models.states;
+
+import thedrake.models.boards.Army;
+import thedrake.models.boards.Board;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.positions.interfaces.TilePos;
+import thedrake.models.tiles.interfaces.BoardTile;
+import thedrake.models.tiles.troops.TroopTile;
+import thedrake.models.troops.BoardTroops;
+import thedrake.models.troops.Troop;
+import thedrake.models.troops.TroopFace;
+
+import java.util.List;
+
+/**
+ * The `ZobristKeys` class defines the 64-bit Zobrist keys of the features of a game state in The Drake.
+ * The key of a state is the XOR of the keys of its features: the mountain tiles, the troops on the board
+ * with their side and face, the troops in the stacks, the leader position and the number of guards of both sides,
+ * the side on turn and the result. Captured troops do not influence the play and are not part of the key.
+ *
+ * Instead of random tables, the key of a feature is computed by packing the feature into a unique number
+ * and scrambling it with the SplitMix64 finalizer, which is a bijection. Troops are identified by their name,
+ * so the keys do not depend on the board dimension or on which `Troop` instances are used.
+ */
+public final class ZobristKeys {
+    /**
+     * The kind of a feature describing a board tile.
+     */
+    private static final long TILE = 1;
+
+    /**
+     * The kind of a feature describing a troop on the board.
+     */
+    private static final long TROOP = 2;
+
+    /**
+     * The kind of a feature describing a troop in a stack.
+     */
+    private static final long STACK = 3;
+
+    /**
+     * The kind of a feature describing the position of a leader.
+     */
+    private static final long LEADER = 4;
+
+    /**
+     * The kind of a feature describing the number of placed guards.
+     */
+    private static final long GUARDS = 5;
+
+    /**
+     * The kind of a feature describing the side on turn.
+     */
+    private static final long SIDE = 6;
+
+    /**
+     * The kind of a feature describing the result of the game.
+     */
+    private static final long RESULT = 7;
+
+    /**
+     * The coordinate used in place of the indices of a position that is off the board.
+     */
+    private static final int OFF_BOARD = 0xFF;
+
+    /**
+     * The class only holds static methods.
+     */
+    private ZobristKeys() {
+    }
+
+    /**
+     * Gets the key of a board tile at the given position. Empty tiles do not contribute to the key.
+     *
+     * @param tile the board tile
+     * @param pos  the position of the tile
+     * @return     the key of the tile
+     */
+    public static long tile(BoardTile tile, TilePos pos) {
+        if (tile == BoardTile.EMPTY)
+            return 0;
+
+        return key(TILE, 0, 0, pos.i(), pos.j(), 0);
+    }
+
+    /**
+     * Gets the key of a troop of the given side showing the given face at the given position.
+     *
+     * @param troop the troop
+     * @param side  the side of the troop
+     * @param face  the face of the troop
+     * @param pos   the position of the troop
+     * @return      the key of the troop
+     */
+    public static long troop(Troop troop, PlayingSide side, TroopFace face, TilePos pos) {
+        return key(TROOP, side.ordinal(), face.ordinal(), pos.i(), pos.j(), troop.name().hashCode());
+    }
+
+    /**
+     * Gets the key of a troop tile at the given position.
+     *
+     * @param tile the troop tile
+     * @param pos  the position of the tile
+     * @return     the key of the troop tile
+     */
+    public static long troop(TroopTile tile, TilePos pos) {
+        return troop(tile.troop(), tile.side(), tile.face(), pos);
+    }
+
+    /**
+     * Gets the key of a troop in the stack of the given side. The place of the troop is counted from the bottom
+     * of the stack, so taking the top troop changes the key of that troop only.
+     *
+     * @param troop the troop in the stack
+     * @param side  the side owning the stack
+     * @param depth the index of the troop counted from the bottom of the stack
+     * @return      the key of the stacked troop
+     */
+    public static long stack(Troop troop, PlayingSide side, int depth) {
+        return key(STACK, side.ordinal(), 0, depth, 0, troop.name().hashCode());
+    }
+
+    /**
+     * Gets the key of the leader position of the given side.
+     *
+     * @param side     the side of the leader
+     * @param position the position of the leader, or TilePos.OFF_BOARD if the leader is not on the board
+     * @return         the key of the leader position
+     */
+    public static long leader(PlayingSide side, TilePos position) {
+        if (position.equals(TilePos.OFF_BOARD))
+            return key(LEADER, side.ordinal(), 0, OFF_BOARD, OFF_BOARD, 0);
+
+        return key(LEADER, side.ordinal(), 0, position.i(), position.j(), 0);
+    }
+
+    /**
+     * Gets the key of the number of guards placed by the given side.
+     *
+     * @param side   the side
+     * @param guards the number of guards
+     * @return       the key of the number of guards
+     */
+    public static long guards(PlayingSide side, int guards) {
+        return key(GUARDS, side.ordinal(), 0, 0, 0, guards);
+    }
+
+    /**
+     * Gets the key of the side on turn. The blue side does not contribute to the key.
+     *
+     * @param side the side on turn
+     * @return     the key of the side on turn
+     */
+    public static long side(PlayingSide side) {
+        return side == PlayingSide.BLUE ? 0 : key(SIDE, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Gets the key of the result of the game. A game in play does not contribute to the key.
+     *
+     * @param result the result of the game
+     * @return       the key of the result
+     */
+    public static long result(GameResult result) {
+        return result == GameResult.IN_PLAY ? 0 : key(RESULT, 0, 0, 0, 0, result.ordinal());
+    }
+
+    /**
+     * Computes the key of a game state from scratch by combining the keys of all its features.
+     *
+     * @param board      the game board
+     * @param blueArmy   the blue player's army
+     * @param orangeArmy the orange player's army
+     * @param sideOnTurn the side currently taking their turn
+     * @param result     the current result of the game
+     * @return           the Zobrist key of the state
+     */
+    public static long of(Board board, Army blueArmy, Army orangeArmy, PlayingSide sideOnTurn, GameResult result) {
+        long key = side(sideOnTurn) ^ result(result);
+        int dimension = board.dimension();
+
+        for (int i = 0; i < dimension; i++)
+            for (int j = 0; j < dimension; j++) {
+                TilePos pos = PositionFactory.canonicalPos(dimension, i, j);
+                key ^= tile(board.at(pos), pos);
+            }
+
+        for (Army army : new Army[] { blueArmy, orangeArmy }) {
+            BoardTroops troops = army.boardTroops();
+            List<Troop> stack = army.stack();
+
+            for (BoardPos pos : troops.troopPositions())
+                key ^= troop(troops.at(pos).get(), pos);
+
+            for (int k = 0; k < stack.size(); k++)
+                key ^= stack(stack.get(k), army.side(), stack.size() - 1 - k);
+
+            key ^= leader(army.side(), troops.leaderPosition()) ^ guards(army.side(), troops.guards());
+        }
+
+        return key;
+    }
+
+    /**
+     * Computes the key of a game state from scratch.
+     *
+     * @param state the game state
+     * @return      the Zobrist key of the state
+     */
+    public static long of(GameState state) {
+        return of(state.board(), state.army(PlayingSide.BLUE), state.army(PlayingSide.ORANGE),
+                state.sideOnTurn(), state.result());
+    }
+
+    /**
+     * Packs the description of a feature into a unique number and scrambles it into a key.
+     *
+     * @param kind  the kind of the feature
+     * @param side  the ordinal of the side, or 0
+     * @param face  the ordinal of the face, or 0
+     * @param i     the column, depth or 0
+     * @param j     the row or 0
+     * @param value the name hash of a troop, a count or 0
+     * @return      the key of the feature
+     */
+    private static long key(long kind, int side, int face, int i, int j, int value) {
+        long packed = kind << 50 | (long) side << 49 | (long) face << 48 |
+                (long) (i & 0xFF) << 40 | (long) (j & 0xFF) << 32 | (value & 0xFFFFFFFFL);
+
+        return mix(packed + 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * Scrambles a number with the SplitMix64 finalizer.
+     *
+     * @param z the number
+     * @return  the scrambled number
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
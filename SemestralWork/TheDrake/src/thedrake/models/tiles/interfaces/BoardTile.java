@@ -32,6 +32,11 @@ public interface BoardTile extends Tile, JSONSerializable {
             writer.printf("\"%s\"", this);
         }
 
+        @Override
+        public void toJSON(StringBuilder builder) {
+            builder.append("\"empty\"");
+        }
+
         @Override
         public boolean canStepOn() {
             return true;
@@ -70,6 +75,11 @@ public interface BoardTile extends Tile, JSONSerializable {
             writer.printf("\"%s\"", this);
         }
 
+        @Override
+        public void toJSON(StringBuilder builder) {
+            builder.append("\"mountain\"");
+        }
+
         @Override
         public boolean canStepOn() {
             return false;
@@ -3,8 +3,10 @@ package thedrake.models.tiles.troops;
 import thedrake.models.actions.interfaces.TroopAction;
 import thedrake.models.boards.PlayingSide;
 import thedrake.models.interfaces.JSONSerializable;
+import thedrake.models.json.JSONReader;
 import thedrake.models.moves.interfaces.Move;
 import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.setups.StandardDrakeSetup;
 import thedrake.models.states.GameState;
 import thedrake.models.tiles.interfaces.Tile;
 import thedrake.models.troops.Troop;
@@ -71,6 +73,56 @@ public class TroopTile implements Tile, JSONSerializable {
         writer.printf("}");
     }
 
+    /**
+     * Appends the same JSON as `toJSON(PrintWriter)` to the builder.
+     *
+     * @param builder the builder receiving the JSON representation of the TroopTile
+     */
+    @Override
+    public void toJSON(StringBuilder builder) {
+        builder.append("{\"troop\":");
+        this.troop.toJSON(builder);
+        builder.append(",\"side\":");
+        this.side.toJSON(builder);
+        builder.append(",\"face\":");
+        this.face.toJSON(builder);
+        builder.append('}');
+    }
+
+    /**
+     * Parses a TroopTile from the JSON written by `toJSON`, the members being accepted in any order.
+     *
+     * @param reader                    the reader positioned at the tile
+     * @param setup                     the setup resolving the names of the troops
+     * @return                          the parsed tile
+     * @throws IllegalArgumentException if the JSON is malformed or a member is missing or unknown
+     */
+    public static TroopTile fromJSON(JSONReader reader, StandardDrakeSetup setup) {
+        Troop troop = null;
+        PlayingSide side = null;
+        TroopFace face = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+
+            if (name.equals("troop"))
+                troop = Troop.fromJSON(reader, setup);
+            else if (name.equals("side"))
+                side = reader.nextEnum(PlayingSide.class);
+            else if (name.equals("face"))
+                face = reader.nextEnum(TroopFace.class);
+            else
+                throw reader.error("Unknown member \"" + name + "\" of a troop tile");
+        }
+
+        if (troop == null || side == null || face == null)
+            throw reader.error("Incomplete troop tile");
+
+        reader.endObject();
+        return new TroopTile(troop, side, face);
+    }
+
     /**
      * Gets the troop placed on the tile.
      *
@@ -147,4 +199,21 @@ public class TroopTile implements Tile, JSONSerializable {
 
         return moves;
     }
+
+    /**
+     * Generates a list of the capturing moves from this tile based on the current game state
+     * and the actions of the troop showing its current face.
+     *
+     * @param pos   the current position of the troop on the game board
+     * @param state the current state of the game, used to determine the validity of potential captures
+     * @return      a list of Move objects representing all legal captures the troop can make from its position
+     */
+    public List<Move> capturesFrom(BoardPos pos, GameState state) {
+        List<Move> moves = new ArrayList<>();
+
+        for (TroopAction action : this.troop.actions(this.face))
+            moves.addAll(action.capturesFrom(pos, this.side, state));
+
+        return moves;
+    }
 }
@@ -2,8 +2,11 @@ package thedrake.models.troops;
 
 import thedrake.models.boards.PlayingSide;
 import thedrake.models.interfaces.JSONSerializable;
+import thedrake.models.json.JSONReader;
 import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.positions.factories.PositionFactory;
 import thedrake.models.positions.interfaces.TilePos;
+import thedrake.models.setups.StandardDrakeSetup;
 import thedrake.models.tiles.troops.TroopTile;
 
 import java.io.PrintWriter;
@@ -24,8 +27,9 @@ public class BoardTroops implements JSONSerializable {
     /**
      * A map storing the positions of troops on the board.
      * Each BoardPos key is associated with a TroopTile, which represents a troop at that position.
+     * The map is persistent, so every new state shares the unchanged entries with the previous one.
      */
-    private final Map<BoardPos, TroopTile> troopMap;
+    private final TroopMap troopMap;
 
     /**
      * The position of the leader on the board.
@@ -47,7 +51,7 @@ public class BoardTroops implements JSONSerializable {
      */
     public BoardTroops(PlayingSide playingSide) {
         this.playingSide = playingSide;
-        this.troopMap = Collections.emptyMap();
+        this.troopMap = TroopMap.EMPTY;
         this.leaderPosition = TilePos.OFF_BOARD;
         this.guards = 0;
     }
@@ -55,6 +59,7 @@ public class BoardTroops implements JSONSerializable {
     /**
      * Constructs a BoardTroops object with specific parameters.
      * Used for creating a new state of the troops on the board.
+     * A TroopMap is shared as it is, any other map is copied.
      *
      * @param playingSide    the playing side (BLUE or ORANGE)
      * @param troopMap       a map associating board positions with troop tiles
@@ -63,7 +68,7 @@ public class BoardTroops implements JSONSerializable {
      */
     public BoardTroops(PlayingSide playingSide, Map<BoardPos, TroopTile> troopMap, TilePos leaderPosition, int guards) {
         this.playingSide = playingSide;
-        this.troopMap = new HashMap<>(troopMap);
+        this.troopMap = TroopMap.copyOf(troopMap);
         this.leaderPosition = leaderPosition;
         this.guards = guards;
     }
@@ -121,6 +126,112 @@ public class BoardTroops implements JSONSerializable {
         writer.printf("}");
     }
 
+    /**
+     * Appends the same JSON as `toJSON(PrintWriter)` to the builder. The troops are ordered
+     * by `PositionFactory.NAME_ORDER`, which orders the positions like the sorted names do without building them.
+     *
+     * @param builder the builder receiving the JSON representation of the BoardTroops
+     */
+    @Override
+    public void toJSON(StringBuilder builder) {
+        builder.append("{\"side\":");
+        this.playingSide.toJSON(builder);
+        builder.append(",\"leaderPosition\":");
+        this.leaderPosition.toJSON(builder);
+        builder.append(",\"guards\":").append(this.guards);
+        builder.append(",\"troopMap\":{");
+
+        BoardPos[] positions = this.troopMap.keySet().toArray(new BoardPos[0]);
+        Arrays.sort(positions, PositionFactory.NAME_ORDER);
+
+        for (int i = 0; i < positions.length; i++) {
+            if (i > 0)
+                builder.append(',');
+
+            positions[i].toJSON(builder);
+            builder.append(':');
+            this.troopMap.get(positions[i]).toJSON(builder);
+        }
+
+        builder.append("}}");
+    }
+
+    /**
+     * Parses a BoardTroops object from the JSON written by `toJSON`, the members being accepted in any order.
+     * The troops are read straight into the troop map, which is shared by the result.
+     *
+     * @param reader                    the reader positioned at the troops
+     * @param setup                     the setup resolving the names of the troops
+     * @param positions                 the factory of the positions of the board the troops stand on
+     * @return                          the parsed troops
+     * @throws IllegalArgumentException if the JSON is malformed, a member is missing or unknown
+     *                                  or a position is not on the board
+     */
+    public static BoardTroops fromJSON(JSONReader reader, StandardDrakeSetup setup, PositionFactory positions) {
+        PlayingSide side = null;
+        TilePos leaderPosition = null;
+        int guards = -1;
+        TroopMap troopMap = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+
+            if (name.equals("side"))
+                side = reader.nextEnum(PlayingSide.class);
+            else if (name.equals("leaderPosition")) {
+                String pos = reader.nextString();
+                leaderPosition = pos.equals("off-board") ? TilePos.OFF_BOARD : boardPos(reader, positions, pos);
+            }
+            else if (name.equals("guards"))
+                guards = reader.nextInt();
+            else if (name.equals("troopMap")) {
+                troopMap = TroopMap.EMPTY;
+
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    BoardPos pos = boardPos(reader, positions, reader.nextName());
+                    troopMap = troopMap.with(pos, TroopTile.fromJSON(reader, setup));
+                }
+                reader.endObject();
+            }
+            else
+                throw reader.error("Unknown member \"" + name + "\" of board troops");
+        }
+
+        if (side == null || leaderPosition == null || guards < 0 || troopMap == null)
+            throw reader.error("Incomplete board troops");
+
+        reader.endObject();
+        return new BoardTroops(side, troopMap, leaderPosition, guards);
+    }
+
+    /**
+     * Resolves the name of a position parsed by the reader, e.g. "a1".
+     *
+     * @param reader                    the reader reporting an invalid name
+     * @param positions                 the factory of the positions of the board
+     * @param name                      the name of the position
+     * @return                          the canonical position
+     * @throws IllegalArgumentException if the name is not a position on the board
+     */
+    private static BoardPos boardPos(JSONReader reader, PositionFactory positions, String name) {
+        int dimension = positions.dimension();
+
+        if (name.length() < 2 || name.length() > 3 || name.charAt(0) < 'a' || name.charAt(0) >= 'a' + dimension)
+            throw reader.error("Invalid position \"" + name + "\"");
+
+        for (int i = 1; i < name.length(); i++)
+            if (name.charAt(i) < '0' || name.charAt(i) > '9')
+                throw reader.error("Invalid position \"" + name + "\"");
+
+        int row = Integer.parseInt(name.substring(1));
+        if (row < 1 || row > dimension)
+            throw reader.error("Invalid position \"" + name + "\"");
+
+        return positions.pos(name);
+    }
+
     /**
      * Returns the troop tile at a specified board position.
      *
@@ -200,8 +311,7 @@ public class BoardTroops implements JSONSerializable {
         if (this.at(target).isPresent())
             throw new IllegalArgumentException("Target position is already occupied.");
 
-        Map<BoardPos, TroopTile> newTroops = new HashMap<>(this.troopMap);
-        newTroops.put(target, new TroopTile(troop, this.playingSide, TroopFace.AVERS));
+        TroopMap newTroops = this.troopMap.with(target, new TroopTile(troop, this.playingSide, TroopFace.AVERS));
 
         TilePos newLeaderPosition = this.isLeaderPlaced() ? this.leaderPosition : target;
         int newGuards = this.isPlacingGuards() ? this.guards + 1 : this.guards;
@@ -233,9 +343,7 @@ public class BoardTroops implements JSONSerializable {
         if (this.at(target).isPresent())
             throw new IllegalArgumentException("Target position is already occupied.");
 
-        Map<BoardPos, TroopTile> newTroops = new HashMap<>(this.troopMap);
-        TroopTile tile = newTroops.remove(origin);
-        newTroops.put(target, tile.flipped());
+        TroopMap newTroops = this.troopMap.moved(origin, target, this.troopMap.get(origin).flipped());
 
         TilePos newLeaderPosition = origin.equals(this.leaderPosition) ? target : this.leaderPosition;
 
@@ -260,9 +368,7 @@ public class BoardTroops implements JSONSerializable {
         if (this.at(origin).isEmpty())
             throw new IllegalArgumentException("No troop at origin position.");
 
-        Map<BoardPos, TroopTile> newTroops = new HashMap<>(this.troopMap);
-        TroopTile tile = newTroops.remove(origin);
-        newTroops.put(origin, tile.flipped());
+        TroopMap newTroops = this.troopMap.with(origin, this.troopMap.get(origin).flipped());
 
         return new BoardTroops(this.playingSide, newTroops, this.leaderPosition, this.guards);
     }
@@ -286,8 +392,7 @@ public class BoardTroops implements JSONSerializable {
         if (this.at(target).isEmpty())
             throw new IllegalArgumentException("No troop at target position.");
 
-        Map<BoardPos, TroopTile> newTroops = new HashMap<>(this.troopMap);
-        newTroops.remove(target);
+        TroopMap newTroops = this.troopMap.without(target);
 
         TilePos newLeaderPosition = target.equals(this.leaderPosition) ? TilePos.OFF_BOARD : this.leaderPosition;
 
@@ -3,6 +3,8 @@ package thedrake.models.troops;
 import thedrake.models.positions.boards.Offset2D;
 import thedrake.models.actions.interfaces.TroopAction;
 import thedrake.models.interfaces.JSONSerializable;
+import thedrake.models.json.JSONReader;
+import thedrake.models.setups.StandardDrakeSetup;
 
 import java.io.PrintWriter;
 import java.util.List;
@@ -100,6 +102,34 @@ public class Troop implements JSONSerializable {
         writer.printf("\"%s\"", this.name);
     }
 
+    /**
+     * Appends the name of the Troop to the builder as a JSON string, see `toJSON(PrintWriter)`.
+     *
+     * @param builder the builder receiving the JSON representation of the Troop
+     */
+    @Override
+    public void toJSON(StringBuilder builder) {
+        builder.append('"').append(this.name).append('"');
+    }
+
+    /**
+     * Parses a Troop from its name written by `toJSON`.
+     *
+     * @param reader                    the reader positioned at the name of the troop
+     * @param setup                     the setup whose troop of the name is returned
+     * @return                          the troop of the setup
+     * @throws IllegalArgumentException if the next token is not a string or the setup has no troop of the name
+     */
+    public static Troop fromJSON(JSONReader reader, StandardDrakeSetup setup) {
+        String name = reader.nextString();
+
+        try {
+            return setup.infoByName(name);
+        } catch (IllegalArgumentException e) {
+            throw reader.error("Unknown troop \"" + name + "\"");
+        }
+    }
+
     /**
      * Returns the name of the troop.
      *
@@ -32,4 +32,14 @@ public enum TroopFace implements JSONSerializable {
     public void toJSON(PrintWriter writer) {
         writer.printf("\"%s\"", this.name());
     }
+
+    /**
+     * Appends the name of the TroopFace to the builder as a JSON string, see `toJSON(PrintWriter)`.
+     *
+     * @param builder the builder receiving the JSON representation of the TroopFace
+     */
+    @Override
+    public void toJSON(StringBuilder builder) {
+        builder.append('"').append(this.name()).append('"');
+    }
 }
@@ -0,0 +1,300 @@
+package thedrake.models.troops;
+
+import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.tiles.troops.TroopTile;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The `TroopMap` class is a persistent map from board positions to troop tiles used by `BoardTroops`.
+ * An army never has more than a handful of troops on the board, so the map keeps its entries in one small
+ * array of alternating keys and values. Every update returns a new map that allocates only that array,
+ * while the positions and troop tiles themselves are shared between all versions of the map.
+ * The map is immutable; the mutating methods of the `Map` interface throw `UnsupportedOperationException`.
+ */
+public final class TroopMap extends AbstractMap<BoardPos, TroopTile> {
+    /**
+     * The map without any troops.
+     */
+    public static final TroopMap EMPTY = new TroopMap(new Object[0]);
+
+    /**
+     * The entries of the map stored as alternating keys and values.
+     */
+    private final Object[] entries;
+
+    /**
+     * Constructs a TroopMap over the given entries. The array is not copied.
+     *
+     * @param entries the alternating keys and values
+     */
+    private TroopMap(Object[] entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Creates a TroopMap with the same entries as the given map. A TroopMap is returned as it is.
+     *
+     * @param map the map to copy
+     * @return    a TroopMap with the entries of the map
+     */
+    public static TroopMap copyOf(Map<BoardPos, TroopTile> map) {
+        if (map instanceof TroopMap)
+            return (TroopMap) map;
+
+        Object[] entries = new Object[map.size() * 2];
+        int index = 0;
+
+        for (Map.Entry<BoardPos, TroopTile> entry : map.entrySet()) {
+            entries[index++] = entry.getKey();
+            entries[index++] = entry.getValue();
+        }
+
+        return new TroopMap(entries);
+    }
+
+    /**
+     * Finds the array index of the given key. Interned positions match by identity, other keys by equality.
+     *
+     * @param key the key to find
+     * @return    the index of the key in the entries, or -1 if it is not present
+     */
+    private int indexOf(Object key) {
+        for (int i = 0; i < this.entries.length; i += 2)
+            if (this.entries[i] == key)
+                return i;
+
+        if (key != null)
+            for (int i = 0; i < this.entries.length; i += 2)
+                if (key.equals(this.entries[i]))
+                    return i;
+
+        return -1;
+    }
+
+    /**
+     * Gets the troop tile at the given position.
+     *
+     * @param key the position to look up
+     * @return    the troop tile at the position, or null if the position is empty
+     */
+    @Override
+    public TroopTile get(Object key) {
+        int index = this.indexOf(key);
+        return index < 0 ? null : (TroopTile) this.entries[index + 1];
+    }
+
+    /**
+     * Checks whether there is a troop at the given position.
+     *
+     * @param key the position to check
+     * @return    true if the position is occupied, false otherwise
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return this.indexOf(key) >= 0;
+    }
+
+    /**
+     * Gets the number of troops in the map.
+     *
+     * @return the number of troops
+     */
+    @Override
+    public int size() {
+        return this.entries.length / 2;
+    }
+
+    /**
+     * Returns a map with the troop tile put at the given position, replacing the previous one if present.
+     *
+     * @param key   the position of the troop
+     * @param value the troop tile
+     * @return      a new TroopMap with the entry
+     */
+    public TroopMap with(BoardPos key, TroopTile value) {
+        int index = this.indexOf(key);
+        Object[] newEntries;
+
+        if (index < 0) {
+            newEntries = new Object[this.entries.length + 2];
+            System.arraycopy(this.entries, 0, newEntries, 0, this.entries.length);
+            index = this.entries.length;
+        }
+        else
+            newEntries = this.entries.clone();
+
+        newEntries[index] = key;
+        newEntries[index + 1] = value;
+
+        return new TroopMap(newEntries);
+    }
+
+    /**
+     * Returns a map with the troop tile at the origin moved to the target position under a new value.
+     * This is a single update of the entry, so a step allocates one new array only.
+     *
+     * @param origin                    the current position of the troop
+     * @param target                    the new position of the troop
+     * @param value                     the troop tile to store at the target
+     * @return                          a new TroopMap with the troop moved
+     * @throws IllegalArgumentException if there is no troop at the origin
+     */
+    public TroopMap moved(BoardPos origin, BoardPos target, TroopTile value) {
+        int index = this.indexOf(origin);
+
+        if (index < 0)
+            throw new IllegalArgumentException("No troop at origin position.");
+
+        Object[] newEntries = this.entries.clone();
+        newEntries[index] = target;
+        newEntries[index + 1] = value;
+
+        return new TroopMap(newEntries);
+    }
+
+    /**
+     * Returns a map without the troop at the given position.
+     *
+     * @param key the position of the troop to remove
+     * @return    a new TroopMap without the entry, or this map if the position is empty
+     */
+    public TroopMap without(BoardPos key) {
+        int index = this.indexOf(key);
+
+        if (index < 0)
+            return this;
+
+        Object[] newEntries = new Object[this.entries.length - 2];
+        System.arraycopy(this.entries, 0, newEntries, 0, index);
+        System.arraycopy(this.entries, index + 2, newEntries, index, this.entries.length - index - 2);
+
+        return new TroopMap(newEntries);
+    }
+
+    /**
+     * Gets a read-only view of the positions of the troops.
+     *
+     * @return a set view of the keys
+     */
+    @Override
+    public Set<BoardPos> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<BoardPos> iterator() {
+                return new EntryIterator<>(0);
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return TroopMap.this.containsKey(o);
+            }
+
+            @Override
+            public int size() {
+                return TroopMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Gets a read-only view of the entries of the map.
+     *
+     * @return a set view of the entries
+     */
+    @Override
+    public Set<Map.Entry<BoardPos, TroopTile>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<BoardPos, TroopTile>> iterator() {
+                return new Iterator<>() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return this.index < TroopMap.this.entries.length;
+                    }
+
+                    @Override
+                    public Map.Entry<BoardPos, TroopTile> next() {
+                        if (!this.hasNext())
+                            throw new NoSuchElementException();
+
+                        this.index += 2;
+                        return new AbstractMap.SimpleImmutableEntry<>(
+                                (BoardPos) TroopMap.this.entries[this.index - 2],
+                                (TroopTile) TroopMap.this.entries[this.index - 1]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return TroopMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Gets a read-only view of the troop tiles.
+     *
+     * @return a collection view of the values
+     */
+    @Override
+    public Collection<TroopTile> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<TroopTile> iterator() {
+                return new EntryIterator<>(1);
+            }
+
+            @Override
+            public int size() {
+                return TroopMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * The `EntryIterator` class iterates over either the keys or the values of the entries array.
+     *
+     * @param <T> the type of the iterated elements
+     */
+    private class EntryIterator<T> implements Iterator<T> {
+        /**
+         * The index of the next element in the entries array.
+         */
+        private int index;
+
+        /**
+         * Constructs an iterator starting at the given offset, 0 for keys and 1 for values.
+         *
+         * @param offset the offset of the first element
+         */
+        private EntryIterator(int offset) {
+            this.index = offset;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.index < TroopMap.this.entries.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!this.hasNext())
+                throw new NoSuchElementException();
+
+            this.index += 2;
+            return (T) TroopMap.this.entries[this.index - 2];
+        }
+    }
+}
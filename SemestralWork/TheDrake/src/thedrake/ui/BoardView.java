@@ -6,29 +6,67 @@ import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
+import javafx.scene.input.KeyCode;
 import javafx.scene.layout.GridPane;
+import thedrake.engines.endgames.Tablebase;
+import thedrake.models.moves.interfaces.BoardMove;
 import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.states.GameResult;
 import thedrake.models.states.GameState;
 import thedrake.models.moves.interfaces.Move;
 import thedrake.models.positions.factories.PositionFactory;
 
 public class BoardView extends GridPane implements TileViewContext {
 
+    private static final double TILE_SIZE = 100; // Size of a tile of boards up to 8x8 in pixels
+
+    private static final double MAX_BOARD_SIZE = 800; // Size of the tiles of a larger board together in pixels
+
+    private final int dimension;
+
     private GameState gameState;
 
     private ValidMoves validMoves;
 
     private TileView selected;
 
+    private final ComputerPlayer computer;
+
+    private final Tablebase tablebase;
+
     public BoardView(GameState gameState) {
+        this(gameState, null);
+    }
+
+    /**
+     * Creates a board on which a computer player plays one side, or two humans play if there is no computer.
+     * @param gameState the state to start from
+     * @param computer  the computer player, or null
+     */
+    public BoardView(GameState gameState, ComputerPlayer computer) {
+        this(gameState, computer, null);
+    }
+
+    /**
+     * Creates a board which shows the best move of an endgame covered by the tablebase when H is pressed.
+     * @param gameState the state to start from
+     * @param computer  the computer player, or null
+     * @param tablebase the endgame tablebase, or null
+     */
+    public BoardView(GameState gameState, ComputerPlayer computer, Tablebase tablebase) {
         this.gameState = gameState;
+        this.computer = computer;
+        this.tablebase = tablebase;
         this.validMoves = new ValidMoves(gameState);
+        this.dimension = gameState.board().dimension();
 
+        // The tiles of large boards shrink so the whole board fits on the screen
+        double tileSize = Math.min(TILE_SIZE, MAX_BOARD_SIZE / this.dimension);
         PositionFactory positionFactory = gameState.board().positionFactory();
-        for (int y = 0; y < 4; y++) {
-            for (int x = 0; x < 4; x++) {
-                BoardPos boardPos = positionFactory.pos(x, 3 - y);
-                add(new TileView(boardPos, gameState.tileAt(boardPos), this), x, y);
+        for (int y = 0; y < this.dimension; y++) {
+            for (int x = 0; x < this.dimension; x++) {
+                BoardPos boardPos = positionFactory.pos(x, this.dimension - 1 - y);
+                add(new TileView(boardPos, gameState.tileAt(boardPos), this, tileSize), x, y);
             }
         }
 
@@ -36,10 +74,23 @@ public class BoardView extends GridPane implements TileViewContext {
         setVgap(5);
         setPadding(new Insets(15));
         setAlignment(Pos.CENTER);
+
+        // Clicking the board gives it the focus, so it receives the key asking for a hint
+        setFocusTraversable(true);
+        setOnMouseClicked(e -> requestFocus());
+        setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.H)
+                showHint();
+        });
+
+        letComputerMove();
     }
 
     @Override
     public void tileViewSelected(TileView tileView) {
+        if (isComputerOnTurn())
+            return;
+
         if (this.selected != null && this.selected != tileView)
             this.selected.unselect();
 
@@ -51,7 +102,8 @@ public class BoardView extends GridPane implements TileViewContext {
 
     @Override
     public void executeMove(Move move) {
-        this.selected.unselect();
+        if (this.selected != null)
+            this.selected.unselect();
         this.selected = null;
 
         clearMoves();
@@ -60,6 +112,48 @@ public class BoardView extends GridPane implements TileViewContext {
         this.validMoves = new ValidMoves(this.gameState);
 
         updateTiles();
+
+        if (this.computer != null && this.gameState.result() != GameResult.IN_PLAY)
+            this.computer.gameOver();
+        else
+            letComputerMove();
+    }
+
+    /**
+     * Stops the computer player and its engine, e.g. when the board is closed.
+     */
+    public void stopComputer() {
+        if (this.computer != null)
+            this.computer.shutdown();
+    }
+
+    private boolean isComputerOnTurn() {
+        return this.computer != null && this.gameState.result() == GameResult.IN_PLAY &&
+                this.gameState.sideOnTurn() == this.computer.side();
+    }
+
+    /**
+     * Lets the computer player search for its move in the background if it is on turn.
+     * The move is executed on the application thread once the search ends.
+     */
+    private void letComputerMove() {
+        if (isComputerOnTurn())
+            this.computer.think(this.gameState, this::executeMove);
+    }
+
+    /**
+     * Selects the troop of the best move of an endgame covered by the tablebase and shows only that move.
+     * Nothing happens outside of the tablebase or while the computer is on turn.
+     */
+    private void showHint() {
+        if (this.tablebase == null || isComputerOnTurn())
+            return;
+
+        this.tablebase.hint(this.gameState).ifPresent(move -> {
+            tileViewAt(((BoardMove) move).origin()).select();
+            clearMoves();
+            showMoves(List.of(move));
+        });
     }
 
     private void updateTiles() {
@@ -83,7 +177,7 @@ public class BoardView extends GridPane implements TileViewContext {
     }
 
     private TileView tileViewAt(BoardPos target) {
-        int index = (3 - target.j()) * 4 + target.i();
+        int index = (this.dimension - 1 - target.j()) * this.dimension + target.i();
         return (TileView) getChildren().get(index);
     }
 
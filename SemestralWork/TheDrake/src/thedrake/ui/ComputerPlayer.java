@@ -0,0 +1,176 @@
+package thedrake.ui;
+
+import javafx.application.Platform;
+import thedrake.engines.interfaces.Engine;
+import thedrake.engines.pondering.PonderingEngine;
+import thedrake.engines.search.SearchResult;
+import thedrake.engines.search.SearchStatistics;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.states.GameState;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * The `ComputerPlayer` class plays one side of the game against a human with any `Engine`. It searches on its own
+ * daemon thread, so the JavaFX application thread stays free while it thinks, and hands the chosen move back
+ * on the application thread. A pondering computer keeps thinking on the human's time, see `PonderingEngine`,
+ * and prints its ponder hit rate and the time saved when the game is over.
+ *
+ * After every search the computer logs one line of the side, the score and the `SearchStatistics` of the search,
+ * e.g. "search side=ORANGE score=35 depth=6 seldepth=14 nodes=81234 ...", and hands the statistics
+ * to a listener such as a `SearchStatisticsView`.
+ */
+public class ComputerPlayer {
+    /**
+     * The side the computer plays.
+     */
+    private final PlayingSide side;
+
+    /**
+     * The time budget of one move in milliseconds.
+     */
+    private final long thinkingTime;
+
+    /**
+     * The engine choosing the moves.
+     */
+    private final Engine engine;
+
+    /**
+     * The engine as a pondering engine, or null if the computer does not ponder.
+     */
+    private final PonderingEngine pondering;
+
+    /**
+     * The thread running the searches.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The cancellation flag of the running search, or null if the computer is not thinking.
+     */
+    private AtomicBoolean cancelled;
+
+    /**
+     * The listener of the statistics of the searches, or null.
+     */
+    private Consumer<SearchStatistics> statisticsListener;
+
+    /**
+     * Constructs a ComputerPlayer.
+     *
+     * @param side         the side the computer plays
+     * @param thinkingTime the time budget of one move in milliseconds
+     * @param engine       the engine choosing the moves
+     */
+    public ComputerPlayer(PlayingSide side, long thinkingTime, Engine engine) {
+        this(side, thinkingTime, engine, false);
+    }
+
+    /**
+     * Constructs a ComputerPlayer which may ponder on the human's time.
+     *
+     * @param side         the side the computer plays
+     * @param thinkingTime the time budget of one move in milliseconds
+     * @param engine       the engine choosing the moves
+     * @param ponder       whether the computer ponders
+     */
+    public ComputerPlayer(PlayingSide side, long thinkingTime, Engine engine, boolean ponder) {
+        this.side = side;
+        this.thinkingTime = thinkingTime;
+        this.pondering = ponder ? new PonderingEngine(engine) : null;
+        this.engine = ponder ? this.pondering : engine;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "computer-player");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the side the computer plays.
+     *
+     * @return the side of the computer
+     */
+    public PlayingSide side() {
+        return this.side;
+    }
+
+    /**
+     * Sets the listener the statistics of every search whose move is handed over are passed to
+     * on the JavaFX application thread, e.g. to show them next to the board.
+     *
+     * @param statisticsListener the listener, or null
+     */
+    public void setStatisticsListener(Consumer<SearchStatistics> statisticsListener) {
+        this.statisticsListener = statisticsListener;
+    }
+
+    /**
+     * Starts searching for a move in the background. Must be called on the JavaFX application thread,
+     * where the chosen move is handed over unless the search is cancelled first.
+     *
+     * @param state  the position to move in
+     * @param onMove the consumer of the chosen move
+     */
+    public void think(GameState state, Consumer<Move> onMove) {
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        this.cancel();
+        this.cancelled = cancelled;
+
+        this.executor.execute(() -> {
+            SearchResult result = this.engine.search(state, this.thinkingTime, cancelled);
+
+            System.out.println("search side=" + this.side + " score=" + result.score() + " " + result.statistics());
+            Platform.runLater(() -> {
+                if (cancelled.get())
+                    return;
+
+                this.cancelled = null;
+                if (this.statisticsListener != null)
+                    this.statisticsListener.accept(result.statistics());
+                if (result.move() != null)
+                    onMove.accept(result.move());
+            });
+        });
+    }
+
+    /**
+     * Stops the running search and pondering when the game is over and prints the pondering statistics
+     * of the game. The statistics are read on the thread of the searches, after the last one.
+     */
+    public void gameOver() {
+        this.cancel();
+
+        if (this.pondering != null)
+            this.executor.execute(() -> {
+                this.pondering.stopPondering();
+                System.out.println("Computer " + this.side + ": " + this.pondering.report());
+            });
+    }
+
+    /**
+     * Stops the running search without handing over its move and stops the threads of the engine.
+     * The engine is stopped on the thread of the searches, so it is never used by two threads at once.
+     */
+    public void shutdown() {
+        this.cancel();
+        this.executor.execute(this.engine::shutdown);
+        this.executor.shutdown();
+    }
+
+    /**
+     * Stops the running search without handing over its move.
+     */
+    public void cancel() {
+        if (this.cancelled != null)
+            this.cancelled.set(true);
+
+        this.cancelled = null;
+    }
+}
@@ -0,0 +1,67 @@
+package thedrake.ui;
+
+import javafx.geometry.Insets;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+import thedrake.engines.search.SearchStatistics;
+import thedrake.models.moves.codes.MoveCodes;
+import thedrake.models.moves.interfaces.Move;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+/**
+ * The `SearchStatisticsView` class is a debug overlay shown next to the `BoardView`, listing the statistics
+ * of the last search of the computer player.
+ */
+public class SearchStatisticsView extends VBox {
+
+    private final Label depth = new Label();
+
+    private final Label nodes = new Label();
+
+    private final Label speed = new Label();
+
+    private final Label table = new Label();
+
+    private final Label cutoffs = new Label();
+
+    private final Label iterations = new Label();
+
+    private final Label variation = new Label();
+
+    public SearchStatisticsView() {
+        super(5);
+
+        setPadding(new Insets(15));
+        setPrefWidth(260);
+        getChildren().addAll(new Label("Last search"), this.depth, this.nodes, this.speed, this.table, this.cutoffs,
+                this.iterations, this.variation);
+
+        this.iterations.setWrapText(true);
+        this.variation.setWrapText(true);
+    }
+
+    /**
+     * Shows the statistics of a search. Must be called on the JavaFX application thread.
+     * @param statistics the statistics of the search
+     */
+    public void show(SearchStatistics statistics) {
+        StringJoiner moves = new StringJoiner(" ");
+        for (Move move : statistics.principalVariation()) {
+            int dimension = move.target().dimension();
+            moves.add(MoveCodes.toString(MoveCodes.encode(move, dimension), dimension));
+        }
+
+        this.depth.setText(String.format("Depth %d (selective %d)", statistics.depth(), statistics.selectiveDepth()));
+        this.nodes.setText(String.format("Nodes %,d (quiescence %,d)", statistics.nodes(),
+                statistics.quiescenceNodes()));
+        this.speed.setText(String.format("%,d nodes/s in %d ms", statistics.nodesPerSecond(), statistics.millis()));
+        this.table.setText(String.format("Table probes %,d, hits %,d, cutoffs %,d", statistics.tableProbes(),
+                statistics.tableHits(), statistics.tableCutoffs()));
+        this.cutoffs.setText(String.format("Beta cutoffs %,d, %.1f%% on the first move", statistics.betaCutoffs(),
+                100 * statistics.firstMoveCutoffRate()));
+        this.iterations.setText("Iterations (ms) " + Arrays.toString(statistics.iterationMillis()));
+        this.variation.setText("Principal variation " + moves);
+    }
+}
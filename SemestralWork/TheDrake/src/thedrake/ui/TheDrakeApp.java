@@ -23,16 +23,38 @@ public class TheDrakeApp extends Application {
         primaryStage.show();
     }
 
-    private static GameState createSampleGameState() {
-        Board board = new Board(4);
+    /**
+     * Creates the state the board starts from: a 4x4 board with one mountain and the leaders and guards
+     * of both sides already placed.
+     *
+     * @return the sample game state
+     */
+    public static GameState createSampleGameState() {
+        return createSampleGameState(4);
+    }
+
+    /**
+     * Creates the sample state on a board of the given dimension: one mountain next to the blue corner
+     * and the leaders in opposite corners, each with its guards on the neighbouring squares.
+     *
+     * @param dimension                 the dimension of the board, at least 4
+     * @return                          the sample game state
+     * @throws IllegalArgumentException if the board is smaller than 4x4
+     */
+    public static GameState createSampleGameState(int dimension) {
+        if (dimension < 4)
+            throw new IllegalArgumentException("The sample board needs a dimension of at least 4.");
+
+        Board board = new Board(dimension);
         PositionFactory positionFactory = board.positionFactory();
+        int last = dimension - 1;
         board = board.withTiles(new Board.TileAt(positionFactory.pos(1, 1), BoardTile.MOUNTAIN));
         return new StandardDrakeSetup().startState(board)
             .placeFromStack(positionFactory.pos(0, 0))
-            .placeFromStack(positionFactory.pos(3, 3))
+            .placeFromStack(positionFactory.pos(last, last))
             .placeFromStack(positionFactory.pos(0, 1))
-            .placeFromStack(positionFactory.pos(3, 2))
+            .placeFromStack(positionFactory.pos(last, last - 1))
             .placeFromStack(positionFactory.pos(1, 0))
-            .placeFromStack(positionFactory.pos(2, 3));
+            .placeFromStack(positionFactory.pos(last - 1, last));
     }
 }
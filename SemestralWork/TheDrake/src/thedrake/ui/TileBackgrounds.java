@@ -4,6 +4,7 @@ import javafx.scene.image.Image;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
 import javafx.scene.layout.BackgroundImage;
+import javafx.scene.layout.BackgroundSize;
 import javafx.scene.paint.Color;
 import thedrake.models.boards.*;
 import thedrake.models.tiles.interfaces.*;
@@ -14,12 +15,16 @@ public class TileBackgrounds {
 
     public static final Background EMPTY_BG = new Background(
             new BackgroundFill(new Color(0.9, 0.9, 0.9, 1), null, null));
+
+    // The images cover the whole tile, so they scale with the tiles of large boards
+    private static final BackgroundSize COVER = new BackgroundSize(1, 1, true, true, false, false);
+
     private final Background mountainBg;
 
     public TileBackgrounds() {
         Image img = new Image(getClass().getResourceAsStream("/assets/mountain.png"));
         this.mountainBg = new Background(
-                new BackgroundImage(img, null, null, null, null));
+                new BackgroundImage(img, null, null, null, COVER));
     }
 
     public Background get(Tile tile) {
@@ -38,7 +43,7 @@ public class TileBackgrounds {
     public Background getTroop(Troop info, PlayingSide side, TroopFace face) {
         TroopImageSet images = new TroopImageSet(info.name());
         BackgroundImage bgImage = new BackgroundImage(
-                images.get(side, face), null, null, null, null);
+                images.get(side, face), null, null, null, COVER);
 
         return new Background(bgImage);
     }
@@ -30,16 +30,29 @@ public class TileView extends Pane {
     private final ImageView moveImage;
 
     public TileView(BoardPos boardPos, Tile tile, TileViewContext tileViewContext) {
+        this(boardPos, tile, tileViewContext, 100);
+    }
+
+    /**
+     * Creates a tile of the given size, to which its images are scaled.
+     * @param boardPos        the position of the tile
+     * @param tile            the tile shown
+     * @param tileViewContext the board the tile belongs to
+     * @param size            the width and height of the tile in pixels
+     */
+    public TileView(BoardPos boardPos, Tile tile, TileViewContext tileViewContext, double size) {
         this.boardPos = boardPos;
         this.tile = tile;
         this.tileViewContext = tileViewContext;
 
-        setPrefSize(100, 100);
+        setPrefSize(size, size);
         update();
 
         setOnMouseClicked(e -> onClick());
 
         this.moveImage = new ImageView(getClass().getResource("/assets/move.png").toString());
+        this.moveImage.setFitWidth(size);
+        this.moveImage.setFitHeight(size);
         this.moveImage.setVisible(false);
         getChildren().add(this.moveImage);
     }
@@ -12,7 +12,9 @@ import thedrake.models.tiles.troops.*;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 public class ValidMoves {
     private final GameState state;
@@ -46,7 +48,8 @@ public class ValidMoves {
                 j = this.state.board().dimension() - 1;
 
             for (int i = 0; i < this.state.board().dimension(); i++)
-                moves.add(new PlaceFromStack(pf.pos(i, j)));
+                if (this.state.canPlaceFromStack(pf.pos(i, j)))
+                    moves.add(new PlaceFromStack(pf.pos(i, j)));
         } else if (armyOnTurn.boardTroops().isPlacingGuards()) {
             TilePos leader = armyOnTurn.boardTroops().leaderPosition();
             TilePos target = leader.step(0, 1);
@@ -65,12 +68,16 @@ public class ValidMoves {
             if (this.state.canPlaceFromStack(target))
                 moves.add(new PlaceFromStack((BoardPos) target));
         } else {
+            Set<BoardPos> targets = new LinkedHashSet<>();
             for (BoardPos pos : armyOnTurn.boardTroops().troopPositions()) {
                 List<BoardPos> neighbours = pos.neighbours();
                 for (BoardPos target : neighbours)
                     if (this.state.canPlaceFromStack(target))
-                        moves.add(new PlaceFromStack(target));
+                        targets.add(target);
             }
+
+            for (BoardPos target : targets)
+                moves.add(new PlaceFromStack(target));
         }
 
         return moves;
@@ -84,4 +91,15 @@ public class ValidMoves {
         moves.addAll(movesFromStack());
         return moves;
     }
+
+    public List<Move> captures() {
+        List<Move> moves = new ArrayList<>();
+        if (this.state.armyOnTurn().boardTroops().isPlacingGuards())
+            return moves;
+
+        for (BoardPos pos : this.state.armyOnTurn().boardTroops().troopPositions())
+            moves.addAll(this.state.armyOnTurn().boardTroops().at(pos).get().capturesFrom(pos, this.state));
+
+        return moves;
+    }
 }
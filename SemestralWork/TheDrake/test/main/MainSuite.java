@@ -10,7 +10,9 @@ import org.junit.runners.Suite;
         suite02.TestSuite.class,
         suite03.TestSuite.class,
         suite04.TestSuite.class,
-        suite05.TestSuite.class
+        suite05.TestSuite.class,
+        suite06.TestSuite.class,
+        suite07.TestSuite.class
 })
 
 public class MainSuite {
@@ -0,0 +1,66 @@
+package suite01;
+
+import org.junit.Test;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.positions.boards.Offset2D;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.positions.interfaces.TilePos;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class PositionFactoryTest {
+
+    @Test
+    public void interning() {
+        PositionFactory pf = new PositionFactory(4);
+
+        // Every position of a board is a single shared instance
+        assertSame(pf.pos(1, 2), pf.pos(1, 2));
+        assertSame(pf.pos(1, 2), pf.pos("b3"));
+        assertSame(pf.pos(1, 2), new PositionFactory(4).pos('b', 3));
+        assertNotSame(pf.pos(1, 2), new PositionFactory(5).pos(1, 2));
+
+        // Positions created directly are still equal to the interned ones
+        assertEquals(new BoardPos(4, 1, 2), pf.pos(1, 2));
+        assertEquals(pf.pos(1, 2), new BoardPos(4, 1, 2));
+    }
+
+    @Test
+    public void stepping() {
+        PositionFactory pf = new PositionFactory(4);
+        BoardPos pos = pf.pos("b2");
+
+        assertSame(pf.pos("c4"), pos.step(1, 2));
+        assertSame(pf.pos("a1"), pos.step(new Offset2D(-1, -1)));
+        assertSame(TilePos.OFF_BOARD, pos.step(3, 0));
+        assertSame(TilePos.OFF_BOARD, pos.step(0, -2));
+
+        // Orange moves are mirrored along the Y-axis
+        assertSame(pf.pos("c3"), pos.stepByPlayingSide(new Offset2D(1, 1), PlayingSide.BLUE));
+        assertSame(pf.pos("c1"), pos.stepByPlayingSide(new Offset2D(1, 1), PlayingSide.ORANGE));
+        assertSame(TilePos.OFF_BOARD, pos.stepByPlayingSide(new Offset2D(0, 2), PlayingSide.ORANGE));
+
+        // Stepping from a position that is not interned returns the interned target
+        assertSame(pf.pos("c2"), new BoardPos(4, 1, 1).step(1, 0));
+    }
+
+    @Test
+    public void neighbours() {
+        PositionFactory pf = new PositionFactory(4);
+
+        assertEquals(Arrays.asList(pf.pos("c2"), pf.pos("a2"), pf.pos("b3"), pf.pos("b1")), pf.pos("b2").neighbours());
+        assertEquals(Arrays.asList(pf.pos("b1"), pf.pos("a2")), pf.pos("a1").neighbours());
+        assertSame(pf.pos("a1").neighbours(), pf.pos("a1").neighbours());
+        assertSame(pf.pos("b1"), pf.pos("a1").neighbours().get(0));
+
+        try {
+            pf.pos("a1").neighbours().clear();
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // The shared neighbour lists cannot be modified
+        }
+    }
+}
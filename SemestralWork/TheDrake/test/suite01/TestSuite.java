@@ -8,6 +8,7 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
         Offset2DTest.class,
         TroopTest.class,
+        PositionFactoryTest.class
 })
 
 public class TestSuite {
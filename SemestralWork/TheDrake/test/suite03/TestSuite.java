@@ -6,7 +6,8 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 
 @Suite.SuiteClasses({
-        BoardTroopsTest.class
+        BoardTroopsTest.class,
+        TroopMapTest.class
 })
 
 public class TestSuite {
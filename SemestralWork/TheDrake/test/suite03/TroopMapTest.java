@@ -0,0 +1,102 @@
+package suite03;
+
+import org.junit.Test;
+import thedrake.models.boards.Board;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.setups.StandardDrakeSetup;
+import thedrake.models.tiles.troops.TroopTile;
+import thedrake.models.troops.TroopFace;
+import thedrake.models.troops.TroopMap;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TroopMapTest {
+
+    @Test
+    public void basicOperations() {
+        PositionFactory pf = new Board(4).positionFactory();
+        StandardDrakeSetup setup = new StandardDrakeSetup();
+        TroopTile drake = new TroopTile(setup.DRAKE, PlayingSide.BLUE, TroopFace.AVERS);
+        TroopTile clubman = new TroopTile(setup.CLUBMAN, PlayingSide.BLUE, TroopFace.AVERS);
+
+        assertTrue(TroopMap.EMPTY.isEmpty());
+        assertNull(TroopMap.EMPTY.get(pf.pos("a1")));
+
+        TroopMap one = TroopMap.EMPTY.with(pf.pos("a1"), drake);
+        TroopMap two = one.with(pf.pos("b1"), clubman);
+        assertEquals(1, one.size());
+        assertEquals(2, two.size());
+        assertSame(drake, two.get(pf.pos("a1")));
+        assertSame(drake, two.get(new BoardPos(4, 0, 0)));
+        assertSame(clubman, two.get(pf.pos("b1")));
+
+        // Starší verze zůstávají beze změny
+        TroopMap moved = two.moved(pf.pos("a1"), pf.pos("a2"), drake.flipped());
+        assertSame(drake, two.get(pf.pos("a1")));
+        assertNull(moved.get(pf.pos("a1")));
+        assertEquals(TroopFace.REVERS, moved.get(pf.pos("a2")).face());
+        assertEquals(2, moved.size());
+
+        TroopMap removed = moved.without(pf.pos("b1"));
+        assertEquals(1, removed.size());
+        assertEquals(2, moved.size());
+        assertSame(removed, removed.without(pf.pos("d4")));
+
+        try {
+            two.moved(pf.pos("c3"), pf.pos("c4"), drake);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Na výchozí pozici nestojí žádná jednotka.
+        }
+
+        try {
+            two.put(pf.pos("c3"), drake);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // Mapa je neměnná.
+        }
+    }
+
+    @Test
+    public void agreesWithHashMap() {
+        PositionFactory pf = new Board(4).positionFactory();
+        StandardDrakeSetup setup = new StandardDrakeSetup();
+        TroopTile[] tiles = {
+                new TroopTile(setup.DRAKE, PlayingSide.BLUE, TroopFace.AVERS),
+                new TroopTile(setup.SPEARMAN, PlayingSide.BLUE, TroopFace.REVERS),
+                new TroopTile(setup.ARCHER, PlayingSide.ORANGE, TroopFace.AVERS)
+        };
+        Random random = new Random(3);
+        Map<BoardPos, TroopTile> expected = new HashMap<>();
+        TroopMap actual = TroopMap.EMPTY;
+
+        for (int i = 0; i < 2000; i++) {
+            BoardPos pos = pf.pos(random.nextInt(4), random.nextInt(4));
+            TroopTile tile = tiles[random.nextInt(tiles.length)];
+
+            if (random.nextBoolean()) {
+                expected.put(pos, tile);
+                actual = actual.with(pos, tile);
+            }
+            else {
+                expected.remove(pos);
+                actual = actual.without(pos);
+            }
+
+            assertEquals(expected, actual);
+            assertEquals(actual, expected);
+            assertEquals(expected.hashCode(), actual.hashCode());
+            assertEquals(expected.keySet(), actual.keySet());
+            assertEquals(new HashSet<>(expected.values()), new HashSet<>(actual.values()));
+            assertSame(actual, TroopMap.copyOf(actual));
+            assertEquals(expected, TroopMap.copyOf(expected));
+        }
+    }
+}
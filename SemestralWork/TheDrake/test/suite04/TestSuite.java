@@ -7,7 +7,8 @@ import org.junit.runners.Suite;
 
 @Suite.SuiteClasses({
         ActionsTest.class,
-        GameStateTest.class
+        GameStateTest.class,
+        ZobristTest.class
 })
 
 public class TestSuite {
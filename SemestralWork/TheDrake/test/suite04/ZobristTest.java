@@ -0,0 +1,128 @@
+package suite04;
+
+import org.junit.Test;
+import thedrake.models.boards.Board;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.moves.stacks.PlaceFromStack;
+import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.setups.StandardDrakeSetup;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.models.states.ZobristKeys;
+import thedrake.models.tiles.interfaces.BoardTile;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ZobristTest {
+
+    private List<Move> legalMoves(GameState state) {
+        List<Move> moves = new ArrayList<>();
+        PositionFactory pf = state.board().positionFactory();
+
+        for (BoardPos pos : state.armyOnTurn().boardTroops().troopPositions())
+            moves.addAll(state.tileAt(pos).movesFrom(pos, state));
+
+        for (int i = 0; i < pf.dimension(); i++)
+            for (int j = 0; j < pf.dimension(); j++)
+                if (state.canPlaceFromStack(pf.pos(i, j)))
+                    moves.add(new PlaceFromStack(pf.pos(i, j)));
+
+        return moves;
+    }
+
+    // JSON bez zajatých jednotek, které do klíče nepatří
+    private String position(GameState state) {
+        StringWriter out = new StringWriter();
+        PrintWriter writer = new PrintWriter(out);
+        state.toJSON(writer);
+        writer.flush();
+        return out.toString().replaceAll("\"captured\":\\[[^]]*]", "") + state.sideOnTurn();
+    }
+
+    private void playRandomGames(Board board, long seed, int games) {
+        Random random = new Random(seed);
+        Map<Long, String> seen = new HashMap<>();
+
+        for (int game = 0; game < games; game++) {
+            GameState state = new StandardDrakeSetup().startState(board);
+
+            for (int ply = 0; ply < 150; ply++) {
+                assertEquals(ZobristKeys.of(state), state.zobristKey());
+
+                // Stejný klíč musí znamenat stejnou pozici
+                String previous = seen.putIfAbsent(state.zobristKey(), position(state));
+                if (previous != null)
+                    assertEquals(previous, position(state));
+
+                if (state.result() != GameResult.IN_PLAY)
+                    break;
+
+                assertEquals(ZobristKeys.of(state.draw()), state.draw().zobristKey());
+                assertEquals(ZobristKeys.of(state.resign()), state.resign().zobristKey());
+                assertNotEquals(state.zobristKey(), state.draw().zobristKey());
+
+                List<Move> moves = legalMoves(state);
+                if (moves.isEmpty())
+                    break;
+
+                state = moves.get(random.nextInt(moves.size())).execute(state);
+            }
+        }
+    }
+
+    @Test
+    public void incrementalKeysMatchScratch() {
+        Board board = new Board(4);
+        PositionFactory pf = board.positionFactory();
+        board = board.withTiles(
+                new Board.TileAt(pf.pos("b2"), BoardTile.MOUNTAIN),
+                new Board.TileAt(pf.pos("d3"), BoardTile.MOUNTAIN));
+
+        playRandomGames(board, 3, 100);
+        playRandomGames(new Board(3), 4, 50);
+        playRandomGames(new Board(5), 5, 50);
+        playRandomGames(new Board(8), 6, 10);
+    }
+
+    @Test
+    public void transpositionsShareKey() {
+        Board board = new Board(4);
+        PositionFactory pf = board.positionFactory();
+        GameState start = new StandardDrakeSetup().startState(board);
+
+        GameState opening = start
+                .placeFromStack(pf.pos("a1"))
+                .placeFromStack(pf.pos("a4"))
+                .placeFromStack(pf.pos("b1"))
+                .placeFromStack(pf.pos("b4"))
+                .placeFromStack(pf.pos("a2"))
+                .placeFromStack(pf.pos("a3"));
+
+        // Oba strážci obejdou čtverec a vrátí se na svá místa, pozice se opakuje
+        GameState repeated = opening
+                .stepOnly(pf.pos("b1"), pf.pos("c1"))
+                .stepOnly(pf.pos("b4"), pf.pos("c4"))
+                .stepOnly(pf.pos("c1"), pf.pos("b2"))
+                .stepOnly(pf.pos("c4"), pf.pos("b3"))
+                .stepOnly(pf.pos("b2"), pf.pos("c2"))
+                .stepOnly(pf.pos("b3"), pf.pos("c3"))
+                .stepOnly(pf.pos("c2"), pf.pos("b1"))
+                .stepOnly(pf.pos("c3"), pf.pos("b4"));
+        assertEquals(position(opening), position(repeated));
+        assertEquals(opening.zobristKey(), repeated.zobristKey());
+
+        // Jiná pozice má jiný klíč
+        GameState other = opening.stepOnly(pf.pos("b1"), pf.pos("c1"));
+        assertNotEquals(opening.zobristKey(), other.zobristKey());
+        assertNotEquals(opening.zobristKey(), start.zobristKey());
+    }
+}
@@ -0,0 +1,125 @@
+package suite05;
+
+import org.junit.Test;
+import thedrake.engines.perft.Perft;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.interfaces.JSONSerializable;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.positions.interfaces.TilePos;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.models.tiles.interfaces.BoardTile;
+import thedrake.ui.ValidMoves;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class JSONBuilderTest {
+
+    private String printed(JSONSerializable value) {
+        StringWriter out = new StringWriter();
+        PrintWriter writer = new PrintWriter(out);
+        value.toJSON(writer);
+        writer.flush();
+        return out.toString();
+    }
+
+    private String built(JSONSerializable value) {
+        StringBuilder builder = new StringBuilder();
+        value.toJSON(builder);
+        return builder.toString();
+    }
+
+    private void assertSameJSON(JSONSerializable value) {
+        assertEquals(printed(value), built(value));
+    }
+
+    @Test
+    public void matchesPrintWriterAlongRandomGames() {
+        Random random = new Random(25);
+
+        // Na desce 10x10 a větší se řadí "a10" před "a2", stejně jako v TreeMap
+        for (int dimension : new int[] { 4, 5, 10, 12 }) {
+            GameState state = Perft.startState(dimension, List.of("b2"));
+
+            for (int ply = 0; ply < 80 && state.result() == GameResult.IN_PLAY; ply++) {
+                assertSameJSON(state);
+                assertSameJSON(state.board());
+
+                for (PlayingSide side : PlayingSide.values()) {
+                    assertSameJSON(state.army(side));
+                    assertSameJSON(state.army(side).boardTroops());
+                    assertSameJSON(state.army(side).boardTroops().leaderPosition());
+                }
+
+                List<Move> moves = new ValidMoves(state).allMoves();
+                if (moves.isEmpty())
+                    break;
+
+                state = moves.get(random.nextInt(moves.size())).execute(state);
+            }
+
+            assertSameJSON(state);
+            assertSameJSON(state.result());
+            assertSameJSON(state.sideOnTurn());
+        }
+    }
+
+    @Test
+    public void matchesPrintWriterForConstants() {
+        assertSameJSON(TilePos.OFF_BOARD);
+        assertSameJSON(BoardTile.EMPTY);
+        assertSameJSON(BoardTile.MOUNTAIN);
+
+        for (GameResult result : GameResult.values())
+            assertSameJSON(result);
+        for (PlayingSide side : PlayingSide.values())
+            assertSameJSON(side);
+    }
+
+    @Test
+    public void builderIsAppended() {
+        GameState state = Perft.startState(4, List.of("b2"));
+        StringBuilder builder = new StringBuilder("[");
+
+        state.toJSON(builder);
+        builder.append(',');
+        state.board().toJSON(builder);
+        builder.append(']');
+
+        assertEquals("[" + printed(state) + "," + printed(state.board()) + "]", builder.toString());
+
+        // Znovupoužitý builder po vyčištění zapíše totéž
+        builder.setLength(0);
+        state.toJSON(builder);
+        assertEquals(printed(state), builder.toString());
+    }
+
+    @Test
+    public void nameOrderSortsLikeNames() {
+        for (int dimension = 1; dimension <= PositionFactory.MAX_DIMENSION; dimension++) {
+            PositionFactory pf = new PositionFactory(dimension);
+            List<BoardPos> positions = new ArrayList<>();
+
+            for (int i = 0; i < dimension; i++)
+                for (int j = 0; j < dimension; j++)
+                    positions.add(pf.pos(i, j));
+
+            List<BoardPos> byName = new ArrayList<>(positions);
+            byName.sort((a, b) -> a.toString().compareTo(b.toString()));
+            positions.sort(PositionFactory.NAME_ORDER);
+
+            assertEquals(byName, positions);
+        }
+
+        // Pozice mimo internované desky se porovnávají podle jmen
+        assertTrue(PositionFactory.NAME_ORDER.compare(new BoardPos(30, 0, 9), new BoardPos(30, 0, 1)) < 0);
+    }
+}
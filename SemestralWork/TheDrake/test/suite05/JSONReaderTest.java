@@ -0,0 +1,246 @@
+package suite05;
+
+import org.junit.Test;
+import thedrake.models.boards.Army;
+import thedrake.models.boards.Board;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.json.JSONReader;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.moves.stacks.PlaceFromStack;
+import thedrake.models.moves.steps.StepAndCapture;
+import thedrake.models.moves.steps.StepOnly;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.setups.StandardDrakeSetup;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.models.tiles.interfaces.BoardTile;
+import thedrake.models.tiles.troops.TroopTile;
+import thedrake.models.troops.BoardTroops;
+import thedrake.ui.ValidMoves;
+
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JSONReaderTest {
+
+    private final StandardDrakeSetup setup = new StandardDrakeSetup();
+
+    private String json(GameState state) {
+        StringWriter out = new StringWriter();
+        PrintWriter writer = new PrintWriter(out);
+        state.toJSON(writer);
+        writer.flush();
+        return out.toString();
+    }
+
+    // Stavy ze suite05 JSONTest, od prázdné desky až po vítězství
+    private List<GameState> states() {
+        Board board = new Board(4);
+        PositionFactory pf = board.positionFactory();
+        board = board.withTiles(
+                new Board.TileAt(pf.pos(1, 1), BoardTile.MOUNTAIN),
+                new Board.TileAt(pf.pos(3, 2), BoardTile.MOUNTAIN));
+
+        List<Move> moves = List.of(
+                new PlaceFromStack(pf.pos("a1")),
+                new PlaceFromStack(pf.pos("a4")),
+                new PlaceFromStack(pf.pos("b1")),
+                new PlaceFromStack(pf.pos("a3")),
+                new PlaceFromStack(pf.pos("a2")),
+                new PlaceFromStack(pf.pos("b4")),
+                new PlaceFromStack(pf.pos("c1")),
+                new PlaceFromStack(pf.pos("b3")),
+                new StepAndCapture(pf.pos("a2"), pf.pos("a3")),
+                new PlaceFromStack(pf.pos("c4")),
+                new StepOnly(pf.pos("c1"), pf.pos("d2")),
+                new StepOnly(pf.pos("c4"), pf.pos("c3")),
+                new PlaceFromStack(pf.pos("c1")),
+                new StepOnly(pf.pos("b3"), pf.pos("c2")),
+                new PlaceFromStack(pf.pos("a2")),
+                new PlaceFromStack(pf.pos("c4")),
+                new StepOnly(pf.pos("d2"), pf.pos("d1")),
+                new StepOnly(pf.pos("c2"), pf.pos("d2")),
+                new StepAndCapture(pf.pos("d1"), pf.pos("a4")));
+
+        List<GameState> states = new ArrayList<>();
+        states.add(this.setup.startState(board));
+        for (Move move : moves)
+            states.add(move.execute(states.get(states.size() - 1)));
+
+        return states;
+    }
+
+    @Test
+    public void roundTripsAllStates() {
+        List<GameState> states = states();
+        assertEquals(GameResult.VICTORY, states.get(states.size() - 1).result());
+
+        for (GameState state : states) {
+            String json = json(state);
+            GameState parsed = GameState.fromJSON(new JSONReader(json), this.setup, state.sideOnTurn());
+
+            assertEquals(json, json(parsed));
+            assertEquals(state.sideOnTurn(), parsed.sideOnTurn());
+            assertEquals(state.result(), parsed.result());
+            assertEquals(state.zobristKey(), parsed.zobristKey());
+        }
+    }
+
+    @Test
+    public void guessesSideOnTurnDuringSetup() {
+        List<GameState> states = states();
+
+        // Během rozmisťování vůdců a stráží se strana na tahu pozná podle zásobníků
+        for (GameState state : states.subList(0, 6)) {
+            GameState parsed = GameState.fromJSON(new JSONReader(json(state)), this.setup);
+
+            assertEquals(state.sideOnTurn(), parsed.sideOnTurn());
+            assertEquals(state.zobristKey(), parsed.zobristKey());
+        }
+
+        // Po rozmístění stráží se strana na tahu ze stavu poznat nedá, musí být zadána
+        for (GameState state : states.subList(6, states.size())) {
+            try {
+                GameState.fromJSON(new JSONReader(json(state)), this.setup);
+                fail();
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains(" at offset "));
+            }
+
+            GameState parsed = GameState.fromJSON(json(state), this.setup, state.sideOnTurn());
+            assertEquals(state.zobristKey(), parsed.zobristKey());
+        }
+    }
+
+    @Test
+    public void parsedStatePlaysOn() {
+        GameState state = states().get(12);
+        GameState parsed = GameState.fromJSON(new JSONReader(json(state)), this.setup, state.sideOnTurn());
+
+        // Jednotky jsou jednotky sestavy, takže se s načteným stavem dá dál hrát
+        for (PlayingSide side : PlayingSide.values()) {
+            BoardTroops troops = parsed.army(side).boardTroops();
+            for (TroopTile tile : troops.troopPositions().stream().map(pos -> troops.at(pos).get()).toList())
+                assertSame(this.setup.infoByName(tile.troop().name()), tile.troop());
+
+            assertEquals(state.army(side).stack(), parsed.army(side).stack());
+        }
+
+        List<Move> moves = new ValidMoves(state).allMoves();
+        assertEquals(moves.size(), new ValidMoves(parsed).allMoves().size());
+        for (Move move : moves)
+            assertEquals(json(move.execute(state)), json(move.execute(parsed)));
+    }
+
+    @Test
+    public void readsStreamInChunks() {
+        GameState state = states().get(15);
+        String json = json(state);
+
+        // Čtenář vrací po jednom znaku, takže se buffer doplňuje uprostřed každého tokenu
+        Reader slow = new StringReader(json) {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws java.io.IOException {
+                return super.read(buffer, offset, Math.min(length, 1));
+            }
+        };
+
+        JSONReader reader = new JSONReader(slow);
+        GameState parsed = GameState.fromJSON(reader, this.setup, state.sideOnTurn());
+        reader.endDocument();
+        assertEquals(json, json(parsed));
+    }
+
+    @Test
+    public void acceptsWhitespaceAndMemberOrder() {
+        String json = "{ \"face\" : \"REVERS\",\n \"side\":\"BLUE\" ,\t\"troop\" : \"Archer\" }";
+        TroopTile tile = TroopTile.fromJSON(new JSONReader(json), this.setup);
+
+        assertSame(this.setup.ARCHER, tile.troop());
+        assertEquals(PlayingSide.BLUE, tile.side());
+
+        Board board = Board.fromJSON(new JSONReader(
+                "{\"tiles\":[\"empty\",\"mountain\",\"empty\",\"empty\"],\"dimension\":2}"));
+        assertEquals(BoardTile.MOUNTAIN, board.at(board.positionFactory().pos("b1")));
+        assertEquals(BoardTile.EMPTY, board.at(board.positionFactory().pos("a2")));
+
+        BoardTroops troops = BoardTroops.fromJSON(new JSONReader(
+                "{\"troopMap\":{},\"guards\":0,\"leaderPosition\":\"off-board\",\"side\":\"ORANGE\"}"),
+                this.setup, board.positionFactory());
+        assertFalse(troops.isLeaderPlaced());
+
+        Army army = Army.fromJSON(new JSONReader(
+                "{\"captured\":[\"Drake\"],\"stack\":[],\"boardTroops\":{\"side\":\"BLUE\"," +
+                        "\"leaderPosition\":\"b2\",\"guards\":2,\"troopMap\":{}}}"),
+                this.setup, board.positionFactory());
+        assertEquals(List.of(this.setup.DRAKE), army.captured());
+        assertEquals(board.positionFactory().pos("b2"), army.boardTroops().leaderPosition());
+    }
+
+    @Test
+    public void readerTokens() {
+        JSONReader reader = new JSONReader("{\"a\\\"b\\u0041\":[-12, 0 ,2147483647],\"c\":\"\\n\\/\"}");
+
+        reader.beginObject();
+        assertTrue(reader.hasNext());
+        assertEquals("a\"bA", reader.nextName());
+        reader.beginArray();
+        assertTrue(reader.hasNext());
+        assertEquals(-12, reader.nextInt());
+        assertTrue(reader.hasNext());
+        assertEquals(0, reader.nextInt());
+        assertTrue(reader.hasNext());
+        assertEquals(Integer.MAX_VALUE, reader.nextInt());
+        assertFalse(reader.hasNext());
+        reader.endArray();
+        assertTrue(reader.hasNext());
+        assertEquals("c", reader.nextName());
+        assertEquals("\n/", reader.nextString());
+        assertFalse(reader.hasNext());
+        reader.endObject();
+        reader.endDocument();
+    }
+
+    private void assertInvalid(String json) {
+        try {
+            GameState.fromJSON(json, this.setup, PlayingSide.ORANGE);
+            fail(json);
+        } catch (IllegalArgumentException e) {
+            // Chyba nese pozici ve vstupu
+            assertTrue(e.getMessage(), e.getMessage().contains(" at offset "));
+        }
+    }
+
+    @Test
+    public void rejectsInvalidInput() {
+        String json = json(states().get(5));
+
+        assertInvalid("");
+        assertInvalid(json.substring(0, json.length() - 1));
+        assertInvalid(json + "}");
+        assertInvalid(json.replace("\"dimension\":4", "\"dimension\":5"));
+        assertInvalid(json.replace("\"dimension\":4", "\"dimension\":99999999999"));
+        assertInvalid(json.replace("\"Clubman\"", "\"Knight\""));
+        assertInvalid(json.replace("\"BLUE\"", "\"GREEN\""));
+        assertInvalid(json.replace("\"mountain\"", "\"lake\""));
+        assertInvalid(json.replace("\"a1\"", "\"e1\""));
+        assertInvalid(json.replace("\"a1\"", "\"a0\""));
+        assertInvalid(json.replace("\"a1\"", "\"a1x\""));
+        assertInvalid(json.replace("\"guards\":", "\"guardz\":"));
+        assertInvalid(json.replace(",\"captured\":[]", ""));
+        assertInvalid(json.replace("],\"captured\"", "],,\"captured\""));
+        assertInvalid(json.replace("\"result\":\"IN_PLAY\",", "").replace("}}}", "},\"result\":\"IN_PLAY\"}}"));
+
+        // Armády musí následovat až za deskou, jejíž pozice používají
+        int board = json.indexOf(",\"board\":");
+        int blue = json.indexOf(",\"blueArmy\":");
+        assertInvalid("{" + json.substring(blue + 1, json.length() - 1) + json.substring(board, blue) +
+                "," + json.substring(1, board) + "}");
+    }
+}
@@ -6,7 +6,9 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 
 @Suite.SuiteClasses({
-        JSONTest.class
+        JSONTest.class,
+        JSONReaderTest.class,
+        JSONBuilderTest.class
 })
 
 public class TestSuite {
@@ -0,0 +1,269 @@
+package suite06;
+
+import org.junit.Test;
+import thedrake.models.bitboards.states.BitBoardState;
+import thedrake.models.boards.Army;
+import thedrake.models.boards.Board;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.positions.interfaces.TilePos;
+import thedrake.models.setups.StandardDrakeSetup;
+import thedrake.models.states.GameState;
+import thedrake.models.tiles.interfaces.BoardTile;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BitBoardGameStateTest {
+
+    private BitBoardState createTestState() {
+        Board board = new Board(3);
+        PositionFactory pf = board.positionFactory();
+        board = board.withTiles(new Board.TileAt(pf.pos("a3"), BoardTile.MOUNTAIN));
+        return BitBoardState.of(new StandardDrakeSetup().startState(board));
+    }
+
+    private BitBoardState createTestStateWithoutMountain() {
+        Board board = new Board(3);
+        PositionFactory pf = board.positionFactory();
+        return BitBoardState.of(new StandardDrakeSetup().startState(board));
+    }
+
+    @Test
+    public void introGame() {
+        BitBoardState state = createTestState();
+        PositionFactory pf = new PositionFactory(state.dimension());
+
+        assertFalse(state.canPlaceFromStack(TilePos.OFF_BOARD));
+
+        // Placing the blue leader
+        assertTrue(state.canPlaceFromStack(pf.pos("a1")));
+        assertTrue(state.canPlaceFromStack(pf.pos("b1")));
+        assertTrue(state.canPlaceFromStack(pf.pos("c1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("a2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("b2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("a3")));
+        assertFalse(state.canPlaceFromStack(pf.pos("b3")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c3")));
+
+        state = state.placeFromStack(pf.pos("a1"));
+
+        // Placing the orange leader
+        assertFalse(state.canPlaceFromStack(pf.pos("a1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("b1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("a2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("b2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("a3")));
+        assertTrue(state.canPlaceFromStack(pf.pos("b3")));
+        assertTrue(state.canPlaceFromStack(pf.pos("c3")));
+
+        state = state.placeFromStack(pf.pos("c3"));
+
+        // Placing first blue guard
+        assertFalse(state.canPlaceFromStack(pf.pos("a1")));
+        assertTrue(state.canPlaceFromStack(pf.pos("b1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c1")));
+        assertTrue(state.canPlaceFromStack(pf.pos("a2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("b2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("a3")));
+        assertFalse(state.canPlaceFromStack(pf.pos("b3")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c3")));
+
+        // No steps or capturing before guards are placed
+        assertFalse(state.canStep(pf.pos("a1"), pf.pos("a2")));
+        assertFalse(state.canCapture(pf.pos("a1"), pf.pos("c3")));
+
+        state = state.placeFromStack(pf.pos("a2"));
+
+        // Placing first orange guard
+        assertFalse(state.canPlaceFromStack(pf.pos("a1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("b1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("a2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("b2")));
+        assertTrue(state.canPlaceFromStack(pf.pos("c2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("a3")));
+        assertTrue(state.canPlaceFromStack(pf.pos("b3")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c3")));
+
+        // No steps or capturing before guards are placed
+        assertFalse(state.canStep(pf.pos("c3"), pf.pos("c2")));
+        assertFalse(state.canCapture(pf.pos("c3"), pf.pos("a1")));
+
+        state = state.placeFromStack(pf.pos("b3"));
+
+        // Placing second blue guard
+        assertFalse(state.canPlaceFromStack(pf.pos("a1")));
+        assertTrue(state.canPlaceFromStack(pf.pos("b1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("a2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("b2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("a3")));
+        assertFalse(state.canPlaceFromStack(pf.pos("b3")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c3")));
+
+        state = state.placeFromStack(pf.pos("b1"));
+
+        // Placing second orange guard
+        assertFalse(state.canPlaceFromStack(pf.pos("a1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("b1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("a2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("b2")));
+        assertTrue(state.canPlaceFromStack(pf.pos("c2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("a3")));
+        assertFalse(state.canPlaceFromStack(pf.pos("b3")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c3")));
+
+        state = state.placeFromStack(pf.pos("c2"));
+    }
+
+    @Test
+    public void middleGameBlue() {
+        BitBoardState state = createTestState();
+        PositionFactory pf = new PositionFactory(state.dimension());
+
+        state = state
+                .placeFromStack(pf.pos("a1"))
+                .placeFromStack(pf.pos("c3"))
+                .placeFromStack(pf.pos("a2"))
+                .placeFromStack(pf.pos("b3"))
+                .placeFromStack(pf.pos("b1"))
+                .placeFromStack(pf.pos("c2"));
+
+        // Placing blue troop
+        assertFalse(state.canPlaceFromStack(pf.pos("a1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("b1")));
+        assertTrue(state.canPlaceFromStack(pf.pos("c1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("a2")));
+        assertTrue(state.canPlaceFromStack(pf.pos("b2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("a3")));
+        assertFalse(state.canPlaceFromStack(pf.pos("b3")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c3")));
+
+        // Stepping with blue troop
+        assertFalse(state.canStep(pf.pos("a1"), pf.pos("a3")));
+        assertTrue(state.canStep(pf.pos("a1"), pf.pos("b2")));
+        assertTrue(state.canStep(pf.pos("a1"), pf.pos("c1")));
+        assertFalse(state.canStep(pf.pos("a1"), pf.pos("a1")));
+        assertFalse(state.canStep(pf.pos("a1"), pf.pos("a2")));
+        assertFalse(state.canStep(pf.pos("a1"), pf.pos("b1")));
+        assertFalse(state.canStep(pf.pos("a1"), pf.pos("b3")));
+        assertFalse(state.canStep(pf.pos("a1"), pf.pos("c2")));
+        assertFalse(state.canStep(pf.pos("a1"), pf.pos("c3")));
+
+        // Capturing with blue troop
+        assertFalse(state.canCapture(pf.pos("a1"), pf.pos("a3")));
+        assertFalse(state.canCapture(pf.pos("a1"), pf.pos("b2")));
+        assertFalse(state.canCapture(pf.pos("a1"), pf.pos("c1")));
+        assertFalse(state.canCapture(pf.pos("a1"), pf.pos("a1")));
+        assertFalse(state.canCapture(pf.pos("a1"), pf.pos("a2")));
+        assertFalse(state.canCapture(pf.pos("a1"), pf.pos("b1")));
+        assertTrue(state.canCapture(pf.pos("a1"), pf.pos("b3")));
+        assertTrue(state.canCapture(pf.pos("a1"), pf.pos("c2")));
+        assertTrue(state.canCapture(pf.pos("a1"), pf.pos("c3")));
+
+        // Boundaries
+        assertFalse(state.canStep(TilePos.OFF_BOARD, pf.pos("b2")));
+        assertFalse(state.canStep(pf.pos("a1"), TilePos.OFF_BOARD));
+
+        assertFalse(state.canCapture(TilePos.OFF_BOARD, pf.pos("c3")));
+        assertFalse(state.canCapture(pf.pos("a1"), TilePos.OFF_BOARD));
+    }
+
+    @Test
+    public void middleGameBlueWithoutMountain() {
+        BitBoardState state = createTestStateWithoutMountain();
+        PositionFactory pf = new PositionFactory(state.dimension());
+        state = state
+                .placeFromStack(pf.pos("b1"))
+                .placeFromStack(pf.pos("c3"))
+                .placeFromStack(pf.pos("a1"))
+                .placeFromStack(pf.pos("b3"))
+                .placeFromStack(pf.pos("c1"))
+                .placeFromStack(pf.pos("c2"));
+
+        // Placing blue troop
+        assertFalse(state.canPlaceFromStack(pf.pos("a1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("b1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c1")));
+        assertTrue(state.canPlaceFromStack(pf.pos("a2")));
+        assertTrue(state.canPlaceFromStack(pf.pos("b2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("a3"))); //not next to already placed unit
+        assertFalse(state.canPlaceFromStack(pf.pos("b3")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c3")));
+    }
+
+    @Test
+    public void middleGameOrange() {
+        BitBoardState state = createTestState();
+        PositionFactory pf = new PositionFactory(state.dimension());
+
+        state = state
+                .placeFromStack(pf.pos("a1"))
+                .placeFromStack(pf.pos("c3"))
+                .placeFromStack(pf.pos("a2"))
+                .placeFromStack(pf.pos("b3"))
+                .placeFromStack(pf.pos("b1"))
+                .placeFromStack(pf.pos("c2"))
+                .placeFromStack(pf.pos("b2"));
+
+        // Placing orange troop
+        assertFalse(state.canPlaceFromStack(pf.pos("a1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("b1")));
+        assertTrue(state.canPlaceFromStack(pf.pos("c1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("a2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("b2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c2")));
+        assertFalse(state.canPlaceFromStack(pf.pos("a3")));
+        assertFalse(state.canPlaceFromStack(pf.pos("b3")));
+        assertFalse(state.canPlaceFromStack(pf.pos("c3")));
+
+        // Stepping with orange troop
+        assertFalse(state.canStep(pf.pos("c3"), pf.pos("a3")));
+        assertFalse(state.canStep(pf.pos("c3"), pf.pos("b2")));
+        assertTrue(state.canStep(pf.pos("c3"), pf.pos("c1")));
+        assertFalse(state.canStep(pf.pos("c3"), pf.pos("a1")));
+        assertFalse(state.canStep(pf.pos("c3"), pf.pos("a2")));
+        assertFalse(state.canStep(pf.pos("c3"), pf.pos("b1")));
+        assertFalse(state.canStep(pf.pos("c3"), pf.pos("b3")));
+        assertFalse(state.canStep(pf.pos("c3"), pf.pos("c2")));
+        assertFalse(state.canStep(pf.pos("c3"), pf.pos("c3")));
+
+        // Capturing with orange troop
+        assertFalse(state.canCapture(pf.pos("c3"), pf.pos("a3")));
+        assertTrue(state.canCapture(pf.pos("c3"), pf.pos("b2")));
+        assertFalse(state.canCapture(pf.pos("c3"), pf.pos("c1")));
+        assertTrue(state.canCapture(pf.pos("c3"), pf.pos("a1")));
+        assertTrue(state.canCapture(pf.pos("c3"), pf.pos("a2")));
+        assertTrue(state.canCapture(pf.pos("c3"), pf.pos("b1")));
+        assertFalse(state.canCapture(pf.pos("c3"), pf.pos("b3")));
+        assertFalse(state.canCapture(pf.pos("c3"), pf.pos("c2")));
+        assertFalse(state.canCapture(pf.pos("c3"), pf.pos("c3")));
+    }
+
+    @Test
+    public void emptyStack() {
+        Board board = new Board(3);
+        PositionFactory pf = board.positionFactory();
+
+        BitBoardState state = BitBoardState.of(new GameState(
+                board,
+                new Army(PlayingSide.BLUE, Collections.emptyList()),
+                new Army(PlayingSide.ORANGE, Collections.emptyList())
+        ));
+
+        // No placing from an empty stack
+        assertFalse(state.canPlaceFromStack(pf.pos("a1")));
+        assertFalse(state.canPlaceFromStack(pf.pos("a1")));
+    }
+}
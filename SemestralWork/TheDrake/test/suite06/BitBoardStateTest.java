@@ -0,0 +1,128 @@
+package suite06;
+
+import org.junit.Test;
+import thedrake.models.bitboards.states.BitBoardState;
+import thedrake.models.boards.Board;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.moves.stacks.PlaceFromStack;
+import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.setups.StandardDrakeSetup;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.models.tiles.interfaces.BoardTile;
+import thedrake.models.tiles.interfaces.Tile;
+import thedrake.models.tiles.troops.TroopTile;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class BitBoardStateTest {
+
+    private String json(GameState state) {
+        StringWriter out = new StringWriter();
+        PrintWriter writer = new PrintWriter(out);
+        state.toJSON(writer);
+        writer.flush();
+        return out.toString();
+    }
+
+    private List<Move> legalMoves(GameState state) {
+        List<Move> moves = new ArrayList<>();
+        PositionFactory pf = state.board().positionFactory();
+
+        for (BoardPos pos : state.armyOnTurn().boardTroops().troopPositions())
+            moves.addAll(state.tileAt(pos).movesFrom(pos, state));
+
+        for (int i = 0; i < pf.dimension(); i++)
+            for (int j = 0; j < pf.dimension(); j++)
+                if (state.canPlaceFromStack(pf.pos(i, j)))
+                    moves.add(new PlaceFromStack(pf.pos(i, j)));
+
+        return moves;
+    }
+
+    private void assertAgrees(GameState expected, BitBoardState actual) {
+        PositionFactory pf = expected.board().positionFactory();
+        int dimension = pf.dimension();
+
+        assertSame(expected.sideOnTurn(), actual.sideOnTurn());
+        assertSame(expected.result(), actual.result());
+        assertEquals(json(expected), json(actual.toGameState()));
+
+        for (int origin = 0; origin < dimension * dimension; origin++) {
+            BoardPos from = pf.pos(origin % dimension, origin / dimension);
+            Tile expectedTile = expected.tileAt(from);
+            Tile actualTile = actual.tileAt(from);
+
+            if (expectedTile.hasTroop()) {
+                assertSame(((TroopTile) expectedTile).troop(), ((TroopTile) actualTile).troop());
+                assertSame(((TroopTile) expectedTile).side(), ((TroopTile) actualTile).side());
+                assertSame(((TroopTile) expectedTile).face(), ((TroopTile) actualTile).face());
+                assertEquals(
+                        new HashSet<>(expectedTile.movesFrom(from, expected)),
+                        new HashSet<>(actual.movesFrom(from)));
+            }
+            else
+                assertSame(expectedTile, actualTile);
+
+            assertEquals(expected.canPlaceFromStack(from), actual.canPlaceFromStack(from));
+
+            for (int target = 0; target < dimension * dimension; target++) {
+                BoardPos to = pf.pos(target % dimension, target / dimension);
+                assertEquals(expected.canStep(from, to), actual.canStep(from, to));
+                assertEquals(expected.canCapture(from, to), actual.canCapture(from, to));
+            }
+        }
+
+        assertEquals(new HashSet<>(legalMoves(expected)), new HashSet<>(actual.allMoves()));
+    }
+
+    private void playRandomGames(Board board, long seed, int games) {
+        Random random = new Random(seed);
+
+        for (int game = 0; game < games; game++) {
+            GameState expected = new StandardDrakeSetup().startState(board);
+            BitBoardState actual = BitBoardState.of(expected);
+
+            for (int ply = 0; ply < 120 && expected.result() == GameResult.IN_PLAY; ply++) {
+                assertAgrees(expected, actual);
+
+                List<Move> moves = legalMoves(expected);
+                if (moves.isEmpty())
+                    break;
+
+                Move move = moves.get(random.nextInt(moves.size()));
+                expected = move.execute(expected);
+                actual = actual.execute(move);
+            }
+
+            assertAgrees(expected, actual);
+        }
+    }
+
+    @Test
+    public void randomGamesStandardBoard() {
+        Board board = new Board(4);
+        PositionFactory pf = board.positionFactory();
+        board = board.withTiles(
+                new Board.TileAt(pf.pos("b2"), BoardTile.MOUNTAIN),
+                new Board.TileAt(pf.pos("d3"), BoardTile.MOUNTAIN));
+
+        playRandomGames(board, 42, 30);
+    }
+
+    @Test
+    public void randomGamesOtherDimensions() {
+        playRandomGames(new Board(3), 7, 20);
+        playRandomGames(new Board(5), 11, 20);
+        playRandomGames(new Board(8), 13, 5);
+    }
+}
@@ -0,0 +1,145 @@
+package suite06;
+
+import org.junit.Assume;
+import org.junit.Test;
+import thedrake.models.bitboards.states.SearchPosition;
+import thedrake.models.boards.Board;
+import thedrake.models.moves.codes.MoveCodes;
+import thedrake.models.moves.interfaces.BoardMove;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.moves.stacks.PlaceFromStack;
+import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.setups.StandardDrakeSetup;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.models.tiles.interfaces.BoardTile;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class MoveCodesTest {
+
+    private List<Move> legalMoves(GameState state) {
+        List<Move> moves = new ArrayList<>();
+        PositionFactory pf = state.board().positionFactory();
+
+        for (BoardPos pos : state.armyOnTurn().boardTroops().troopPositions())
+            moves.addAll(state.tileAt(pos).movesFrom(pos, state));
+
+        for (int i = 0; i < pf.dimension(); i++)
+            for (int j = 0; j < pf.dimension(); j++)
+                if (state.canPlaceFromStack(pf.pos(i, j)))
+                    moves.add(new PlaceFromStack(pf.pos(i, j)));
+
+        return moves;
+    }
+
+    private Board standardBoard() {
+        Board board = new Board(4);
+        PositionFactory pf = board.positionFactory();
+        return board.withTiles(
+                new Board.TileAt(pf.pos("b2"), BoardTile.MOUNTAIN),
+                new Board.TileAt(pf.pos("d3"), BoardTile.MOUNTAIN));
+    }
+
+    @Test
+    public void encodeAndDecode() {
+        PositionFactory pf = new PositionFactory(4);
+        Move move = MoveCodes.decode(MoveCodes.encode(MoveCodes.STEP_CAPTURE, 1, 6), 4);
+
+        assertEquals("b1xc2", MoveCodes.toString(MoveCodes.encode(MoveCodes.STEP_CAPTURE, 1, 6), 4));
+        assertEquals("@a1", MoveCodes.toString(MoveCodes.place(0), 4));
+        assertSame(pf.pos("b1"), ((BoardMove) move).origin());
+        assertSame(pf.pos("c2"), move.target());
+        assertTrue(MoveCodes.isCapture(MoveCodes.encode(MoveCodes.CAPTURE, 3, 4)));
+        assertFalse(MoveCodes.isCapture(MoveCodes.place(3)));
+
+        try {
+            MoveCodes.decode(MoveCodes.NONE, 4);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Nulový kód neoznačuje žádný tah.
+        }
+    }
+
+    @Test
+    public void generatorMatchesGameState() {
+        Random random = new Random(8);
+
+        for (Board board : new Board[] { standardBoard(), new Board(3), new Board(5), new Board(8) })
+            for (int game = 0; game < 15; game++) {
+                GameState state = new StandardDrakeSetup().startState(board);
+                SearchPosition position = SearchPosition.of(state);
+                int[] codes = new int[position.maxMoves()];
+
+                for (int ply = 0; ply < 120 && state.result() == GameResult.IN_PLAY; ply++) {
+                    int count = position.generateMoves(codes);
+                    Set<Move> decoded = new HashSet<>();
+
+                    for (int i = 0; i < count; i++) {
+                        Move move = MoveCodes.decode(codes[i], board.dimension());
+                        assertEquals(codes[i], MoveCodes.encode(move, board.dimension()));
+                        assertTrue(decoded.add(move));
+                    }
+
+                    List<Move> expected = legalMoves(state);
+                    assertEquals(new HashSet<>(expected), decoded);
+                    if (count == 0)
+                        break;
+
+                    int code = codes[random.nextInt(count)];
+                    state = MoveCodes.decode(code, board.dimension()).execute(state);
+                    position.make(code);
+                }
+            }
+    }
+
+    @Test
+    public void generatorDoesNotAllocate() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        // Náhodná partie se zahraje a na konci se všechny tahy vezmou zpět
+        SearchPosition position = SearchPosition.of(new StandardDrakeSetup().startState(standardBoard()));
+        int[] codes = new int[position.maxMoves()];
+        int[] played = new int[100];
+        Random random = new Random(1);
+        long generated = 0;
+        long before = 0;
+
+        for (int round = 0; round < 2000; round++) {
+            if (round == 1000)
+                before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+
+            int plies = 0;
+            while (plies < played.length && position.result() == GameResult.IN_PLAY) {
+                int count = position.generateMoves(codes);
+                if (count == 0)
+                    break;
+
+                generated += round >= 1000 ? count : 0;
+                played[plies++] = codes[random.nextInt(count)];
+                position.make(played[plies - 1]);
+            }
+
+            while (plies > 0) {
+                position.unmake();
+                plies--;
+            }
+        }
+
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+        assertTrue(generated > 100_000);
+        assertTrue("allocated " + allocated + " bytes for " + generated + " moves", allocated < generated / 100);
+    }
+}
@@ -0,0 +1,98 @@
+package suite06;
+
+import org.junit.Test;
+import thedrake.models.actions.interfaces.TroopAction;
+import thedrake.models.actions.shifts.ShiftAction;
+import thedrake.models.actions.slides.SlideAction;
+import thedrake.models.actions.strikes.StrikeAction;
+import thedrake.engines.perft.Perft;
+import thedrake.models.bitboards.interfaces.BitBoard;
+import thedrake.models.bitboards.tables.MoveTables;
+import thedrake.models.bitboards.troops.TroopIndex;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.positions.interfaces.TilePos;
+import thedrake.models.setups.StandardDrakeSetup;
+import thedrake.models.states.GameState;
+import thedrake.models.troops.TroopFace;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MoveTablesTest {
+
+    private long mask(TilePos pos, int dimension) {
+        return pos == TilePos.OFF_BOARD ? 0 : BitBoard.bit(pos.j() * dimension + pos.i());
+    }
+
+    @Test
+    public void tablesMatchActions() {
+        TroopIndex index = new TroopIndex(new StandardDrakeSetup().troops());
+        Random random = new Random(5);
+
+        for (int dimension = 3; dimension <= BitBoard.MAX_DIMENSION; dimension++) {
+            MoveTables tables = index.moveTables(dimension);
+            PositionFactory pf = new PositionFactory(dimension);
+            assertSame(tables, index.moveTables(dimension));
+            assertEquals(dimension, tables.dimension());
+
+            for (int code = 0; code < index.size(); code++)
+                for (TroopFace face : TroopFace.values())
+                    for (PlayingSide side : PlayingSide.values())
+                        for (int square = 0; square < dimension * dimension; square++) {
+                            BoardPos origin = pf.pos(square % dimension, square / dimension);
+                            int entry = tables.entry(code, face.ordinal(), side.ordinal(), square);
+                            long free = random.nextLong();
+                            long shifts = 0, strikes = 0, slideFirsts = 0, slideSteps = 0;
+
+                            for (TroopAction action : index.troop(code).actions(face)) {
+                                TilePos first = origin.stepByPlayingSide(action.offset(), side);
+
+                                if (action instanceof ShiftAction)
+                                    shifts |= mask(first, dimension);
+                                else if (action instanceof StrikeAction)
+                                    strikes |= mask(first, dimension);
+                                else if (action instanceof SlideAction) {
+                                    slideFirsts |= mask(first, dimension);
+                                    for (TilePos pos = first; (mask(pos, dimension) & free) != 0;
+                                            pos = pos.stepByPlayingSide(action.offset(), side))
+                                        slideSteps |= mask(pos, dimension);
+                                }
+                            }
+
+                            assertEquals(shifts, tables.shifts(entry));
+                            assertEquals(strikes, tables.strikes(entry));
+                            assertEquals(slideFirsts, tables.slideFirsts(entry));
+                            assertEquals(slideSteps, tables.slideSteps(entry, free));
+                        }
+        }
+    }
+
+    @Test
+    public void scanSharesIndex() {
+        GameState start = Perft.startState(4, List.of("b2"));
+        GameState next = start.placeFromStack(start.board().positionFactory().pos("a1"));
+        TroopIndex index = TroopIndex.scan(start);
+
+        // Pozice jedné partie sdílí index i jeho tabulky
+        assertSame(index, TroopIndex.scan(next));
+        assertSame(index.moveTables(4), TroopIndex.scan(next).moveTables(4));
+        assertSame(index.wideMoveTables(4), TroopIndex.scan(start).wideMoveTables(4));
+
+        // Jiná sestava má jiné jednotky, a tedy i jiný index
+        assertNotSame(index, TroopIndex.scan(Perft.startState(4, List.of("b2"))));
+    }
+
+    @Test
+    public void tooLargeBoard() {
+        try {
+            new TroopIndex(new StandardDrakeSetup().troops()).moveTables(BitBoard.MAX_DIMENSION + 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Bitová deska se nevejde do jednoho longu.
+        }
+    }
+}
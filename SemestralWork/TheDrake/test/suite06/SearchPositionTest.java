@@ -0,0 +1,152 @@
+package suite06;
+
+import org.junit.Test;
+import thedrake.models.bitboards.interfaces.BitBoard;
+import thedrake.models.bitboards.states.BitBoardState;
+import thedrake.models.bitboards.states.SearchPosition;
+import thedrake.models.bitboards.troops.TroopIndex;
+import thedrake.models.boards.Board;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.setups.StandardDrakeSetup;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.models.tiles.interfaces.BoardTile;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SearchPositionTest {
+
+    private String json(GameState state) {
+        StringWriter out = new StringWriter();
+        PrintWriter writer = new PrintWriter(out);
+        state.toJSON(writer);
+        writer.flush();
+        return out.toString();
+    }
+
+    // Všechny masky a čítače bitové desky, spolu s JSON podobou odpovídajícího GameState
+    private String snapshot(BitBoard board) {
+        StringBuilder builder = new StringBuilder();
+
+        for (PlayingSide side : PlayingSide.values())
+            builder.append(side).append(' ')
+                    .append(board.occupancy(side)).append(' ')
+                    .append(board.leaderSquare(side)).append(' ')
+                    .append(board.guards(side)).append(' ')
+                    .append(board.stackSize(side)).append('\n');
+
+        for (int code = 0; code < board.troopIndex().size(); code++)
+            builder.append(board.troopMask(code)).append(' ');
+
+        builder.append('\n').append(board.revers()).append(' ').append(board.mountains())
+                .append(' ').append(board.sideOnTurn()).append(' ').append(board.result())
+                .append('\n').append(json(board.toGameState()));
+
+        return builder.toString();
+    }
+
+    private void playRandomGames(Board board, long seed, int games) {
+        Random random = new Random(seed);
+
+        for (int game = 0; game < games; game++) {
+            GameState start = new StandardDrakeSetup().startState(board);
+            TroopIndex index = TroopIndex.scan(start);
+            BitBoardState expected = new BitBoardState(start, index);
+            SearchPosition actual = new SearchPosition(start, index);
+            GameState state = start;
+            List<String> history = new ArrayList<>();
+
+            for (int ply = 0; ply < 150 && expected.result() == GameResult.IN_PLAY; ply++) {
+                String before = snapshot(expected);
+                assertEquals(before, snapshot(actual));
+                assertEquals(ply, actual.ply());
+                assertEquals(json(state), json(actual.toGameState()));
+
+                List<Move> moves = expected.allMoves();
+                if (moves.isEmpty())
+                    break;
+
+                // Každý tah se zahraje a vezme zpět, pozice musí být opět totožná
+                for (Move move : moves) {
+                    actual.make(move);
+                    assertEquals(snapshot(expected.execute(move)), snapshot(actual));
+                    actual.unmake();
+                    assertEquals(before, snapshot(actual));
+                }
+
+                Move move = moves.get(random.nextInt(moves.size()));
+                history.add(before);
+                expected = expected.execute(move);
+                state = move.execute(state);
+                actual.make(move);
+            }
+
+            assertEquals(snapshot(expected), snapshot(actual));
+            assertEquals(json(state), json(actual.toGameState()));
+
+            if (expected.result() == GameResult.IN_PLAY) {
+                actual.makeDraw();
+                assertEquals(snapshot(expected.draw()), snapshot(actual));
+                actual.unmake();
+                actual.makeResign();
+                assertEquals(snapshot(expected.resign()), snapshot(actual));
+                actual.unmake();
+            }
+
+            // Zpětný průchod celou partií až do výchozí pozice
+            for (int ply = history.size() - 1; ply >= 0; ply--) {
+                actual.unmake();
+                assertEquals(history.get(ply), snapshot(actual));
+            }
+
+            assertEquals(json(start), json(actual.toGameState()));
+        }
+    }
+
+    @Test
+    public void randomGamesStandardBoard() {
+        Board board = new Board(4);
+        PositionFactory pf = board.positionFactory();
+        board = board.withTiles(
+                new Board.TileAt(pf.pos("b2"), BoardTile.MOUNTAIN),
+                new Board.TileAt(pf.pos("d3"), BoardTile.MOUNTAIN));
+
+        playRandomGames(board, 17, 30);
+    }
+
+    @Test
+    public void randomGamesOtherDimensions() {
+        playRandomGames(new Board(3), 5, 20);
+        playRandomGames(new Board(5), 23, 20);
+        playRandomGames(new Board(8), 29, 5);
+    }
+
+    @Test
+    public void invalidMoves() {
+        SearchPosition position = SearchPosition.of(new StandardDrakeSetup().startState(new Board(4)));
+
+        try {
+            position.unmake();
+            fail();
+        } catch (IllegalStateException e) {
+            // Žádný tah ještě nebyl zahrán.
+        }
+
+        try {
+            position.makeStepOnly(0, 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Na desce ještě nestojí žádná jednotka.
+        }
+
+        assertEquals(0, position.ply());
+    }
+}
@@ -0,0 +1,20 @@
+package suite06;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+@RunWith(Suite.class)
+
+@Suite.SuiteClasses({
+        BitBoardActionsTest.class,
+        BitBoardGameStateTest.class,
+        BitBoardStateTest.class,
+        MoveCodesTest.class,
+        MoveTablesTest.class,
+        SearchPositionTest.class,
+        WideSearchPositionTest.class
+})
+
+public class TestSuite {
+
+}
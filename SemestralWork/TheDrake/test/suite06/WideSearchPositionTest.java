@@ -0,0 +1,183 @@
+package suite06;
+
+import org.junit.Test;
+import thedrake.engines.perft.Perft;
+import thedrake.models.bitboards.interfaces.SearchBoard;
+import thedrake.models.bitboards.states.SearchPosition;
+import thedrake.models.bitboards.states.WideSearchPosition;
+import thedrake.models.bitboards.troops.TroopIndex;
+import thedrake.models.boards.Board;
+import thedrake.models.moves.codes.MoveCodes;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.setups.StandardDrakeSetup;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.models.tiles.interfaces.BoardTile;
+import thedrake.ui.ValidMoves;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class WideSearchPositionTest {
+
+    private String json(GameState state) {
+        StringWriter out = new StringWriter();
+        PrintWriter writer = new PrintWriter(out);
+        state.toJSON(writer);
+        writer.flush();
+        return out.toString();
+    }
+
+    private GameState startState(int dimension) {
+        Board board = new Board(dimension);
+        PositionFactory pf = board.positionFactory();
+        board = board.withTiles(
+                new Board.TileAt(pf.pos(1, 1), BoardTile.MOUNTAIN),
+                new Board.TileAt(pf.pos(dimension - 2, dimension / 2), BoardTile.MOUNTAIN));
+
+        return new StandardDrakeSetup().startState(board);
+    }
+
+    private int[] generate(SearchBoard board) {
+        int[] moves = new int[board.maxMoves()];
+        return Arrays.copyOf(moves, board.generateMoves(moves));
+    }
+
+    @Test
+    public void matchesSingleWordBoards() {
+        Random random = new Random(41);
+
+        for (int dimension = 4; dimension <= 8; dimension++) {
+            GameState start = startState(dimension);
+            TroopIndex index = TroopIndex.scan(start);
+            SearchPosition expected = new SearchPosition(start, index);
+            WideSearchPosition actual = new WideSearchPosition(start, index);
+
+            // Stejné tahy ve stejném pořadí jako bitová deska v jednom longu
+            for (int ply = 0; ply < 120 && expected.result() == GameResult.IN_PLAY; ply++) {
+                int[] moves = generate(expected);
+                assertArrayEquals(moves, generate(actual));
+
+                if (moves.length == 0)
+                    break;
+
+                int move = moves[random.nextInt(moves.length)];
+                expected.make(move);
+                actual.make(move);
+                assertEquals(json(expected.toGameState()), json(actual.toGameState()));
+            }
+
+            while (actual.ply() > 0) {
+                expected.unmake();
+                actual.unmake();
+                assertArrayEquals(generate(expected), generate(actual));
+            }
+
+            assertEquals(json(start), json(actual.toGameState()));
+        }
+    }
+
+    @Test
+    public void randomGamesLargeBoards() {
+        Random random = new Random(43);
+
+        for (int dimension : new int[] { 9, 12, 16 }) {
+            GameState state = startState(dimension);
+            WideSearchPosition position = WideSearchPosition.of(state);
+            List<String> history = new ArrayList<>();
+
+            for (int ply = 0; ply < 60 && state.result() == GameResult.IN_PLAY; ply++) {
+                List<Move> valid = new ValidMoves(state).allMoves();
+                Set<Integer> expected = new HashSet<>();
+                for (Move move : valid)
+                    expected.add(MoveCodes.encode(move, dimension));
+
+                Set<Integer> actual = new HashSet<>();
+                for (int move : generate(position))
+                    actual.add(move);
+
+                assertEquals(expected, actual);
+                if (valid.isEmpty())
+                    break;
+
+                // Každý tah se zahraje a vezme zpět, pozice musí odpovídat GameState
+                String before = json(position.toGameState());
+                for (Move move : valid) {
+                    position.make(MoveCodes.encode(move, dimension));
+                    assertEquals(json(move.execute(state)), json(position.toGameState()));
+                    position.unmake();
+                }
+                assertEquals(before, json(position.toGameState()));
+
+                Move move = valid.get(random.nextInt(valid.size()));
+                history.add(before);
+                state = move.execute(state);
+                position.make(MoveCodes.encode(move, dimension));
+            }
+
+            for (int ply = history.size() - 1; ply >= 0; ply--) {
+                position.unmake();
+                assertEquals(history.get(ply), json(position.toGameState()));
+            }
+        }
+    }
+
+    @Test
+    public void perftMatchesReferenceWalk() {
+        for (int dimension : new int[] { 10, 16 }) {
+            GameState start = startState(dimension);
+            assertEquals(Perft.perft(start, 4), Perft.perft(SearchBoard.of(start), 4));
+        }
+    }
+
+    @Test
+    public void choosesRepresentationBySize() {
+        assertTrue(SearchBoard.of(startState(8)) instanceof SearchPosition);
+        assertTrue(SearchBoard.of(startState(9)) instanceof WideSearchPosition);
+        assertTrue(SearchBoard.of(startState(16)).copy() instanceof WideSearchPosition);
+
+        try {
+            SearchBoard.of(startState(17));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Čtverec desky 17x17 se nevejde do kódu tahu.
+        }
+    }
+
+    @Test
+    public void invalidMoves() {
+        WideSearchPosition position = WideSearchPosition.of(startState(10));
+
+        try {
+            position.unmake();
+            fail();
+        } catch (IllegalStateException e) {
+            // Žádný tah ještě nebyl zahrán.
+        }
+
+        try {
+            position.make(MoveCodes.encode(MoveCodes.STEP, 0, 1));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Na desce ještě nestojí žádná jednotka.
+        }
+
+        try {
+            position.make(MoveCodes.place(50));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Vůdce se staví jen do první řady.
+        }
+
+        assertEquals(0, position.ply());
+    }
+}
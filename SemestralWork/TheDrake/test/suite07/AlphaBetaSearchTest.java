@@ -0,0 +1,130 @@
+package suite07;
+
+import org.junit.Test;
+import thedrake.engines.perft.Perft;
+import thedrake.engines.search.AlphaBetaSearch;
+import thedrake.engines.search.Evaluation;
+import thedrake.engines.search.SearchResult;
+import thedrake.engines.tables.TranspositionTable;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.ui.ValidMoves;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class AlphaBetaSearchTest {
+
+    @Test
+    public void agreesWithMinimax() {
+        for (GameState state : positions(12)) {
+            for (int depth = 1; depth <= 3; depth++) {
+                SearchResult result = new AlphaBetaSearch(null, true, false)
+                        .search(state, 0, depth, new AtomicBoolean());
+
+                // Nalezená výhra ukončí prohlubování dříve
+                if (result.depth() < depth)
+                    assertTrue(result.score() >= AlphaBetaSearch.WIN - AlphaBetaSearch.MAX_DEPTH);
+
+                assertEquals(minimax(state, result.depth(), 0), result.score());
+                assertEquals(result.score(), -minimax(result.move().execute(state), result.depth() - 1, 1));
+            }
+        }
+    }
+
+    @Test
+    public void findsImmediateWin() {
+        int wins = 0;
+
+        for (GameState state : positions(200)) {
+            boolean winning = false;
+            for (Move move : new ValidMoves(state).allMoves())
+                winning |= move.execute(state).result() == GameResult.VICTORY;
+
+            if (!winning)
+                continue;
+
+            SearchResult result = new AlphaBetaSearch(new TranspositionTable(1))
+                    .search(state, 0, 4, new AtomicBoolean());
+
+            assertEquals(AlphaBetaSearch.WIN - 1, result.score());
+            assertEquals(GameResult.VICTORY, result.move().execute(state).result());
+            wins++;
+        }
+
+        // Náhodné partie musí obsahovat alespoň několik pozic s výhrou
+        assertTrue(wins > 3);
+    }
+
+    @Test
+    public void cancelledSearchStillMoves() {
+        GameState state = positions(1).get(0);
+        SearchResult result = new AlphaBetaSearch(new TranspositionTable(1))
+                .search(state, 0, AlphaBetaSearch.MAX_DEPTH, new AtomicBoolean(true));
+
+        assertTrue(new ValidMoves(state).allMoves().contains(result.move()));
+
+        // Časový limit ukončí hledání bez omezení hloubky
+        long start = System.currentTimeMillis();
+        result = new AlphaBetaSearch(new TranspositionTable(1))
+                .search(state, 100, AlphaBetaSearch.MAX_DEPTH, new AtomicBoolean());
+
+        assertTrue(System.currentTimeMillis() - start < 2000);
+        assertTrue(result.depth() > 1);
+        assertTrue(new ValidMoves(state).allMoves().contains(result.move()));
+    }
+
+    @Test
+    public void finishedGameHasNoMove() {
+        GameState state = positions(1).get(0).resign();
+        SearchResult result = new AlphaBetaSearch(null).search(state, 0, 3, new AtomicBoolean());
+
+        assertNull(result.move());
+        assertEquals(-AlphaBetaSearch.WIN, result.score());
+    }
+
+    private static int minimax(GameState state, int depth, int ply) {
+        if (state.result() == GameResult.VICTORY)
+            return -(AlphaBetaSearch.WIN - ply);
+
+        if (depth == 0)
+            return Evaluation.evaluate(state);
+
+        List<Move> moves = new ValidMoves(state).allMoves();
+        if (moves.isEmpty())
+            return -(AlphaBetaSearch.WIN - ply);
+
+        int best = Integer.MIN_VALUE;
+        for (Move move : moves)
+            best = Math.max(best, -minimax(move.execute(state), depth - 1, ply + 1));
+
+        return best;
+    }
+
+    static List<GameState> positions(int count) {
+        Random random = new Random(7);
+        List<GameState> positions = new ArrayList<>();
+
+        while (positions.size() < count) {
+            GameState state = Perft.startState(4, List.of("b2"));
+
+            for (int ply = 0; ply < 40 && positions.size() < count; ply++) {
+                List<Move> moves = new ValidMoves(state).allMoves();
+                if (moves.isEmpty() || state.result() != GameResult.IN_PLAY)
+                    break;
+
+                if (ply >= 6)
+                    positions.add(state);
+
+                state = moves.get(random.nextInt(moves.size())).execute(state);
+            }
+        }
+
+        return positions;
+    }
+}
@@ -0,0 +1,77 @@
+package suite07;
+
+import org.junit.Test;
+import thedrake.engines.search.Evaluation;
+import thedrake.engines.search.EvaluationWeights;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.models.troops.TroopFace;
+import thedrake.ui.ValidMoves;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class EvaluationTest {
+
+    @Test
+    public void deltasMatchFullEvaluation() {
+        Evaluation evaluation = Evaluation.standard();
+        int moves = 0;
+
+        for (GameState state : AlphaBetaSearchTest.positions(60)) {
+            int terms = evaluation.troopTerms(state);
+
+            for (Move move : new ValidMoves(state).allMoves()) {
+                GameState next = move.execute(state);
+                if (next.result() != GameResult.IN_PLAY)
+                    continue;
+
+                // Hodnota po tahu z pohledu soupeře je opačná
+                assertEquals(-(terms + evaluation.delta(state, move)), evaluation.troopTerms(next));
+                assertEquals(evaluation.score(next), Evaluation.evaluate(next));
+                moves++;
+            }
+        }
+
+        assertTrue(moves > 100);
+    }
+
+    @Test
+    public void weightsRoundTrip() throws IOException {
+        Path file = Files.createTempFile("weights", ".properties");
+
+        try {
+            Files.writeString(file, "material.Monk = 150\nface.Monk.REVERS = 7\npst.Monk = 1,2,3,4\n");
+            EvaluationWeights weights = EvaluationWeights.load(file);
+
+            assertEquals(150, weights.material("Monk"));
+            assertEquals(100, weights.material("Archer"));
+            assertEquals(7, weights.face("Monk", TroopFace.REVERS));
+            assertEquals(0, weights.face("Monk", TroopFace.AVERS));
+            assertArrayEquals(new int[] { 1, 2, 3, 4 }, weights.pst("Monk", TroopFace.AVERS));
+
+            weights.save(file);
+            EvaluationWeights loaded = EvaluationWeights.load(file);
+
+            assertEquals(150, loaded.material("Monk"));
+            assertEquals(weights.mobility(), loaded.mobility());
+            assertEquals(weights.leaderAttacker(), loaded.leaderAttacker());
+            assertTrue(Arrays.equals(weights.pst("Drake", TroopFace.AVERS), loaded.pst("Drake", TroopFace.AVERS)));
+
+            Files.writeString(file, "pst.Monk = 1,2,3\n");
+            try {
+                EvaluationWeights.load(file);
+                fail();
+            } catch (IllegalArgumentException e) {
+                // Tabulka musí mít n * n hodnot.
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package suite07;
+
+import org.junit.Test;
+import thedrake.engines.search.AlphaBetaSearch;
+import thedrake.engines.search.LazySmpSearch;
+import thedrake.engines.search.SearchResult;
+import thedrake.engines.tables.TranspositionTable;
+import thedrake.models.states.GameState;
+import thedrake.ui.ValidMoves;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class LazySmpSearchTest {
+
+    @Test
+    public void helpersFindTheSameWins() {
+        LazySmpSearch search = new LazySmpSearch(new TranspositionTable(4), 4);
+
+        for (GameState state : AlphaBetaSearchTest.positions(60)) {
+            SearchResult result = search.search(state, 0, 4, new AtomicBoolean());
+            SearchResult single = new AlphaBetaSearch(null).search(state, 0, 4, new AtomicBoolean());
+
+            // Paralelní hledání najde výhru v jednom tahu stejně jako jednovláknové
+            assertTrue(new ValidMoves(state).allMoves().contains(result.move()));
+            assertEquals(single.score() == AlphaBetaSearch.WIN - 1, result.score() == AlphaBetaSearch.WIN - 1);
+        }
+
+        search.shutdown();
+    }
+
+    @Test
+    public void countsNodesOfAllThreads() {
+        GameState state = AlphaBetaSearchTest.positions(1).get(0);
+        SearchResult single = new LazySmpSearch(new TranspositionTable(4), 1)
+                .search(state, 0, 6, new AtomicBoolean());
+        LazySmpSearch parallel = new LazySmpSearch(new TranspositionTable(4), 3);
+        SearchResult result = parallel.search(state, 200, AlphaBetaSearch.MAX_DEPTH, new AtomicBoolean());
+
+        assertEquals(1, new LazySmpSearch(new TranspositionTable(1), 1).threads());
+        assertTrue(single.nodes() > 0);
+        assertTrue(result.depth() > 1);
+        assertTrue(result.nodes() > 0);
+        parallel.shutdown();
+
+        try {
+            new LazySmpSearch(new TranspositionTable(1), 0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Hledání potřebuje alespoň jedno vlákno.
+        }
+    }
+}
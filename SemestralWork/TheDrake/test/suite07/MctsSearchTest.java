@@ -0,0 +1,97 @@
+package suite07;
+
+import org.junit.Test;
+import thedrake.engines.mcts.MctsSearch;
+import thedrake.engines.search.SearchResult;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.ui.ValidMoves;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class MctsSearchTest {
+
+    @Test
+    public void findsImmediateWin() {
+        MctsSearch search = new MctsSearch(2, 16);
+        int wins = 0;
+
+        for (GameState state : AlphaBetaSearchTest.positions(120)) {
+            boolean winning = false;
+            for (Move move : new ValidMoves(state).allMoves())
+                winning |= move.execute(state).result() == GameResult.VICTORY;
+
+            if (!winning)
+                continue;
+
+            SearchResult result = search.search(state, 0, 4000, new AtomicBoolean());
+
+            assertEquals(GameResult.VICTORY, result.move().execute(state).result());
+            assertEquals(4000, result.nodes());
+            wins++;
+        }
+
+        search.shutdown();
+        assertTrue(wins > 0);
+    }
+
+    @Test
+    public void reusesSubtree() {
+        MctsSearch search = new MctsSearch(1, 16);
+        GameState state = AlphaBetaSearchTest.positions(1).get(0);
+
+        SearchResult first = search.search(state, 0, 5000, new AtomicBoolean());
+        GameState next = first.move().execute(state);
+        List<Move> replies = new ValidMoves(next).allMoves();
+        next = replies.get(0).execute(next);
+
+        assertTrue(search.rootVisits() >= 5000);
+        SearchResult second = search.search(next, 0, 1000, new AtomicBoolean());
+
+        // Kořen převzatého podstromu má návštěvy i z předchozího hledání
+        assertTrue(new ValidMoves(next).allMoves().contains(second.move()));
+        assertTrue(search.rootVisits() > 1000);
+        assertTrue(search.treeNodes() > 1);
+        assertTrue(search.playoutsPerSecond() > 0);
+
+        // Neznámá pozice začíná nový strom
+        search.search(AlphaBetaSearchTest.positions(30).get(29), 0, 100, new AtomicBoolean());
+        assertEquals(100, search.rootVisits());
+    }
+
+    @Test
+    public void respectsMemoryCap() {
+        MctsSearch search = new MctsSearch(2, 1);
+        GameState state = AlphaBetaSearchTest.positions(1).get(0);
+
+        search.search(state, 0, 200_000, new AtomicBoolean());
+
+        // Strom může přerůst limit nejvýše o rozvinutí, která už běžela
+        assertTrue(search.treeBytes() < (1 << 20) + 64 * 1024);
+        assertTrue(search.treeBytes() > (1 << 20) / 2);
+        search.shutdown();
+    }
+
+    @Test
+    public void stopsWhenCancelledOrOver() {
+        MctsSearch search = new MctsSearch(1, 1);
+        GameState state = AlphaBetaSearchTest.positions(1).get(0);
+
+        SearchResult result = search.search(state, 0, Long.MAX_VALUE, new AtomicBoolean(true));
+        assertTrue(new ValidMoves(state).allMoves().contains(result.move()));
+        assertEquals(0, result.nodes());
+
+        assertNull(search.search(state.resign(), 100, new AtomicBoolean()).move());
+
+        try {
+            new MctsSearch(0, 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Hledání potřebuje alespoň jedno vlákno.
+        }
+    }
+}
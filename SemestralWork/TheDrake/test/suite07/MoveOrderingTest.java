@@ -0,0 +1,60 @@
+package suite07;
+
+import org.junit.Test;
+import thedrake.engines.perft.Perft;
+import thedrake.engines.search.AlphaBetaSearch;
+import thedrake.engines.search.SearchResult;
+import thedrake.engines.tables.TranspositionTable;
+import thedrake.models.states.GameState;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class MoveOrderingTest {
+
+    @Test
+    public void orderingKeepsScore() {
+        // Jedno hledání přes všechny pozice, takže zabijáci i historie přecházejí z pozice na pozici
+        AlphaBetaSearch ordered = new AlphaBetaSearch(new TranspositionTable(1), true, false);
+
+        for (GameState state : AlphaBetaSearchTest.positions(30)) {
+            SearchResult expected = new AlphaBetaSearch(new TranspositionTable(1), false, false)
+                    .search(state, 0, 3, new AtomicBoolean());
+            SearchResult actual = ordered.search(state, 0, 3, new AtomicBoolean());
+
+            // Pořadí tahů mění jen počet uzlů, ne hodnotu pozice
+            assertEquals(expected.score(), actual.score());
+        }
+    }
+
+    @Test
+    public void orderingSavesNodes() {
+        long orderedNodes = 0;
+        long unorderedNodes = 0;
+
+        for (GameState state : AlphaBetaSearchTest.positions(30)) {
+            orderedNodes += new AlphaBetaSearch(new TranspositionTable(1), true, false)
+                    .search(state, 0, 4, new AtomicBoolean()).nodes();
+            unorderedNodes += new AlphaBetaSearch(new TranspositionTable(1), false, false)
+                    .search(state, 0, 4, new AtomicBoolean()).nodes();
+        }
+
+        assertTrue(orderedNodes < unorderedNodes);
+    }
+
+    @Test
+    public void orderingSurvivesOtherDimensions() {
+        AlphaBetaSearch ordered = new AlphaBetaSearch(new TranspositionTable(1), true, false);
+
+        // Historie z menší desky se na větší nesmí použít
+        for (GameState state : List.of(Perft.startState(4, List.of("b2")), Perft.startState(6, List.of("c3")),
+                Perft.startState(4, List.of("b2")))) {
+            SearchResult expected = new AlphaBetaSearch(new TranspositionTable(1), false, false)
+                    .search(state, 0, 3, new AtomicBoolean());
+
+            assertEquals(expected.score(), ordered.search(state, 0, 3, new AtomicBoolean()).score());
+        }
+    }
+}
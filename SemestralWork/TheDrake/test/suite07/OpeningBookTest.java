@@ -0,0 +1,137 @@
+package suite07;
+
+import org.junit.Test;
+import thedrake.engines.interfaces.Engine;
+import thedrake.engines.openings.BookEngine;
+import thedrake.engines.openings.OpeningBook;
+import thedrake.engines.openings.OpeningBookBuilder;
+import thedrake.engines.perft.Perft;
+import thedrake.engines.search.SearchResult;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.states.GameState;
+import thedrake.ui.ValidMoves;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class OpeningBookTest {
+
+    private static final GameState START = Perft.startState(4, List.of("b2"));
+
+    private static Path build(int games, int minGames, int threads) throws IOException {
+        Path file = Files.createTempFile("thedrake", ".book");
+        file.toFile().deleteOnExit();
+
+        new OpeningBookBuilder(START, 6, 1).build(games, minGames, threads, 5, file, null);
+        return file;
+    }
+
+    @Test
+    public void writesSortedEntriesOfAllGames() throws IOException {
+        int games = 40;
+        Path file = build(games, 1, 2);
+
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            in.skipBytes(4 + 4 + 4 + 8 + 4);
+            int entries = in.readInt();
+            long previousKey = Long.MIN_VALUE;
+            int previousMove = Integer.MIN_VALUE;
+            int startGames = 0;
+
+            assertEquals(28 + 20L * entries, Files.size(file));
+            assertEquals(entries, OpeningBook.open(file).entries());
+
+            for (int e = 0; e < entries; e++) {
+                long key = in.readLong();
+                int move = in.readInt();
+                int played = in.readInt();
+                int points = in.readInt();
+
+                // Záznamy jsou seřazené podle klíče a tahu, aby je šlo hledat půlením intervalu
+                assertTrue(key > previousKey || key == previousKey && move > previousMove);
+                assertTrue(played > 0 && points >= 0 && points <= 2 * played);
+
+                if (key == START.zobristKey())
+                    startGames += played;
+
+                previousKey = key;
+                previousMove = move;
+            }
+
+            // Každá hra začíná ze startovní pozice
+            assertEquals(games, startGames);
+        }
+    }
+
+    @Test
+    public void bookMovesAreValid() throws IOException {
+        OpeningBook book = OpeningBook.open(build(40, 2, 2));
+        GameState state = START;
+        int plies = 0;
+
+        for (Optional<Move> move = book.move(state); move.isPresent(); move = book.move(state)) {
+            assertTrue(new ValidMoves(state).allMoves().contains(move.get()));
+            state = move.get().execute(state);
+            plies++;
+        }
+
+        assertEquals(6, book.plies());
+        assertTrue(plies > 0 && plies <= book.plies());
+    }
+
+    @Test
+    public void doesNotDependOnThreads() throws IOException {
+        byte[] single = Files.readAllBytes(build(24, 1, 1));
+        byte[] parallel = Files.readAllBytes(build(24, 1, 3));
+
+        assertTrue(Arrays.equals(single, parallel));
+    }
+
+    @Test
+    public void engineLeavesOtherPositionsToSearch() throws IOException {
+        OpeningBook book = OpeningBook.open(build(20, 1, 2));
+        SearchResult searched = new SearchResult(null, 42, 3, 100, 1);
+        Engine fallback = new Engine() {
+            @Override
+            public SearchResult search(GameState state, long millis, AtomicBoolean cancelled) {
+                return searched;
+            }
+
+            @Override
+            public void shutdown() {
+            }
+        };
+        BookEngine engine = new BookEngine(book, fallback);
+
+        SearchResult result = engine.search(START, 1000, new AtomicBoolean());
+        assertEquals(book.move(START).get(), result.move());
+        assertEquals(0, result.depth());
+
+        // Kniha je postavená pro desku s horou na b2
+        GameState elsewhere = Perft.startState(4, List.of());
+        assertFalse(book.move(elsewhere).isPresent());
+        assertSame(searched, engine.search(elsewhere, 1000, new AtomicBoolean()));
+        assertFalse(book.move(START.resign()).isPresent());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOtherFiles() throws IOException {
+        Path file = Files.createTempFile("thedrake", ".book");
+
+        try {
+            Files.writeString(file, "material.default = 100\n");
+            OpeningBook.open(file);
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package suite07;
+
+import org.junit.Test;
+import thedrake.engines.perft.ParallelPerft;
+import thedrake.engines.perft.Perft;
+import thedrake.engines.perft.PerftTable;
+import thedrake.models.bitboards.states.SearchPosition;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.states.GameState;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class PerftTest {
+
+    @Test
+    public void standardBoard() {
+        GameState state = Perft.startState(4, List.of());
+
+        // Referenční počty uzlů ze startovní pozice
+        long[] expected = { 1, 4, 16, 40, 100, 160, 256, 2200, 18344 };
+        for (int depth = 0; depth < expected.length; depth++)
+            assertEquals(expected[depth], Perft.perft(state, depth));
+    }
+
+    @Test
+    public void bitboardAgreesWithGameState() {
+        GameState[] states = {
+                Perft.startState(4, List.of()),
+                Perft.startState(4, List.of("b2")),
+                Perft.startState(5, List.of("b2", "d3")),
+                Perft.startState(6, List.of("c3", "d4", "a6"))
+        };
+
+        for (GameState state : states) {
+            SearchPosition position = SearchPosition.of(state);
+
+            for (int depth = 1; depth <= 8; depth++)
+                assertEquals(Perft.perft(state, depth), Perft.perft(position, depth));
+
+            // Pozice se po průchodu vrátí do původního stavu
+            assertEquals(0, position.ply());
+        }
+    }
+
+    @Test
+    public void divideSumsToPerft() {
+        GameState state = Perft.startState(4, List.of("b2"));
+        Map<Move, Long> divide = Perft.divide(state, 7);
+
+        long sum = 0;
+        for (long nodes : divide.values())
+            sum += nodes;
+
+        assertEquals(Perft.perft(state, 7), sum);
+        assertEquals(Perft.perft(state, 1), divide.size());
+    }
+
+    @Test
+    public void parallelAgreesWithSerial() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        GameState state = Perft.startState(5, List.of("b2", "d3"));
+
+        for (int split = 1; split <= 3; split++) {
+            ParallelPerft plain = new ParallelPerft(pool, split, null);
+            ParallelPerft hashed = new ParallelPerft(pool, split, new PerftTable(1));
+
+            for (int depth = 0; depth <= 8; depth++) {
+                long expected = Perft.perft(state, depth);
+                assertEquals(expected, plain.perft(state, depth));
+                assertEquals(expected, hashed.perft(state, depth));
+            }
+        }
+
+        pool.shutdown();
+
+        try {
+            new ParallelPerft(pool, 0, null);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Alespoň kořen stromu se musí rozdělit.
+        }
+    }
+
+    @Test
+    public void tableKeepsDepthsApart() {
+        PerftTable table = new PerftTable(1);
+
+        assertEquals(PerftTable.MISS, table.probe(42, 3));
+        table.store(42, 3, 1234);
+        assertEquals(1234, table.probe(42, 3));
+
+        // Stejná pozice v jiné hloubce není v tabulce
+        assertEquals(PerftTable.MISS, table.probe(42, 4));
+        assertEquals(PerftTable.MISS, table.probe(43, 3));
+    }
+}
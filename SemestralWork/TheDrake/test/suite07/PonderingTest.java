@@ -0,0 +1,138 @@
+package suite07;
+
+import org.junit.Test;
+import thedrake.engines.interfaces.Engine;
+import thedrake.engines.mcts.MctsSearch;
+import thedrake.engines.pondering.PonderingEngine;
+import thedrake.engines.search.LazySmpSearch;
+import thedrake.engines.search.SearchResult;
+import thedrake.engines.tables.TranspositionTable;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.states.GameState;
+import thedrake.ui.ValidMoves;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PonderingTest {
+
+    /**
+     * Engine hrající vždy první platný tah. Bez časového limitu hledá, dokud není zastaven.
+     */
+    private static class FirstMoveEngine implements Engine {
+
+        private final AtomicInteger stopped = new AtomicInteger();
+
+        @Override
+        public SearchResult search(GameState state, long millis, AtomicBoolean cancelled) {
+            List<Move> moves = new ValidMoves(state).allMoves();
+
+            if (millis == 0) {
+                while (!cancelled.get())
+                    Thread.onSpinWait();
+                this.stopped.incrementAndGet();
+            }
+
+            return new SearchResult(moves.isEmpty() ? null : moves.get(0), 0, 1, 1, 0);
+        }
+
+        @Override
+        public Move expectedReply(GameState state) {
+            List<Move> moves = new ValidMoves(state).allMoves();
+            return moves.isEmpty() ? null : moves.get(0);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+
+    private static GameState expected(Engine engine, GameState state, Move move) {
+        GameState next = move.execute(state);
+        return engine.expectedReply(next).execute(next);
+    }
+
+    @Test
+    public void hitTakesOverAndMissAborts() throws InterruptedException {
+        FirstMoveEngine inner = new FirstMoveEngine();
+        PonderingEngine engine = new PonderingEngine(inner);
+        GameState state = AlphaBetaSearchTest.positions(1).get(0);
+
+        SearchResult first = engine.search(state, 50, new AtomicBoolean());
+        GameState pondered = expected(inner, state, first.move());
+        assertEquals(1, engine.ponders());
+
+        Thread.sleep(30);
+        long start = System.nanoTime();
+        SearchResult hit = engine.search(pondered, 200, new AtomicBoolean());
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        // Při zásahu doběhne rozpracované hledání, jen rozpočet se počítá od začátku přemýšlení
+        assertEquals(1, engine.hits());
+        assertEquals(1, inner.stopped.get());
+        assertEquals(new ValidMoves(pondered).allMoves().get(0), hit.move());
+        assertTrue(engine.savedMillis() >= 30 && engine.savedMillis() <= 200);
+        assertTrue(millis <= 200);
+
+        // Jiná pozice přemýšlení okamžitě zastaví a hledá se znovu
+        GameState next = hit.move().execute(pondered);
+        List<Move> replies = new ValidMoves(next).allMoves();
+        GameState other = replies.get(replies.size() - 1).execute(next);
+
+        assertNotEquals(expected(inner, pondered, hit.move()).zobristKey(), other.zobristKey());
+        engine.search(other, 10, new AtomicBoolean());
+        assertEquals(1, engine.misses());
+        assertEquals(2, inner.stopped.get());
+        assertEquals(0.5, engine.hitRate(), 1e-9);
+        assertEquals(3, engine.ponders());
+
+        engine.stopPondering();
+        assertEquals(3, inner.stopped.get());
+        assertTrue(engine.report().startsWith("ponder hits 1 of 2"));
+        engine.shutdown();
+    }
+
+    @Test
+    public void cancelledSearchDoesNotPonder() {
+        PonderingEngine engine = new PonderingEngine(new FirstMoveEngine());
+        AtomicBoolean cancelled = new AtomicBoolean(true);
+
+        engine.search(AlphaBetaSearchTest.positions(1).get(0), 50, cancelled);
+        assertEquals(0, engine.ponders());
+        engine.shutdown();
+    }
+
+    @Test
+    public void enginesExpectValidReplies() {
+        LazySmpSearch alphaBeta = new LazySmpSearch(new TranspositionTable(4), 1);
+        MctsSearch mcts = new MctsSearch(1, 16);
+
+        int found = 0;
+
+        for (GameState state : AlphaBetaSearchTest.positions(10)) {
+            for (Engine engine : List.of(alphaBeta, mcts)) {
+                SearchResult result = engine instanceof MctsSearch ?
+                        mcts.search(state, 0, 3000, new AtomicBoolean()) :
+                        alphaBeta.search(state, 0, 4, new AtomicBoolean());
+                GameState next = result.move().execute(state);
+                Move reply = engine.expectedReply(next);
+
+                // Očekávaná odpověď pochází z hlavní varianty nebo ze stromu posledního hledání
+                if (reply != null) {
+                    assertTrue(new ValidMoves(next).allMoves().contains(reply));
+                    found++;
+                }
+            }
+        }
+
+        assertTrue(found >= 15);
+
+        // Pozice mimo strom nemá očekávaný tah
+        assertNull(new MctsSearch(1, 1).expectedReply(AlphaBetaSearchTest.positions(1).get(0)));
+        alphaBeta.shutdown();
+        mcts.shutdown();
+    }
+}
@@ -0,0 +1,57 @@
+package suite07;
+
+import org.junit.Test;
+import thedrake.engines.search.AlphaBetaSearch;
+import thedrake.engines.search.SearchResult;
+import thedrake.engines.tables.TranspositionTable;
+import thedrake.models.moves.captures.CaptureOnly;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.moves.steps.StepAndCapture;
+import thedrake.models.states.GameState;
+import thedrake.ui.ValidMoves;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class QuiescenceTest {
+
+    @Test
+    public void capturesMatchAllMoves() {
+        int captures = 0;
+
+        for (GameState state : AlphaBetaSearchTest.positions(150)) {
+            Set<Move> expected = new HashSet<>();
+            for (Move move : new ValidMoves(state).allMoves())
+                if (move instanceof StepAndCapture || move instanceof CaptureOnly)
+                    expected.add(move);
+
+            assertEquals(expected, new HashSet<>(new ValidMoves(state).captures()));
+            captures += expected.size();
+        }
+
+        // Náhodné partie musí obsahovat braní
+        assertTrue(captures > 10);
+    }
+
+    @Test
+    public void countsQuiescenceNodes() {
+        long quiescenceNodes = 0;
+
+        for (GameState state : AlphaBetaSearchTest.positions(40)) {
+            SearchResult plain = new AlphaBetaSearch(new TranspositionTable(1), true, false)
+                    .search(state, 0, 3, new AtomicBoolean());
+            SearchResult quiet = new AlphaBetaSearch(new TranspositionTable(1))
+                    .search(state, 0, 3, new AtomicBoolean());
+
+            assertEquals(0, plain.quiescenceNodes());
+            assertTrue(quiet.quiescenceNodes() <= quiet.nodes());
+            assertTrue(new ValidMoves(state).allMoves().contains(quiet.move()));
+            quiescenceNodes += quiet.quiescenceNodes();
+        }
+
+        assertTrue(quiescenceNodes > 0);
+    }
+}
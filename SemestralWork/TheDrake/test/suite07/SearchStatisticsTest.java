@@ -0,0 +1,149 @@
+package suite07;
+
+import org.junit.Test;
+import thedrake.engines.mcts.MctsSearch;
+import thedrake.engines.search.AlphaBetaSearch;
+import thedrake.engines.search.LazySmpSearch;
+import thedrake.engines.search.SearchResult;
+import thedrake.engines.search.SearchStatistics;
+import thedrake.engines.tables.TranspositionTable;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.ui.ValidMoves;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class SearchStatisticsTest {
+
+    private static void assertValidLine(GameState state, List<Move> variation) {
+        for (Move move : variation) {
+            assertEquals(GameResult.IN_PLAY, state.result());
+            assertTrue(new ValidMoves(state).allMoves().contains(move));
+            state = move.execute(state);
+        }
+    }
+
+    private static Map<String, String> fields(String line) {
+        Map<String, String> fields = new HashMap<>();
+
+        for (String field : line.split(" ")) {
+            String[] parts = field.split("=", 2);
+            fields.put(parts[0], parts[1]);
+        }
+
+        return fields;
+    }
+
+    @Test
+    public void alphaBetaCountsEverything() {
+        long tableCutoffs = 0;
+        int longLines = 0;
+
+        for (GameState state : AlphaBetaSearchTest.positions(20)) {
+            SearchResult result = new AlphaBetaSearch(new TranspositionTable(4))
+                    .search(state, 0, 4, new AtomicBoolean());
+            SearchStatistics statistics = result.statistics();
+
+            assertEquals(result.depth(), statistics.depth());
+            assertEquals(result.nodes(), statistics.nodes());
+            assertEquals(statistics.depth(), statistics.iterationMillis().length);
+            assertTrue(statistics.selectiveDepth() >= 1);
+            assertTrue(statistics.tableHits() <= statistics.tableProbes());
+            assertTrue(statistics.tableCutoffs() <= statistics.tableHits());
+            assertTrue(statistics.firstMoveCutoffs() <= statistics.betaCutoffs());
+
+            // Hlavní varianta začíná nejlepším tahem a je platná tah po tahu
+            List<Move> variation = statistics.principalVariation();
+            assertEquals(result.move(), variation.get(0));
+            assertTrue(variation.size() <= statistics.depth());
+            assertValidLine(state, variation);
+
+            tableCutoffs += statistics.tableCutoffs();
+            if (variation.size() > 1)
+                longLines++;
+        }
+
+        assertTrue(tableCutoffs > 0);
+        assertTrue(longLines > 10);
+    }
+
+    @Test
+    public void orderedSearchCutsOnFirstMove() {
+        long cutoffs = 0;
+        long firstMoveCutoffs = 0;
+
+        for (GameState state : AlphaBetaSearchTest.positions(20)) {
+            SearchStatistics statistics = new AlphaBetaSearch(new TranspositionTable(4))
+                    .search(state, 0, 4, new AtomicBoolean()).statistics();
+            cutoffs += statistics.betaCutoffs();
+            firstMoveCutoffs += statistics.firstMoveCutoffs();
+        }
+
+        // Dobré řazení tahů způsobí většinu odříznutí hned prvním tahem
+        assertTrue(cutoffs > 0);
+        assertTrue(firstMoveCutoffs * 2 > cutoffs);
+    }
+
+    @Test
+    public void parallelSearchAddsHelperCounters() {
+        LazySmpSearch search = new LazySmpSearch(new TranspositionTable(4), 3);
+        GameState state = AlphaBetaSearchTest.positions(5).get(4);
+        SearchResult result = search.search(state, 0, 4, new AtomicBoolean());
+        SearchStatistics statistics = result.statistics();
+
+        assertEquals(result.depth(), statistics.depth());
+        assertEquals(statistics.depth(), statistics.iterationMillis().length);
+        assertEquals(result.move(), statistics.principalVariation().get(0));
+        assertTrue(statistics.tableProbes() > 0);
+        assertValidLine(state, statistics.principalVariation());
+        search.shutdown();
+    }
+
+    @Test
+    public void mctsFollowsMostVisitedChildren() {
+        MctsSearch search = new MctsSearch(1, 16);
+        GameState state = AlphaBetaSearchTest.positions(3).get(2);
+        SearchResult result = search.search(state, 0, 2000, new AtomicBoolean());
+        SearchStatistics statistics = result.statistics();
+
+        assertEquals(result.move(), statistics.principalVariation().get(0));
+        assertEquals(2000, statistics.nodes());
+        assertEquals(0, statistics.tableProbes());
+        assertValidLine(state, statistics.principalVariation());
+        search.shutdown();
+    }
+
+    @Test
+    public void logLineHasAllFields() {
+        GameState state = AlphaBetaSearchTest.positions(1).get(0);
+        SearchStatistics statistics = new AlphaBetaSearch(new TranspositionTable(4))
+                .search(state, 0, 3, new AtomicBoolean()).statistics();
+        Map<String, String> fields = fields(statistics.toString());
+
+        assertEquals(List.of("cutoffs", "depth", "first_cutoffs", "iterations", "nodes", "nps", "pv", "qnodes",
+                "seldepth", "time", "tt_cutoffs", "tt_hits", "tt_probes"), fields.keySet().stream().sorted().toList());
+        assertEquals("3", fields.get("depth"));
+        assertEquals(Long.toString(statistics.nodes()), fields.get("nodes"));
+        assertEquals(3, fields.get("iterations").split(",").length);
+        assertEquals(statistics.principalVariation().size(), fields.get("pv").split(",").length);
+    }
+
+    @Test
+    public void resultWithoutStatisticsHasItsMove() {
+        Move move = new ValidMoves(AlphaBetaSearchTest.positions(1).get(0)).allMoves().get(0);
+        SearchStatistics statistics = new SearchResult(move, 10, 2, 100, 40, 0).statistics();
+
+        assertEquals(List.of(move), statistics.principalVariation());
+        assertEquals(40, statistics.quiescenceNodes());
+        assertEquals(0, statistics.nodesPerSecond());
+        assertEquals(0.0, statistics.firstMoveCutoffRate(), 0.0);
+        assertEquals("-", fields(statistics.toString()).get("iterations"));
+        assertEquals("-", fields(new SearchResult(null, 0, 0, 0, 0).statistics().toString()).get("pv"));
+    }
+}
@@ -0,0 +1,218 @@
+package suite07;
+
+import org.junit.Test;
+import thedrake.engines.endgames.Tablebase;
+import thedrake.engines.endgames.TablebaseGenerator;
+import thedrake.engines.search.AlphaBetaSearch;
+import thedrake.engines.search.Evaluation;
+import thedrake.engines.search.SearchResult;
+import thedrake.engines.tables.TranspositionTable;
+import thedrake.models.boards.Army;
+import thedrake.models.boards.Board;
+import thedrake.models.boards.PlayingSide;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.positions.boards.BoardPos;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.setups.StandardDrakeSetup;
+import thedrake.models.states.GameResult;
+import thedrake.models.states.GameState;
+import thedrake.models.tiles.interfaces.BoardTile;
+import thedrake.models.tiles.troops.TroopTile;
+import thedrake.models.troops.BoardTroops;
+import thedrake.models.troops.Troop;
+import thedrake.models.troops.TroopFace;
+import thedrake.ui.ValidMoves;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class TablebaseTest {
+
+    private static final StandardDrakeSetup SETUP = new StandardDrakeSetup();
+
+    private static Tablebase tablebase;
+
+    private static synchronized Tablebase tablebase() throws IOException {
+        if (tablebase == null) {
+            Path file = Files.createTempFile("thedrake", ".tb");
+            file.toFile().deleteOnExit();
+
+            GameState start = SETUP.startState(board());
+            new TablebaseGenerator(start.board(), start.armyOnTurn().stack(), ForkJoinPool.commonPool())
+                    .generate(3, file, null);
+            tablebase = Tablebase.open(file);
+        }
+
+        return tablebase;
+    }
+
+    private static Board board() {
+        Board board = new Board(4);
+        return board.withTiles(new Board.TileAt(board.positionFactory().pos("b2"), BoardTile.MOUNTAIN));
+    }
+
+    /**
+     * Vytvoří náhodnou koncovku s vůdci obou stran a nejvýše jedním dalším vojákem.
+     */
+    private static GameState endgame(Random random) {
+        Board board = board();
+        PositionFactory pf = board.positionFactory();
+        List<BoardPos> squares = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++)
+            for (int j = 0; j < 4; j++)
+                if (board.at(pf.pos(i, j)) != BoardTile.MOUNTAIN)
+                    squares.add(pf.pos(i, j));
+        Collections.shuffle(squares, random);
+
+        List<Troop> others = List.of(SETUP.CLUBMAN, SETUP.MONK, SETUP.SPEARMAN, SETUP.SWORDSMAN, SETUP.ARCHER);
+        Troop extra = random.nextInt(6) == 0 ? null : others.get(random.nextInt(others.size()));
+        boolean blueExtra = random.nextBoolean();
+
+        Army blue = army(PlayingSide.BLUE, squares.get(0), blueExtra ? extra : null, squares.get(2), random);
+        Army orange = army(PlayingSide.ORANGE, squares.get(1), blueExtra ? null : extra, squares.get(2), random);
+        PlayingSide side = random.nextBoolean() ? PlayingSide.BLUE : PlayingSide.ORANGE;
+
+        return new GameState(board, blue, orange, side, GameResult.IN_PLAY);
+    }
+
+    private static Army army(PlayingSide side, BoardPos leader, Troop extra, BoardPos extraPos, Random random) {
+        Map<BoardPos, TroopTile> troops = new HashMap<>();
+        troops.put(leader, new TroopTile(SETUP.DRAKE, side, face(random)));
+        if (extra != null)
+            troops.put(extraPos, new TroopTile(extra, side, face(random)));
+
+        return new Army(new BoardTroops(side, troops, leader, 2), Collections.emptyList(), Collections.emptyList());
+    }
+
+    private static TroopFace face(Random random) {
+        return random.nextBoolean() ? TroopFace.AVERS : TroopFace.REVERS;
+    }
+
+    @Test
+    public void valuesFollowTheRules() throws IOException {
+        Tablebase tablebase = tablebase();
+        Random random = new Random(18);
+        int wins = 0;
+        int losses = 0;
+
+        for (int n = 0; n < 600; n++) {
+            GameState state = endgame(random);
+            int value = tablebase.probe(state);
+            assertNotEquals(Tablebase.NOT_FOUND, value);
+
+            // Hodnota pozice musí odpovídat hodnotám pozic po všech tazích podle pravidel GameState
+            List<Move> moves = new ValidMoves(state).allMoves();
+            int fastestWin = Integer.MAX_VALUE;
+            int slowestLoss = -1;
+            boolean allLost = true;
+
+            for (Move move : moves) {
+                GameState next = move.execute(state);
+                int child = next.result() == GameResult.VICTORY ? -1 : tablebase.probe(next);
+
+                if (child == -1)
+                    fastestWin = 1;
+                else {
+                    assertNotEquals(Tablebase.NOT_FOUND, child);
+
+                    if (Tablebase.isLoss(child))
+                        fastestWin = Math.min(fastestWin, Tablebase.distance(child) + 1);
+                    if (Tablebase.isWin(child))
+                        slowestLoss = Math.max(slowestLoss, Tablebase.distance(child) + 1);
+                    else
+                        allLost = false;
+                }
+            }
+
+            if (moves.isEmpty())
+                assertEquals(0, Tablebase.distance(value));
+            else if (fastestWin != Integer.MAX_VALUE) {
+                assertTrue(Tablebase.isWin(value));
+                assertEquals(fastestWin, Tablebase.distance(value));
+                wins++;
+            }
+            else if (allLost) {
+                assertTrue(Tablebase.isLoss(value));
+                assertEquals(slowestLoss, Tablebase.distance(value));
+                losses++;
+            }
+            else
+                assertEquals(Tablebase.DRAW, value);
+        }
+
+        assertTrue(wins > 100 && losses > 50);
+    }
+
+    @Test
+    public void searchAndHintPlayTheWin() throws IOException {
+        Tablebase tablebase = tablebase();
+        Random random = new Random(7);
+        int checked = 0;
+
+        while (checked < 20) {
+            GameState state = endgame(random);
+            int value = tablebase.probe(state);
+
+            if (!Tablebase.isWin(value) || Tablebase.distance(value) < 3)
+                continue;
+
+            SearchResult result = new AlphaBetaSearch(new TranspositionTable(1), Evaluation.standard(), tablebase)
+                    .search(state, 0, 2, new AtomicBoolean());
+            assertEquals(AlphaBetaSearch.WIN - Tablebase.distance(value), result.score());
+
+            Optional<Move> hint = tablebase.hint(state);
+            assertTrue(hint.isPresent());
+
+            int next = tablebase.probe(hint.get().execute(state));
+            assertTrue(Tablebase.isLoss(next));
+            assertEquals(Tablebase.distance(value) - 1, Tablebase.distance(next));
+            checked++;
+        }
+    }
+
+    @Test
+    public void coversOnlyEndgames() throws IOException {
+        Tablebase tablebase = tablebase();
+        GameState start = SETUP.startState(board());
+
+        assertEquals(3, tablebase.maxTroops());
+        assertEquals(11, tablebase.tables());
+        assertEquals(Tablebase.NOT_FOUND, tablebase.probe(start));
+        assertFalse(tablebase.hint(start).isPresent());
+
+        // Koncovka na desce bez hory v tabulkách není
+        GameState endgame = endgame(new Random(3));
+        GameState elsewhere = new GameState(new Board(4), endgame.army(PlayingSide.BLUE),
+                endgame.army(PlayingSide.ORANGE), endgame.sideOnTurn(), GameResult.IN_PLAY);
+
+        assertNotEquals(Tablebase.NOT_FOUND, tablebase.probe(endgame));
+        assertEquals(Tablebase.NOT_FOUND, tablebase.probe(elsewhere));
+        assertEquals(Tablebase.NOT_FOUND, tablebase.probe(endgame.resign()));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOtherFiles() throws IOException {
+        Path file = Files.createTempFile("thedrake", ".tb");
+
+        try {
+            Files.writeString(file, "material.default = 100\n");
+            Tablebase.open(file);
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+}
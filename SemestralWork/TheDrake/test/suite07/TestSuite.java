@@ -0,0 +1,26 @@
+package suite07;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+@RunWith(Suite.class)
+
+@Suite.SuiteClasses({
+        TranspositionTableTest.class,
+        PerftTest.class,
+        AlphaBetaSearchTest.class,
+        LazySmpSearchTest.class,
+        MctsSearchTest.class,
+        EvaluationTest.class,
+        QuiescenceTest.class,
+        TablebaseTest.class,
+        OpeningBookTest.class,
+        TournamentTest.class,
+        PonderingTest.class,
+        SearchStatisticsTest.class,
+        MoveOrderingTest.class
+})
+
+public class TestSuite {
+
+}
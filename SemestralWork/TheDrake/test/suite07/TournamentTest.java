@@ -0,0 +1,112 @@
+package suite07;
+
+import org.junit.Test;
+import thedrake.engines.interfaces.Engine;
+import thedrake.engines.perft.Perft;
+import thedrake.engines.search.SearchResult;
+import thedrake.engines.tournaments.Entrant;
+import thedrake.engines.tournaments.MatchScore;
+import thedrake.engines.tournaments.Tournament;
+import thedrake.models.moves.interfaces.Move;
+import thedrake.models.states.GameState;
+import thedrake.ui.ValidMoves;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class TournamentTest {
+
+    private static final GameState START = Perft.startState(4, List.of("b2"));
+
+    /**
+     * Engine hrající vždy první (nebo poslední) platný tah, případně čekající až do zrušení a ještě chvíli po něm.
+     */
+    private static Entrant entrant(String name, boolean last, long lateMillis) {
+        return new Entrant(name, () -> new Engine() {
+            @Override
+            public SearchResult search(GameState state, long millis, AtomicBoolean cancelled) {
+                List<Move> moves = new ValidMoves(state).allMoves();
+
+                if (lateMillis > 0) {
+                    while (!cancelled.get())
+                        Thread.onSpinWait();
+                    try {
+                        Thread.sleep(lateMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                Move move = moves.isEmpty() ? null : moves.get(last ? moves.size() - 1 : 0);
+                return new SearchResult(move, 0, 1, moves.size(), 0);
+            }
+
+            @Override
+            public void shutdown() {
+            }
+        });
+    }
+
+    @Test
+    public void estimatesElo() {
+        MatchScore even = new MatchScore(5, 2, 5);
+        MatchScore better = new MatchScore(3, 0, 1);
+
+        assertEquals(12, even.games());
+        assertEquals(0.5, even.score(), 1e-9);
+        assertEquals(0, even.elo(), 1e-9);
+        assertEquals(0.75, better.score(), 1e-9);
+        assertEquals(190.85, better.elo(), 0.01);
+        assertEquals(-190.85, new MatchScore(1, 0, 3).elo(), 0.01);
+
+        // Chyba odhadu se s počtem her zmenšuje
+        assertTrue(even.eloMargin() > 0);
+        assertTrue(new MatchScore(50, 20, 50).eloMargin() < even.eloMargin());
+        assertTrue(Double.isInfinite(new MatchScore(4, 0, 0).elo()));
+        assertTrue(Double.isInfinite(new MatchScore(0, 0, 0).eloMargin()));
+    }
+
+    @Test
+    public void playsGamesAndWritesResults() throws IOException {
+        Path results = Files.createTempFile("thedrake", ".csv");
+        results.toFile().deleteOnExit();
+
+        MatchScore score = new Tournament(START, entrant("first", false, 0), entrant("last", true, 0),
+                1000, 1000, 300).play(6, 3, results, null);
+        List<String> lines = Files.readAllLines(results);
+
+        assertEquals(6, score.games());
+        assertEquals(7, lines.size());
+        assertEquals("game,blue,orange,result,reason,plies,moves", lines.get(0));
+
+        for (String line : lines.subList(1, lines.size())) {
+            String[] fields = line.split(",");
+            int game = Integer.parseInt(fields[0]);
+
+            // Strany se střídají a počet zapsaných tahů odpovídá počtu půltahů
+            assertEquals(game % 2 == 0 ? "first" : "last", fields[1]);
+            assertEquals(game % 2 == 0 ? "last" : "first", fields[2]);
+            assertTrue(List.of("1-0", "0-1", "1/2-1/2").contains(fields[3]));
+            assertEquals(Integer.parseInt(fields[5]), fields[6].split(" ").length);
+        }
+    }
+
+    @Test
+    public void forfeitsLateMoves() throws IOException {
+        Path results = Files.createTempFile("thedrake", ".csv");
+        results.toFile().deleteOnExit();
+
+        MatchScore score = new Tournament(START, entrant("late", false, 100), entrant("first", false, 0),
+                20, 30, 300).play(4, 2, results, null);
+
+        // Hodiny zruší hledání, které by jinak neskončilo, a pozdní tah prohrává
+        assertEquals(4, score.losses());
+        for (String line : Files.readAllLines(results).subList(1, 5))
+            assertTrue(line.contains("time forfeit"));
+    }
+}
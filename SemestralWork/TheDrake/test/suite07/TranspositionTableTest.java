@@ -0,0 +1,127 @@
+package suite07;
+
+import org.junit.Test;
+import thedrake.engines.tables.TranspositionTable;
+import thedrake.models.boards.Board;
+import thedrake.models.positions.factories.PositionFactory;
+import thedrake.models.setups.StandardDrakeSetup;
+import thedrake.models.states.GameState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TranspositionTableTest {
+
+    @Test
+    public void sizeInMegabytes() {
+        assertEquals(1 << 16, new TranspositionTable(1).capacity());
+        assertEquals(1 << 18, new TranspositionTable(4).capacity());
+        assertEquals(1 << 18, new TranspositionTable(5).capacity());
+
+        try {
+            new TranspositionTable(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Tabulka musí mít alespoň jeden megabajt.
+        }
+    }
+
+    @Test
+    public void storeAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        GameState state = new StandardDrakeSetup().startState(new Board(4));
+        PositionFactory pf = state.board().positionFactory();
+        long key = state.zobristKey();
+        long other = state.placeFromStack(pf.pos("a1")).zobristKey();
+
+        assertEquals(TranspositionTable.MISS, table.probe(key));
+
+        table.store(key, 7, TranspositionTable.LOWER, -1234, 0xCAFE);
+        long data = table.probe(key);
+        assertNotEquals(TranspositionTable.MISS, data);
+        assertEquals(7, TranspositionTable.depth(data));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(data));
+        assertEquals(-1234, TranspositionTable.score(data));
+        assertEquals(0xCAFE, TranspositionTable.move(data));
+        assertEquals(TranspositionTable.MISS, table.probe(other));
+
+        // Uložení bez tahu zachová dříve nalezený nejlepší tah
+        table.store(key, 8, TranspositionTable.EXACT, 5, 0);
+        data = table.probe(key);
+        assertEquals(8, TranspositionTable.depth(data));
+        assertEquals(0xCAFE, TranspositionTable.move(data));
+
+        assertEquals(0.5, table.hitRate(), 1e-9);
+        assertEquals(4, table.probes());
+        assertEquals(2, table.stores());
+
+        table.clear();
+        assertEquals(TranspositionTable.MISS, table.probe(key));
+        assertEquals(0, table.fillRatio(), 0);
+    }
+
+    @Test
+    public void bucketReplacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        long bucket = table.capacity();
+        long deep = 42, shallow = 42 + bucket, third = 42 + 2 * bucket;
+
+        table.store(deep, 10, TranspositionTable.EXACT, 1, 1);
+        table.store(shallow, 2, TranspositionTable.EXACT, 2, 2);
+        table.store(third, 3, TranspositionTable.EXACT, 3, 3);
+
+        // Hluboký výsledek zůstává, druhé místo se vždy přepíše
+        assertEquals(1, TranspositionTable.move(table.probe(deep)));
+        assertEquals(TranspositionTable.MISS, table.probe(shallow));
+        assertEquals(3, TranspositionTable.move(table.probe(third)));
+        assertTrue(table.collisionRate() > 0);
+
+        // V novém hledání se starší hluboký výsledek nahradí
+        table.newSearch();
+        table.store(shallow, 1, TranspositionTable.EXACT, 2, 2);
+        assertEquals(2, TranspositionTable.move(table.probe(shallow)));
+        assertEquals(TranspositionTable.MISS, table.probe(deep));
+    }
+
+    @Test
+    public void concurrentAccessNeverReturnsForeignEntries() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        AtomicInteger corrupted = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < 4; t++) {
+            long seed = t;
+            threads.add(new Thread(() -> {
+                Random random = new Random(seed);
+
+                // Málo různých klíčů v malé tabulce, aby se vlákna co nejčastěji přepisovala
+                for (int i = 0; i < 500_000; i++) {
+                    long key = random.nextInt(1 << 12) * 0x9E3779B97F4A7C15L;
+                    int move = (int) (key >>> 32);
+
+                    if (random.nextBoolean())
+                        table.store(key, (int) (key & 0x3F), TranspositionTable.EXACT, (short) key, move);
+                    else {
+                        long data = table.probe(key);
+                        if (data != TranspositionTable.MISS && (TranspositionTable.move(data) != move ||
+                                TranspositionTable.score(data) != (short) key))
+                            corrupted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        for (Thread thread : threads)
+            thread.start();
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(0, corrupted.get());
+        assertTrue(table.hitRate() > 0);
+        assertTrue(table.fillRatio() > 0);
+    }
+}